@@ -0,0 +1,89 @@
+package com.ecommerce.analytics.config;
+
+import com.ecommerce.analytics.store.ColumnarEventStore;
+import com.ecommerce.shared.config.BaseKafkaConfig;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.idempotency.IdempotencyGuard;
+import com.ecommerce.shared.idempotency.IdempotentConsumerInterceptor;
+import com.ecommerce.shared.logging.CorrelationMdcRecordInterceptor;
+import com.ecommerce.shared.metrics.ConsumerMetricsInterceptor;
+import com.ecommerce.shared.priority.PriorityLaneInterceptor;
+import com.ecommerce.shared.routing.EventTypeFilter;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+
+@Configuration
+public class ColumnarStoreConfig {
+    
+    public static final String COLUMNAR_CONTAINER_FACTORY = "columnarListenerContainerFactory";
+    
+    @Value("${analytics.store.directory:./data/analytics-store}")
+    private String directory;
+    
+    @Value("${analytics.store.segment-rows:65536}")
+    private int segmentRows;
+    
+    @Value("${analytics.store.max-segment-age:PT1M}")
+    private Duration maxSegmentAge;
+    
+    @Bean(destroyMethod = "close")
+    public ColumnarEventStore columnarEventStore() throws IOException {
+        return new ColumnarEventStore(Path.of(directory), segmentRows, maxSegmentAge);
+    }
+    
+    // Offsets are committed only when the rows of their records are sealed to disk, so a crash replays
+    // whatever was still in the active segment instead of losing it. Discarded records, and records that
+    // still fail after the error handler's retries, are not acknowledged, as that would commit past rows
+    // not yet sealed; a later acknowledgment covers them. Revoked partitions seal first, so their offsets
+    // are committed before the new owner starts.
+    @Bean(COLUMNAR_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, BaseEvent> columnarListenerContainerFactory(
+            ConsumerFactory<String, BaseEvent> consumerFactory,
+            EventTypeFilter eventTypeFilter,
+            ColumnarEventStore columnarEventStore,
+            ConsumerMetricsInterceptor consumerMetricsInterceptor,
+            CorrelationMdcRecordInterceptor correlationMdcRecordInterceptor,
+            ObjectProvider<IdempotencyGuard> idempotencyGuard,
+            ObjectProvider<PriorityLaneInterceptor> priorityLaneInterceptor) {
+        ConcurrentKafkaListenerContainerFactory<String, BaseEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+            
+            @Override
+            public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer,
+                                                        Collection<TopicPartition> partitions) {
+                columnarEventStore.flush();
+            }
+        });
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler();
+        errorHandler.setAckAfterHandle(false);
+        factory.setCommonErrorHandler(errorHandler);
+        if (!eventTypeFilter.acceptsAll()) {
+            factory.setRecordFilterStrategy(eventTypeFilter);
+        }
+        // Duplicates are still skipped, but an event only counts as processed once its rows are sealed;
+        // AnalyticsEventHandler records it then, so a crash before the seal redelivers it
+        IdempotencyGuard guard = idempotencyGuard.getIfAvailable();
+        IdempotentConsumerInterceptor idempotentConsumerInterceptor =
+            guard != null ? new IdempotentConsumerInterceptor(guard, false) : null;
+        factory.setRecordInterceptor(BaseKafkaConfig.recordInterceptor(consumerMetricsInterceptor,
+            correlationMdcRecordInterceptor, idempotentConsumerInterceptor, priorityLaneInterceptor.getIfAvailable()));
+        return factory;
+    }
+}
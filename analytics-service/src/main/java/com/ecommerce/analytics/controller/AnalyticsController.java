@@ -0,0 +1,46 @@
+package com.ecommerce.analytics.controller;
+
+import com.ecommerce.analytics.store.ColumnarEventStore;
+import com.ecommerce.shared.enums.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.SortedMap;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+    
+    private final ColumnarEventStore columnarEventStore;
+    
+    @GetMapping("/revenue/hourly")
+    public ResponseEntity<SortedMap<Instant, BigDecimal>> getHourlyRevenue(
+            @RequestParam(defaultValue = "30") int days) {
+        if (days <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        Instant to = Instant.now();
+        Instant from = to.minus(Duration.ofDays(days));
+        return ResponseEntity.ok(columnarEventStore.revenueByHour(
+            from, to, "PAYMENT_PROCESSED", PaymentStatus.COMPLETED.name()));
+    }
+    
+    @GetMapping("/events/counts")
+    public ResponseEntity<Map<String, Long>> getEventCounts(
+            @RequestParam(defaultValue = "24") int hours) {
+        if (hours <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        Instant to = Instant.now();
+        return ResponseEntity.ok(columnarEventStore.countByEventType(to.minus(Duration.ofHours(hours)), to));
+    }
+}
\ No newline at end of file
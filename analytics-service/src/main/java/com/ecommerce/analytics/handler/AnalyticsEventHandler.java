@@ -0,0 +1,129 @@
+package com.ecommerce.analytics.handler;
+
+import com.ecommerce.analytics.config.ColumnarStoreConfig;
+import com.ecommerce.analytics.store.ColumnarEventStore;
+import com.ecommerce.analytics.store.EventRow;
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.enums.PaymentStatus;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.InventoryInsufficientEvent;
+import com.ecommerce.shared.events.InventoryReservedEvent;
+import com.ecommerce.shared.events.NotificationSentEvent;
+import com.ecommerce.shared.events.OrderCancelledEvent;
+import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.events.PaymentFailedEvent;
+import com.ecommerce.shared.events.PaymentProcessedEvent;
+import com.ecommerce.shared.idempotency.IdempotencyGuard;
+import com.ecommerce.shared.model.Money;
+import com.ecommerce.shared.model.OrderItem;
+import com.ecommerce.shared.routing.EventTypeRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneId;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class AnalyticsEventHandler {
+    
+    private final ColumnarEventStore columnarEventStore;
+    // Null unless ecommerce.kafka.idempotency.enabled
+    private final IdempotencyGuard idempotencyGuard;
+    private final EventTypeRouter router;
+    
+    public AnalyticsEventHandler(ColumnarEventStore columnarEventStore, EventJsonCodec eventJsonCodec,
+                                 ObjectProvider<IdempotencyGuard> idempotencyGuard) {
+        this.columnarEventStore = columnarEventStore;
+        this.idempotencyGuard = idempotencyGuard.getIfAvailable();
+        this.router = EventTypeRouter.builder(eventJsonCodec)
+            .on(OrderCreatedEvent.class, this::onOrderCreated)
+            .on(InventoryReservedEvent.class, event -> appendItems(event,
+                OrderStatus.INVENTORY_RESERVED.name(), event.getReservedItems()))
+            .on(InventoryInsufficientEvent.class, event -> appendItems(event,
+                OrderStatus.INVENTORY_INSUFFICIENT.name(), event.getUnavailableItems()))
+            .on(PaymentProcessedEvent.class, this::onPaymentProcessed)
+            .on(PaymentFailedEvent.class, event -> append(timestampOf(event), event,
+                PaymentStatus.FAILED.name(), null, toMinorUnits(event.getAmount()), 0))
+            .on(OrderCancelledEvent.class, event -> append(timestampOf(event), event,
+                OrderStatus.CANCELLED.name(), null, 0, 0))
+            .on(NotificationSentEvent.class, event -> append(timestampOf(event), event,
+                event.isSuccessful() ? "SENT" : "FAILED", null, 0, 0))
+            .otherwise(event -> log.warn("Ignoring unsupported event type: {}", event.getEventType()))
+            .build();
+    }
+    
+    @KafkaListener(topics = {
+        KafkaTopics.ORDER_CREATED,
+        KafkaTopics.ORDER_CREATED_EXPRESS,
+        KafkaTopics.ORDER_CANCELLED,
+        KafkaTopics.INVENTORY_RESERVED,
+        KafkaTopics.INVENTORY_RESERVED_EXPRESS,
+        KafkaTopics.INVENTORY_INSUFFICIENT,
+        KafkaTopics.PAYMENT_PROCESSED,
+        KafkaTopics.PAYMENT_FAILED,
+        KafkaTopics.NOTIFICATION_SENT
+    }, containerFactory = ColumnarStoreConfig.COLUMNAR_CONTAINER_FACTORY)
+    public void handleEvent(ConsumerRecord<String, BaseEvent> consumerRecord, Acknowledgment acknowledgment) {
+        router.dispatch(consumerRecord);
+        String eventId = consumerRecord.value() != null ? consumerRecord.value().getEventId() : null;
+        // Committed, and recorded as processed, once the record's rows are sealed: a crash before that
+        // redelivers the record rather than skipping it. Acknowledgments only move forward per partition.
+        columnarEventStore.whenSealed(() -> {
+            if (idempotencyGuard != null && eventId != null) {
+                idempotencyGuard.markProcessed(eventId);
+            }
+            acknowledgment.acknowledge();
+        });
+    }
+    
+    private void onOrderCreated(OrderCreatedEvent event) {
+        if (event.getItems() != null) {
+            long timestamp = timestampOf(event);
+            for (OrderItem item : event.getItems()) {
+                append(timestamp, event, OrderStatus.CREATED.name(), item.getProductId(),
+                    item.getTotal().toMinorUnits(RoundingMode.HALF_UP), item.getQuantity());
+            }
+        }
+    }
+    
+    private void onPaymentProcessed(PaymentProcessedEvent event) {
+        String status = event.getStatus() != null ? event.getStatus().name() : null;
+        append(timestampOf(event), event, status, null, toMinorUnits(event.getAmount()), 0);
+    }
+    
+    private static long timestampOf(BaseEvent event) {
+        return event.getTimestamp() != null
+            ? event.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+            : System.currentTimeMillis();
+    }
+    
+    private void appendItems(BaseEvent event, String status, Map<String, Integer> items) {
+        if (items == null) {
+            return;
+        }
+        long timestamp = timestampOf(event);
+        items.forEach((productId, quantity) ->
+            append(timestamp, event, status, productId, 0, quantity != null ? quantity : 0));
+    }
+    
+    private void append(long timestamp, BaseEvent event, String status, String productId,
+                        long amountMinor, int quantity) {
+        columnarEventStore.append(new EventRow(timestamp, event.getEventType(), status, productId, amountMinor, quantity));
+    }
+    
+    private static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return Money.of(amount).toMinorUnits(RoundingMode.HALF_UP);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,156 @@
+package com.ecommerce.analytics.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+
+final class ActiveSegment {
+    
+    private final int capacity;
+    private final long[] timestamps;
+    private final int[] eventTypes;
+    private final int[] statuses;
+    private final int[] productIds;
+    private final long[] amounts;
+    private final int[] quantities;
+    
+    private final ColumnDictionary eventTypeDictionary = new ColumnDictionary();
+    private final ColumnDictionary statusDictionary = new ColumnDictionary();
+    private final ColumnDictionary productDictionary = new ColumnDictionary();
+    
+    private final Cursor cursor = new Cursor();
+    
+    private int size;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+    
+    ActiveSegment(int capacity) {
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.eventTypes = new int[capacity];
+        this.statuses = new int[capacity];
+        this.productIds = new int[capacity];
+        this.amounts = new long[capacity];
+        this.quantities = new int[capacity];
+    }
+    
+    void append(EventRow row) {
+        if (isFull()) {
+            throw new IllegalStateException("Active segment is full");
+        }
+        timestamps[size] = row.getTimestamp();
+        eventTypes[size] = eventTypeDictionary.encode(row.getEventType());
+        statuses[size] = statusDictionary.encode(row.getStatus());
+        productIds[size] = productDictionary.encode(row.getProductId());
+        amounts[size] = row.getAmountMinor();
+        quantities[size] = row.getQuantity();
+        minTimestamp = Math.min(minTimestamp, row.getTimestamp());
+        maxTimestamp = Math.max(maxTimestamp, row.getTimestamp());
+        size++;
+    }
+    
+    boolean isFull() {
+        return size == capacity;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    void scan(long fromMillis, long toMillis, Set<String> eventTypeFilter, RowVisitor visitor) {
+        if (size == 0 || maxTimestamp < fromMillis || minTimestamp >= toMillis) {
+            return;
+        }
+        boolean[] acceptedTypes = ColumnarSegment.acceptedCodes(eventTypeDictionary, eventTypeFilter);
+        if (acceptedTypes != null && !ColumnarSegment.anyAccepted(acceptedTypes)) {
+            return;
+        }
+        for (int row = 0; row < size; row++) {
+            long timestamp = timestamps[row];
+            if (timestamp < fromMillis || timestamp >= toMillis) {
+                continue;
+            }
+            if (acceptedTypes != null && !acceptedTypes[eventTypes[row]]) {
+                continue;
+            }
+            cursor.row = row;
+            visitor.visit(cursor);
+        }
+    }
+    
+    // Writes every column to its own memory-mapped file, then publishes the segment atomically
+    ColumnarSegment seal(Path segmentDirectory, long segmentId) throws IOException {
+        Path staging = segmentDirectory.resolveSibling(segmentDirectory.getFileName() + ColumnarSegment.STAGING_SUFFIX);
+        Files.createDirectories(staging);
+        
+        byte[] timestampDeltas = ColumnEncoding.encodeDeltas(timestamps, size, minTimestamp);
+        ColumnEncoding.writeMapped(staging.resolve(Column.TIMESTAMP.fileName()), timestampDeltas.length,
+            buffer -> buffer.put(timestampDeltas));
+        writeCodes(staging, Column.EVENT_TYPE, eventTypes, eventTypeDictionary.width());
+        writeCodes(staging, Column.STATUS, statuses, statusDictionary.width());
+        writeCodes(staging, Column.PRODUCT_ID, productIds, productDictionary.width());
+        ColumnEncoding.writeMapped(staging.resolve(Column.AMOUNT.fileName()), size * Long.BYTES, buffer -> {
+            for (int row = 0; row < size; row++) {
+                buffer.putLong(amounts[row]);
+            }
+        });
+        ColumnEncoding.writeMapped(staging.resolve(Column.QUANTITY.fileName()), size * Integer.BYTES, buffer -> {
+            for (int row = 0; row < size; row++) {
+                buffer.putInt(quantities[row]);
+            }
+        });
+        
+        SegmentMetadata metadata = new SegmentMetadata(segmentId, size, minTimestamp, maxTimestamp,
+            eventTypeDictionary, statusDictionary, productDictionary);
+        metadata.writeTo(staging.resolve(SegmentMetadata.FILE_NAME));
+        
+        Files.move(staging, segmentDirectory, StandardCopyOption.ATOMIC_MOVE);
+        return new ColumnarSegment(segmentDirectory, metadata);
+    }
+    
+    private void writeCodes(Path directory, Column column, int[] codes, int width) throws IOException {
+        ColumnEncoding.writeMapped(directory.resolve(column.fileName()), size * width, buffer -> {
+            for (int row = 0; row < size; row++) {
+                ColumnEncoding.writeCode(buffer, codes[row], width);
+            }
+        });
+    }
+    
+    private final class Cursor implements RowCursor {
+        
+        private int row;
+        
+        @Override
+        public long timestamp() {
+            return timestamps[row];
+        }
+        
+        @Override
+        public String eventType() {
+            return eventTypeDictionary.decode(eventTypes[row]);
+        }
+        
+        @Override
+        public String status() {
+            return statusDictionary.decode(statuses[row]);
+        }
+        
+        @Override
+        public String productId() {
+            return productDictionary.decode(productIds[row]);
+        }
+        
+        @Override
+        public long amountMinor() {
+            return amounts[row];
+        }
+        
+        @Override
+        public int quantity() {
+            return quantities[row];
+        }
+    }
+}
\ No newline at end of file
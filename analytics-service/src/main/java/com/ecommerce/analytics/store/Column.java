@@ -0,0 +1,20 @@
+package com.ecommerce.analytics.store;
+
+public enum Column {
+    TIMESTAMP("timestamp.col"),
+    EVENT_TYPE("event_type.col"),
+    STATUS("status.col"),
+    PRODUCT_ID("product_id.col"),
+    AMOUNT("amount.col"),
+    QUANTITY("quantity.col");
+    
+    private final String fileName;
+    
+    Column(String fileName) {
+        this.fileName = fileName;
+    }
+    
+    public String fileName() {
+        return fileName;
+    }
+}
\ No newline at end of file
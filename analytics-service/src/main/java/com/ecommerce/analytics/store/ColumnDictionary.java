@@ -0,0 +1,75 @@
+package com.ecommerce.analytics.store;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class ColumnDictionary {
+    
+    // Code 0 is reserved for absent (null) values
+    static final int ABSENT = 0;
+    
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    
+    ColumnDictionary() {
+        values.add(null);
+    }
+    
+    int encode(String value) {
+        if (value == null) {
+            return ABSENT;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+    
+    int lookup(String value) {
+        if (value == null) {
+            return ABSENT;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : -1;
+    }
+    
+    String decode(int code) {
+        return values.get(code);
+    }
+    
+    int size() {
+        return values.size();
+    }
+    
+    // Fixed width in bytes of each code in the column file
+    int width() {
+        if (values.size() <= 0x100) {
+            return 1;
+        }
+        return values.size() <= 0x10000 ? 2 : 4;
+    }
+    
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(values.size() - 1);
+        for (int i = 1; i < values.size(); i++) {
+            out.writeUTF(values.get(i));
+        }
+    }
+    
+    static ColumnDictionary readFrom(DataInput in) throws IOException {
+        ColumnDictionary dictionary = new ColumnDictionary();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            dictionary.encode(in.readUTF());
+        }
+        return dictionary;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.ecommerce.analytics.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+final class ColumnEncoding {
+    
+    private ColumnEncoding() {
+        // Utility class
+    }
+    
+    // Timestamps are stored as zig-zag varint deltas from the previous row
+    static byte[] encodeDeltas(long[] values, int count, long base) {
+        byte[] out = new byte[Math.max(16, count * 3)];
+        int position = 0;
+        long previous = base;
+        for (int i = 0; i < count; i++) {
+            long delta = values[i] - previous;
+            previous = values[i];
+            long zigZag = (delta << 1) ^ (delta >> 63);
+            if (position + 10 > out.length) {
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            while ((zigZag & ~0x7FL) != 0) {
+                out[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+                zigZag >>>= 7;
+            }
+            out[position++] = (byte) zigZag;
+        }
+        return Arrays.copyOf(out, position);
+    }
+    
+    // Reads the next zig-zag varint delta at the buffer's position
+    static long readDelta(ByteBuffer buffer) {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (result >>> 1) ^ -(result & 1);
+    }
+    
+    static void writeCode(ByteBuffer buffer, int code, int width) {
+        switch (width) {
+            case 1 -> buffer.put((byte) code);
+            case 2 -> buffer.putShort((short) code);
+            default -> buffer.putInt(code);
+        }
+    }
+    
+    static int readCode(ByteBuffer buffer, int row, int width) {
+        return switch (width) {
+            case 1 -> buffer.get(row) & 0xFF;
+            case 2 -> buffer.getShort(row << 1) & 0xFFFF;
+            default -> buffer.getInt(row << 2);
+        };
+    }
+    
+    static void writeMapped(Path file, int length, Consumer<ByteBuffer> writer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            writer.accept(buffer);
+            buffer.force();
+        }
+    }
+    
+    static MappedByteBuffer mapReadOnly(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
\ No newline at end of file
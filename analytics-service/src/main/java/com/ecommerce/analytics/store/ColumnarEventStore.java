@@ -0,0 +1,248 @@
+package com.ecommerce.analytics.store;
+
+import com.ecommerce.shared.model.Money;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Slf4j
+public class ColumnarEventStore implements Closeable {
+    
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final long HOUR_MILLIS = Duration.ofHours(1).toMillis();
+    
+    private final Path directory;
+    private final int segmentRows;
+    private final List<ColumnarSegment> sealedSegments = new CopyOnWriteArrayList<>();
+    private final long maxSegmentAgeNanos;
+    private final ScheduledExecutorService sealer;
+    
+    private ActiveSegment activeSegment;
+    // Full or expired segments whose seal failed, oldest first, retried on the next roll; they stay
+    // queryable and keep their rows' callbacks waiting, while new rows go to a fresh active segment
+    private final Deque<ActiveSegment> unsealedSegments = new ArrayDeque<>();
+    private long activeSince;
+    // Run once the active segment's rows are on disk, e.g. to commit the offsets they came from
+    private List<Runnable> sealCallbacks = new ArrayList<>();
+    private long nextSegmentId;
+    
+    public ColumnarEventStore(Path directory, int segmentRows) throws IOException {
+        this(directory, segmentRows, null);
+    }
+    
+    // With a maxSegmentAge the active segment is also sealed once its oldest row is that old, checked every
+    // half of it, so no row waits on the heap much longer however slowly rows arrive
+    public ColumnarEventStore(Path directory, int segmentRows, Duration maxSegmentAge) throws IOException {
+        if (segmentRows <= 0) {
+            throw new IllegalArgumentException("Segment rows must be positive");
+        }
+        if (maxSegmentAge != null && (maxSegmentAge.isNegative() || maxSegmentAge.isZero())) {
+            throw new IllegalArgumentException("Max segment age must be positive");
+        }
+        this.directory = directory;
+        this.segmentRows = segmentRows;
+        Files.createDirectories(directory);
+        loadSegments();
+        this.activeSegment = new ActiveSegment(segmentRows);
+        this.maxSegmentAgeNanos = maxSegmentAge != null ? maxSegmentAge.toNanos() : Long.MAX_VALUE;
+        if (maxSegmentAge != null) {
+            this.sealer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "columnar-sealer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long checkMillis = Math.max(1, maxSegmentAge.toMillis() / 2);
+            sealer.scheduleWithFixedDelay(this::sealExpired, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.sealer = null;
+        }
+    }
+    
+    private void loadSegments() throws IOException {
+        List<ColumnarSegment> segments = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path entry : entries) {
+                if (entry.getFileName().toString().endsWith(ColumnarSegment.STAGING_SUFFIX)) {
+                    // Left over from a seal interrupted by a crash
+                    deleteRecursively(entry);
+                    continue;
+                }
+                segments.add(ColumnarSegment.open(entry));
+            }
+        }
+        segments.sort(Comparator.comparingLong(ColumnarSegment::segmentId));
+        sealedSegments.addAll(segments);
+        nextSegmentId = segments.isEmpty() ? 1 : segments.get(segments.size() - 1).segmentId() + 1;
+        log.info("Loaded {} columnar segments from {}", segments.size(), directory);
+    }
+    
+    // The row is kept even when sealing its segment fails, so the caller never retries an appended row
+    public synchronized void append(EventRow row) {
+        if (activeSegment.size() == 0) {
+            activeSince = System.nanoTime();
+        }
+        activeSegment.append(row);
+        if (activeSegment.isFull()) {
+            try {
+                roll();
+            } catch (UncheckedIOException e) {
+                log.warn("Failed to seal segment, {} kept on the heap until a seal succeeds",
+                    unsealedSegments.size(), e);
+            }
+        }
+    }
+    
+    // Runs the callback once every row appended so far is sealed: at once if none is waiting
+    public synchronized void whenSealed(Runnable callback) {
+        if (activeSegment.size() == 0 && unsealedSegments.isEmpty()) {
+            callback.run();
+        } else {
+            sealCallbacks.add(callback);
+        }
+    }
+    
+    public synchronized void flush() {
+        roll();
+    }
+    
+    private synchronized void sealExpired() {
+        try {
+            if (!unsealedSegments.isEmpty()
+                || activeSegment.size() > 0 && System.nanoTime() - activeSince >= maxSegmentAgeNanos) {
+                roll();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to seal expired segment", e);
+        }
+    }
+    
+    // Seals the active segment and any left by failed seals, in order. A failed attempt leaves its staging
+    // directory to the startup cleanup and the next attempt takes a new segment id.
+    private void roll() {
+        if (activeSegment.size() > 0) {
+            unsealedSegments.add(activeSegment);
+            activeSegment = new ActiveSegment(segmentRows);
+        }
+        while (!unsealedSegments.isEmpty()) {
+            long segmentId = nextSegmentId++;
+            Path segmentDirectory = directory.resolve(String.format("%s%012d", SEGMENT_PREFIX, segmentId));
+            try {
+                sealedSegments.add(unsealedSegments.peek().seal(segmentDirectory, segmentId));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to seal segment " + segmentDirectory, e);
+            }
+            unsealedSegments.remove();
+        }
+        List<Runnable> callbacks = sealCallbacks;
+        sealCallbacks = new ArrayList<>();
+        for (Runnable callback : callbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                log.warn("Segment seal callback failed", e);
+            }
+        }
+    }
+    
+    // Visits rows with fromMillis <= timestamp < toMillis; a null eventTypes filter accepts every type. The
+    // sealed segments are listed under the same lock as the heap rows are read, so a concurrent roll cannot
+    // move rows out of the heap between the two; the sealed segments themselves are read without it.
+    public void scan(long fromMillis, long toMillis, Set<String> eventTypes, Set<Column> columns, RowVisitor visitor) {
+        List<ColumnarSegment> sealed;
+        synchronized (this) {
+            sealed = List.copyOf(sealedSegments);
+            for (ActiveSegment segment : unsealedSegments) {
+                segment.scan(fromMillis, toMillis, eventTypes, visitor);
+            }
+            activeSegment.scan(fromMillis, toMillis, eventTypes, visitor);
+        }
+        for (ColumnarSegment segment : sealed) {
+            if (segment.overlaps(fromMillis, toMillis) && segment.mayContain(eventTypes)) {
+                segment.scan(fromMillis, toMillis, eventTypes, columns, visitor);
+            }
+        }
+    }
+    
+    public SortedMap<Instant, BigDecimal> revenueByHour(Instant from, Instant to, String eventType, String status) {
+        long fromMillis = from.toEpochMilli() - Math.floorMod(from.toEpochMilli(), HOUR_MILLIS);
+        long toMillis = to.toEpochMilli();
+        int buckets = (int) ((toMillis - fromMillis + HOUR_MILLIS - 1) / HOUR_MILLIS);
+        Money.Accumulator[] totals = new Money.Accumulator[Math.max(buckets, 0)];
+        
+        Set<Column> columns = status != null
+            ? EnumSet.of(Column.AMOUNT, Column.STATUS)
+            : EnumSet.of(Column.AMOUNT);
+        scan(fromMillis, toMillis, eventType != null ? Set.of(eventType) : null, columns, row -> {
+            if (status != null && !status.equals(row.status())) {
+                return;
+            }
+            int bucket = (int) ((row.timestamp() - fromMillis) / HOUR_MILLIS);
+            if (totals[bucket] == null) {
+                totals[bucket] = Money.accumulator();
+            }
+            totals[bucket].add(row.amountMinor());
+        });
+        
+        SortedMap<Instant, BigDecimal> revenue = new TreeMap<>();
+        for (int bucket = 0; bucket < totals.length; bucket++) {
+            if (totals[bucket] != null) {
+                revenue.put(Instant.ofEpochMilli(fromMillis + bucket * HOUR_MILLIS), totals[bucket].total().toBigDecimal());
+            }
+        }
+        return revenue;
+    }
+    
+    public Map<String, Long> countByEventType(Instant from, Instant to) {
+        Map<String, long[]> counts = new HashMap<>();
+        scan(from.toEpochMilli(), to.toEpochMilli(), null, EnumSet.of(Column.EVENT_TYPE),
+            row -> counts.computeIfAbsent(row.eventType(), type -> new long[1])[0]++);
+        
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((eventType, count) -> result.put(eventType, count[0]));
+        return result;
+    }
+    
+    public int segmentCount() {
+        return sealedSegments.size();
+    }
+    
+    @Override
+    public void close() {
+        if (sealer != null) {
+            sealer.shutdownNow();
+        }
+        flush();
+    }
+    
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path entry : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(entry);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.ecommerce.analytics.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+final class ColumnarSegment {
+    
+    static final String STAGING_SUFFIX = ".staging";
+    
+    private final Path directory;
+    private final SegmentMetadata metadata;
+    private final Map<Column, MappedByteBuffer> mappedColumns = new EnumMap<>(Column.class);
+    
+    ColumnarSegment(Path directory, SegmentMetadata metadata) {
+        this.directory = directory;
+        this.metadata = metadata;
+    }
+    
+    static ColumnarSegment open(Path directory) throws IOException {
+        return new ColumnarSegment(directory, SegmentMetadata.readFrom(directory.resolve(SegmentMetadata.FILE_NAME)));
+    }
+    
+    long segmentId() {
+        return metadata.segmentId;
+    }
+    
+    int rowCount() {
+        return metadata.rowCount;
+    }
+    
+    boolean overlaps(long fromMillis, long toMillis) {
+        return metadata.maxTimestamp >= fromMillis && metadata.minTimestamp < toMillis;
+    }
+    
+    boolean mayContain(Set<String> eventTypeFilter) {
+        if (eventTypeFilter == null) {
+            return true;
+        }
+        for (String eventType : eventTypeFilter) {
+            if (metadata.eventTypes.lookup(eventType) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Only the requested columns are mapped and decoded; timestamps are always read for range filtering
+    void scan(long fromMillis, long toMillis, Set<String> eventTypeFilter, Set<Column> columns, RowVisitor visitor) {
+        boolean[] acceptedTypes = acceptedCodes(metadata.eventTypes, eventTypeFilter);
+        ByteBuffer timestamps = column(Column.TIMESTAMP);
+        ByteBuffer eventTypes = acceptedTypes != null || columns.contains(Column.EVENT_TYPE)
+            ? column(Column.EVENT_TYPE) : null;
+        
+        Cursor cursor = new Cursor(
+            eventTypes,
+            columns.contains(Column.STATUS) ? column(Column.STATUS) : null,
+            columns.contains(Column.PRODUCT_ID) ? column(Column.PRODUCT_ID) : null,
+            columns.contains(Column.AMOUNT) ? column(Column.AMOUNT) : null,
+            columns.contains(Column.QUANTITY) ? column(Column.QUANTITY) : null
+        );
+        
+        int eventTypeWidth = metadata.eventTypes.width();
+        long timestamp = metadata.minTimestamp;
+        for (int row = 0; row < metadata.rowCount; row++) {
+            timestamp += ColumnEncoding.readDelta(timestamps);
+            if (timestamp < fromMillis || timestamp >= toMillis) {
+                continue;
+            }
+            if (acceptedTypes != null && !acceptedTypes[ColumnEncoding.readCode(eventTypes, row, eventTypeWidth)]) {
+                continue;
+            }
+            cursor.row = row;
+            cursor.timestamp = timestamp;
+            visitor.visit(cursor);
+        }
+    }
+    
+    // Buffers are shared between scans, so each scan works on its own duplicate
+    private ByteBuffer column(Column column) {
+        MappedByteBuffer mapped;
+        synchronized (mappedColumns) {
+            mapped = mappedColumns.get(column);
+            if (mapped == null) {
+                try {
+                    mapped = ColumnEncoding.mapReadOnly(directory.resolve(column.fileName()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to map column " + column + " of " + directory, e);
+                }
+                mappedColumns.put(column, mapped);
+            }
+        }
+        return mapped.duplicate();
+    }
+    
+    static boolean[] acceptedCodes(ColumnDictionary dictionary, Set<String> eventTypeFilter) {
+        if (eventTypeFilter == null) {
+            return null;
+        }
+        boolean[] accepted = new boolean[dictionary.size()];
+        for (String eventType : eventTypeFilter) {
+            int code = dictionary.lookup(eventType);
+            if (code > 0) {
+                accepted[code] = true;
+            }
+        }
+        return accepted;
+    }
+    
+    static boolean anyAccepted(boolean[] accepted) {
+        for (boolean value : accepted) {
+            if (value) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private final class Cursor implements RowCursor {
+        
+        private final ByteBuffer eventTypes;
+        private final ByteBuffer statuses;
+        private final ByteBuffer productIds;
+        private final ByteBuffer amounts;
+        private final ByteBuffer quantities;
+        
+        private int row;
+        private long timestamp;
+        
+        private Cursor(ByteBuffer eventTypes, ByteBuffer statuses, ByteBuffer productIds,
+                       ByteBuffer amounts, ByteBuffer quantities) {
+            this.eventTypes = eventTypes;
+            this.statuses = statuses;
+            this.productIds = productIds;
+            this.amounts = amounts;
+            this.quantities = quantities;
+        }
+        
+        @Override
+        public long timestamp() {
+            return timestamp;
+        }
+        
+        @Override
+        public String eventType() {
+            return metadata.eventTypes.decode(
+                ColumnEncoding.readCode(require(eventTypes, Column.EVENT_TYPE), row, metadata.eventTypes.width()));
+        }
+        
+        @Override
+        public String status() {
+            return metadata.statuses.decode(
+                ColumnEncoding.readCode(require(statuses, Column.STATUS), row, metadata.statuses.width()));
+        }
+        
+        @Override
+        public String productId() {
+            return metadata.productIds.decode(
+                ColumnEncoding.readCode(require(productIds, Column.PRODUCT_ID), row, metadata.productIds.width()));
+        }
+        
+        @Override
+        public long amountMinor() {
+            return require(amounts, Column.AMOUNT).getLong(row * Long.BYTES);
+        }
+        
+        @Override
+        public int quantity() {
+            return require(quantities, Column.QUANTITY).getInt(row * Integer.BYTES);
+        }
+        
+        private ByteBuffer require(ByteBuffer buffer, Column column) {
+            if (buffer == null) {
+                throw new IllegalStateException("Column " + column + " was not requested for this scan");
+            }
+            return buffer;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.ecommerce.analytics.store;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventRow {
+    
+    private long timestamp; // epoch millis
+    private String eventType;
+    private String status;
+    private String productId;
+    private long amountMinor; // amount in minor currency units (cents)
+    private int quantity;
+}
\ No newline at end of file
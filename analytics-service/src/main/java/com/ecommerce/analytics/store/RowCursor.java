@@ -0,0 +1,16 @@
+package com.ecommerce.analytics.store;
+
+public interface RowCursor {
+    
+    long timestamp();
+    
+    String eventType();
+    
+    String status();
+    
+    String productId();
+    
+    long amountMinor();
+    
+    int quantity();
+}
\ No newline at end of file
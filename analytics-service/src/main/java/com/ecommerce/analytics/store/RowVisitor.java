@@ -0,0 +1,7 @@
+package com.ecommerce.analytics.store;
+
+@FunctionalInterface
+public interface RowVisitor {
+    
+    void visit(RowCursor row);
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.ecommerce.analytics.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+final class SegmentMetadata {
+    
+    static final String FILE_NAME = "segment.meta";
+    
+    private static final int MAGIC = 0x45564353; // "EVCS"
+    private static final int VERSION = 1;
+    
+    final long segmentId;
+    final int rowCount;
+    final long minTimestamp;
+    final long maxTimestamp;
+    final ColumnDictionary eventTypes;
+    final ColumnDictionary statuses;
+    final ColumnDictionary productIds;
+    
+    SegmentMetadata(long segmentId, int rowCount, long minTimestamp, long maxTimestamp,
+                    ColumnDictionary eventTypes, ColumnDictionary statuses, ColumnDictionary productIds) {
+        this.segmentId = segmentId;
+        this.rowCount = rowCount;
+        this.minTimestamp = minTimestamp;
+        this.maxTimestamp = maxTimestamp;
+        this.eventTypes = eventTypes;
+        this.statuses = statuses;
+        this.productIds = productIds;
+    }
+    
+    void writeTo(Path file) throws IOException {
+        try (FileOutputStream fileOut = new FileOutputStream(file.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(segmentId);
+            out.writeInt(rowCount);
+            out.writeLong(minTimestamp);
+            out.writeLong(maxTimestamp);
+            eventTypes.writeTo(out);
+            statuses.writeTo(out);
+            productIds.writeTo(out);
+            out.flush();
+            fileOut.getFD().sync();
+        }
+    }
+    
+    static SegmentMetadata readFrom(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a columnar segment: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported segment version " + version + ": " + file);
+            }
+            long segmentId = in.readLong();
+            int rowCount = in.readInt();
+            long minTimestamp = in.readLong();
+            long maxTimestamp = in.readLong();
+            ColumnDictionary eventTypes = ColumnDictionary.readFrom(in);
+            ColumnDictionary statuses = ColumnDictionary.readFrom(in);
+            ColumnDictionary productIds = ColumnDictionary.readFrom(in);
+            return new SegmentMetadata(segmentId, rowCount, minTimestamp, maxTimestamp,
+                eventTypes, statuses, productIds);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.ecommerce.analytics.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarEventStoreTest {
+    
+    private static final Instant BASE = Instant.parse("2025-01-01T00:00:00Z");
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void shouldAggregateRevenueByHourAcrossSealedAndActiveSegments() throws Exception {
+        // Given
+        ColumnarEventStore store = new ColumnarEventStore(directory, 4);
+        store.append(row(0, "PAYMENT_PROCESSED", "COMPLETED", 1000));
+        store.append(row(10, "PAYMENT_PROCESSED", "COMPLETED", 2550));
+        store.append(row(20, "PAYMENT_PROCESSED", "FAILED", 9999));
+        store.append(row(30, "ORDER_CREATED", "CREATED", 5000));
+        store.append(row(70, "PAYMENT_PROCESSED", "COMPLETED", 499));
+        
+        // When
+        SortedMap<Instant, BigDecimal> revenue = store.revenueByHour(
+            BASE, BASE.plus(Duration.ofHours(3)), "PAYMENT_PROCESSED", "COMPLETED");
+        
+        // Then
+        assertEquals(1, store.segmentCount());
+        assertEquals(2, revenue.size());
+        assertEquals(new BigDecimal("35.50"), revenue.get(BASE));
+        assertEquals(new BigDecimal("4.99"), revenue.get(BASE.plus(Duration.ofHours(1))));
+    }
+    
+    @Test
+    void shouldRestoreSealedSegmentsAfterReopen() throws Exception {
+        // Given
+        ColumnarEventStore store = new ColumnarEventStore(directory, 1024);
+        for (int i = 0; i < 100; i++) {
+            store.append(row(i, i % 2 == 0 ? "ORDER_CREATED" : "ORDER_CANCELLED", "CREATED", 100));
+        }
+        store.close();
+        
+        // When
+        ColumnarEventStore reopened = new ColumnarEventStore(directory, 1024);
+        Map<String, Long> counts = reopened.countByEventType(BASE, BASE.plus(Duration.ofDays(1)));
+        
+        // Then
+        assertEquals(1, reopened.segmentCount());
+        assertEquals(50L, counts.get("ORDER_CREATED"));
+        assertEquals(50L, counts.get("ORDER_CANCELLED"));
+    }
+    
+    @Test
+    void shouldPruneSegmentsOutsideTimeRangeAndEventTypes() throws Exception {
+        // Given
+        ColumnarEventStore store = new ColumnarEventStore(directory, 2);
+        store.append(row(0, "ORDER_CREATED", "CREATED", 100));
+        store.append(row(1, "ORDER_CREATED", "CREATED", 100));
+        store.append(row(120, "PAYMENT_PROCESSED", "COMPLETED", 100));
+        store.append(row(121, "PAYMENT_PROCESSED", "COMPLETED", 100));
+        
+        // When
+        AtomicInteger visited = new AtomicInteger();
+        store.scan(BASE.toEpochMilli(), BASE.plus(Duration.ofDays(1)).toEpochMilli(),
+            Set.of("NOTIFICATION_SENT"), EnumSet.of(Column.AMOUNT), row -> visited.incrementAndGet());
+        store.scan(BASE.plus(Duration.ofHours(1)).toEpochMilli(), BASE.plus(Duration.ofDays(1)).toEpochMilli(),
+            null, EnumSet.of(Column.AMOUNT), row -> visited.incrementAndGet());
+        
+        // Then
+        assertEquals(2, store.segmentCount());
+        assertEquals(2, visited.get());
+    }
+    
+    @Test
+    void shouldRejectAccessToColumnsThatWereNotRequested() throws Exception {
+        // Given
+        ColumnarEventStore store = new ColumnarEventStore(directory, 1);
+        store.append(row(0, "ORDER_CREATED", "CREATED", 100));
+        
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> store.scan(
+            BASE.toEpochMilli(), BASE.plus(Duration.ofHours(1)).toEpochMilli(),
+            null, EnumSet.of(Column.AMOUNT), RowCursor::productId));
+    }
+    
+    @Test
+    void shouldSumRevenueOfEveryEventTypeWhenNoneIsGiven() throws Exception {
+        // Given
+        ColumnarEventStore store = new ColumnarEventStore(directory, 16);
+        store.append(row(0, "PAYMENT_PROCESSED", "COMPLETED", 1000));
+        store.append(row(10, "PAYMENT_FAILED", "FAILED", 250));
+        
+        // When
+        SortedMap<Instant, BigDecimal> revenue = store.revenueByHour(BASE, BASE.plus(Duration.ofHours(1)), null, null);
+        
+        // Then
+        assertEquals(new BigDecimal("12.50"), revenue.get(BASE));
+    }
+    
+    @Test
+    void shouldRunSealCallbacksOnlyOnceTheirRowsAreSealed() throws Exception {
+        // Given
+        ColumnarEventStore store = new ColumnarEventStore(directory, 2);
+        AtomicInteger sealed = new AtomicInteger();
+        store.whenSealed(sealed::incrementAndGet);
+        store.append(row(0, "ORDER_CREATED", "CREATED", 100));
+        store.whenSealed(sealed::incrementAndGet);
+        
+        // When
+        int beforeSeal = sealed.get();
+        store.append(row(1, "ORDER_CREATED", "CREATED", 100));
+        
+        // Then
+        assertEquals(1, beforeSeal);
+        assertEquals(2, sealed.get());
+        assertEquals(1, store.segmentCount());
+    }
+    
+    @Test
+    void shouldSealActiveSegmentOnceItsOldestRowReachesMaxAge() throws Exception {
+        // Given
+        ColumnarEventStore store = new ColumnarEventStore(directory, 1024, Duration.ofMillis(50));
+        AtomicInteger sealed = new AtomicInteger();
+        store.append(row(0, "ORDER_CREATED", "CREATED", 100));
+        store.whenSealed(sealed::incrementAndGet);
+        
+        // When
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (sealed.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        
+        // Then
+        assertEquals(1, sealed.get());
+        assertEquals(1, store.segmentCount());
+        store.close();
+    }
+    
+    @Test
+    void shouldKeepAcceptingRowsAfterAFailedSeal() throws Exception {
+        // Given
+        ColumnarEventStore store = new ColumnarEventStore(directory, 2);
+        // A file where the first segment's staging directory goes makes its seal fail
+        Files.createFile(directory.resolve("segment-000000000001.staging"));
+        AtomicInteger sealed = new AtomicInteger();
+        store.append(row(0, "ORDER_CREATED", "CREATED", 100));
+        store.append(row(1, "ORDER_CREATED", "CREATED", 100));
+        store.whenSealed(sealed::incrementAndGet);
+        
+        // When
+        int afterFailedSeal = sealed.get();
+        Map<String, Long> countsWhileUnsealed = store.countByEventType(BASE, BASE.plus(Duration.ofHours(1)));
+        store.append(row(2, "ORDER_CREATED", "CREATED", 100));
+        store.append(row(3, "ORDER_CREATED", "CREATED", 100));
+        
+        // Then
+        assertEquals(0, afterFailedSeal);
+        assertEquals(Map.of("ORDER_CREATED", 2L), countsWhileUnsealed);
+        assertEquals(1, sealed.get());
+        assertEquals(2, store.segmentCount());
+        assertEquals(Map.of("ORDER_CREATED", 4L), store.countByEventType(BASE, BASE.plus(Duration.ofHours(1))));
+    }
+    
+    private static EventRow row(int minutes, String eventType, String status, long amountMinor) {
+        long timestamp = BASE.plus(Duration.ofMinutes(minutes)).toEpochMilli();
+        return new EventRow(timestamp, eventType, status, "product-" + (minutes % 3), amountMinor, 1);
+    }
+}
\ No newline at end of file
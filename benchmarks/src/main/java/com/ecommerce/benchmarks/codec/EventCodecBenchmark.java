@@ -0,0 +1,105 @@
+package com.ecommerce.benchmarks.codec;
+
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.codec.EventJsonDeserializer;
+import com.ecommerce.shared.codec.EventJsonSerializer;
+import com.ecommerce.shared.enums.NotificationType;
+import com.ecommerce.shared.enums.PaymentStatus;
+import com.ecommerce.shared.events.*;
+import com.ecommerce.shared.model.OrderItem;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Serialize and deserialize cost per event type: Spring Kafka's JsonSerializer/JsonDeserializer
+// (polymorphic BaseEvent resolution) versus EventJsonCodec (typed readers selected by header).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EventCodecBenchmark {
+    
+    private static final String TOPIC = "benchmark";
+    
+    @Param({
+        "ORDER_CREATED", "ORDER_CANCELLED", "INVENTORY_RESERVED", "INVENTORY_INSUFFICIENT",
+        "PAYMENT_PROCESSED", "PAYMENT_FAILED", "NOTIFICATION_SENT"
+    })
+    private String eventType;
+    
+    private BaseEvent event;
+    private RecordHeaders headers;
+    private byte[] springBytes;
+    private byte[] codecBytes;
+    
+    private JsonSerializer<BaseEvent> springSerializer;
+    private JsonDeserializer<BaseEvent> springDeserializer;
+    private EventJsonSerializer codecSerializer;
+    private EventJsonDeserializer codecDeserializer;
+    
+    @Setup
+    public void setUp() {
+        springSerializer = new JsonSerializer<>();
+        springSerializer.setAddTypeInfo(false);
+        springDeserializer = new JsonDeserializer<>(BaseEvent.class);
+        springDeserializer.addTrustedPackages("com.ecommerce.shared.events");
+        EventJsonCodec codec = new EventJsonCodec();
+        codecSerializer = new EventJsonSerializer(codec);
+        codecDeserializer = new EventJsonDeserializer(codec);
+        
+        event = sampleEvent(eventType);
+        headers = new RecordHeaders();
+        codecBytes = codecSerializer.serialize(TOPIC, headers, event);
+        springBytes = springSerializer.serialize(TOPIC, event);
+    }
+    
+    @Benchmark
+    public byte[] springSerialize() {
+        return springSerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+    
+    @Benchmark
+    public byte[] codecSerialize() {
+        return codecSerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+    
+    @Benchmark
+    public BaseEvent springDeserialize() {
+        return springDeserializer.deserialize(TOPIC, new RecordHeaders(), springBytes);
+    }
+    
+    @Benchmark
+    public BaseEvent codecDeserialize() {
+        return codecDeserializer.deserialize(TOPIC, headers, codecBytes);
+    }
+    
+    private static BaseEvent sampleEvent(String eventType) {
+        return switch (eventType) {
+            case "ORDER_CREATED" -> new OrderCreatedEvent("corr-1", "order-1", "customer-1", List.of(
+                new OrderItem("product-1", "Wireless Mouse", 2, new BigDecimal("24.99")),
+                new OrderItem("product-2", "USB-C Cable", 3, new BigDecimal("9.99")),
+                new OrderItem("product-3", "Laptop Stand", 1, new BigDecimal("49.00"))
+            ), new BigDecimal("128.95"));
+            case "ORDER_CANCELLED" -> new OrderCancelledEvent("corr-1", "order-1", "Payment declined");
+            case "INVENTORY_RESERVED" -> new InventoryReservedEvent("corr-1", "order-1",
+                Map.of("product-1", 2, "product-2", 3, "product-3", 1));
+            case "INVENTORY_INSUFFICIENT" -> new InventoryInsufficientEvent("corr-1", "order-1",
+                Map.of("product-2", 3), "Insufficient stock");
+            case "PAYMENT_PROCESSED" -> new PaymentProcessedEvent("corr-1", "order-1", "payment-1",
+                new BigDecimal("128.95"), PaymentStatus.COMPLETED);
+            case "PAYMENT_FAILED" -> new PaymentFailedEvent("corr-1", "order-1", "payment-1",
+                new BigDecimal("128.95"), "Card declined");
+            case "NOTIFICATION_SENT" -> new NotificationSentEvent("corr-1", "order-1", "customer-1",
+                NotificationType.ORDER_CONFIRMATION, "Your order has been confirmed", true);
+            default -> throw new IllegalArgumentException("Unknown event type: " + eventType);
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.ecommerce.benchmarks.codec;
+
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.codec.EventJsonDeserializer;
+import com.ecommerce.shared.codec.EventJsonSerializer;
+import com.ecommerce.shared.enums.NotificationType;
+import com.ecommerce.shared.enums.PaymentStatus;
+import com.ecommerce.shared.events.*;
+import com.ecommerce.shared.model.OrderItem;
+import com.ecommerce.shared.routing.EventTypeFilter;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Consumer-side cost of a mixed-topic batch: deserializing every record and discarding unwanted
+// types afterwards, versus dropping them by eventType header before the value is parsed.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EventRoutingBenchmark {
+    
+    private static final String TOPIC = "benchmark";
+    private static final int BATCH_SIZE = 700;
+    
+    // Types the consuming service actually handles, e.g. notification listens for order outcomes only
+    @Param({"ORDER_CREATED,PAYMENT_FAILED", "ORDER_CREATED,INVENTORY_RESERVED,PAYMENT_PROCESSED,PAYMENT_FAILED"})
+    private String consumedTypes;
+    
+    private final List<RecordHeaders> headers = new ArrayList<>();
+    private final List<byte[]> values = new ArrayList<>();
+    private List<String> wantedTypes;
+    private EventJsonDeserializer deserializeAll;
+    private EventJsonDeserializer filterByHeader;
+    
+    @Setup
+    public void setUp() {
+        EventJsonCodec codec = new EventJsonCodec();
+        EventJsonSerializer serializer = new EventJsonSerializer(codec);
+        wantedTypes = List.of(consumedTypes.split(","));
+        deserializeAll = new EventJsonDeserializer(codec);
+        filterByHeader = new EventJsonDeserializer(codec, EventTypeFilter.of(wantedTypes));
+        
+        List<BaseEvent> events = sampleEvents();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            RecordHeaders recordHeaders = new RecordHeaders();
+            values.add(serializer.serialize(TOPIC, recordHeaders, events.get(i % events.size())));
+            headers.add(recordHeaders);
+        }
+    }
+    
+    @Benchmark
+    public void deserializeThenFilter(Blackhole blackhole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            BaseEvent event = deserializeAll.deserialize(TOPIC, headers.get(i), values.get(i));
+            if (wantedTypes.contains(event.getEventType())) {
+                blackhole.consume(event);
+            }
+        }
+    }
+    
+    @Benchmark
+    public void filterByHeaderThenDeserialize(Blackhole blackhole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            BaseEvent event = filterByHeader.deserialize(TOPIC, headers.get(i), values.get(i));
+            if (event != null) {
+                blackhole.consume(event);
+            }
+        }
+    }
+    
+    private static List<BaseEvent> sampleEvents() {
+        return List.of(
+            new OrderCreatedEvent("corr-1", "order-1", "customer-1", List.of(
+                new OrderItem("product-1", "Wireless Mouse", 2, new BigDecimal("24.99")),
+                new OrderItem("product-2", "USB-C Cable", 3, new BigDecimal("9.99"))
+            ), new BigDecimal("79.95")),
+            new InventoryReservedEvent("corr-1", "order-1", Map.of("product-1", 2, "product-2", 3)),
+            new PaymentProcessedEvent("corr-1", "order-1", "payment-1", new BigDecimal("79.95"), PaymentStatus.COMPLETED),
+            new NotificationSentEvent("corr-1", "order-1", "customer-1",
+                NotificationType.ORDER_CONFIRMATION, "Your order has been confirmed", true),
+            new InventoryInsufficientEvent("corr-2", "order-2", Map.of("product-3", 4), "Insufficient stock"),
+            new PaymentFailedEvent("corr-3", "order-3", "payment-3", new BigDecimal("12.00"), "Card declined"),
+            new OrderCancelledEvent("corr-3", "order-3", "Payment declined")
+        );
+    }
+}
\ No newline at end of file
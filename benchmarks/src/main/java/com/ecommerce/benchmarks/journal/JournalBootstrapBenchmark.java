@@ -0,0 +1,130 @@
+package com.ecommerce.benchmarks.journal;
+
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.journal.EventJournal;
+import com.ecommerce.shared.journal.JournalBootstrap;
+import com.ecommerce.shared.journal.JournalRecord;
+import com.ecommerce.shared.journal.JournalSnapshot;
+import com.ecommerce.shared.journal.JournalSnapshotStore;
+import com.ecommerce.shared.journal.JournalStateHandler;
+import com.ecommerce.shared.model.OrderItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.TopicPartition;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Compares rebuilding consumer state from the full event history (the cost of replaying a topic
+// from earliest, excluding network transfer) with restoring a snapshot and replaying the journal tail.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class JournalBootstrapBenchmark {
+    
+    private static final int SEGMENT_BYTES = 1 << 28;
+    
+    @Param({"1000000", "5000000"})
+    private int events;
+    
+    @Param({"0.01"})
+    private double tailFraction;
+    
+    private Path directory;
+    private EventJournal journal;
+    private JournalSnapshotStore snapshotStore;
+    private ObjectMapper objectMapper;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new EventJournal(directory.resolve("segments"), SEGMENT_BYTES, 4096);
+        snapshotStore = new JournalSnapshotStore(directory.resolve("snapshots"), 1);
+        
+        int snapshotAt = (int) (events * (1 - tailFraction));
+        for (int i = 0; i < events; i++) {
+            OrderCreatedEvent event = new OrderCreatedEvent("correlation-" + i, "order-" + i, "customer-" + (i % 1000),
+                List.of(new OrderItem("product-" + (i % 500), "Product", 1 + i % 3, new BigDecimal("19.99"))),
+                new BigDecimal("19.99"));
+            journal.append(KafkaTopics.ORDER_CREATED, i % 6, i / 6, System.currentTimeMillis(),
+                objectMapper.writeValueAsBytes(event));
+            if (i + 1 == snapshotAt) {
+                snapshotStore.save(new JournalSnapshot(journal.nextSequence(),
+                    Map.of(new TopicPartition(KafkaTopics.ORDER_CREATED, 0), (long) i / 6),
+                    ByteBuffer.allocate(Long.BYTES).putLong(snapshotAt).array()));
+            }
+        }
+        journal.flush();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+    
+    @Benchmark
+    public long fullHistoryReplay() {
+        CountingState state = new CountingState(objectMapper);
+        journal.replay(0, state::apply);
+        return state.count;
+    }
+    
+    @Benchmark
+    public long snapshotPlusTail() throws IOException {
+        CountingState state = new CountingState(objectMapper);
+        new JournalBootstrap(journal, snapshotStore, state).restore();
+        return state.count;
+    }
+    
+    private static final class CountingState implements JournalStateHandler {
+        
+        private final ObjectMapper objectMapper;
+        private long count;
+        
+        private CountingState(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
+        
+        @Override
+        public byte[] snapshotState() {
+            return ByteBuffer.allocate(Long.BYTES).putLong(count).array();
+        }
+        
+        @Override
+        public void restoreState(byte[] state) {
+            count = ByteBuffer.wrap(state).getLong();
+        }
+        
+        @Override
+        public void apply(JournalRecord record) {
+            try {
+                objectMapper.readValue(record.getPayload(), BaseEvent.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count++;
+        }
+    }
+}
\ No newline at end of file
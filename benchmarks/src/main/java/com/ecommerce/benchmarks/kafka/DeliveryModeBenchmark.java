@@ -0,0 +1,193 @@
+package com.ecommerce.benchmarks.kafka;
+
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.codec.EventJsonDeserializer;
+import com.ecommerce.shared.codec.EventJsonSerializer;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.InventoryReservedEvent;
+import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.model.OrderItem;
+import com.ecommerce.shared.util.Ids;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Read-process-write throughput of an inventory-style service (OrderCreated -> InventoryReserved)
+// under at-least-once delivery, exactly-once with a transaction per record, and exactly-once with
+// one transaction per poll as ExactlyOnceKafkaConfig does. Needs a running broker:
+// -Dbenchmark.kafka.bootstrap-servers=localhost:9092 (the default).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class DeliveryModeBenchmark {
+    
+    private static final int PARTITIONS = 6;
+    private static final int PREFILLED_EVENTS = 50_000;
+    
+    public enum Delivery { AT_LEAST_ONCE, EXACTLY_ONCE_PER_RECORD, EXACTLY_ONCE_PER_POLL }
+    
+    @Param({"AT_LEAST_ONCE", "EXACTLY_ONCE_PER_RECORD", "EXACTLY_ONCE_PER_POLL"})
+    private Delivery delivery;
+    
+    @Param({"500"})
+    private int maxPollRecords;
+    
+    private String bootstrapServers;
+    private String inputTopic;
+    private String outputTopic;
+    private KafkaConsumer<String, BaseEvent> consumer;
+    private KafkaProducer<String, BaseEvent> producer;
+    
+    // Reported alongside the poll rate as processed records per second
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Records {
+        public long records;
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        bootstrapServers = System.getProperty("benchmark.kafka.bootstrap-servers", "localhost:9092");
+        String run = Ids.nextId();
+        inputTopic = "benchmark-order-created-" + run;
+        outputTopic = "benchmark-inventory-reserved-" + run;
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))) {
+            admin.createTopics(List.of(
+                new NewTopic(inputTopic, PARTITIONS, (short) 1),
+                new NewTopic(outputTopic, PARTITIONS, (short) 1))).all().get();
+        }
+        prefill();
+        
+        EventJsonCodec codec = new EventJsonCodec();
+        Map<String, Object> consumerProps = new HashMap<>();
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, "benchmark-" + run);
+        consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerProps.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        consumerProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        consumer = new KafkaConsumer<>(consumerProps, new StringDeserializer(), new EventJsonDeserializer(codec));
+        List<TopicPartition> partitions = IntStream.range(0, PARTITIONS)
+            .mapToObj(partition -> new TopicPartition(inputTopic, partition))
+            .toList();
+        consumer.assign(partitions);
+        consumer.seekToBeginning(partitions);
+        
+        Map<String, Object> producerProps = producerProps();
+        if (delivery != Delivery.AT_LEAST_ONCE) {
+            producerProps.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, "benchmark-" + run);
+        }
+        producer = new KafkaProducer<>(producerProps, new StringSerializer(), new EventJsonSerializer(codec));
+        if (delivery != Delivery.AT_LEAST_ONCE) {
+            producer.initTransactions();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        consumer.close();
+        producer.close();
+    }
+    
+    @Benchmark
+    public void poll(Records counter) {
+        ConsumerRecords<String, BaseEvent> records = consumer.poll(Duration.ofMillis(100));
+        if (records.isEmpty()) {
+            // Input exhausted, replay it
+            consumer.seekToBeginning(consumer.assignment());
+            return;
+        }
+        switch (delivery) {
+            case AT_LEAST_ONCE -> atLeastOnce(records);
+            case EXACTLY_ONCE_PER_RECORD -> exactlyOncePerRecord(records);
+            case EXACTLY_ONCE_PER_POLL -> exactlyOncePerPoll(records);
+        }
+        counter.records += records.count();
+    }
+    
+    private void atLeastOnce(ConsumerRecords<String, BaseEvent> records) {
+        for (ConsumerRecord<String, BaseEvent> consumerRecord : records) {
+            producer.send(process(consumerRecord));
+        }
+        producer.flush();
+        consumer.commitSync();
+    }
+    
+    private void exactlyOncePerRecord(ConsumerRecords<String, BaseEvent> records) {
+        for (ConsumerRecord<String, BaseEvent> consumerRecord : records) {
+            producer.beginTransaction();
+            producer.send(process(consumerRecord));
+            producer.sendOffsetsToTransaction(Map.of(
+                new TopicPartition(consumerRecord.topic(), consumerRecord.partition()),
+                new OffsetAndMetadata(consumerRecord.offset() + 1)), consumer.groupMetadata());
+            producer.commitTransaction();
+        }
+    }
+    
+    private void exactlyOncePerPoll(ConsumerRecords<String, BaseEvent> records) {
+        producer.beginTransaction();
+        for (ConsumerRecord<String, BaseEvent> consumerRecord : records) {
+            producer.send(process(consumerRecord));
+        }
+        Map<TopicPartition, OffsetAndMetadata> offsets = records.partitions().stream()
+            .collect(Collectors.toMap(partition -> partition, partition -> {
+                List<ConsumerRecord<String, BaseEvent>> partitionRecords = records.records(partition);
+                return new OffsetAndMetadata(partitionRecords.get(partitionRecords.size() - 1).offset() + 1);
+            }));
+        producer.sendOffsetsToTransaction(offsets, consumer.groupMetadata());
+        producer.commitTransaction();
+    }
+    
+    private ProducerRecord<String, BaseEvent> process(ConsumerRecord<String, BaseEvent> consumerRecord) {
+        OrderCreatedEvent created = (OrderCreatedEvent) consumerRecord.value();
+        Map<String, Integer> reserved = created.getItems().stream()
+            .collect(Collectors.toMap(OrderItem::getProductId, OrderItem::getQuantity, Integer::sum));
+        return new ProducerRecord<>(outputTopic, consumerRecord.key(),
+            new InventoryReservedEvent(created.getCorrelationId(), created.getOrderId(), reserved));
+    }
+    
+    private void prefill() {
+        try (KafkaProducer<String, BaseEvent> prefillProducer = new KafkaProducer<>(producerProps(),
+                new StringSerializer(), new EventJsonSerializer(new EventJsonCodec()))) {
+            for (int i = 0; i < PREFILLED_EVENTS; i++) {
+                String orderId = "order-" + i;
+                prefillProducer.send(new ProducerRecord<>(inputTopic, orderId, new OrderCreatedEvent(
+                    "corr-" + i, orderId, "customer-" + (i % 1000),
+                    List.of(new OrderItem("product-" + (i % 100), "Product", 1 + i % 3, new BigDecimal("19.99"))),
+                    new BigDecimal("19.99"))));
+            }
+        }
+    }
+    
+    private Map<String, Object> producerProps() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        return props;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.ecommerce.benchmarks.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.ecommerce.shared.logging.EventLogger;
+import com.ecommerce.shared.logging.LogSampler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Logging cost per create-order request: the previous four synchronous INFO lines (controller,
+// service and publisher before/after send) versus DEBUG statements plus one sampled, structured
+// event entry through an asynchronous appender.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RequestLoggingBenchmark {
+    
+    private static final String PATTERN =
+        "%d{yyyy-MM-dd'T'HH:mm:ss.SSS} %5p [%t] %logger{36} [%X{correlationId:-},%X{orderId:-}] %m %kvp%n";
+    
+    @Param({"0.01", "1.0"})
+    private double sampleRate;
+    
+    private final AtomicLong sequence = new AtomicLong();
+    private LoggerContext context;
+    private Path logDirectory;
+    private Logger legacyLogger;
+    private Logger serviceLogger;
+    private EventLogger eventLogger;
+    
+    @Setup
+    public void setUp() throws IOException {
+        logDirectory = Files.createTempDirectory("logging-benchmark");
+        context = new LoggerContext();
+        
+        legacyLogger = context.getLogger("com.ecommerce.legacy");
+        legacyLogger.setAdditive(false);
+        legacyLogger.setLevel(Level.DEBUG);
+        legacyLogger.addAppender(fileAppender("legacy.log"));
+        
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(true);
+        async.addAppender(fileAppender("events.log"));
+        async.start();
+        
+        serviceLogger = context.getLogger("com.ecommerce.order");
+        serviceLogger.setAdditive(false);
+        serviceLogger.setLevel(Level.INFO);
+        serviceLogger.addAppender(async);
+        Logger events = context.getLogger(EventLogger.LOGGER_NAME);
+        events.setAdditive(false);
+        events.setLevel(Level.INFO);
+        events.addAppender(async);
+        eventLogger = new EventLogger(events, new LogSampler(sampleRate, Map.of()));
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        try (var files = Files.list(logDirectory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(logDirectory);
+    }
+    
+    @Benchmark
+    public void legacyInfoLines() {
+        long id = sequence.incrementAndGet();
+        String orderId = "order-" + id;
+        legacyLogger.info("Received order creation request for customer: {}", "customer-42");
+        legacyLogger.info("Creating order for customer: {}", "customer-42");
+        legacyLogger.info("Publishing OrderCreated event for order: {}", orderId);
+        legacyLogger.info("Order created successfully with ID: {}", orderId);
+    }
+    
+    @Benchmark
+    public void sampledEventLog() {
+        long id = sequence.incrementAndGet();
+        String orderId = "order-" + id;
+        serviceLogger.debug("Creating order for customer: {}", "customer-42");
+        serviceLogger.debug("Order created successfully with ID: {}", orderId);
+        eventLogger.log("published", "ORDER_CREATED", "corr-" + id, orderId);
+    }
+    
+    private Appender<ILoggingEvent> fileAppender(String name) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(logDirectory.resolve(name).toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.ecommerce.benchmarks.metrics;
+
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.codec.EventJsonDeserializer;
+import com.ecommerce.shared.codec.EventJsonSerializer;
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.metrics.ConsumerMetricsInterceptor;
+import com.ecommerce.shared.metrics.MetricsProducerListener;
+import com.ecommerce.shared.metrics.PhaseTimer;
+import com.ecommerce.shared.metrics.PipelineMetrics;
+import com.ecommerce.shared.model.OrderItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the pipeline meters on the produce and consume paths: the same serialize/deserialize work
+// with and without PipelineMetrics, the producer listener, the consumer interceptor and the
+// create-order phase timer. Meters are shared across threads as they are in a service.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InstrumentationOverheadBenchmark {
+    
+    private static final String TOPIC = KafkaTopics.ORDER_CREATED;
+    
+    private OrderCreatedEvent event;
+    private byte[] payload;
+    private RecordHeaders headers;
+    private RecordMetadata metadata;
+    
+    private EventJsonSerializer serializer;
+    private EventJsonDeserializer deserializer;
+    private PipelineMetrics metrics;
+    private ConsumerMetricsInterceptor consumerInterceptor;
+    private MetricsProducerListener producerListener;
+    private PhaseTimer createOrderTimer;
+    
+    @Setup
+    public void setUp() {
+        EventJsonCodec codec = new EventJsonCodec();
+        serializer = new EventJsonSerializer(codec);
+        deserializer = new EventJsonDeserializer(codec);
+        event = new OrderCreatedEvent("corr-1", "order-1", "customer-1",
+            List.of(new OrderItem("product-1", "Product 1", 2, new BigDecimal("19.99"))), new BigDecimal("39.98"));
+        headers = new RecordHeaders();
+        payload = serializer.serialize(TOPIC, headers, event);
+        metadata = new RecordMetadata(new TopicPartition(TOPIC, 0), 0, 0, System.currentTimeMillis(), 8, payload.length);
+        
+        metrics = new PipelineMetrics(new SimpleMeterRegistry(), "benchmark-group");
+        consumerInterceptor = new ConsumerMetricsInterceptor(metrics);
+        producerListener = new MetricsProducerListener(metrics);
+        createOrderTimer = new PhaseTimer(metrics.getRegistry(), "order.create", "persist", "publish");
+    }
+    
+    @Benchmark
+    public byte[] produceUninstrumented() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+    
+    @Benchmark
+    public byte[] produceInstrumented() {
+        PhaseTimer.Sample timing = createOrderTimer.start();
+        timing.endPhase("persist");
+        long start = System.nanoTime();
+        byte[] bytes = serializer.serialize(TOPIC, new RecordHeaders(), event);
+        timing.endPhase("publish");
+        metrics.recordSend(TOPIC, System.nanoTime() - start, true);
+        producerListener.onSuccess(new ProducerRecord<>(TOPIC, event.getOrderId(), event), metadata);
+        timing.success();
+        return bytes;
+    }
+    
+    @Benchmark
+    public void consumeUninstrumented(Blackhole blackhole) {
+        ConsumerRecord<String, BaseEvent> record = consumed();
+        blackhole.consume(record.value().getOrderId());
+    }
+    
+    @Benchmark
+    public void consumeInstrumented(Blackhole blackhole) {
+        ConsumerRecord<String, BaseEvent> record = consumerInterceptor.intercept(consumed(), null);
+        blackhole.consume(record.value().getOrderId());
+        consumerInterceptor.success(record, null);
+    }
+    
+    private ConsumerRecord<String, BaseEvent> consumed() {
+        BaseEvent value = deserializer.deserialize(TOPIC, headers, payload);
+        return new ConsumerRecord<>(TOPIC, 0, 0L, System.currentTimeMillis(), TimestampType.CREATE_TIME,
+            8, payload.length, value.getOrderId(), value, headers, Optional.empty());
+    }
+}
\ No newline at end of file
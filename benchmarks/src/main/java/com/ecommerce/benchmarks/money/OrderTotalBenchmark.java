@@ -0,0 +1,67 @@
+package com.ecommerce.benchmarks.money;
+
+import com.ecommerce.shared.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Order total over N line items: the previous BigDecimal multiply/add reduction versus Money's
+// scaled-long arithmetic.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OrderTotalBenchmark {
+    
+    @Param({"1", "10", "1000"})
+    private int items;
+    
+    private BigDecimal[] bigDecimalPrices;
+    private Money[] moneyPrices;
+    private int[] quantities;
+    
+    @Setup
+    public void setUp() {
+        bigDecimalPrices = new BigDecimal[items];
+        moneyPrices = new Money[items];
+        quantities = new int[items];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < items; i++) {
+            long cents = random.nextLong(100, 100_000);
+            bigDecimalPrices[i] = BigDecimal.valueOf(cents, 2);
+            moneyPrices[i] = Money.ofMinor(cents);
+            quantities[i] = random.nextInt(1, 10);
+        }
+    }
+    
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < items; i++) {
+            total = total.add(bigDecimalPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+    
+    @Benchmark
+    public Money moneyPlus() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < items; i++) {
+            total = total.plus(moneyPrices[i].times(quantities[i]));
+        }
+        return total;
+    }
+    
+    @Benchmark
+    public Money moneyAccumulator() {
+        Money.Accumulator total = Money.accumulator();
+        for (int i = 0; i < items; i++) {
+            total.add(moneyPrices[i].times(quantities[i]));
+        }
+        return total.total();
+    }
+}
\ No newline at end of file
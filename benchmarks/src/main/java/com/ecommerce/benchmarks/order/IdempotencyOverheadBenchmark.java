@@ -0,0 +1,118 @@
+package com.ecommerce.benchmarks.order;
+
+import com.ecommerce.order.model.IdempotencyRecord;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItemEntity;
+import com.ecommerce.order.repository.IdempotencyRecordRepository;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Cost of an Idempotency-Key on a request that is not a retry: the order transaction as OrderService
+// runs it on the prod profile, without a key ("none") and with the key claimed first ("key").
+// A retry answered from memory never reaches the database.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+public class IdempotencyOverheadBenchmark {
+    
+    // Same width as a real SHA-256 hex digest
+    private static final String REQUEST_DIGEST = "0".repeat(64);
+    
+    @Param({"none", "key"})
+    private String idempotency;
+    
+    private final AtomicLong sequence = new AtomicLong();
+    
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    private TransactionTemplate transactionTemplate;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("idempotency-benchmark");
+        context = new SpringApplicationBuilder(PersistenceConfig.class)
+            .web(WebApplicationType.NONE)
+            .profiles("prod")
+            .properties("logging.level.root=WARN", "logging.level.com.ecommerce=WARN",
+                "spring.datasource.url=jdbc:h2:file:" + directory.resolve("orderdb").toAbsolutePath()
+                    + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+            .run();
+        orderRepository = context.getBean(OrderRepository.class);
+        idempotencyRecordRepository = context.getBean(IdempotencyRecordRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+    
+    @Benchmark
+    public Order createOrder() {
+        long id = sequence.incrementAndGet();
+        return transactionTemplate.execute(status -> {
+            if ("key".equals(idempotency)) {
+                idempotencyRecordRepository.saveAndFlush(
+                    new IdempotencyRecord("customer-" + id % 1_000, "key-" + id, "order-" + id, REQUEST_DIGEST));
+            }
+            return orderRepository.save(newOrder(id));
+        });
+    }
+    
+    private static Order newOrder(long id) {
+        List<OrderItemEntity> items = new ArrayList<>(3);
+        Money.Accumulator total = Money.accumulator();
+        for (int i = 0; i < 3; i++) {
+            OrderItemEntity item = new OrderItemEntity("product-" + i, "Product " + i, i + 1, Money.ofMinor(1_999));
+            items.add(item);
+            total.add(item.getTotalPrice());
+        }
+        Order order = new Order();
+        order.setOrderId("order-" + id);
+        order.setCustomerId("customer-" + id % 1_000);
+        order.setStatus(OrderStatus.CREATED);
+        order.setItems(items);
+        order.setTotalAmount(total.total());
+        return order;
+    }
+    
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = KafkaAutoConfiguration.class)
+    @EntityScan(basePackageClasses = Order.class)
+    @EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+    static class PersistenceConfig {
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.benchmarks.order;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItemEntity;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Orders persisted per second, one transaction per order as OrderService.createOrder does.
+// "legacy" reproduces the previous settings (in-memory H2, create-drop, show-sql, no JDBC batching);
+// "prod" is the prod profile: file-backed H2 in PostgreSQL mode, Flyway schema, tuned pool and batching.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+public class OrderPersistenceBenchmark {
+    
+    @Param({"legacy", "prod"})
+    private String persistence;
+    
+    @Param({"3"})
+    private int itemsPerOrder;
+    
+    private final AtomicLong sequence = new AtomicLong();
+    
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("order-persistence-benchmark");
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PersistenceConfig.class)
+            .web(WebApplicationType.NONE)
+            .properties("logging.level.root=WARN", "logging.level.com.ecommerce=WARN");
+        if ("legacy".equals(persistence)) {
+            builder.properties(
+                "spring.datasource.url=jdbc:h2:mem:orderdb",
+                "spring.datasource.hikari.auto-commit=true",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=true",
+                "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=false",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=0",
+                "spring.jpa.properties.hibernate.order_inserts=false",
+                "spring.jpa.properties.hibernate.order_updates=false",
+                "spring.flyway.enabled=false");
+        } else {
+            builder.profiles("prod")
+                .properties("spring.datasource.url=jdbc:h2:file:" + directory.resolve("orderdb").toAbsolutePath()
+                    + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        }
+        context = builder.run();
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+    
+    @Benchmark
+    public Order persistOrder() {
+        return transactionTemplate.execute(status -> orderRepository.save(newOrder()));
+    }
+    
+    private Order newOrder() {
+        long id = sequence.incrementAndGet();
+        List<OrderItemEntity> items = new ArrayList<>(itemsPerOrder);
+        Money.Accumulator total = Money.accumulator();
+        for (int i = 0; i < itemsPerOrder; i++) {
+            OrderItemEntity item = new OrderItemEntity("product-" + i, "Product " + i, i + 1, Money.ofMinor(1_999));
+            items.add(item);
+            total.add(item.getTotalPrice());
+        }
+        Order order = new Order();
+        order.setOrderId("order-" + id);
+        order.setCustomerId("customer-" + id % 1_000);
+        order.setStatus(OrderStatus.CREATED);
+        order.setItems(items);
+        order.setTotalAmount(total.total());
+        return order;
+    }
+    
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = KafkaAutoConfiguration.class)
+    @EntityScan(basePackageClasses = Order.class)
+    @EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+    static class PersistenceConfig {
+    }
+}
\ No newline at end of file
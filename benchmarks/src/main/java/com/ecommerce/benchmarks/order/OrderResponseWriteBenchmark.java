@@ -0,0 +1,68 @@
+package com.ecommerce.benchmarks.order;
+
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.query.CachedJson;
+import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.model.OrderItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of the GET /orders/{orderId} body: Jackson serialization of OrderResponse (what the
+// message converter did before) versus copying the cached read-model bytes. Run with -prof gc to
+// compare allocation per request.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OrderResponseWriteBenchmark {
+    
+    @Param({"1", "10"})
+    private int items;
+    
+    private ObjectMapper objectMapper;
+    private OrderResponse orderResponse;
+    private CachedJson cachedJson;
+    private ByteArrayOutputStream servletOutput;
+    
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            orderItems.add(new OrderItem("product-" + i, "Product " + i, i + 1, new BigDecimal("19.99")));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        orderResponse = new OrderResponse("order-1", "customer-1", orderItems, OrderStatus.CREATED,
+            new BigDecimal("199.90"), now, now);
+        cachedJson = CachedJson.of(objectMapper.writeValueAsBytes(orderResponse));
+        servletOutput = new ByteArrayOutputStream(16 * 1024);
+    }
+    
+    @Benchmark
+    public int jacksonPerRequest() throws IOException {
+        servletOutput.reset();
+        objectMapper.writeValue(servletOutput, orderResponse);
+        return servletOutput.size();
+    }
+    
+    @Benchmark
+    public int cachedBytes() throws IOException {
+        servletOutput.reset();
+        servletOutput.write(cachedJson.getBody());
+        return servletOutput.size();
+    }
+}
\ No newline at end of file
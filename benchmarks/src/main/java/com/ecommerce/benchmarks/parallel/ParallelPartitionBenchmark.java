@@ -0,0 +1,85 @@
+package com.ecommerce.benchmarks.parallel;
+
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.InventoryReservedEvent;
+import com.ecommerce.shared.metrics.PipelineMetrics;
+import com.ecommerce.shared.parallel.ParallelRecordProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Draining one partition whose handler waits 50 ms on a remote call (the payment gateway), as the
+// default container does it, one record at a time, and through the ParallelRecordProcessor with the
+// records spread over a varying number of order ids. Reported per record; the serial baseline is
+// bounded at 20 records per second whatever the key spread.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class ParallelPartitionBenchmark {
+    
+    private static final int RECORDS = 200;
+    private static final long HANDLER_MILLIS = 50;
+    private static final String TOPIC = KafkaTopics.INVENTORY_RESERVED;
+    
+    @Param({"1", "10", "200"})
+    private int distinctOrders;
+    
+    private ParallelRecordProcessor processor;
+    private final TopicPartition partition = new TopicPartition(TOPIC, 0);
+    private long nextOffset;
+    
+    @Setup
+    public void setUp() {
+        processor = new ParallelRecordProcessor(64, 1000, new PipelineMetrics(new SimpleMeterRegistry(), "bench"),
+            null);
+    }
+    
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        processor.close();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void serial() throws Exception {
+        for (ConsumerRecord<String, BaseEvent> record : poll()) {
+            handle(record);
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void parallel() throws Exception {
+        for (ConsumerRecord<String, BaseEvent> record : poll()) {
+            processor.submit(record, () -> { }, ParallelPartitionBenchmark::handle);
+        }
+        while (processor.committable(partition) < nextOffset) {
+            Thread.sleep(1);
+        }
+    }
+    
+    private List<ConsumerRecord<String, BaseEvent>> poll() {
+        List<ConsumerRecord<String, BaseEvent>> records = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            long offset = nextOffset++;
+            String orderId = "order-" + offset % distinctOrders;
+            InventoryReservedEvent event = new InventoryReservedEvent("corr-" + offset, orderId, Map.of());
+            records.add(new ConsumerRecord<>(TOPIC, 0, offset, orderId, event));
+        }
+        return records;
+    }
+    
+    private static void handle(ConsumerRecord<String, BaseEvent> record) throws InterruptedException {
+        Thread.sleep(HANDLER_MILLIS);
+    }
+}
\ No newline at end of file
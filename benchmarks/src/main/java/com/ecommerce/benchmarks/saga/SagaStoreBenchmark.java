@@ -0,0 +1,169 @@
+package com.ecommerce.benchmarks.saga;
+
+import com.ecommerce.saga.store.KeyQueue;
+import com.ecommerce.saga.tracker.SagaTracker;
+import com.ecommerce.shared.util.Ids;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Saga state kept at a steady population of in-flight sagas: each operation starts a saga, moves the one
+// started inFlight/2 operations earlier to payment, completes the one started inFlight operations earlier
+// and purges finished sagas past retention. "offheap" is SagaTracker, "heap" the same bookkeeping in a
+// HashMap of objects with on-heap deadline queues. Only "offheap" tracks changes for the write-behind; it
+// drains them every 1024 operations without the JDBC writes. Events carry freshly deserialized ids, so
+// String hashes are not cached. Run with -prof gc to compare allocation.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g", "-XX:MaxDirectMemorySize=8g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SagaStoreBenchmark {
+    
+    @Param({"heap", "offheap"})
+    private String store;
+    
+    @Param({"1000000", "5000000"})
+    private int inFlight;
+    
+    private String[] orderIds;
+    private long timeout;
+    private long clock;
+    private long sequence;
+    private SagaTracker tracker;
+    private KeyQueue drained;
+    private HeapSagas heapSagas;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        orderIds = new String[inFlight];
+        // The clock ticks once per operation: sagas finish well before their deadlines, which then leave
+        // the queues as stale entries, and finished sagas are purged one tick after they finish
+        timeout = 2L * inFlight;
+        if ("offheap".equals(store)) {
+            tracker = new SagaTracker(Duration.ofMillis(timeout), Duration.ofMillis(timeout),
+                Duration.ofMillis(timeout), Duration.ofMillis(1), inFlight, () -> clock, new SimpleMeterRegistry());
+            drained = new KeyQueue(4096);
+        } else {
+            heapSagas = new HeapSagas(timeout, () -> clock);
+        }
+        for (int i = 0; i < inFlight; i++) {
+            cycle();
+        }
+    }
+    
+    @Benchmark
+    public int cycle() {
+        int index = (int) (sequence % inFlight);
+        String completed = orderIds[index];
+        String reserved = orderIds[(index + inFlight / 2) % inFlight];
+        String created = Ids.nextId();
+        orderIds[index] = created;
+        sequence++;
+        clock++;
+        if ("offheap".equals(store)) {
+            tracker.orderCreated(received(created), received(created));
+            if (reserved != null) {
+                tracker.inventoryReserved(received(reserved), received(reserved));
+            }
+            if (completed != null) {
+                tracker.paymentProcessed(received(completed), received(completed));
+            }
+            if ((sequence & 1023) == 0) {
+                tracker.drainDirty(Integer.MAX_VALUE, drained);
+                drained.clear();
+            }
+            return tracker.expire(clock, 16).size();
+        }
+        heapSagas.start(received(created), received(created));
+        if (reserved != null) {
+            heapSagas.advance(received(reserved), 2);
+        }
+        if (completed != null) {
+            heapSagas.advance(received(completed), 3);
+        }
+        return heapSagas.purge(16);
+    }
+    
+    private static String received(String orderId) {
+        return new String(orderId.toCharArray());
+    }
+    
+    private static final class HeapSagas {
+        
+        private final Map<String, HeapSaga> sagas = new HashMap<>();
+        private final ArrayDeque<Deadline> inventoryDeadlines = new ArrayDeque<>();
+        private final ArrayDeque<Deadline> paymentDeadlines = new ArrayDeque<>();
+        private final ArrayDeque<Deadline> retentions = new ArrayDeque<>();
+        private final long timeout;
+        private final LongSupplier clock;
+        
+        private HeapSagas(long timeout, LongSupplier clock) {
+            this.timeout = timeout;
+            this.clock = clock;
+        }
+        
+        synchronized void start(String orderId, String correlationId) {
+            long deadline = clock.getAsLong() + timeout;
+            if (sagas.putIfAbsent(orderId, new HeapSaga(1, deadline, correlationId)) == null) {
+                inventoryDeadlines.add(new Deadline(deadline, orderId));
+            }
+        }
+        
+        synchronized void advance(String orderId, int step) {
+            HeapSaga saga = sagas.get(orderId);
+            if (saga == null || saga.step >= step) {
+                return;
+            }
+            saga.step = step;
+            saga.deadline = clock.getAsLong() + (step == 3 ? 1 : timeout);
+            (step == 3 ? retentions : paymentDeadlines).add(new Deadline(saga.deadline, orderId));
+        }
+        
+        // Same scan as SagaTracker.expire; no deadline passes here, so only stale entries are dropped
+        synchronized int purge(int limit) {
+            long now = clock.getAsLong();
+            dropDue(inventoryDeadlines, now, limit);
+            dropDue(paymentDeadlines, now, limit);
+            int purged = 0;
+            for (int i = 0; i < limit && !retentions.isEmpty() && retentions.peek().time() <= now; i++) {
+                Deadline head = retentions.poll();
+                HeapSaga saga = sagas.get(head.orderId());
+                if (saga != null && saga.step == 3 && saga.deadline == head.time()) {
+                    sagas.remove(head.orderId());
+                    purged++;
+                }
+            }
+            return purged;
+        }
+        
+        private static void dropDue(ArrayDeque<Deadline> deadlines, long now, int limit) {
+            for (int i = 0; i < limit && !deadlines.isEmpty() && deadlines.peek().time() <= now; i++) {
+                deadlines.poll();
+            }
+        }
+    }
+    
+    private static final class HeapSaga {
+        
+        private int step;
+        private long deadline;
+        private final String correlationId;
+        
+        private HeapSaga(int step, long deadline, String correlationId) {
+            this.step = step;
+            this.deadline = deadline;
+            this.correlationId = correlationId;
+        }
+    }
+    
+    private record Deadline(long time, String orderId) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.benchmarks.state;
+
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.enums.NotificationType;
+import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.enums.PaymentStatus;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.InventoryReservedEvent;
+import com.ecommerce.shared.events.NotificationSentEvent;
+import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.events.PaymentProcessedEvent;
+import com.ecommerce.shared.model.Money;
+import com.ecommerce.shared.model.OrderItem;
+import com.ecommerce.shared.state.OrderStateCodec;
+import com.ecommerce.shared.state.OrderStateSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Time for a consumer to build the state of every order at startup, excluding network transfer:
+// "raw" folds the four saga events of each order (order created, inventory reserved, payment processed,
+// notification sent) decoded from JSON, "compacted" decodes one order-state snapshot per order. Payloads
+// cycle through a pool of pre-serialized records; keys are distinct, so the state holds one entry per order.
+// Record counts: raw reads 4 records per order, compacted 1. Run with -Xmx16g for 10M orders.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms16g", "-Xmx16g"})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class OrderStateBootstrapBenchmark {
+    
+    private static final int POOL = 1024;
+    
+    @Param({"1000000", "10000000"})
+    private int orders;
+    
+    private EventJsonCodec codec;
+    private byte[][] eventTypes;
+    private byte[][][] events;
+    private byte[][] snapshots;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        codec = new EventJsonCodec();
+        eventTypes = new byte[4][];
+        events = new byte[4][POOL][];
+        snapshots = new byte[POOL][];
+        for (int i = 0; i < POOL; i++) {
+            String orderId = "order-" + i;
+            String customerId = "customer-" + i % 1000;
+            List<OrderItem> items = List.of(
+                new OrderItem("product-" + i % 500, "Product", 1 + i % 3, new BigDecimal("19.99")),
+                new OrderItem("product-" + (i + 1) % 500, "Product", 1, new BigDecimal("5.00")));
+            BigDecimal total = new BigDecimal("19.99").multiply(BigDecimal.valueOf(1 + i % 3)).add(new BigDecimal("5.00"));
+            List<BaseEvent> saga = List.of(
+                new OrderCreatedEvent("correlation-" + i, orderId, customerId, items, total),
+                new InventoryReservedEvent("correlation-" + i, orderId, Map.of("product-" + i % 500, 1 + i % 3)),
+                new PaymentProcessedEvent("correlation-" + i, orderId, "payment-" + i, total, PaymentStatus.COMPLETED),
+                new NotificationSentEvent("correlation-" + i, orderId, customerId, NotificationType.ORDER_CONFIRMATION,
+                    "Your order has been confirmed", true));
+            for (int type = 0; type < saga.size(); type++) {
+                eventTypes[type] = codec.eventTypeHeader(saga.get(type));
+                events[type][i] = codec.serialize(saga.get(type));
+            }
+            OrderCreatedEvent created = (OrderCreatedEvent) saga.get(0);
+            snapshots[i] = OrderStateCodec.encode(new OrderStateSnapshot(orderId, customerId, OrderStatus.COMPLETED,
+                Money.of(total), items.size(), created.getTimestamp(), saga.get(3).getTimestamp()));
+        }
+    }
+    
+    @Benchmark
+    public int raw() throws IOException {
+        Map<String, OrderStateSnapshot> state = new HashMap<>(orders * 4 / 3 + 1);
+        for (int i = 0; i < orders; i++) {
+            String key = "order-" + i;
+            for (int type = 0; type < eventTypes.length; type++) {
+                apply(state, key, codec.deserialize(eventTypes[type], events[type][i & (POOL - 1)]));
+            }
+        }
+        return state.size();
+    }
+    
+    @Benchmark
+    public int compacted() {
+        Map<String, OrderStateSnapshot> state = new HashMap<>(orders * 4 / 3 + 1);
+        for (int i = 0; i < orders; i++) {
+            state.put("order-" + i, OrderStateCodec.decode(snapshots[i & (POOL - 1)]));
+        }
+        return state.size();
+    }
+    
+    private static void apply(Map<String, OrderStateSnapshot> state, String key, BaseEvent event) {
+        if (event instanceof OrderCreatedEvent created) {
+            state.put(key, new OrderStateSnapshot(key, created.getCustomerId(), OrderStatus.CREATED,
+                Money.of(created.getTotalAmount()), created.getItems().size(), created.getTimestamp(),
+                created.getTimestamp()));
+        } else if (event instanceof InventoryReservedEvent) {
+            state.computeIfPresent(key, (id, order) -> withStatus(order, OrderStatus.INVENTORY_RESERVED, event));
+        } else if (event instanceof PaymentProcessedEvent) {
+            state.computeIfPresent(key, (id, order) -> withStatus(order, OrderStatus.PAYMENT_PROCESSED, event));
+        } else if (event instanceof NotificationSentEvent) {
+            state.computeIfPresent(key, (id, order) -> withStatus(order, OrderStatus.COMPLETED, event));
+        }
+    }
+    
+    private static OrderStateSnapshot withStatus(OrderStateSnapshot order, OrderStatus status, BaseEvent event) {
+        return new OrderStateSnapshot(order.orderId(), order.customerId(), status, order.totalAmount(),
+            order.itemCount(), order.createdAt(), event.getTimestamp());
+    }
+}
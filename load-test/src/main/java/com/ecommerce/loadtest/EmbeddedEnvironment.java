@@ -0,0 +1,63 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.order.OrderServiceApplication;
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.config.TopicSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A single-node KRaft broker and the order service in this JVM. The other services run as local
+// processes pointed at the broker's fixed port.
+@Slf4j
+public class EmbeddedEnvironment implements AutoCloseable {
+    
+    private final EmbeddedKafkaKraftBroker broker;
+    private final ConfigurableApplicationContext orderService;
+    
+    private EmbeddedEnvironment(EmbeddedKafkaKraftBroker broker, ConfigurableApplicationContext orderService) {
+        this.broker = broker;
+        this.orderService = orderService;
+    }
+    
+    public static EmbeddedEnvironment start(LoadTestSettings settings) {
+        List<String> topics = new ArrayList<>(KafkaTopics.SAGA_TOPICS);
+        topics.addAll(KafkaTopics.DEAD_LETTER_TOPICS);
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1,
+            TopicSettings.DEVELOPMENT.partitions(), topics.toArray(String[]::new));
+        broker.kafkaPorts(settings.embeddedKafkaPort());
+        broker.afterPropertiesSet();
+        
+        ConfigurableApplicationContext orderService;
+        try {
+            orderService = new SpringApplicationBuilder(OrderServiceApplication.class).run(
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "--spring.kafka.admin.auto-create=false",
+                "--server.port=0");
+        } catch (RuntimeException e) {
+            broker.destroy();
+            throw e;
+        }
+        log.info("Embedded Kafka at {}; start inventory, payment, notification and analytics with "
+            + "--spring.kafka.bootstrap-servers={}", broker.getBrokersAsString(), broker.getBrokersAsString());
+        return new EmbeddedEnvironment(broker, orderService);
+    }
+    
+    public String baseUrl() {
+        return "http://localhost:" + orderService.getEnvironment().getProperty("local.server.port");
+    }
+    
+    public String bootstrapServers() {
+        return broker.getBrokersAsString();
+    }
+    
+    @Override
+    public void close() {
+        orderService.close();
+        broker.destroy();
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.order.controller.OrderController;
+import com.ecommerce.order.dto.CreateOrderRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Posts orders to the order API with the correlation id header, so the saga can be matched to the
+// request. 429 and 503 count as rejections, any other non-2xx status as a failure.
+public class HttpOrderTarget implements OrderTarget {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final URI ordersUri;
+    
+    public HttpOrderTarget(String baseUrl, int threads) {
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(executor)
+            .build();
+        this.ordersUri = URI.create(baseUrl + "/orders");
+    }
+    
+    @Override
+    public CompletableFuture<Outcome> submit(String correlationId, CreateOrderRequest request) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest httpRequest = HttpRequest.newBuilder(ordersUri)
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .header(OrderController.CORRELATION_ID_HEADER, correlationId)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+        return client.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+            .thenApply(response -> outcomeOf(response.statusCode()));
+    }
+    
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+    
+    static Outcome outcomeOf(int status) {
+        if (status >= 200 && status < 300) {
+            return Outcome.ACCEPTED;
+        }
+        return status == 429 || status == 503 ? Outcome.REJECTED : Outcome.FAILED;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.order.dto.CreateOrderRequest;
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.codec.EventJsonSerializer;
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.util.Ids;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Publishes OrderCreated events directly, bypassing the order API, to load the downstream saga alone
+public class KafkaOrderTarget implements OrderTarget {
+    
+    private final KafkaProducer<String, BaseEvent> producer;
+    
+    public KafkaOrderTarget(String bootstrapServers) {
+        Map<String, Object> config = Map.of(
+            ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+            ProducerConfig.LINGER_MS_CONFIG, 5,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        this.producer = new KafkaProducer<>(config, new StringSerializer(), new EventJsonSerializer(new EventJsonCodec()));
+    }
+    
+    @Override
+    public CompletableFuture<Outcome> submit(String correlationId, CreateOrderRequest request) {
+        String orderId = Ids.nextId();
+        OrderCreatedEvent event = OrderFactory.toEvent(correlationId, orderId, request);
+        CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+        producer.send(new ProducerRecord<>(KafkaTopics.ORDER_CREATED, orderId, event),
+            (metadata, exception) -> outcome.complete(exception == null ? Outcome.ACCEPTED : Outcome.FAILED));
+        return outcome;
+    }
+    
+    @Override
+    public void close() {
+        producer.close();
+    }
+}
@@ -0,0 +1,159 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.order.dto.CreateOrderRequest;
+import com.ecommerce.shared.util.Ids;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop generator: order i is due at a fixed intended time that does not depend on how fast
+// earlier orders completed. Response time and saga latency are measured from that intended time, so
+// when the system stalls, the orders that queue up behind the stall carry its cost. This corrects
+// coordinated omission. Service time is measured from the actual send, as a closed-loop client sees it.
+// An order dropped at max-outstanding never gets a response, so it is recorded in both corrected histograms
+// as taking from its intended time until the run ended, a lower bound rather than a missing sample.
+@Slf4j
+public class LoadGenerator {
+    
+    private final LoadTestSettings settings;
+    private final OrderTarget target;
+    private final SagaCompletionTracker tracker;
+    private final OrderFactory orders;
+    private final String runId = Ids.nextId();
+    
+    private final Recorder responseTime = new Recorder(3);
+    private final Recorder serviceTime = new Recorder(3);
+    // Intended times of dropped orders, in microseconds since the run started
+    private final Recorder droppedAt = new Recorder(3);
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private long startNanos;
+    
+    public LoadGenerator(LoadTestSettings settings, OrderTarget target, SagaCompletionTracker tracker) {
+        this.settings = settings;
+        this.target = target;
+        this.tracker = tracker;
+        this.orders = new OrderFactory(settings);
+    }
+    
+    public LoadTestResult run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        startNanos = start;
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        
+        log.info("Warming up for {}, then measuring {} at {} orders/s", settings.warmup(), settings.duration(),
+            settings.rate());
+        long sequence = 0;
+        double offsetNanos = 0;
+        for (long due = start; due < end; due = start + (long) offsetNanos) {
+            parkUntil(due);
+            submit(due, due >= measureFrom, orders.next(random), sequence++);
+            offsetNanos += settings.arrival() == LoadTestSettings.Arrival.POISSON
+                ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos
+                : meanIntervalNanos;
+        }
+        
+        long deadline = System.nanoTime() + settings.drainTimeout().toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        boolean drained = tracker.awaitCompletion(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        if (!drained) {
+            log.warn("{} sagas did not reach {} within {}", tracker.getOutstanding(), tracker.getEventType(),
+                settings.drainTimeout());
+        }
+        
+        Histogram droppedLatency = droppedLatency(System.nanoTime());
+        Histogram responseTimes = responseTime.getIntervalHistogram();
+        responseTimes.add(droppedLatency);
+        Histogram sagaLatency = tracker.latencyHistogram();
+        sagaLatency.add(droppedLatency);
+        if (dropped.sum() > 0) {
+            log.warn("{} orders were dropped at {} outstanding; they count as lasting until the end of the run",
+                dropped.sum(), settings.maxOutstanding());
+        }
+        
+        return new LoadTestResult(settings, settings.duration(), submitted.sum(), accepted.sum(), rejected.sum(),
+            failed.sum(), dropped.sum(), tracker.getCompleted(), tracker.getOutstanding(),
+            responseTimes, serviceTime.getIntervalHistogram(), sagaLatency);
+    }
+    
+    private Histogram droppedLatency(long finishedNanos) {
+        long finishedMicros = TimeUnit.NANOSECONDS.toMicros(finishedNanos - startNanos);
+        Histogram latency = new Histogram(3);
+        for (HistogramIterationValue value : droppedAt.getIntervalHistogram().recordedValues()) {
+            latency.recordValueWithCount(Math.max(1, finishedMicros - value.getValueIteratedTo()),
+                value.getCountAtValueIteratedTo());
+        }
+        return latency;
+    }
+    
+    private void submit(long intendedNanos, boolean measured, CreateOrderRequest request, long sequence) {
+        if (outstanding.get() >= settings.maxOutstanding()) {
+            // The target cannot keep up; count the order instead of letting memory grow without bound
+            if (measured) {
+                dropped.increment();
+                droppedAt.recordValue(TimeUnit.NANOSECONDS.toMicros(intendedNanos - startNanos));
+            }
+            return;
+        }
+        String correlationId = "load-" + runId + "-" + sequence;
+        tracker.track(correlationId, intendedNanos, measured);
+        outstanding.incrementAndGet();
+        if (measured) {
+            submitted.increment();
+        }
+        long sentNanos = System.nanoTime();
+        try {
+            target.submit(correlationId, request).whenComplete((outcome, exception) -> {
+                long now = System.nanoTime();
+                outstanding.decrementAndGet();
+                OrderTarget.Outcome result = exception == null ? outcome : OrderTarget.Outcome.FAILED;
+                if (result != OrderTarget.Outcome.ACCEPTED) {
+                    tracker.forget(correlationId);
+                }
+                if (measured) {
+                    record(result, intendedNanos, sentNanos, now);
+                }
+            });
+        } catch (RuntimeException e) {
+            outstanding.decrementAndGet();
+            tracker.forget(correlationId);
+            if (measured) {
+                failed.increment();
+            }
+        }
+    }
+    
+    private void record(OrderTarget.Outcome outcome, long intendedNanos, long sentNanos, long completedNanos) {
+        switch (outcome) {
+            case ACCEPTED -> accepted.increment();
+            case REJECTED -> rejected.increment();
+            case FAILED -> failed.increment();
+        }
+        responseTime.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos)));
+        serviceTime.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(completedNanos - sentNanos)));
+    }
+    
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+@Slf4j
+public class LoadTestApplication {
+    
+    private static final Duration ASSIGNMENT_TIMEOUT = Duration.ofSeconds(30);
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        try (EmbeddedEnvironment environment = settings.embedded() ? EmbeddedEnvironment.start(settings) : null) {
+            if (environment != null) {
+                settings = settings.withEndpoints(environment.baseUrl(), environment.bootstrapServers());
+            }
+            try (SagaCompletionTracker tracker = new SagaCompletionTracker(settings.bootstrapServers(), settings.terminalEvent());
+                 OrderTarget target = createTarget(settings)) {
+                tracker.start(ASSIGNMENT_TIMEOUT);
+                LoadTestResult result = new LoadGenerator(settings, target, tracker).run();
+                LoadTestReport report = new LoadTestReport(result);
+                report.print(System.out);
+                report.write(settings.reportDirectory());
+                log.info("Histograms written to {}", settings.reportDirectory().toAbsolutePath());
+            }
+        }
+    }
+    
+    private static OrderTarget createTarget(LoadTestSettings settings) {
+        return switch (settings.target()) {
+            case HTTP -> new HttpOrderTarget(settings.baseUrl(), Runtime.getRuntime().availableProcessors());
+            case KAFKA -> new KafkaOrderTarget(settings.bootstrapServers());
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// Prints a summary of a run and writes each histogram as an .hgrm percentile distribution, which
+// can be plotted with HdrHistogram's plotter to compare runs.
+public class LoadTestReport {
+    
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    private static final double MICROS_PER_MILLI = 1000.0;
+    
+    private final LoadTestResult result;
+    
+    public LoadTestReport(LoadTestResult result) {
+        this.result = result;
+    }
+    
+    public void print(PrintStream out) {
+        LoadTestSettings settings = result.settings();
+        out.printf(Locale.ROOT, "Target %s, %s arrivals at %.1f orders/s for %s (after %s warm-up)%n",
+            settings.target(), settings.arrival(), settings.rate(), result.measured(), settings.warmup());
+        out.printf(Locale.ROOT, "Orders:  %d submitted, %d accepted, %d rejected, %d failed, %d dropped%n",
+            result.submitted(), result.accepted(), result.rejected(), result.failed(), result.dropped());
+        out.printf(Locale.ROOT, "Sagas:   %d reached %s, %d incomplete%n",
+            result.sagasCompleted(), settings.terminalEvent(), result.sagasIncomplete());
+        out.printf(Locale.ROOT, "Throughput: %.1f accepted orders/s, %.1f completed sagas/s%n",
+            result.acceptedPerSecond(), result.sagasPerSecond());
+        out.printf(Locale.ROOT, "%-34s %10s %10s %10s %10s %10s%n", "Latency (ms)", "p50", "p90", "p99", "p99.9", "max");
+        printRow(out, "response time (CO corrected)", result.responseTime());
+        printRow(out, "service time (uncorrected)", result.serviceTime());
+        printRow(out, "saga end-to-end (CO corrected)", result.sagaLatency());
+    }
+    
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        writeDistribution(directory.resolve("response-time.hgrm"), result.responseTime());
+        writeDistribution(directory.resolve("service-time.hgrm"), result.serviceTime());
+        writeDistribution(directory.resolve("saga-latency.hgrm"), result.sagaLatency());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("summary.txt")))) {
+            print(out);
+        }
+    }
+    
+    private static void printRow(PrintStream out, String name, Histogram histogram) {
+        out.printf(Locale.ROOT, "%-34s", name);
+        for (double percentile : PERCENTILES) {
+            out.printf(Locale.ROOT, " %10.2f", histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI);
+        }
+        out.printf(Locale.ROOT, " %10.2f%n", histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+    
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+// Outcome of the measured part of a run; histograms hold microseconds
+public record LoadTestResult(
+    LoadTestSettings settings,
+    Duration measured,
+    long submitted,
+    long accepted,
+    long rejected,
+    long failed,
+    long dropped,
+    long sagasCompleted,
+    long sagasIncomplete,
+    Histogram responseTime,
+    Histogram serviceTime,
+    Histogram sagaLatency
+) {
+    
+    public double acceptedPerSecond() {
+        return perSecond(accepted);
+    }
+    
+    public double sagasPerSecond() {
+        return perSecond(sagasCompleted);
+    }
+    
+    private double perSecond(long count) {
+        return measured.isZero() ? 0 : count * 1_000_000_000.0 / measured.toNanos();
+    }
+}
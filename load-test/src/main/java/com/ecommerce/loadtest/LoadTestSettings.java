@@ -0,0 +1,119 @@
+package com.ecommerce.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Command line settings, given as --name=value. Rates are orders per second across the whole run.
+public record LoadTestSettings(
+    Target target,
+    String baseUrl,
+    String bootstrapServers,
+    boolean embedded,
+    int embeddedKafkaPort,
+    double rate,
+    Arrival arrival,
+    Duration warmup,
+    Duration duration,
+    Duration drainTimeout,
+    int maxOutstanding,
+    int minItems,
+    int maxItems,
+    int skus,
+    double skuSkew,
+    int customers,
+    String terminalEvent,
+    Path reportDirectory,
+    long seed
+) {
+    
+    // HTTP posts to the order API; KAFKA publishes OrderCreated events straight to the saga
+    public enum Target {
+        HTTP, KAFKA
+    }
+    
+    // CONSTANT spaces arrivals evenly; POISSON draws exponential gaps with the same mean
+    public enum Arrival {
+        CONSTANT, POISSON
+    }
+    
+    public static LoadTestSettings parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        Options options = new Options(values);
+        LoadTestSettings settings = new LoadTestSettings(
+            Target.valueOf(options.get("target", "http").toUpperCase(Locale.ROOT)),
+            options.get("base-url", "http://localhost:8081"),
+            options.get("bootstrap-servers", "localhost:9092"),
+            Boolean.parseBoolean(options.get("embedded", "false")),
+            Integer.parseInt(options.get("embedded-kafka-port", "9092")),
+            Double.parseDouble(options.get("rate", "200")),
+            Arrival.valueOf(options.get("arrival", "poisson").toUpperCase(Locale.ROOT)),
+            Duration.parse(options.get("warmup", "PT10S")),
+            Duration.parse(options.get("duration", "PT60S")),
+            Duration.parse(options.get("drain-timeout", "PT30S")),
+            Integer.parseInt(options.get("max-outstanding", "10000")),
+            Integer.parseInt(options.get("min-items", "1")),
+            Integer.parseInt(options.get("max-items", "5")),
+            Integer.parseInt(options.get("skus", "1000")),
+            Double.parseDouble(options.get("sku-skew", "1.0")),
+            Integer.parseInt(options.get("customers", "10000")),
+            options.get("terminal-event", "NOTIFICATION_SENT"),
+            Path.of(options.get("report-dir", "target/load-test")),
+            Long.parseLong(options.get("seed", "42")));
+        options.rejectUnknown();
+        settings.validate();
+        return settings;
+    }
+    
+    public LoadTestSettings withEndpoints(String baseUrl, String bootstrapServers) {
+        return new LoadTestSettings(target, baseUrl, bootstrapServers, embedded, embeddedKafkaPort, rate, arrival,
+            warmup, duration, drainTimeout, maxOutstanding, minItems, maxItems, skus, skuSkew, customers,
+            terminalEvent, reportDirectory, seed);
+    }
+    
+    private void validate() {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        if (minItems < 1 || maxItems < minItems) {
+            throw new IllegalArgumentException("Item counts must satisfy 1 <= min-items <= max-items");
+        }
+        if (skus < 1 || customers < 1 || maxOutstanding < 1) {
+            throw new IllegalArgumentException("skus, customers and max-outstanding must be positive");
+        }
+        if (skuSkew < 0) {
+            throw new IllegalArgumentException("sku-skew must not be negative");
+        }
+    }
+    
+    private static final class Options {
+        
+        private final Map<String, String> values;
+        private final Map<String, String> unread;
+        
+        private Options(Map<String, String> values) {
+            this.values = values;
+            this.unread = new HashMap<>(values);
+        }
+        
+        private String get(String name, String defaultValue) {
+            unread.remove(name);
+            return values.getOrDefault(name, defaultValue);
+        }
+        
+        private void rejectUnknown() {
+            if (!unread.isEmpty()) {
+                throw new IllegalArgumentException("Unknown options: " + unread.keySet());
+            }
+        }
+    }
+}
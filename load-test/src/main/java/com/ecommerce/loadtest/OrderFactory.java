@@ -0,0 +1,50 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.order.dto.CreateOrderRequest;
+import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.model.Money;
+import com.ecommerce.shared.model.OrderItem;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Builds randomized orders: item count uniform in [min-items, max-items], SKUs Zipf distributed and
+// customers uniform. Prices are fixed per SKU so totals stay reproducible for a given seed.
+public class OrderFactory {
+    
+    private final LoadTestSettings settings;
+    private final ZipfDistribution skus;
+    
+    public OrderFactory(LoadTestSettings settings) {
+        this.settings = settings;
+        this.skus = new ZipfDistribution(settings.skus(), settings.skuSkew());
+    }
+    
+    public CreateOrderRequest next(RandomGenerator random) {
+        int itemCount = random.nextInt(settings.minItems(), settings.maxItems() + 1);
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            int sku = skus.sample(random);
+            items.add(new OrderItem("sku-" + sku, "Product " + sku, random.nextInt(1, 4), priceOf(sku)));
+        }
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId("customer-" + random.nextInt(settings.customers()));
+        request.setItems(items);
+        return request;
+    }
+    
+    public static OrderCreatedEvent toEvent(String correlationId, String orderId, CreateOrderRequest request) {
+        Money.Accumulator total = Money.accumulator();
+        for (OrderItem item : request.getItems()) {
+            total.add(item.getTotal());
+        }
+        return new OrderCreatedEvent(correlationId, orderId, request.getCustomerId(), request.getItems(),
+            total.total().toBigDecimal());
+    }
+    
+    private static BigDecimal priceOf(int sku) {
+        return BigDecimal.valueOf(499 + (sku * 7919L) % 20000, 2);
+    }
+}
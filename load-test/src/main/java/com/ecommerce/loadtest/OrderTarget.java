@@ -0,0 +1,19 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.order.dto.CreateOrderRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+// Where generated orders go. Submissions must not block the generator thread; the returned future
+// completes once the target has accepted, rejected or failed the order.
+public interface OrderTarget extends AutoCloseable {
+    
+    enum Outcome {
+        ACCEPTED, REJECTED, FAILED
+    }
+    
+    CompletableFuture<Outcome> submit(String correlationId, CreateOrderRequest request);
+    
+    @Override
+    void close();
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.shared.config.EventHeaders;
+import com.ecommerce.shared.config.KafkaTopics;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Measures end-to-end saga latency: consumes the terminal event topic and matches records to started
+// orders by the correlationId header, so payloads are never deserialized. Latency runs from the
+// order's intended start time, not from when it was actually sent.
+@Slf4j
+public class SagaCompletionTracker implements AutoCloseable {
+    
+    private static final Map<String, String> TOPICS_BY_EVENT_TYPE = Map.of(
+        "ORDER_CREATED", KafkaTopics.ORDER_CREATED,
+        "ORDER_CANCELLED", KafkaTopics.ORDER_CANCELLED,
+        "INVENTORY_RESERVED", KafkaTopics.INVENTORY_RESERVED,
+        "INVENTORY_INSUFFICIENT", KafkaTopics.INVENTORY_INSUFFICIENT,
+        "PAYMENT_PROCESSED", KafkaTopics.PAYMENT_PROCESSED,
+        "PAYMENT_FAILED", KafkaTopics.PAYMENT_FAILED,
+        "NOTIFICATION_SENT", KafkaTopics.NOTIFICATION_SENT);
+    
+    private record Started(long intendedNanos, boolean measured) {
+    }
+    
+    private final Map<String, Started> started = new ConcurrentHashMap<>();
+    private final Recorder latency = new Recorder(3);
+    private final AtomicInteger measuredOutstanding = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final CountDownLatch assigned = new CountDownLatch(1);
+    private final KafkaConsumer<String, byte[]> consumer;
+    private final String topic;
+    private final String eventType;
+    private final Thread poller;
+    private volatile boolean running = true;
+    
+    public SagaCompletionTracker(String bootstrapServers, String eventType) {
+        this.eventType = eventType;
+        this.topic = TOPICS_BY_EVENT_TYPE.get(eventType);
+        if (topic == null) {
+            throw new IllegalArgumentException("Unknown terminal event type: " + eventType);
+        }
+        Map<String, Object> config = Map.of(
+            ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+            ConsumerConfig.GROUP_ID_CONFIG, "load-test-" + System.nanoTime(),
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest",
+            ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.consumer = new KafkaConsumer<>(config, new StringDeserializer(), new ByteArrayDeserializer());
+        this.poller = new Thread(this::poll, "saga-completion-tracker");
+        this.poller.setDaemon(true);
+    }
+    
+    // Returns once the terminal topic is assigned, so no completion of a tracked saga can be missed
+    public void start(Duration timeout) throws InterruptedException {
+        poller.start();
+        if (!assigned.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("No partitions of " + topic + " assigned within " + timeout);
+        }
+    }
+    
+    public void track(String correlationId, long intendedNanos, boolean measured) {
+        started.put(correlationId, new Started(intendedNanos, measured));
+        if (measured) {
+            measuredOutstanding.incrementAndGet();
+        }
+    }
+    
+    // The order was never accepted, so its saga will not complete
+    public void forget(String correlationId) {
+        Started removed = started.remove(correlationId);
+        if (removed != null && removed.measured()) {
+            measuredOutstanding.decrementAndGet();
+        }
+    }
+    
+    public boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (measuredOutstanding.get() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+    
+    public long getCompleted() {
+        return completed.get();
+    }
+    
+    public int getOutstanding() {
+        return measuredOutstanding.get();
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public Histogram latencyHistogram() {
+        return latency.getIntervalHistogram();
+    }
+    
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        consumer.wakeup();
+        poller.join(TimeUnit.SECONDS.toMillis(10));
+    }
+    
+    private void poll() {
+        try {
+            consumer.subscribe(List.of(topic), new ConsumerRebalanceListener() {
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                    // Offsets are never committed
+                }
+                
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                    if (!partitions.isEmpty()) {
+                        assigned.countDown();
+                    }
+                }
+            });
+            while (running) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(100));
+                long now = System.nanoTime();
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    complete(record, now);
+                }
+            }
+        } catch (WakeupException e) {
+            // Closing
+        } catch (RuntimeException e) {
+            log.error("Saga completion tracking stopped", e);
+        } finally {
+            consumer.close();
+        }
+    }
+    
+    private void complete(ConsumerRecord<String, byte[]> record, long now) {
+        Header header = record.headers().lastHeader(EventHeaders.CORRELATION_ID);
+        if (header == null) {
+            return;
+        }
+        Started saga = started.remove(new String(header.value(), StandardCharsets.UTF_8));
+        if (saga == null || !saga.measured()) {
+            return;
+        }
+        latency.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(now - saga.intendedNanos())));
+        completed.incrementAndGet();
+        measuredOutstanding.decrementAndGet();
+    }
+}
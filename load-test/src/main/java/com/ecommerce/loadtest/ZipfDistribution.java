@@ -0,0 +1,36 @@
+package com.ecommerce.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Draws ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent, so a few hot SKUs take
+// most of the orders. An exponent of 0 is uniform. Sampling is a binary search over the precomputed CDF.
+public class ZipfDistribution {
+    
+    private final double[] cumulative;
+    
+    public ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+        cumulative[n - 1] = 1.0;
+    }
+    
+    public int sample(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return index >= 0 ? index : -index - 1;
+    }
+    
+    public double probability(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfDistributionTest {
+    
+    @Test
+    void shouldFavourLowRanksWithPositiveExponent() {
+        // Given
+        ZipfDistribution distribution = new ZipfDistribution(1000, 1.0);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[1000];
+        
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            counts[distribution.sample(random)]++;
+        }
+        
+        // Then
+        assertEquals(distribution.probability(0), counts[0] / 100_000.0, 0.01);
+        assertTrue(counts[0] > counts[1] && counts[1] > counts[9]);
+        assertTrue(counts[0] > 50 * counts[999]);
+    }
+    
+    @Test
+    void shouldBeUniformWithZeroExponent() {
+        // Given
+        ZipfDistribution distribution = new ZipfDistribution(4, 0.0);
+        
+        // When & Then
+        for (int rank = 0; rank < 4; rank++) {
+            assertEquals(0.25, distribution.probability(rank), 1e-9);
+        }
+    }
+    
+    @Test
+    void shouldStayWithinRange() {
+        // Given
+        ZipfDistribution distribution = new ZipfDistribution(3, 2.0);
+        SplittableRandom random = new SplittableRandom(7);
+        
+        // When & Then
+        for (int i = 0; i < 10_000; i++) {
+            int rank = distribution.sample(random);
+            assertTrue(rank >= 0 && rank < 3);
+        }
+    }
+}
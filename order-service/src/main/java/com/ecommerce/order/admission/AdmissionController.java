@@ -0,0 +1,159 @@
+package com.ecommerce.order.admission;
+
+import com.ecommerce.order.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+// Bounds the order requests being persisted and published at once. The limit adapts to the latency of
+// completed requests (see LimitAlgorithm), so when the database slows down the service answers 429
+// instead of queueing work it cannot finish. Events are published asynchronously, so broker latency is
+// not part of that measure: a slow broker uses up the publisher's in-flight permits, the request that
+// finds none fails with 503 (PublisherSaturatedException), and the limit backs off from then on, so
+// later requests over it get 429. Above fairness-threshold utilisation a
+// customer holding its fair share of the limit (limit / customers in flight) is rejected first, so one
+// importer cannot take every slot from interactive customers.
+@Component
+public class AdmissionController {
+    
+    public static final String LIMIT = "order.admission.limit";
+    public static final String IN_FLIGHT = "order.admission.in-flight";
+    public static final String REJECTED = "order.admission.rejected";
+    
+    private final LimitAlgorithm algorithm;
+    private final double fairnessThreshold;
+    private final Duration retryAfter;
+    private final LongSupplier clock;
+    private final Map<String, int[]> customerInFlight = new HashMap<>();
+    private final Counter limitRejections;
+    private final Counter fairShareRejections;
+    private int inFlight;
+    
+    @Autowired
+    public AdmissionController(@Value("${ecommerce.orders.admission.algorithm:gradient}") String algorithm,
+                               @Value("${ecommerce.orders.admission.initial-limit:50}") int initialLimit,
+                               @Value("${ecommerce.orders.admission.min-limit:5}") int minLimit,
+                               @Value("${ecommerce.orders.admission.max-limit:500}") int maxLimit,
+                               @Value("${ecommerce.orders.admission.latency-budget:PT0.5S}") Duration latencyBudget,
+                               @Value("${ecommerce.orders.admission.fairness-threshold:0.5}") double fairnessThreshold,
+                               @Value("${ecommerce.orders.admission.retry-after:PT1S}") Duration retryAfter,
+                               MeterRegistry meterRegistry) {
+        this(switch (algorithm) {
+            case "aimd" -> new AimdLimit(initialLimit, minLimit, maxLimit, 0.9, latencyBudget.toNanos());
+            case "gradient" -> new GradientLimit(initialLimit, minLimit, maxLimit, 1.5, 0.2);
+            default -> throw new IllegalArgumentException("Unknown admission algorithm: " + algorithm);
+        }, fairnessThreshold, retryAfter, meterRegistry, System::nanoTime);
+    }
+    
+    public AdmissionController(LimitAlgorithm algorithm, double fairnessThreshold, Duration retryAfter,
+                               MeterRegistry meterRegistry, LongSupplier clock) {
+        this.algorithm = algorithm;
+        this.fairnessThreshold = fairnessThreshold;
+        this.retryAfter = retryAfter;
+        this.clock = clock;
+        this.limitRejections = Counter.builder(REJECTED)
+            .tag("reason", "limit")
+            .description("Order requests rejected with 429 because the concurrency limit was reached")
+            .register(meterRegistry);
+        this.fairShareRejections = Counter.builder(REJECTED)
+            .tag("reason", "fair_share")
+            .description("Order requests rejected with 429 because the customer held its fair share")
+            .register(meterRegistry);
+        Gauge.builder(LIMIT, this, AdmissionController::getLimit)
+            .description("Order requests allowed in flight")
+            .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT, this, AdmissionController::getInFlight)
+            .description("Order requests being persisted and published")
+            .register(meterRegistry);
+    }
+    
+    public synchronized Permit admit(String customerId) {
+        int limit = algorithm.limit();
+        if (inFlight >= limit) {
+            limitRejections.increment();
+            throw new AdmissionRejectedException("Order service is at its concurrency limit of " + limit, retryAfter);
+        }
+        int[] held = customerInFlight.get(customerId);
+        if (held != null && inFlight >= limit * fairnessThreshold) {
+            // A customer with nothing in flight is admitted anywhere below the limit
+            int fairShare = Math.max(1, limit / customerInFlight.size());
+            if (held[0] >= fairShare) {
+                fairShareRejections.increment();
+                throw new AdmissionRejectedException("Customer " + customerId + " holds its share of "
+                    + fairShare + " concurrent orders", retryAfter);
+            }
+        }
+        if (held == null) {
+            held = new int[1];
+            customerInFlight.put(customerId, held);
+        }
+        held[0]++;
+        inFlight++;
+        return new Permit(customerId, inFlight, clock.getAsLong());
+    }
+    
+    public synchronized int getLimit() {
+        return algorithm.limit();
+    }
+    
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+    
+    private synchronized void release(Permit permit, Outcome outcome) {
+        inFlight--;
+        int[] held = customerInFlight.get(permit.customerId);
+        if (--held[0] == 0) {
+            customerInFlight.remove(permit.customerId);
+        }
+        if (outcome != Outcome.IGNORED) {
+            algorithm.onSample(clock.getAsLong() - permit.admittedAt, permit.inFlightAtAdmission,
+                outcome == Outcome.DROPPED);
+        }
+    }
+    
+    private enum Outcome {
+        SUCCEEDED, DROPPED, IGNORED
+    }
+    
+    // Closing releases the slot. Only requests marked succeeded or dropped feed the limit: a request
+    // that failed validation or hit a bug says nothing about load.
+    public final class Permit implements AutoCloseable {
+        
+        private final String customerId;
+        private final int inFlightAtAdmission;
+        private final long admittedAt;
+        private Outcome outcome = Outcome.IGNORED;
+        private boolean released;
+        
+        private Permit(String customerId, int inFlightAtAdmission, long admittedAt) {
+            this.customerId = customerId;
+            this.inFlightAtAdmission = inFlightAtAdmission;
+            this.admittedAt = admittedAt;
+        }
+        
+        public void succeeded() {
+            outcome = Outcome.SUCCEEDED;
+        }
+        
+        public void dropped() {
+            outcome = Outcome.DROPPED;
+        }
+        
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(this, outcome);
+            }
+        }
+    }
+}
\ No newline at end of file
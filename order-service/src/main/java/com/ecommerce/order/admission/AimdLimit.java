@@ -0,0 +1,39 @@
+package com.ecommerce.order.admission;
+
+// Additive increase, multiplicative decrease: grows by one for every request that completed within
+// the latency budget while the limit was at least half used, and backs off by a fixed ratio on a drop
+// or a request slower than the budget.
+public class AimdLimit implements LimitAlgorithm {
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+    private int limit;
+    
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long timeoutNanos) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid AIMD limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = timeoutNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+    
+    @Override
+    public int limit() {
+        return limit;
+    }
+    
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped || rttNanos > timeoutNanos) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (inFlight * 2 >= limit) {
+            // Growing an idle limit would only let a later burst through unchecked
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.ecommerce.order.admission;
+
+// Compares each request's latency with a slow moving average of past latency, the service's latency
+// without queueing. While they agree the limit grows by a queue allowance of sqrt(limit); as latency
+// rises above tolerance x baseline the limit shrinks in proportion, down to half per sample on a
+// drop. Changes are smoothed so one slow request does not halve the limit.
+public class GradientLimit implements LimitAlgorithm {
+    
+    private static final int BASELINE_WINDOW = 600;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private double limit;
+    private double baselineRtt;
+    
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1 || smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Invalid gradient limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+    
+    @Override
+    public int limit() {
+        return (int) limit;
+    }
+    
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        double rtt = Math.max(1, rttNanos);
+        if (baselineRtt == 0) {
+            baselineRtt = rtt;
+        } else {
+            baselineRtt += (rtt - baselineRtt) * 2.0 / (BASELINE_WINDOW + 1);
+            if (baselineRtt > 2 * rtt) {
+                // Load dropped away: let the baseline follow it down quickly
+                baselineRtt *= 0.95;
+            }
+        }
+        if (!dropped && inFlight * 2 < limit) {
+            return;
+        }
+        double gradient = dropped ? 0.5 : Math.max(0.5, Math.min(1.0, tolerance * baselineRtt / rtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+}
\ No newline at end of file
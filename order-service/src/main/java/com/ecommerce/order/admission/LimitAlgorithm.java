@@ -0,0 +1,12 @@
+package com.ecommerce.order.admission;
+
+// Adjusts the number of order requests allowed in flight from the latency of completed requests.
+// Calls are serialized by the AdmissionController.
+public interface LimitAlgorithm {
+    
+    int limit();
+    
+    // rttNanos: time the request spent persisting and publishing; inFlight: requests in flight when it
+    // was admitted; dropped: the request was shed downstream, the strongest overload signal
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+}
\ No newline at end of file
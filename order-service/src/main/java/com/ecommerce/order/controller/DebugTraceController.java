@@ -0,0 +1,42 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.shared.logging.CorrelationDebug;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Switches full (DEBUG level) logging on for a single correlation or order id without changing log levels
+@RestController
+@RequestMapping("/admin/traces")
+public class DebugTraceController {
+    
+    private static final Duration MAX_TTL = Duration.ofHours(1);
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<Void> enable(@PathVariable String id, @RequestParam(defaultValue = "PT15M") Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(MAX_TTL) > 0) {
+            throw new IllegalArgumentException("ttl must be positive and at most " + MAX_TTL);
+        }
+        if (!CorrelationDebug.enable(id, ttl)) {
+            throw new IllegalArgumentException("At most " + CorrelationDebug.MAX_ENABLED + " ids can be traced at once");
+        }
+        return ResponseEntity.noContent().build();
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> disable(@PathVariable String id) {
+        CorrelationDebug.disable(id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @GetMapping
+    public Map<String, Instant> enabled() {
+        Map<String, Instant> enabled = new TreeMap<>();
+        CorrelationDebug.getEnabled().forEach((id, expiresAt) -> enabled.put(id, Instant.ofEpochMilli(expiresAt)));
+        return enabled;
+    }
+}
\ No newline at end of file
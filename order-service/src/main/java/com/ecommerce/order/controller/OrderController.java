@@ -1,18 +1,29 @@
 package com.ecommerce.order.controller;
 
+import com.ecommerce.order.admission.AdmissionController;
 import com.ecommerce.order.dto.CreateOrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
-import com.ecommerce.order.dto.OrderStatusResponse;
+import com.ecommerce.order.exception.DuplicateOrderRequestException;
+import com.ecommerce.order.exception.PublisherSaturatedException;
+import com.ecommerce.order.idempotency.IdempotencyStore;
+import com.ecommerce.order.query.CachedJson;
+import com.ecommerce.order.query.OrderQueryService;
+import com.ecommerce.order.ratelimit.CustomerRateLimiter;
 import com.ecommerce.order.service.OrderService;
+import com.ecommerce.shared.logging.LogContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import java.util.List;
+import java.io.IOException;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/orders")
@@ -21,60 +32,110 @@ import java.util.List;
 @Slf4j
 public class OrderController {
     
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final int MAX_CORRELATION_ID_LENGTH = 64;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    
     private final OrderService orderService;
+    private final OrderQueryService orderQueryService;
+    private final AdmissionController admissionController;
+    private final CustomerRateLimiter customerRateLimiter;
+    private final IdempotencyStore idempotencyStore;
     
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        log.info("Received order creation request for customer: {}", request.getCustomerId());
-        
-        try {
-            OrderResponse response = orderService.createOrder(request);
-            log.info("Order created successfully with ID: {}", response.getOrderId());
-            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
-        } catch (Exception e) {
-            log.error("Failed to create order for customer: {}", request.getCustomerId(), e);
-            throw e;
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = CORRELATION_ID_HEADER, required = false) String correlationId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        // A client supplied id is kept only if it is usable as a log and header value
+        if (correlationId != null && (correlationId.isBlank() || correlationId.length() > MAX_CORRELATION_ID_LENGTH)) {
+            correlationId = null;
+        }
+        // Unlike the correlation id an unusable key is rejected: ignoring it would let a retry create a duplicate
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        String customerId = request.getCustomerId();
+        // Retries answered from memory skip the rate limit and admission: they cost nothing downstream
+        if (idempotencyKey != null) {
+            Optional<OrderResponse> previous = idempotencyStore.replay(customerId, idempotencyKey, request);
+            if (previous.isPresent()) {
+                return replayed(previous.get());
+            }
         }
+        // The rate limit goes first: it is cheap and does not hold a slot of the admission limit
+        customerRateLimiter.acquire(customerId);
+        OrderResponse response;
+        try (AdmissionController.Permit permit = admissionController.admit(customerId)) {
+            try {
+                response = orderService.createOrder(request, correlationId, idempotencyKey);
+            } catch (PublisherSaturatedException e) {
+                permit.dropped();
+                throw e;
+            } catch (DuplicateOrderRequestException e) {
+                return replayed(idempotencyStore.recorded(customerId, idempotencyKey, request));
+            }
+            permit.succeeded();
+        }
+        if (idempotencyKey != null) {
+            idempotencyStore.remember(customerId, idempotencyKey, request, response);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
     
     @GetMapping("/{orderId}")
-    public ResponseEntity<OrderResponse> getOrder(@PathVariable String orderId) {
-        log.info("Received request to get order: {}", orderId);
-        
-        return orderService.getOrder(orderId)
-            .map(order -> {
-                log.info("Order found: {}", orderId);
-                return ResponseEntity.ok(order);
-            })
-            .orElseGet(() -> {
-                log.warn("Order not found: {}", orderId);
-                return ResponseEntity.notFound().build();
-            });
+    public void getOrder(@PathVariable String orderId, ServletWebRequest request,
+                         HttpServletResponse response) throws IOException {
+        try (LogContext ignored = LogContext.forOrder(orderId)) {
+            Optional<CachedJson> order = orderQueryService.getOrder(orderId);
+            if (order.isEmpty()) {
+                log.debug("Order not found: {}", orderId);
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            writeJson(order.get(), request, response);
+        }
     }
     
     @GetMapping("/{orderId}/status")
-    public ResponseEntity<OrderStatusResponse> getOrderStatus(@PathVariable String orderId) {
-        log.info("Received request to get order status: {}", orderId);
-        
-        return orderService.getOrderStatus(orderId)
-            .map(status -> {
-                log.info("Order status found for: {}", orderId);
-                return ResponseEntity.ok(status);
-            })
-            .orElseGet(() -> {
-                log.warn("Order not found for status check: {}", orderId);
-                return ResponseEntity.notFound().build();
-            });
+    public void getOrderStatus(@PathVariable String orderId, ServletWebRequest request,
+                               HttpServletResponse response) throws IOException {
+        try (LogContext ignored = LogContext.forOrder(orderId)) {
+            Optional<CachedJson> status = orderQueryService.getOrderStatus(orderId);
+            if (status.isEmpty()) {
+                log.debug("Order not found for status check: {}", orderId);
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            writeJson(status.get(), request, response);
+        }
     }
     
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getOrdersByCustomer(
-            @RequestParam String customerId) {
-        log.info("Received request to get orders for customer: {}", customerId);
-        
-        List<OrderResponse> orders = orderService.getOrdersByCustomer(customerId);
-        log.info("Found {} orders for customer: {}", orders.size(), customerId);
-        
-        return ResponseEntity.ok(orders);
+    public void getOrdersByCustomer(@RequestParam String customerId, ServletWebRequest request,
+                                    HttpServletResponse response) throws IOException {
+        writeJson(orderQueryService.getOrdersByCustomer(customerId), request, response);
+    }
+    
+    private static ResponseEntity<OrderResponse> replayed(OrderResponse response) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+            .body(response);
+    }
+    
+    // Read model payloads are already serialized: answer 304 on a matching If-None-Match, otherwise
+    // copy the cached bytes straight to the servlet output stream, bypassing the message converters.
+    private static void writeJson(CachedJson json, ServletWebRequest request,
+                                  HttpServletResponse response) throws IOException {
+        if (request.checkNotModified(json.getEtag())) {
+            return;
+        }
+        byte[] body = json.getBody();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
     }
 }
\ No newline at end of file
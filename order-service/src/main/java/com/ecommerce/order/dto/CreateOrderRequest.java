@@ -1,5 +1,6 @@
 package com.ecommerce.order.dto;
 
+import com.ecommerce.shared.enums.OrderPriority;
 import com.ecommerce.shared.model.OrderItem;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,6 +10,10 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 
 @Data
@@ -23,4 +28,36 @@ public class CreateOrderRequest {
     @NotEmpty(message = "Order must contain at least one item")
     @Valid
     private List<OrderItem> items;
-}
\ No newline at end of file
+    
+    // Storefront checkouts send EXPRESS; bulk imports and backfills leave it out
+    private OrderPriority priority;
+    
+    // SHA-256 of a canonical form, stable across restarts and instances. Prices compare by value, so 10.0
+    // and 10.00 give the same digest; fields are length-prefixed so two different requests never share a form.
+    public String fingerprint() {
+        StringBuilder canonical = new StringBuilder();
+        append(canonical, customerId);
+        append(canonical, priority != null ? priority.name() : null);
+        for (OrderItem item : items) {
+            append(canonical, item.getProductId());
+            append(canonical, item.getProductName());
+            append(canonical, item.getQuantity() != null ? item.getQuantity().toString() : null);
+            append(canonical, item.getUnitPrice() != null ? item.getUnitPrice().stripTrailingZeros().toPlainString() : null);
+        }
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private static void append(StringBuilder canonical, String value) {
+        if (value == null) {
+            canonical.append('-');
+        } else {
+            canonical.append(value.length()).append(':').append(value);
+        }
+        canonical.append(';');
+    }
+}
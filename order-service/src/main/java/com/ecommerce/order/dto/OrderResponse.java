@@ -1,5 +1,6 @@
 package com.ecommerce.order.dto;
 
+import com.ecommerce.order.model.Order;
 import com.ecommerce.shared.enums.OrderStatus;
 import com.ecommerce.shared.model.OrderItem;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Data
 @NoArgsConstructor
@@ -22,4 +24,26 @@ public class OrderResponse {
     private BigDecimal totalAmount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    
+    public static OrderResponse from(Order order) {
+        // Convert OrderItemEntity back to OrderItem for response
+        List<OrderItem> items = order.getItems().stream()
+            .map(entity -> new OrderItem(
+                entity.getProductId(),
+                entity.getProductName(),
+                entity.getQuantity(),
+                entity.getUnitPrice().toBigDecimal()
+            ))
+            .collect(Collectors.toList());
+        
+        return new OrderResponse(
+            order.getOrderId(),
+            order.getCustomerId(),
+            items,
+            order.getStatus(),
+            order.getTotalAmount().toBigDecimal(),
+            order.getCreatedAt(),
+            order.getUpdatedAt()
+        );
+    }
 }
\ No newline at end of file
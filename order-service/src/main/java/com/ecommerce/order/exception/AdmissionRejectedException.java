@@ -0,0 +1,19 @@
+package com.ecommerce.order.exception;
+
+import java.time.Duration;
+
+// Thrown before an order is created when admitting it would exceed the concurrency limit or the
+// customer's fair share of it
+public class AdmissionRejectedException extends RuntimeException {
+    
+    private final Duration retryAfter;
+    
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+    
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
\ No newline at end of file
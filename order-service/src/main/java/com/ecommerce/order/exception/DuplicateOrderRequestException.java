@@ -0,0 +1,9 @@
+package com.ecommerce.order.exception;
+
+// Thrown when an Idempotency-Key already belongs to an order; nothing was persisted or published
+public class DuplicateOrderRequestException extends RuntimeException {
+    
+    public DuplicateOrderRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
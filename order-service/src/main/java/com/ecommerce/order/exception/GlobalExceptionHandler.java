@@ -1,6 +1,7 @@
 package com.ecommerce.order.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -53,6 +55,75 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
     
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReusedException(
+            IdempotencyKeyReusedException ex) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "IDEMPOTENCY_KEY_REUSED",
+            ex.getMessage(),
+            null,
+            LocalDateTime.now()
+        );
+        
+        log.warn("Idempotency key reused: {}", ex.getMessage());
+        return ResponseEntity.unprocessableEntity().body(errorResponse);
+    }
+    
+    @ExceptionHandler(PublisherSaturatedException.class)
+    public ResponseEntity<ErrorResponse> handlePublisherSaturatedException(
+            PublisherSaturatedException ex) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "SERVICE_OVERLOADED",
+            "Service is temporarily overloaded, retry later",
+            null,
+            LocalDateTime.now()
+        );
+        
+        log.warn("Shedding request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(errorResponse);
+    }
+    
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleAdmissionRejectedException(
+            AdmissionRejectedException ex) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "TOO_MANY_REQUESTS",
+            ex.getMessage(),
+            null,
+            LocalDateTime.now()
+        );
+        
+        log.debug("Rejecting order: {}", ex.getMessage());
+        return tooManyRequests(errorResponse, ex.getRetryAfter());
+    }
+    
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(
+            RateLimitExceededException ex) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "RATE_LIMITED",
+            ex.getMessage(),
+            null,
+            LocalDateTime.now()
+        );
+        
+        log.debug("Rate limiting order: {}", ex.getMessage());
+        return tooManyRequests(errorResponse, ex.getRetryAfter());
+    }
+    
+    // Retry-After is in whole seconds, rounded up so clients never retry early
+    private static ResponseEntity<ErrorResponse> tooManyRequests(ErrorResponse errorResponse, Duration retryAfter) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)))
+            .body(errorResponse);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         ErrorResponse errorResponse = new ErrorResponse(
@@ -0,0 +1,9 @@
+package com.ecommerce.order.exception;
+
+// Thrown when a client sends an Idempotency-Key it already used with a different order request
+public class IdempotencyKeyReusedException extends RuntimeException {
+    
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.order.exception;
+
+// Thrown instead of blocking the request thread when the event publisher has no in-flight capacity left
+public class PublisherSaturatedException extends RuntimeException {
+    
+    public PublisherSaturatedException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
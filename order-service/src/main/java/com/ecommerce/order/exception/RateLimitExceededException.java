@@ -0,0 +1,18 @@
+package com.ecommerce.order.exception;
+
+import java.time.Duration;
+
+// Thrown when a customer has used up its order rate; retryAfter is when its next token is due
+public class RateLimitExceededException extends RuntimeException {
+    
+    private final Duration retryAfter;
+    
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+    
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
\ No newline at end of file
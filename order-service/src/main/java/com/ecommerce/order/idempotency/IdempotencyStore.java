@@ -0,0 +1,135 @@
+package com.ecommerce.order.idempotency;
+
+import com.ecommerce.order.dto.CreateOrderRequest;
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.exception.IdempotencyKeyReusedException;
+import com.ecommerce.order.model.IdempotencyRecord;
+import com.ecommerce.order.repository.IdempotencyRecordRepository;
+import com.ecommerce.order.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Answers retried POST /orders carrying an Idempotency-Key with the order the first attempt created.
+// The order_idempotency_keys table is the source of truth: OrderService inserts the key in the order's
+// transaction, so a retry racing the first attempt, here or on another instance, fails on the primary key
+// before anything is persisted or published. Responses created here are also kept in a bounded cache, so
+// retries usually return without a query and a new key costs no lookup at all, only the insert.
+@Component
+@Slf4j
+public class IdempotencyStore implements AutoCloseable {
+    
+    public static final String REPLAYED = "order.idempotency.replayed";
+    public static final String KEYS = "order.idempotency.keys";
+    
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final OrderRepository orderRepository;
+    private final Duration ttl;
+    private final Cache<IdempotencyRecord.Key, Entry> recent;
+    private final Counter memoryReplays;
+    private final Counter databaseReplays;
+    private final ScheduledExecutorService purger;
+    
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            OrderRepository orderRepository,
+                            @Value("${ecommerce.orders.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${ecommerce.orders.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${ecommerce.orders.idempotency.purge-interval:PT10M}") Duration purgeInterval,
+                            MeterRegistry meterRegistry) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.orderRepository = orderRepository;
+        this.ttl = ttl;
+        // Over max-entries the least useful responses are dropped; their retries fall back to the table
+        this.recent = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(ttl)
+            .build();
+        this.memoryReplays = Counter.builder(REPLAYED)
+            .tag("source", "memory")
+            .description("Order requests answered with the order created for their Idempotency-Key")
+            .register(meterRegistry);
+        this.databaseReplays = Counter.builder(REPLAYED)
+            .tag("source", "database")
+            .description("Order requests answered with the order created for their Idempotency-Key")
+            .register(meterRegistry);
+        Gauge.builder(KEYS, recent, Cache::estimatedSize)
+            .description("Idempotency keys whose response is kept in memory")
+            .register(meterRegistry);
+        
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeExpired, purgeInterval.toMillis(), purgeInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+    
+    // Memory only: a key missing here is almost always new, and if it is not the insert will say so
+    public Optional<OrderResponse> replay(String customerId, String idempotencyKey, CreateOrderRequest request) {
+        Entry entry = recent.getIfPresent(new IdempotencyRecord.Key(customerId, idempotencyKey));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        checkSameRequest(entry.requestDigest(), request, idempotencyKey);
+        memoryReplays.increment();
+        return Optional.of(entry.response());
+    }
+    
+    // After OrderService found the key taken. The order is read back as it is now, so its status may
+    // have moved on since the first response.
+    public OrderResponse recorded(String customerId, String idempotencyKey, CreateOrderRequest request) {
+        IdempotencyRecord record = idempotencyRecordRepository
+            .findById(new IdempotencyRecord.Key(customerId, idempotencyKey))
+            .orElseThrow(() -> new IllegalStateException("Idempotency key " + idempotencyKey + " was purged"));
+        checkSameRequest(record.getRequestDigest(), request, idempotencyKey);
+        OrderResponse response = orderRepository.findById(record.getOrderId())
+            .map(OrderResponse::from)
+            .orElseThrow(() -> new IllegalStateException("Order " + record.getOrderId() + " not found"));
+        remember(customerId, idempotencyKey, request, response);
+        databaseReplays.increment();
+        return response;
+    }
+    
+    public void remember(String customerId, String idempotencyKey, CreateOrderRequest request,
+                         OrderResponse response) {
+        recent.put(new IdempotencyRecord.Key(customerId, idempotencyKey),
+            new Entry(response, request.fingerprint()));
+    }
+    
+    @Override
+    public void close() {
+        purger.shutdownNow();
+    }
+    
+    private void purgeExpired() {
+        try {
+            int purged = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+            log.debug("Purged {} expired idempotency keys", purged);
+        } catch (RuntimeException e) {
+            log.warn("Idempotency key purge failed", e);
+        }
+    }
+    
+    private static void checkSameRequest(String requestDigest, CreateOrderRequest request, String idempotencyKey) {
+        if (!requestDigest.equals(request.fingerprint())) {
+            throw new IdempotencyKeyReusedException(
+                "Idempotency key " + idempotencyKey + " was already used for a different order");
+        }
+    }
+    
+    private record Entry(OrderResponse response, String requestDigest) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.order.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// The order created for a client's Idempotency-Key. Keys are scoped to the customer, so two clients
+// picking the same key never see each other's orders.
+@Entity
+@Table(name = "order_idempotency_keys")
+@IdClass(IdempotencyRecord.Key.class)
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<IdempotencyRecord.Key> {
+    
+    @Id
+    private String customerId;
+    
+    @Id
+    private String idempotencyKey;
+    
+    @Column(nullable = false)
+    private String orderId;
+    
+    // CreateOrderRequest.fingerprint() of the first request, to spot a key reused for a different order
+    @Column(nullable = false, length = 64)
+    private String requestDigest;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Always inserted, never updated: without this save() would SELECT before the insert
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+    
+    public IdempotencyRecord(String customerId, String idempotencyKey, String orderId, String requestDigest) {
+        this.customerId = customerId;
+        this.idempotencyKey = idempotencyKey;
+        this.orderId = orderId;
+        this.requestDigest = requestDigest;
+    }
+    
+    @Override
+    public Key getId() {
+        return new Key(customerId, idempotencyKey);
+    }
+    
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    @PostPersist
+    @PostLoad
+    protected void markPersisted() {
+        persisted = true;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        
+        private String customerId;
+        private String idempotencyKey;
+    }
+}
@@ -1,16 +1,22 @@
 package com.ecommerce.order.model;
 
 import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.model.Money;
+import com.ecommerce.shared.model.PositiveMoney;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -19,7 +25,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Order {
+public class Order implements Persistable<String> {
     
     @Id
     private String orderId;
@@ -37,9 +43,10 @@ public class Order {
     private OrderStatus status;
     
     @NotNull(message = "Total amount is required")
-    @Positive(message = "Total amount must be positive")
+    @PositiveMoney(message = "Total amount must be positive")
+    @Convert(converter = MoneyConverter.class)
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     
     @Column(nullable = false)
     private LocalDateTime createdAt;
@@ -47,6 +54,24 @@ public class Order {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // Ids are assigned by the service, so without this save() would merge and SELECT before every insert
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+    
+    @Override
+    public String getId() {
+        return orderId;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -60,4 +85,10 @@ public class Order {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
+    
+    @PostPersist
+    @PostLoad
+    protected void markPersisted() {
+        persisted = true;
+    }
 }
\ No newline at end of file
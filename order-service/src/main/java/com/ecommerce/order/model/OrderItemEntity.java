@@ -1,15 +1,17 @@
 package com.ecommerce.order.model;
 
+import com.ecommerce.shared.model.Money;
+import com.ecommerce.shared.model.PositiveMoney;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
-import java.math.BigDecimal;
 
 @Embeddable
 @Data
@@ -31,11 +33,12 @@ public class OrderItemEntity {
     private Integer quantity;
     
     @NotNull(message = "Unit price is required")
-    @Positive(message = "Unit price must be positive")
+    @PositiveMoney(message = "Unit price must be positive")
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
-    private BigDecimal unitPrice;
+    private Money unitPrice;
     
-    public BigDecimal getTotalPrice() {
-        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    public Money getTotalPrice() {
+        return unitPrice.times(quantity);
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.ecommerce.order.query;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// Serialized JSON body together with its strong ETag, both computed once when the read model is updated.
+@Getter
+public class CachedJson {
+    
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final CachedJson EMPTY_ARRAY = new CachedJson(new byte[] {'[', ']'}, FNV_OFFSET_BASIS);
+    
+    private final byte[] body;
+    private final long hash;
+    private final String etag;
+    
+    private CachedJson(byte[] body, long hash) {
+        this.body = body;
+        this.hash = hash;
+        this.etag = '"' + Long.toHexString(hash) + '"';
+    }
+    
+    public static CachedJson of(byte[] body) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : body) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        return new CachedJson(body, hash);
+    }
+    
+    // Concatenates elements into a JSON array; the ETag is derived from the element hashes, not the bytes.
+    public static CachedJson array(List<CachedJson> elements) {
+        if (elements.isEmpty()) {
+            return EMPTY_ARRAY;
+        }
+        int length = 1 + elements.size();
+        long hash = FNV_OFFSET_BASIS;
+        for (CachedJson element : elements) {
+            length += element.body.length;
+            hash = (hash ^ element.hash) * FNV_PRIME;
+        }
+        
+        byte[] json = new byte[length];
+        int position = 0;
+        json[position++] = '[';
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                json[position++] = ',';
+            }
+            byte[] body = elements.get(i).body;
+            System.arraycopy(body, 0, json, position, body.length);
+            position += body.length;
+        }
+        json[position] = ']';
+        return new CachedJson(json, hash);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.ecommerce.order.query;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Remembers for a short time which order ids were not found, so repeated lookups of unknown ids
+// (bots, stale links) stop reaching the database. Bounded: beyond maxEntries the cache evicts, so a
+// flood of random ids cannot grow it, and nothing is ever scanned to make room.
+public class NegativeCache {
+    
+    private final Cache<String, Boolean> unknown;
+    private final LongAdder hits = new LongAdder();
+    
+    public NegativeCache(long ttlNanos, int maxEntries, LongSupplier clock) {
+        this.unknown = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(ttlNanos, TimeUnit.NANOSECONDS)
+            .ticker(clock::getAsLong)
+            .build();
+    }
+    
+    public boolean contains(String key) {
+        if (unknown.getIfPresent(key) == null) {
+            return false;
+        }
+        hits.increment();
+        return true;
+    }
+    
+    public void add(String key) {
+        unknown.put(key, Boolean.TRUE);
+    }
+    
+    public long size() {
+        unknown.cleanUp();
+        return unknown.estimatedSize();
+    }
+    
+    public long getHits() {
+        return hits.sum();
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.order.query;
+
+import com.ecommerce.order.model.Order;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Raised by OrderService whenever the write model changes; the projection applies it after commit.
+@Getter
+@RequiredArgsConstructor
+public class OrderChangedEvent {
+    
+    private final Order order;
+}
\ No newline at end of file
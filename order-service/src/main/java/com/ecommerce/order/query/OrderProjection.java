@@ -0,0 +1,40 @@
+package com.ecommerce.order.query;
+
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.dto.OrderStatusResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderProjection {
+    
+    private final OrderReadModel orderReadModel;
+    private final ObjectMapper objectMapper;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        OrderView view = orderReadModel.put(project(OrderResponse.from(event.getOrder())));
+        log.debug("Projected order {} into read model", view.getOrderId());
+    }
+    
+    public OrderView project(OrderResponse order) {
+        try {
+            OrderStatusResponse status = new OrderStatusResponse(order.getOrderId(), order.getStatus(), order.getUpdatedAt());
+            return new OrderView(
+                order.getOrderId(),
+                order.getCustomerId(),
+                order.getUpdatedAt(),
+                CachedJson.of(objectMapper.writeValueAsBytes(order)),
+                CachedJson.of(objectMapper.writeValueAsBytes(status))
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize read model for order " + order.getOrderId(), e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.ecommerce.order.query;
+
+import com.ecommerce.order.service.OrderService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Serves GETs from the read model; the JPA aggregate is only consulted to hydrate entries that are
+// not projected yet (for example after a restart). Concurrent misses for one id share a single load,
+// and ids the database does not know are remembered for negative-ttl so repeated 404s stay cheap.
+// Orders created here are projected before they are read, so the negative cache cannot hide them;
+// an order written by another instance may 404 for at most negative-ttl.
+@Service
+@Slf4j
+public class OrderQueryService {
+    
+    public static final String COALESCED = "order.query.coalesced";
+    public static final String NEGATIVE_HITS = "order.query.negative.hits";
+    public static final String NEGATIVE_SIZE = "order.query.negative.size";
+    
+    private final OrderReadModel orderReadModel;
+    private final OrderProjection orderProjection;
+    private final OrderService orderService;
+    private final SingleFlight<String, Optional<OrderView>> loads = new SingleFlight<>();
+    private final NegativeCache unknownOrders;
+    
+    public OrderQueryService(OrderReadModel orderReadModel,
+                             OrderProjection orderProjection,
+                             OrderService orderService,
+                             @Value("${ecommerce.orders.query.negative-ttl:PT2S}") Duration negativeTtl,
+                             @Value("${ecommerce.orders.query.negative-max-entries:100000}") int negativeMaxEntries,
+                             MeterRegistry meterRegistry) {
+        this.orderReadModel = orderReadModel;
+        this.orderProjection = orderProjection;
+        this.orderService = orderService;
+        this.unknownOrders = new NegativeCache(negativeTtl.toNanos(), negativeMaxEntries, System::nanoTime);
+        FunctionCounter.builder(COALESCED, loads, SingleFlight::getShared)
+            .description("Order lookups served by another request's in-flight load")
+            .register(meterRegistry);
+        FunctionCounter.builder(NEGATIVE_HITS, unknownOrders, NegativeCache::getHits)
+            .description("Order lookups answered from the not-found cache")
+            .register(meterRegistry);
+        Gauge.builder(NEGATIVE_SIZE, unknownOrders, NegativeCache::size)
+            .description("Unknown order ids currently remembered")
+            .register(meterRegistry);
+    }
+    
+    public Optional<CachedJson> getOrder(String orderId) {
+        return findView(orderId).map(OrderView::getOrder);
+    }
+    
+    public Optional<CachedJson> getOrderStatus(String orderId) {
+        return findView(orderId).map(OrderView::getStatus);
+    }
+    
+    public CachedJson getOrdersByCustomer(String customerId) {
+        return orderReadModel.getCustomerOrders(customerId, id -> {
+            log.debug("Hydrating read model for customer: {}", id);
+            return orderService.getOrdersByCustomer(id).stream()
+                .map(orderProjection::project)
+                .toList();
+        });
+    }
+    
+    private Optional<OrderView> findView(String orderId) {
+        OrderView view = orderReadModel.get(orderId);
+        if (view != null) {
+            return Optional.of(view);
+        }
+        if (unknownOrders.contains(orderId)) {
+            return Optional.empty();
+        }
+        return loads.load(orderId, this::load);
+    }
+    
+    private Optional<OrderView> load(String orderId) {
+        log.debug("Read model miss for order: {}", orderId);
+        Optional<OrderView> view = orderService.getOrder(orderId)
+            .map(orderProjection::project)
+            .map(orderReadModel::put);
+        if (view.isEmpty()) {
+            unknownOrders.add(orderId);
+        }
+        return view;
+    }
+}
\ No newline at end of file
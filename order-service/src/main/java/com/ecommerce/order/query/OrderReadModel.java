@@ -0,0 +1,130 @@
+package com.ecommerce.order.query;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Bounded by entry count and age: evicted or expired entries are simply loaded again, and the age limit
+// also caps how long a change made through another instance can go unseen if its invalidation is lost.
+@Component
+public class OrderReadModel {
+    
+    private final Cache<String, OrderView> orders;
+    
+    // Only customers whose full order list has been loaded are indexed; others are hydrated on first query.
+    // Each list keeps its own views, so evicting an order does not break its customer's list.
+    private final Cache<String, Map<String, OrderView>> customerOrders;
+    
+    // Orders projected while their customer's list is being loaded, merged in once the load finishes
+    private final Map<String, Map<String, OrderView>> hydrating = new ConcurrentHashMap<>();
+    private final SingleFlight<String, Map<String, OrderView>> hydrations = new SingleFlight<>();
+    
+    public OrderReadModel(@Value("${ecommerce.orders.read-model.max-orders:100000}") long maxOrders,
+                          @Value("${ecommerce.orders.read-model.max-customers:10000}") long maxCustomers,
+                          @Value("${ecommerce.orders.read-model.ttl:PT10M}") Duration ttl) {
+        this.orders = Caffeine.newBuilder()
+            .maximumSize(maxOrders)
+            .expireAfterWrite(ttl)
+            .build();
+        this.customerOrders = Caffeine.newBuilder()
+            .maximumSize(maxCustomers)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+    
+    public OrderView get(String orderId) {
+        return orders.getIfPresent(orderId);
+    }
+    
+    public OrderView put(OrderView view) {
+        OrderView stored = orders.asMap().merge(view.getOrderId(), view, OrderReadModel::newer);
+        addTo(customerOrders.getIfPresent(view.getCustomerId()), stored);
+        addTo(hydrating.get(view.getCustomerId()), stored);
+        return stored;
+    }
+    
+    public CachedJson getCustomerOrders(String customerId, Function<String, List<OrderView>> loader) {
+        Map<String, OrderView> views = customerOrders.getIfPresent(customerId);
+        if (views == null) {
+            views = hydrations.load(customerId, id -> hydrate(id, loader));
+        }
+        
+        List<CachedJson> payloads;
+        synchronized (views) {
+            payloads = new ArrayList<>(views.size());
+            for (OrderView view : views.values()) {
+                payloads.add(view.getOrder());
+            }
+        }
+        return CachedJson.array(payloads);
+    }
+    
+    // Drops whatever this instance holds for an order that changed elsewhere: the cached view if it is older
+    // than the change, and the customer's list if the order is missing from it or listed in an older state
+    public void invalidateIfStale(String orderId, String customerId, LocalDateTime updatedAt) {
+        OrderView cached = orders.getIfPresent(orderId);
+        if (cached != null && isOlderThan(cached, updatedAt)) {
+            orders.asMap().remove(orderId, cached);
+        }
+        Map<String, OrderView> views = customerOrders.getIfPresent(customerId);
+        if (views != null) {
+            OrderView listed;
+            synchronized (views) {
+                listed = views.get(orderId);
+            }
+            if (listed == null || isOlderThan(listed, updatedAt)) {
+                customerOrders.asMap().remove(customerId, views);
+            }
+        }
+    }
+    
+    public long size() {
+        orders.cleanUp();
+        return orders.estimatedSize();
+    }
+    
+    // The query runs outside any cache lock. The list is published before the orders projected during the
+    // query are merged in, so every projection lands in at least one of the two.
+    private Map<String, OrderView> hydrate(String customerId, Function<String, List<OrderView>> loader) {
+        Map<String, OrderView> projected = Collections.synchronizedMap(new LinkedHashMap<>());
+        hydrating.put(customerId, projected);
+        try {
+            Map<String, OrderView> views = Collections.synchronizedMap(new LinkedHashMap<>());
+            for (OrderView view : loader.apply(customerId)) {
+                views.put(view.getOrderId(), orders.asMap().merge(view.getOrderId(), view, OrderReadModel::newer));
+            }
+            customerOrders.put(customerId, views);
+            synchronized (projected) {
+                projected.values().forEach(view -> addTo(views, view));
+            }
+            return views;
+        } finally {
+            hydrating.remove(customerId, projected);
+        }
+    }
+    
+    private static void addTo(Map<String, OrderView> views, OrderView view) {
+        if (views != null) {
+            views.merge(view.getOrderId(), view, OrderReadModel::newer);
+        }
+    }
+    
+    private static OrderView newer(OrderView existing, OrderView candidate) {
+        return candidate.isNewerThan(existing) ? candidate : existing;
+    }
+    
+    private static boolean isOlderThan(OrderView view, LocalDateTime updatedAt) {
+        return view.getUpdatedAt() != null && updatedAt != null && view.getUpdatedAt().isBefore(updatedAt);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.order.query;
+
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.state.OrderStateSnapshot;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+// Orders created or changed through another instance reach this instance's read model only through the
+// order-state topic. Each instance assigns itself every partition, without a consumer group, so all of
+// them see every snapshot and no group is left behind on the broker when an instance stops.
+@Component
+@ConditionalOnProperty(name = "ecommerce.orders.state-topic.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderStateInvalidator {
+    
+    private final OrderReadModel orderReadModel;
+    
+    public OrderStateInvalidator(OrderReadModel orderReadModel) {
+        this.orderReadModel = orderReadModel;
+    }
+    
+    // The topic is created with the partition count of the saga topics (KafkaTopicConfig)
+    @KafkaListener(topicPartitions = @TopicPartition(topic = KafkaTopics.ORDER_STATE,
+            partitions = "0-#{@topicSettings.partitions() - 1}"),
+        containerFactory = OrderStateListenerConfig.ORDER_STATE_CONTAINER_FACTORY)
+    public void onOrderState(@Payload(required = false) OrderStateSnapshot snapshot) {
+        if (snapshot != null) {
+            orderReadModel.invalidateIfStale(snapshot.orderId(), snapshot.customerId(), snapshot.updatedAt());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.order.query;
+
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.state.OrderStateDeserializer;
+import com.ecommerce.shared.state.OrderStateSnapshot;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Consumer for the order-state topic reusing the event consumer's settings with the snapshot codec. Every
+// instance reads every change and only changes made from now on matter, so the consumer has no group,
+// nothing is committed and a restart starts again at the end.
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.orders.state-topic.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderStateListenerConfig {
+    
+    public static final String ORDER_STATE_CONTAINER_FACTORY = "orderStateContainerFactory";
+    
+    @Bean(ORDER_STATE_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, OrderStateSnapshot> orderStateContainerFactory(
+            ConsumerFactory<String, BaseEvent> eventConsumerFactory) {
+        Map<String, Object> props = new HashMap<>(eventConsumerFactory.getConfigurationProperties());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.remove(ConsumerConfig.ISOLATION_LEVEL_CONFIG);
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        
+        ConcurrentKafkaListenerContainerFactory<String, OrderStateSnapshot> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props,
+            new StringDeserializer(), new OrderStateDeserializer()));
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.order.query;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Denormalised, pre-serialized representation of one order as served by the GET endpoints.
+@Getter
+@RequiredArgsConstructor
+public class OrderView {
+    
+    private final String orderId;
+    private final String customerId;
+    private final LocalDateTime updatedAt;
+    private final CachedJson order;
+    private final CachedJson status;
+    
+    boolean isNewerThan(OrderView other) {
+        return updatedAt == null || other.updatedAt == null || !updatedAt.isBefore(other.updatedAt);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.ecommerce.order.ratelimit;
+
+import com.ecommerce.order.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Caps order creation per customer. Customers listed under ecommerce.orders.rate-limit.customers get
+// their tier, everyone else the default tier; idle buckets are evicted in the background so memory
+// follows the customers active within a refill period, not every customer ever seen.
+@Component
+@Slf4j
+public class CustomerRateLimiter implements AutoCloseable {
+    
+    public static final String REJECTED = "order.rate-limit.rejected";
+    public static final String BUCKETS = "order.rate-limit.buckets";
+    
+    private static final String PREFIX = "ecommerce.orders.rate-limit.";
+    
+    private final boolean enabled;
+    private final TokenBucketStore store;
+    private final Map<String, RateLimitTier> tiers;
+    private final Map<String, String> customerTiers;
+    private final String defaultTierName;
+    private final RateLimitTier defaultTier;
+    private final Map<String, Counter> rejections = new HashMap<>();
+    private final ScheduledExecutorService evictor;
+    
+    public CustomerRateLimiter(Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        this.enabled = binder.bind(PREFIX + "enabled", Boolean.class).orElse(true);
+        this.tiers = binder.bind(PREFIX + "tiers", Bindable.mapOf(String.class, RateLimitTier.class))
+            .orElse(Map.of("standard", new RateLimitTier(10, 50)));
+        this.customerTiers = binder.bind(PREFIX + "customers", Bindable.mapOf(String.class, String.class))
+            .orElse(Map.of());
+        this.defaultTierName = binder.bind(PREFIX + "default-tier", String.class).orElse("standard");
+        this.defaultTier = tier(defaultTierName);
+        customerTiers.values().forEach(this::tier);
+        this.store = new TokenBucketStore(binder.bind(PREFIX + "shards", Integer.class).orElse(64),
+            binder.bind(PREFIX + "expected-customers", Integer.class).orElse(100_000));
+        
+        tiers.keySet().forEach(name -> rejections.put(name, Counter.builder(REJECTED)
+            .tag("tier", name)
+            .description("Order requests rejected with 429 by the per-customer rate limit")
+            .register(meterRegistry)));
+        Gauge.builder(BUCKETS, store, TokenBucketStore::size)
+            .description("Customers with a token bucket in memory")
+            .register(meterRegistry);
+        
+        Duration evictionInterval = binder.bind(PREFIX + "eviction-interval", Duration.class)
+            .orElse(Duration.ofMinutes(1));
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdle, evictionInterval.toMillis(), evictionInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+    
+    public void acquire(String customerId) {
+        if (!enabled) {
+            return;
+        }
+        String tierName = customerTiers.get(customerId);
+        RateLimitTier tier = tierName != null ? tiers.get(tierName) : defaultTier;
+        long waitMillis = store.tryAcquire(customerId, tier, store.now());
+        if (waitMillis > 0) {
+            rejections.get(tierName != null ? tierName : defaultTierName).increment();
+            throw new RateLimitExceededException("Customer " + customerId + " exceeded " + tier.rate()
+                + " orders per second", Duration.ofMillis(waitMillis));
+        }
+    }
+    
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+    }
+    
+    private void evictIdle() {
+        try {
+            int evicted = store.evictIdle(store.now());
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        } catch (RuntimeException e) {
+            log.warn("Rate limit bucket eviction failed", e);
+        }
+    }
+    
+    private RateLimitTier tier(String name) {
+        RateLimitTier tier = tiers.get(name);
+        if (tier == null) {
+            throw new IllegalArgumentException("Unknown rate limit tier: " + name);
+        }
+        return tier;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.ecommerce.order.ratelimit;
+
+// Sustained orders per second and the burst a customer may spend at once after being idle
+public record RateLimitTier(double rate, int burst) {
+    
+    public RateLimitTier {
+        if (rate <= 0 || rate > TokenBucketStore.MAX_RATE) {
+            throw new IllegalArgumentException("rate must be in (0, " + TokenBucketStore.MAX_RATE + "]");
+        }
+        if (burst < 1 || burst > TokenBucketStore.MAX_BURST) {
+            throw new IllegalArgumentException("burst must be in [1, " + TokenBucketStore.MAX_BURST + "]");
+        }
+    }
+    
+    // Time an empty bucket takes to fill up again
+    long refillMillis() {
+        return (long) Math.ceil(burst / rate * 1000);
+    }
+}
\ No newline at end of file
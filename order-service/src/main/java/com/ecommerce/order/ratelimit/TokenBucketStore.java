@@ -0,0 +1,134 @@
+package com.ecommerce.order.ratelimit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Token buckets keyed by customer, spread over independent shards. A bucket is a single long holding
+// the time of its last refill and its balance in thousandths of a token, updated by compare-and-set,
+// so taking a token never locks; refill is computed from the elapsed time when the bucket is next used
+// rather than by a timer. A bucket that has not been touched for its full refill time is full again,
+// indistinguishable from a new one, so evictIdle drops it without changing any customer's allowance.
+public class TokenBucketStore {
+    
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI_TOKENS = 1000;
+    
+    public static final int MAX_BURST = (int) (TOKEN_MASK / MILLI_TOKENS);
+    // Refill is computed in whole thousandths of a token per elapsed millisecond and must not overflow
+    public static final double MAX_RATE = 1_000_000;
+    
+    private final Map<String, Bucket>[] shards;
+    private final int shardMask;
+    private final long originNanos = System.nanoTime();
+    
+    @SuppressWarnings("unchecked")
+    public TokenBucketStore(int shards, int expectedKeys) {
+        if (Integer.bitCount(shards) != 1) {
+            throw new IllegalArgumentException("shards must be a power of two");
+        }
+        this.shards = new Map[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new ConcurrentHashMap<>(Math.max(16, expectedKeys / shards));
+        }
+        this.shardMask = shards - 1;
+    }
+    
+    // Milliseconds on the store's own clock, which starts at zero so it fits the packed state
+    public long now() {
+        return (System.nanoTime() - originNanos) / 1_000_000;
+    }
+    
+    // Returns 0 when a token was taken, otherwise the milliseconds until one will be available
+    public long tryAcquire(String key, RateLimitTier tier, long nowMillis) {
+        Map<String, Bucket> shard = shard(key);
+        Bucket bucket = shard.get(key);
+        if (bucket == null) {
+            bucket = shard.computeIfAbsent(key, ignored -> new Bucket(tier, nowMillis));
+        }
+        return bucket.tryAcquire(nowMillis);
+    }
+    
+    // A token taken from a bucket while it is being evicted is forgotten, so a customer can get at most
+    // one extra order per eviction pass
+    public int evictIdle(long nowMillis) {
+        int evicted = 0;
+        for (Map<String, Bucket> shard : shards) {
+            int before = shard.size();
+            shard.values().removeIf(bucket -> bucket.isFull(nowMillis));
+            evicted += before - shard.size();
+        }
+        return evicted;
+    }
+    
+    public long size() {
+        long size = 0;
+        for (Map<String, Bucket> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+    
+    // The maps index their tables by the low bits of the hash, so the shard is picked from bits of a
+    // multiplicative mix instead; reusing the low bits would leave most of each shard's table empty
+    private Map<String, Bucket> shard(String key) {
+        return shards[(key.hashCode() * 0x9E3779B9 >>> 16) & shardMask];
+    }
+    
+    private static final class Bucket {
+        
+        private static final VarHandle STATE;
+        
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(Bucket.class, "state", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+        
+        private final double rate;
+        private final long capacity;
+        private final long refillMillis;
+        private volatile long state;
+        
+        private Bucket(RateLimitTier tier, long nowMillis) {
+            this.rate = tier.rate();
+            this.capacity = tier.burst() * MILLI_TOKENS;
+            this.refillMillis = tier.refillMillis();
+            this.state = pack(nowMillis, capacity);
+        }
+        
+        long tryAcquire(long nowMillis) {
+            for (;;) {
+                long current = state;
+                long last = current >>> TOKEN_BITS;
+                long tokens = current & TOKEN_MASK;
+                long elapsed = nowMillis - last;
+                if (elapsed > 0) {
+                    // Credit accrues on the store's clock rather than per call, so the fraction of a thousandth
+                    // earned since the last whole one carries over to the next refill instead of being dropped
+                    long refill = (long) (nowMillis * rate) - (long) (last * rate);
+                    tokens = Math.min(capacity, tokens + refill);
+                    last = nowMillis;
+                }
+                if (tokens < MILLI_TOKENS) {
+                    return Math.max(1, (long) Math.ceil((MILLI_TOKENS - tokens) / rate));
+                }
+                if (STATE.compareAndSet(this, current, pack(last, tokens - MILLI_TOKENS))) {
+                    return 0;
+                }
+            }
+        }
+        
+        boolean isFull(long nowMillis) {
+            return nowMillis - (state >>> TOKEN_BITS) >= refillMillis;
+        }
+        
+        private static long pack(long millis, long tokens) {
+            return millis << TOKEN_BITS | tokens;
+        }
+    }
+}
\ No newline at end of file
@@ -1,61 +1,153 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.order.exception.PublisherSaturatedException;
 import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.enums.OrderPriority;
 import com.ecommerce.shared.events.BaseEvent;
 import com.ecommerce.shared.events.OrderCancelledEvent;
 import com.ecommerce.shared.events.OrderCreatedEvent;
-import lombok.RequiredArgsConstructor;
+import com.ecommerce.shared.logging.EventLogger;
+import com.ecommerce.shared.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+// Publishes order events without waiting for broker acks. A semaphore bounds the number of sends awaiting
+// an ack, so a slow broker sheds requests instead of piling up records in the producer; when no permit
+// is available within the acquire timeout (zero by default) the publish fails fast with
+// PublisherSaturatedException and the caller sheds the request. The bound counts records, not bytes:
+// send() can still block up to max.block.ms when that many records exceed buffer.memory, and while
+// fetching metadata for the first send to a topic.
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OrderEventPublisher {
     
     private final KafkaTemplate<String, BaseEvent> kafkaTemplate;
+    private final EventLogger eventLogger;
+    private final PipelineMetrics pipelineMetrics;
+    private final int maxInFlight;
+    private final long acquireTimeoutNanos;
+    private final Semaphore inFlight;
+    private final Counter rejected;
     
-    public void publishOrderCreated(OrderCreatedEvent event) {
-        log.info("Publishing OrderCreated event for order: {}", event.getOrderId());
-        
-        CompletableFuture<SendResult<String, BaseEvent>> future = kafkaTemplate.send(
-            KafkaTopics.ORDER_CREATED, 
-            event.getOrderId(), 
-            event
-        );
-        
-        future.whenComplete((result, exception) -> {
-            if (exception == null) {
-                log.info("Successfully published OrderCreated event for order: {} with offset: {}", 
-                    event.getOrderId(), result.getRecordMetadata().offset());
-            } else {
-                log.error("Failed to publish OrderCreated event for order: {}", 
-                    event.getOrderId(), exception);
-            }
-        });
+    public OrderEventPublisher(KafkaTemplate<String, BaseEvent> kafkaTemplate,
+                               EventLogger eventLogger,
+                               PipelineMetrics pipelineMetrics,
+                               @Value("${ecommerce.kafka.publisher.max-in-flight:1000}") int maxInFlight,
+                               @Value("${ecommerce.kafka.publisher.acquire-timeout:PT0S}") Duration acquireTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.eventLogger = eventLogger;
+        this.pipelineMetrics = pipelineMetrics;
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.rejected = Counter.builder("order.events.publish.rejected")
+            .description("Events shed because the publisher had no in-flight capacity")
+            .register(pipelineMetrics.getRegistry());
+        Gauge.builder("order.events.publish.in-flight", this, OrderEventPublisher::getInFlight)
+            .description("Sends awaiting a broker acknowledgement")
+            .register(pipelineMetrics.getRegistry());
+    }
+    
+    public CompletableFuture<SendResult<String, BaseEvent>> publishOrderCreated(OrderCreatedEvent event) {
+        return publish(orderCreatedLane(event), event.getOrderId(), event);
+    }
+    
+    public CompletableFuture<SendResult<String, BaseEvent>> publishOrderCancelled(OrderCancelledEvent event) {
+        return publish(KafkaTopics.ORDER_CANCELLED, event.getOrderId(), event);
+    }
+    
+    public CompletableFuture<SendResult<String, BaseEvent>> publish(String topic, String key, BaseEvent event) {
+        acquire(1);
+        return send(topic, key, event);
+    }
+    
+    // Reserves capacity for the whole batch up front so it is either shed or sent as a unit
+    public CompletableFuture<List<SendResult<String, BaseEvent>>> publishAll(Collection<? extends BaseEvent> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        List<String> topics = events.stream().map(OrderEventPublisher::topicFor).toList();
+        acquire(events.size());
+        List<CompletableFuture<SendResult<String, BaseEvent>>> futures = new ArrayList<>(events.size());
+        int index = 0;
+        for (BaseEvent event : events) {
+            futures.add(send(topics.get(index++), event.getOrderId(), event));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+    
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
     }
     
-    public void publishOrderCancelled(OrderCancelledEvent event) {
-        log.info("Publishing OrderCancelled event for order: {}", event.getOrderId());
-        
-        CompletableFuture<SendResult<String, BaseEvent>> future = kafkaTemplate.send(
-            KafkaTopics.ORDER_CANCELLED, 
-            event.getOrderId(), 
-            event
-        );
-        
-        future.whenComplete((result, exception) -> {
+    public boolean isSaturated() {
+        return inFlight.availablePermits() == 0;
+    }
+    
+    private void acquire(int permits) {
+        boolean acquired;
+        try {
+            acquired = acquireTimeoutNanos > 0
+                ? inFlight.tryAcquire(permits, acquireTimeoutNanos, TimeUnit.NANOSECONDS)
+                : inFlight.tryAcquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment(permits);
+            throw new PublisherSaturatedException(
+                "Event publisher saturated with " + getInFlight() + " in-flight sends");
+        }
+    }
+    
+    private CompletableFuture<SendResult<String, BaseEvent>> send(String topic, String key, BaseEvent event) {
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, BaseEvent>> future;
+        try {
+            future = kafkaTemplate.send(topic, key, event);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            pipelineMetrics.recordSend(topic, System.nanoTime() - start, false);
+            log.error("Failed to publish {} event for order: {}", event.getEventType(), event.getOrderId(), e);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, exception) -> {
+            inFlight.release();
+            pipelineMetrics.recordSend(topic, System.nanoTime() - start, exception == null);
             if (exception == null) {
-                log.info("Successfully published OrderCancelled event for order: {} with offset: {}", 
-                    event.getOrderId(), result.getRecordMetadata().offset());
+                eventLogger.log("published", event);
             } else {
-                log.error("Failed to publish OrderCancelled event for order: {}", 
-                    event.getOrderId(), exception);
+                log.error("Failed to publish {} event for order: {}", event.getEventType(), event.getOrderId(), exception);
             }
         });
     }
+    
+    private static String topicFor(BaseEvent event) {
+        if (event instanceof OrderCreatedEvent created) {
+            return orderCreatedLane(created);
+        }
+        if (event instanceof OrderCancelledEvent) {
+            return KafkaTopics.ORDER_CANCELLED;
+        }
+        throw new IllegalArgumentException("Order service does not publish " + event.getEventType() + " events");
+    }
+    
+    private static String orderCreatedLane(OrderCreatedEvent event) {
+        return KafkaTopics.lane(KafkaTopics.ORDER_CREATED, OrderPriority.orStandard(event.getPriority()));
+    }
 }
\ No newline at end of file
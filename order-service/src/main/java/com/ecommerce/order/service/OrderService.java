@@ -3,43 +3,99 @@ package com.ecommerce.order.service;
 import com.ecommerce.order.dto.CreateOrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
 import com.ecommerce.order.dto.OrderStatusResponse;
+import com.ecommerce.order.exception.DuplicateOrderRequestException;
+import com.ecommerce.order.model.IdempotencyRecord;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderItemEntity;
+import com.ecommerce.order.query.OrderChangedEvent;
+import com.ecommerce.order.repository.IdempotencyRecordRepository;
 import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.shared.enums.OrderPriority;
 import com.ecommerce.shared.enums.OrderStatus;
 import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.logging.LogContext;
+import com.ecommerce.shared.metrics.PhaseTimer;
+import com.ecommerce.shared.model.Money;
 import com.ecommerce.shared.model.OrderItem;
 import com.ecommerce.shared.util.CorrelationIdGenerator;
-import lombok.RequiredArgsConstructor;
+import com.ecommerce.shared.util.Ids;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OrderService {
     
     private final OrderRepository orderRepository;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
     private final OrderEventPublisher orderEventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final PhaseTimer createOrderTimer;
     
+    public OrderService(OrderRepository orderRepository,
+                        IdempotencyRecordRepository idempotencyRecordRepository,
+                        OrderEventPublisher orderEventPublisher,
+                        ApplicationEventPublisher applicationEventPublisher,
+                        MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.orderEventPublisher = orderEventPublisher;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.createOrderTimer = new PhaseTimer(meterRegistry, "order.create", "persist", "publish");
+    }
+    
+    // Each public overload needs its own @Transactional: the calls between them bypass the proxy
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
-        log.info("Creating order for customer: {}", request.getCustomerId());
-        
-        // Generate order ID
-        String orderId = UUID.randomUUID().toString();
+        return createOrder(request, null, null);
+    }
+    
+    @Transactional
+    public OrderResponse createOrder(CreateOrderRequest request, String correlationId) {
+        return createOrder(request, correlationId, null);
+    }
+    
+    // Callers may supply the correlation id, e.g. a load generator tracking the saga it starts, and an
+    // idempotency key, which is claimed first so a repeated key fails before the order is persisted or published
+    @Transactional
+    public OrderResponse createOrder(CreateOrderRequest request, String correlationId, String idempotencyKey) {
+        // Generate order and correlation IDs
+        String orderId = Ids.nextId();
+        if (correlationId == null) {
+            correlationId = CorrelationIdGenerator.generate();
+        }
+        PhaseTimer.Sample timing = createOrderTimer.start();
+        try (LogContext ignored = LogContext.open(correlationId, orderId)) {
+            if (idempotencyKey != null) {
+                claimIdempotencyKey(request, idempotencyKey, orderId);
+            }
+            OrderResponse response = createOrder(request, orderId, correlationId, timing);
+            timing.success();
+            return response;
+        } catch (RuntimeException e) {
+            timing.failure();
+            throw e;
+        }
+    }
+    
+    private OrderResponse createOrder(CreateOrderRequest request, String orderId, String correlationId,
+                                      PhaseTimer.Sample timing) {
+        log.debug("Creating order for customer: {}", request.getCustomerId());
         
         // Calculate total amount
-        BigDecimal totalAmount = request.getItems().stream()
-            .map(OrderItem::getTotalPrice)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Money.Accumulator total = Money.accumulator();
+        for (OrderItem item : request.getItems()) {
+            total.add(item.getTotal());
+        }
+        Money totalAmount = total.total();
         
         // Convert OrderItem to OrderItemEntity
         List<OrderItemEntity> orderItems = request.getItems().stream()
@@ -47,7 +103,7 @@ public class OrderService {
                 item.getProductId(),
                 item.getProductName(),
                 item.getQuantity(),
-                item.getUnitPrice()
+                Money.of(item.getUnitPrice())
             ))
             .collect(Collectors.toList());
         
@@ -60,31 +116,45 @@ public class OrderService {
         order.setTotalAmount(totalAmount);
         
         Order savedOrder = orderRepository.save(order);
-        log.info("Order created successfully with ID: {}", orderId);
+        applicationEventPublisher.publishEvent(new OrderChangedEvent(savedOrder));
+        log.debug("Order created successfully with ID: {}", orderId);
+        timing.endPhase("persist");
         
         // Publish OrderCreated event
-        String correlationId = CorrelationIdGenerator.generate();
         OrderCreatedEvent event = new OrderCreatedEvent(
             correlationId,
             orderId,
             request.getCustomerId(),
             request.getItems(),
-            totalAmount
+            totalAmount.toBigDecimal(),
+            OrderPriority.orStandard(request.getPriority())
         );
         
+        // Throws when the publisher is saturated, rolling the order back so the request can be shed
         orderEventPublisher.publishOrderCreated(event);
+        timing.endPhase("publish");
         
-        return mapToOrderResponse(savedOrder);
+        return OrderResponse.from(savedOrder);
+    }
+    
+    // Flushed at once: the primary key blocks on a concurrent claim of the same key until it commits
+    private void claimIdempotencyKey(CreateOrderRequest request, String idempotencyKey, String orderId) {
+        try {
+            idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(
+                request.getCustomerId(), idempotencyKey, orderId, request.fingerprint()));
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateOrderRequestException("Idempotency key " + idempotencyKey + " already used", e);
+        }
     }
     
     public Optional<OrderResponse> getOrder(String orderId) {
-        log.info("Retrieving order with ID: {}", orderId);
+        log.debug("Retrieving order with ID: {}", orderId);
         return orderRepository.findById(orderId)
-            .map(this::mapToOrderResponse);
+            .map(OrderResponse::from);
     }
     
     public Optional<OrderStatusResponse> getOrderStatus(String orderId) {
-        log.info("Retrieving order status for ID: {}", orderId);
+        log.debug("Retrieving order status for ID: {}", orderId);
         return orderRepository.findById(orderId)
             .map(order -> new OrderStatusResponse(
                 order.getOrderId(),
@@ -94,42 +164,21 @@ public class OrderService {
     }
     
     public List<OrderResponse> getOrdersByCustomer(String customerId) {
-        log.info("Retrieving orders for customer: {}", customerId);
+        log.debug("Retrieving orders for customer: {}", customerId);
         return orderRepository.findByCustomerId(customerId).stream()
-            .map(this::mapToOrderResponse)
+            .map(OrderResponse::from)
             .collect(Collectors.toList());
     }
     
     @Transactional
     public void updateOrderStatus(String orderId, OrderStatus status) {
-        log.info("Updating order {} status to: {}", orderId, status);
+        log.debug("Updating order {} status to: {}", orderId, status);
         orderRepository.findById(orderId)
             .ifPresent(order -> {
                 order.setStatus(status);
-                orderRepository.save(order);
-                log.info("Order {} status updated to: {}", orderId, status);
+                Order savedOrder = orderRepository.save(order);
+                applicationEventPublisher.publishEvent(new OrderChangedEvent(savedOrder));
+                log.debug("Order {} status updated to: {}", orderId, status);
             });
     }
-    
-    private OrderResponse mapToOrderResponse(Order order) {
-        // Convert OrderItemEntity back to OrderItem for response
-        List<OrderItem> items = order.getItems().stream()
-            .map(entity -> new OrderItem(
-                entity.getProductId(),
-                entity.getProductName(),
-                entity.getQuantity(),
-                entity.getUnitPrice()
-            ))
-            .collect(Collectors.toList());
-        
-        return new OrderResponse(
-            order.getOrderId(),
-            order.getCustomerId(),
-            items,
-            order.getStatus(),
-            order.getTotalAmount(),
-            order.getCreatedAt(),
-            order.getUpdatedAt()
-        );
-    }
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.ecommerce.order.state;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.query.OrderChangedEvent;
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.state.OrderStateSerializer;
+import com.ecommerce.shared.state.OrderStateSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Keeps the compacted order-state topic current: every committed change to an order publishes its new
+// snapshot keyed by orderId, so compaction leaves one record per order. Sends reuse the event
+// producer's settings with the snapshot codec. A failed send is kept and resent every retry-interval
+// until the broker acks it, so an order that never changes again still reaches the topic.
+// Sends are serialized per order: a change made while the order's previous snapshot is in flight waits for
+// that send to complete, so a late failure of an older snapshot can never be resent over a newer state.
+@Component
+@ConditionalOnProperty(name = "ecommerce.orders.state-topic.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OrderStatePublisher implements AutoCloseable {
+    
+    public static final String PUBLISHED = "order.state.published";
+    public static final String PENDING = "order.state.pending";
+    
+    private final KafkaTemplate<String, OrderStateSnapshot> kafkaTemplate;
+    private final Counter published;
+    private final Counter failed;
+    
+    // Newest snapshot per order still to be sent: queued behind an in-flight send, or failed and awaiting retry
+    private final Map<String, OrderStateSnapshot> pending = new ConcurrentHashMap<>();
+    private final Map<String, OrderStateSnapshot> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService retrier;
+    
+    @Autowired
+    public OrderStatePublisher(ProducerFactory<String, BaseEvent> eventProducerFactory,
+                               @Value("${ecommerce.orders.state-topic.retry-interval:PT5S}") Duration retryInterval,
+                               MeterRegistry meterRegistry) {
+        this(new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(eventProducerFactory.getConfigurationProperties(),
+            new StringSerializer(), new OrderStateSerializer())), retryInterval, meterRegistry);
+    }
+    
+    OrderStatePublisher(KafkaTemplate<String, OrderStateSnapshot> kafkaTemplate, Duration retryInterval,
+                        MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.published = Counter.builder(PUBLISHED)
+            .tag("outcome", "success")
+            .description("Order snapshots sent to the order-state topic")
+            .register(meterRegistry);
+        this.failed = Counter.builder(PUBLISHED)
+            .tag("outcome", "failure")
+            .description("Order snapshots sent to the order-state topic")
+            .register(meterRegistry);
+        Gauge.builder(PENDING, pending, Map::size)
+            .description("Orders whose latest snapshot awaits sending or a resend")
+            .register(meterRegistry);
+        
+        this.retrier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-state-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        retrier.scheduleWithFixedDelay(this::retryPending, retryInterval.toMillis(), retryInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        OrderStateSnapshot snapshot = snapshotOf(event.getOrder());
+        pending.merge(snapshot.orderId(), snapshot, OrderStatePublisher::newer);
+        sendNext(snapshot.orderId());
+    }
+    
+    public static OrderStateSnapshot snapshotOf(Order order) {
+        return new OrderStateSnapshot(
+            order.getOrderId(),
+            order.getCustomerId(),
+            order.getStatus(),
+            order.getTotalAmount(),
+            order.getItems() != null ? order.getItems().size() : 0,
+            order.getCreatedAt(),
+            order.getUpdatedAt()
+        );
+    }
+    
+    public int getPending() {
+        return pending.size();
+    }
+    
+    @Override
+    public void close() {
+        retrier.shutdownNow();
+        if (kafkaTemplate.getProducerFactory() instanceof DefaultKafkaProducerFactory<?, ?> producerFactory) {
+            producerFactory.destroy();
+        }
+    }
+    
+    // Each round waits for its own sends before the next one starts
+    void retryPending() {
+        try {
+            CompletableFuture.allOf(pending.keySet().stream()
+                    .map(this::sendNext)
+                    .toArray(CompletableFuture[]::new))
+                .exceptionally(exception -> null)
+                .join();
+        } catch (RuntimeException e) {
+            log.warn("Order state resend failed", e);
+        }
+    }
+    
+    // Sends the order's pending snapshot unless one is already in flight, whose completion sends it instead
+    private CompletableFuture<?> sendNext(String orderId) {
+        OrderStateSnapshot[] next = new OrderStateSnapshot[1];
+        inFlight.compute(orderId, (id, current) -> {
+            if (current != null) {
+                return current;
+            }
+            next[0] = pending.remove(id);
+            return next[0];
+        });
+        return next[0] != null ? send(next[0]) : CompletableFuture.completedFuture(null);
+    }
+    
+    private CompletableFuture<?> send(OrderStateSnapshot snapshot) {
+        try {
+            return kafkaTemplate.send(KafkaTopics.ORDER_STATE, snapshot.orderId(), snapshot)
+                .whenComplete((result, exception) -> record(snapshot, exception));
+        } catch (RuntimeException e) {
+            record(snapshot, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+    
+    private void record(OrderStateSnapshot snapshot, Throwable exception) {
+        if (exception == null) {
+            published.increment();
+            inFlight.remove(snapshot.orderId());
+            sendNext(snapshot.orderId());
+        } else {
+            failed.increment();
+            // Left for the retrier, merged with any change that queued up behind this send
+            pending.merge(snapshot.orderId(), snapshot, OrderStatePublisher::newer);
+            inFlight.remove(snapshot.orderId());
+            log.warn("Failed to publish state of order {} ({}), will retry", snapshot.orderId(), snapshot.status(),
+                exception);
+        }
+    }
+    
+    private static OrderStateSnapshot newer(OrderStateSnapshot queued, OrderStateSnapshot candidate) {
+        return candidate.isNewerThan(queued) ? candidate : queued;
+    }
+}
@@ -0,0 +1,24 @@
+CREATE TABLE orders (
+    order_id     VARCHAR(255)   NOT NULL,
+    customer_id  VARCHAR(255)   NOT NULL,
+    status       VARCHAR(50)    NOT NULL,
+    total_amount NUMERIC(10, 2) NOT NULL,
+    created_at   TIMESTAMP      NOT NULL,
+    updated_at   TIMESTAMP      NOT NULL,
+    CONSTRAINT pk_orders PRIMARY KEY (order_id)
+);
+
+CREATE INDEX idx_orders_customer_id ON orders (customer_id);
+CREATE INDEX idx_orders_status ON orders (status);
+CREATE INDEX idx_orders_created_at ON orders (created_at);
+
+CREATE TABLE order_items (
+    order_id     VARCHAR(255)   NOT NULL,
+    product_id   VARCHAR(255)   NOT NULL,
+    product_name VARCHAR(255)   NOT NULL,
+    quantity     INTEGER        NOT NULL,
+    unit_price   NUMERIC(10, 2) NOT NULL,
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (order_id)
+);
+
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
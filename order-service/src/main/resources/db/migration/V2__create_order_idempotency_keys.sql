@@ -0,0 +1,11 @@
+CREATE TABLE order_idempotency_keys (
+    customer_id     VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    order_id        VARCHAR(255) NOT NULL,
+    -- SHA-256 hex of the request's canonical form
+    request_digest  VARCHAR(64)  NOT NULL,
+    created_at      TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_order_idempotency_keys PRIMARY KEY (customer_id, idempotency_key)
+);
+
+CREATE INDEX idx_order_idempotency_keys_created_at ON order_idempotency_keys (created_at);
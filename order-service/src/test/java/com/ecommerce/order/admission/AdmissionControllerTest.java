@@ -0,0 +1,136 @@
+package com.ecommerce.order.admission;
+
+import com.ecommerce.order.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+    
+    private static final long MILLI = Duration.ofMillis(1).toNanos();
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    
+    @Test
+    void shouldRejectBeyondTheLimitAndAdmitAgainOnRelease() {
+        // Given
+        AdmissionController controller = controller(new AimdLimit(2, 1, 10, 0.5, 100 * MILLI));
+        AdmissionController.Permit first = controller.admit("customer-1");
+        controller.admit("customer-2");
+        
+        // When
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+            () -> controller.admit("customer-3"));
+        first.close();
+        AdmissionController.Permit afterRelease = controller.admit("customer-3");
+        
+        // Then
+        assertEquals(Duration.ofSeconds(1), rejected.getRetryAfter());
+        assertNotNull(afterRelease);
+        assertEquals(1.0, registry.get(AdmissionController.REJECTED).tag("reason", "limit").counter().count());
+    }
+    
+    @Test
+    void shouldCapOneCustomerAtItsFairShareUnderLoad() {
+        // Given
+        AdmissionController controller = controller(new AimdLimit(4, 1, 10, 0.5, 100 * MILLI));
+        controller.admit("importer");
+        controller.admit("importer");
+        controller.admit("shopper");
+        
+        // When
+        assertThrows(AdmissionRejectedException.class, () -> controller.admit("importer"));
+        AdmissionController.Permit shopper = controller.admit("shopper");
+        
+        // Then
+        assertNotNull(shopper);
+        assertEquals(4, controller.getInFlight());
+        assertEquals(1.0, registry.get(AdmissionController.REJECTED).tag("reason", "fair_share").counter().count());
+    }
+    
+    @Test
+    void shouldLetASingleCustomerUseTheWholeLimit() {
+        // Given
+        AdmissionController controller = controller(new AimdLimit(4, 1, 10, 0.5, 100 * MILLI));
+        
+        // When
+        for (int i = 0; i < 4; i++) {
+            controller.admit("importer");
+        }
+        
+        // Then
+        assertEquals(4, controller.getInFlight());
+        assertThrows(AdmissionRejectedException.class, () -> controller.admit("importer"));
+    }
+    
+    @Test
+    void shouldBackOffOnSlowOrDroppedRequestsAndGrowWhenBusyAndFast() {
+        // Given
+        AdmissionController controller = controller(new AimdLimit(8, 1, 10, 0.5, 100 * MILLI));
+        
+        // When
+        List<AdmissionController.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            permits.add(controller.admit("customer-" + i));
+        }
+        clock.addAndGet(10 * MILLI);
+        permits.get(5).succeeded();
+        permits.get(5).close();
+        int afterFast = controller.getLimit();
+        permits.get(4).dropped();
+        permits.get(4).close();
+        int afterDrop = controller.getLimit();
+        clock.addAndGet(500 * MILLI);
+        permits.get(3).succeeded();
+        permits.get(3).close();
+        int afterSlow = controller.getLimit();
+        
+        // Then
+        assertEquals(9, afterFast);
+        assertEquals(4, afterDrop);
+        assertEquals(2, afterSlow);
+    }
+    
+    @Test
+    void shouldShrinkGradientLimitWhenLatencyRisesAboveBaseline() {
+        // Given
+        GradientLimit limit = new GradientLimit(100, 10, 1000, 1.5, 0.2);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(10 * MILLI, 100, false);
+        }
+        int warmed = limit.limit();
+        
+        // When
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(60 * MILLI, warmed, false);
+        }
+        
+        // Then
+        assertTrue(warmed > 100);
+        assertTrue(limit.limit() < warmed / 2, "limit " + limit.limit() + " after warming to " + warmed);
+    }
+    
+    @Test
+    void shouldNotMoveTheLimitForRequestsThatFailedForOtherReasons() {
+        // Given
+        AdmissionController controller = controller(new AimdLimit(2, 1, 10, 0.5, 100 * MILLI));
+        
+        // When
+        controller.admit("customer-1").close();
+        
+        // Then
+        assertEquals(2, controller.getLimit());
+        assertEquals(0, controller.getInFlight());
+    }
+    
+    private AdmissionController controller(LimitAlgorithm algorithm) {
+        return new AdmissionController(algorithm, 0.5, Duration.ofSeconds(1), registry, clock::get);
+    }
+}
\ No newline at end of file
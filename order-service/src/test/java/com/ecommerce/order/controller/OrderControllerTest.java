@@ -1,13 +1,25 @@
 package com.ecommerce.order.controller;
 
+import com.ecommerce.order.admission.AdmissionController;
+import com.ecommerce.order.admission.AimdLimit;
 import com.ecommerce.order.config.TestKafkaConfig;
 import com.ecommerce.order.dto.CreateOrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
 import com.ecommerce.order.dto.OrderStatusResponse;
+import com.ecommerce.order.exception.AdmissionRejectedException;
+import com.ecommerce.order.exception.DuplicateOrderRequestException;
+import com.ecommerce.order.exception.IdempotencyKeyReusedException;
+import com.ecommerce.order.exception.PublisherSaturatedException;
+import com.ecommerce.order.exception.RateLimitExceededException;
+import com.ecommerce.order.idempotency.IdempotencyStore;
+import com.ecommerce.order.query.CachedJson;
+import com.ecommerce.order.query.OrderQueryService;
+import com.ecommerce.order.ratelimit.CustomerRateLimiter;
 import com.ecommerce.order.service.OrderService;
 import com.ecommerce.shared.enums.OrderStatus;
 import com.ecommerce.shared.model.OrderItem;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,12 +30,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +57,22 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
     
+    @MockBean
+    private OrderQueryService orderQueryService;
+    
+    @MockBean
+    private AdmissionController admissionController;
+    
+    @MockBean
+    private CustomerRateLimiter customerRateLimiter;
+    
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+    
+    private final AdmissionController admissions = new AdmissionController(
+        new AimdLimit(10, 1, 10, 0.9, Duration.ofSeconds(1).toNanos()), 0.5, Duration.ofSeconds(1),
+        new SimpleMeterRegistry(), System::nanoTime);
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -66,12 +101,15 @@ class OrderControllerTest {
         orderStatusResponse.setOrderId("order-123");
         orderStatusResponse.setStatus(OrderStatus.CREATED);
         orderStatusResponse.setUpdatedAt(LocalDateTime.now());
+        
+        when(admissionController.admit(anyString()))
+            .thenAnswer(invocation -> admissions.admit(invocation.getArgument(0)));
     }
     
     @Test
     void createOrder_ShouldReturnAcceptedWithOrderResponse() throws Exception {
         // Given
-        when(orderService.createOrder(any(CreateOrderRequest.class))).thenReturn(orderResponse);
+        when(orderService.createOrder(any(CreateOrderRequest.class), any(), any())).thenReturn(orderResponse);
         
         // When & Then
         mockMvc.perform(post("/orders")
@@ -84,6 +122,22 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.totalAmount").value(20.00));
     }
     
+    @Test
+    void createOrder_ShouldPassClientCorrelationIdToService() throws Exception {
+        // Given
+        when(orderService.createOrder(any(CreateOrderRequest.class), eq("load-test-1"), any())).thenReturn(orderResponse);
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(OrderController.CORRELATION_ID_HEADER, "load-test-1")
+                .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.orderId").value("order-123"));
+        
+        verify(orderService).createOrder(any(CreateOrderRequest.class), eq("load-test-1"), any());
+    }
+    
     @Test
     void createOrder_ShouldReturnBadRequestForInvalidRequest() throws Exception {
         // Given - invalid request with empty customer ID
@@ -96,22 +150,158 @@ class OrderControllerTest {
                 .andExpect(status().isBadRequest());
     }
     
+    @Test
+    void createOrder_ShouldReturnServiceUnavailableWhenPublisherIsSaturated() throws Exception {
+        // Given
+        when(orderService.createOrder(any(CreateOrderRequest.class), any(), any()))
+            .thenThrow(new PublisherSaturatedException("saturated"));
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.code").value("SERVICE_OVERLOADED"));
+        assertEquals(0, admissions.getInFlight());
+    }
+    
+    @Test
+    void createOrder_ShouldReturnTooManyRequestsWhenAdmissionIsRejected() throws Exception {
+        // Given
+        when(admissionController.admit("customer-123"))
+            .thenThrow(new AdmissionRejectedException("at limit", Duration.ofMillis(1500)));
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.code").value("TOO_MANY_REQUESTS"));
+        
+        verify(orderService, never()).createOrder(any(CreateOrderRequest.class), any(), any());
+    }
+    
+    @Test
+    void createOrder_ShouldReturnTooManyRequestsWhenCustomerIsRateLimited() throws Exception {
+        // Given
+        doThrow(new RateLimitExceededException("exceeded", Duration.ofMillis(200)))
+            .when(customerRateLimiter).acquire("customer-123");
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.code").value("RATE_LIMITED"));
+        
+        verify(admissionController, never()).admit(anyString());
+    }
+    
+    @Test
+    void createOrder_ShouldReplayRememberedOrderForRepeatedIdempotencyKey() throws Exception {
+        // Given
+        when(idempotencyStore.replay(eq("customer-123"), eq("key-1"), any(CreateOrderRequest.class)))
+            .thenReturn(Optional.of(orderResponse));
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(OrderController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(OrderController.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.orderId").value("order-123"));
+        
+        verify(customerRateLimiter, never()).acquire(anyString());
+        verify(orderService, never()).createOrder(any(CreateOrderRequest.class), any(), any());
+    }
+    
+    @Test
+    void createOrder_ShouldReplayRecordedOrderWhenIdempotencyKeyIsTaken() throws Exception {
+        // Given
+        when(idempotencyStore.replay(anyString(), anyString(), any(CreateOrderRequest.class))).thenReturn(Optional.empty());
+        when(orderService.createOrder(any(CreateOrderRequest.class), any(), eq("key-1")))
+            .thenThrow(new DuplicateOrderRequestException("taken", null));
+        when(idempotencyStore.recorded(eq("customer-123"), eq("key-1"), any(CreateOrderRequest.class)))
+            .thenReturn(orderResponse);
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(OrderController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(OrderController.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.orderId").value("order-123"));
+        assertEquals(0, admissions.getInFlight());
+    }
+    
+    @Test
+    void createOrder_ShouldRememberResponseForNewIdempotencyKey() throws Exception {
+        // Given
+        when(idempotencyStore.replay(anyString(), anyString(), any(CreateOrderRequest.class))).thenReturn(Optional.empty());
+        when(orderService.createOrder(any(CreateOrderRequest.class), any(), eq("key-2"))).thenReturn(orderResponse);
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(OrderController.IDEMPOTENCY_KEY_HEADER, "key-2")
+                .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().doesNotExist(OrderController.IDEMPOTENT_REPLAYED_HEADER));
+        
+        verify(idempotencyStore).remember(eq("customer-123"), eq("key-2"), any(CreateOrderRequest.class), any(OrderResponse.class));
+    }
+    
+    @Test
+    void createOrder_ShouldReturnUnprocessableEntityWhenIdempotencyKeyIsReused() throws Exception {
+        // Given
+        when(idempotencyStore.replay(anyString(), anyString(), any(CreateOrderRequest.class)))
+            .thenThrow(new IdempotencyKeyReusedException("different order"));
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(OrderController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_REUSED"));
+    }
+    
     @Test
     void getOrder_ShouldReturnOrderWhenExists() throws Exception {
         // Given
-        when(orderService.getOrder("order-123")).thenReturn(Optional.of(orderResponse));
+        when(orderQueryService.getOrder("order-123")).thenReturn(Optional.of(CachedJson.of(objectMapper.writeValueAsBytes(orderResponse))));
         
         // When & Then
         mockMvc.perform(get("/orders/order-123"))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().exists("ETag"))
                 .andExpect(jsonPath("$.orderId").value("order-123"))
                 .andExpect(jsonPath("$.customerId").value("customer-123"));
     }
     
+    @Test
+    void getOrder_ShouldReturnNotModifiedWhenETagMatches() throws Exception {
+        // Given
+        CachedJson order = CachedJson.of(objectMapper.writeValueAsBytes(orderResponse));
+        when(orderQueryService.getOrder("order-123")).thenReturn(Optional.of(order));
+        
+        // When & Then
+        mockMvc.perform(get("/orders/order-123").header("If-None-Match", order.getEtag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", order.getEtag()))
+                .andExpect(content().string(""));
+    }
+    
     @Test
     void getOrder_ShouldReturnNotFoundWhenNotExists() throws Exception {
         // Given
-        when(orderService.getOrder("non-existent")).thenReturn(Optional.empty());
+        when(orderQueryService.getOrder("non-existent")).thenReturn(Optional.empty());
         
         // When & Then
         mockMvc.perform(get("/orders/non-existent"))
@@ -121,7 +311,7 @@ class OrderControllerTest {
     @Test
     void getOrderStatus_ShouldReturnStatusWhenExists() throws Exception {
         // Given
-        when(orderService.getOrderStatus("order-123")).thenReturn(Optional.of(orderStatusResponse));
+        when(orderQueryService.getOrderStatus("order-123")).thenReturn(Optional.of(CachedJson.of(objectMapper.writeValueAsBytes(orderStatusResponse))));
         
         // When & Then
         mockMvc.perform(get("/orders/order-123/status"))
@@ -129,4 +319,17 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.orderId").value("order-123"))
                 .andExpect(jsonPath("$.status").value("CREATED"));
     }
+    
+    @Test
+    void getOrdersByCustomer_ShouldReturnReadModelPayload() throws Exception {
+        // Given
+        CachedJson order = CachedJson.of(objectMapper.writeValueAsBytes(orderResponse));
+        when(orderQueryService.getOrdersByCustomer("customer-123")).thenReturn(CachedJson.array(List.of(order)));
+        
+        // When & Then
+        mockMvc.perform(get("/orders").param("customerId", "customer-123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].orderId").value("order-123"))
+                .andExpect(jsonPath("$[0].totalAmount").value(20.00));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.ecommerce.order.idempotency;
+
+import com.ecommerce.order.dto.CreateOrderRequest;
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.exception.IdempotencyKeyReusedException;
+import com.ecommerce.order.repository.IdempotencyRecordRepository;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.shared.model.OrderItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+    
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private IdempotencyStore store;
+    
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+    
+    @Test
+    void shouldReplayRememberedResponse() {
+        // Given
+        store = store(100);
+        OrderResponse response = response("order-1");
+        store.remember("customer-1", "key-1", request("10.00"), response);
+        
+        // When
+        Optional<OrderResponse> replayed = store.replay("customer-1", "key-1", request("10.00"));
+        
+        // Then
+        assertSame(response, replayed.orElseThrow());
+        assertEquals(1.0, meterRegistry.get(IdempotencyStore.REPLAYED).tag("source", "memory").counter().count());
+    }
+    
+    @Test
+    void shouldRejectKeyReusedForDifferentRequest() {
+        // Given
+        store = store(100);
+        store.remember("customer-1", "key-1", request("10.00"), response("order-1"));
+        
+        // When / Then
+        assertThrows(IdempotencyKeyReusedException.class,
+            () -> store.replay("customer-1", "key-1", request("11.00")));
+    }
+    
+    @Test
+    void shouldTreatPricesOfDifferentScaleAsSameRequest() {
+        // Given
+        store = store(100);
+        store.remember("customer-1", "key-1", request("10.00"), response("order-1"));
+        
+        // When
+        Optional<OrderResponse> replayed = store.replay("customer-1", "key-1", request("10.0"));
+        
+        // Then
+        assertEquals("order-1", replayed.orElseThrow().getOrderId());
+    }
+    
+    private IdempotencyStore store(int maxEntries) {
+        return new IdempotencyStore(idempotencyRecordRepository, orderRepository, Duration.ofHours(24), maxEntries,
+            Duration.ofHours(1), meterRegistry);
+    }
+    
+    private static CreateOrderRequest request(String unitPrice) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId("customer-1");
+        request.setItems(List.of(new OrderItem("prod-1", "Product 1", 1, new BigDecimal(unitPrice))));
+        return request;
+    }
+    
+    private static OrderResponse response(String orderId) {
+        OrderResponse response = new OrderResponse();
+        response.setOrderId(orderId);
+        response.setCustomerId("customer-1");
+        return response;
+    }
+}
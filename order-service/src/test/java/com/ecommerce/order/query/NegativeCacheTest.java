@@ -0,0 +1,41 @@
+package com.ecommerce.order.query;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NegativeCacheTest {
+    
+    @Test
+    void shouldExpireNegativeEntries() {
+        // Given
+        long[] now = {0};
+        NegativeCache cache = new NegativeCache(100, 10, () -> now[0]);
+        cache.add("a");
+        
+        // When
+        boolean beforeTtl = cache.contains("a");
+        now[0] = 100;
+        boolean afterTtl = cache.contains("a");
+        
+        // Then
+        assertTrue(beforeTtl);
+        assertFalse(afterTtl);
+        assertEquals(1, cache.getHits());
+        assertEquals(0, cache.size());
+    }
+    
+    @Test
+    void shouldBoundSize() {
+        // Given
+        NegativeCache cache = new NegativeCache(1_000_000_000L, 2, () -> 0);
+        
+        // When
+        for (int i = 0; i < 1000; i++) {
+            cache.add("id-" + i);
+        }
+        
+        // Then
+        assertTrue(cache.size() <= 2);
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecommerce.order.query;
+
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItemEntity;
+import com.ecommerce.order.service.OrderService;
+import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.model.Money;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderQueryServiceTest {
+    
+    @Mock
+    private OrderService orderService;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private OrderProjection orderProjection;
+    private OrderQueryService orderQueryService;
+    
+    @BeforeEach
+    void setUp() {
+        OrderReadModel orderReadModel = new OrderReadModel(1000, 100, Duration.ofMinutes(10));
+        orderProjection = new OrderProjection(orderReadModel, objectMapper);
+        orderQueryService = new OrderQueryService(orderReadModel, orderProjection, orderService,
+            Duration.ofMinutes(1), 100, meterRegistry);
+    }
+    
+    @Test
+    void shouldServeProjectedOrderWithoutTouchingWriteModel() throws Exception {
+        // Given
+        orderProjection.onOrderChanged(new OrderChangedEvent(order("order-1", "customer-1", OrderStatus.CREATED)));
+        
+        // When
+        Optional<CachedJson> order = orderQueryService.getOrder("order-1");
+        Optional<CachedJson> status = orderQueryService.getOrderStatus("order-1");
+        
+        // Then
+        assertTrue(order.isPresent());
+        assertEquals("order-1", objectMapper.readTree(order.get().getBody()).get("orderId").asText());
+        assertEquals("CREATED", objectMapper.readTree(status.get().getBody()).get("status").asText());
+        verifyNoInteractions(orderService);
+    }
+    
+    @Test
+    void shouldHydrateMissFromWriteModelOnce() {
+        // Given
+        when(orderService.getOrder("order-2"))
+            .thenReturn(Optional.of(OrderResponse.from(order("order-2", "customer-2", OrderStatus.CREATED))));
+        
+        // When
+        orderQueryService.getOrder("order-2");
+        orderQueryService.getOrderStatus("order-2");
+        
+        // Then
+        verify(orderService, times(1)).getOrder("order-2");
+    }
+    
+    @Test
+    void shouldAnswerRepeatedUnknownOrderFromNegativeCache() {
+        // Given
+        when(orderService.getOrder("missing")).thenReturn(Optional.empty());
+        
+        // When
+        Optional<CachedJson> first = orderQueryService.getOrder("missing");
+        Optional<CachedJson> second = orderQueryService.getOrderStatus("missing");
+        
+        // Then
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        verify(orderService, times(1)).getOrder("missing");
+        assertEquals(1.0, meterRegistry.get(OrderQueryService.NEGATIVE_HITS).functionCounter().count());
+    }
+    
+    @Test
+    void shouldServeOrderProjectedAfterNotFound() {
+        // Given
+        when(orderService.getOrder("order-7")).thenReturn(Optional.empty());
+        orderQueryService.getOrder("order-7");
+        
+        // When
+        orderProjection.onOrderChanged(new OrderChangedEvent(order("order-7", "customer-7", OrderStatus.CREATED)));
+        
+        // Then
+        assertTrue(orderQueryService.getOrder("order-7").isPresent());
+    }
+    
+    @Test
+    void shouldApplyStatusChangesToReadModel() throws Exception {
+        // Given
+        Order order = order("order-3", "customer-3", OrderStatus.CREATED);
+        orderProjection.onOrderChanged(new OrderChangedEvent(order));
+        String createdEtag = orderQueryService.getOrder("order-3").orElseThrow().getEtag();
+        
+        // When
+        order.setStatus(OrderStatus.PAYMENT_PROCESSED);
+        order.setUpdatedAt(order.getUpdatedAt().plusSeconds(1));
+        orderProjection.onOrderChanged(new OrderChangedEvent(order));
+        
+        // Then
+        JsonNode status = objectMapper.readTree(orderQueryService.getOrderStatus("order-3").orElseThrow().getBody());
+        assertEquals("PAYMENT_PROCESSED", status.get("status").asText());
+        assertNotEquals(createdEtag, orderQueryService.getOrder("order-3").orElseThrow().getEtag());
+    }
+    
+    @Test
+    void shouldIndexOrdersByCustomerAfterHydration() throws Exception {
+        // Given
+        when(orderService.getOrdersByCustomer("customer-4"))
+            .thenReturn(List.of(OrderResponse.from(order("order-4", "customer-4", OrderStatus.CREATED))));
+        orderQueryService.getOrdersByCustomer("customer-4");
+        
+        // When
+        orderProjection.onOrderChanged(new OrderChangedEvent(order("order-5", "customer-4", OrderStatus.CREATED)));
+        JsonNode orders = objectMapper.readTree(orderQueryService.getOrdersByCustomer("customer-4").getBody());
+        
+        // Then
+        assertEquals(2, orders.size());
+        assertEquals("order-4", orders.get(0).get("orderId").asText());
+        assertEquals("order-5", orders.get(1).get("orderId").asText());
+        verify(orderService, times(1)).getOrdersByCustomer("customer-4");
+    }
+    
+    @Test
+    void shouldReturnEmptyArrayForCustomerWithoutOrders() throws Exception {
+        // Given
+        when(orderService.getOrdersByCustomer("customer-6")).thenReturn(List.of());
+        
+        // When
+        JsonNode orders = objectMapper.readTree(orderQueryService.getOrdersByCustomer("customer-6").getBody());
+        
+        // Then
+        assertTrue(orders.isArray());
+        assertEquals(0, orders.size());
+    }
+    
+    private Order order(String orderId, String customerId, OrderStatus status) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId(customerId);
+        order.setStatus(status);
+        order.setItems(List.of(new OrderItemEntity("prod-1", "Product 1", 2, Money.of(new BigDecimal("10.00")))));
+        order.setTotalAmount(Money.of(new BigDecimal("20.00")));
+        order.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        order.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return order;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.ecommerce.order.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderReadModelTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+    
+    private final OrderReadModel readModel = new OrderReadModel(100, 10, Duration.ofMinutes(10));
+    
+    @Test
+    void shouldKeepAtMostMaxOrders() {
+        // Given
+        OrderReadModel bounded = new OrderReadModel(10, 10, Duration.ofMinutes(10));
+        
+        // When
+        for (int i = 0; i < 100; i++) {
+            bounded.put(view("order-" + i, "customer-1", NOW));
+        }
+        
+        // Then
+        assertTrue(bounded.size() <= 10);
+    }
+    
+    @Test
+    void shouldKeepCustomerListWhenItsOrdersAreEvicted() {
+        // Given
+        OrderReadModel bounded = new OrderReadModel(1, 10, Duration.ofMinutes(10));
+        bounded.getCustomerOrders("customer-1", id -> List.of(view("order-1", id, NOW), view("order-2", id, NOW)));
+        
+        // When
+        for (int i = 0; i < 10; i++) {
+            bounded.put(view("other-" + i, "customer-2", NOW));
+        }
+        bounded.size();
+        String orders = body(bounded.getCustomerOrders("customer-1", id -> List.of()));
+        
+        // Then
+        assertEquals("[\"order-1\",\"order-2\"]", orders);
+    }
+    
+    @Test
+    void shouldKeepOrderProjectedWhileCustomerListLoads() {
+        // Given
+        List<OrderView> loaded = List.of(view("order-1", "customer-1", NOW));
+        
+        // When
+        String orders = body(readModel.getCustomerOrders("customer-1", id -> {
+            readModel.put(view("order-2", id, NOW));
+            return loaded;
+        }));
+        
+        // Then
+        assertEquals("[\"order-1\",\"order-2\"]", orders);
+    }
+    
+    @Test
+    void shouldDropOlderOrderAndCustomerListOnNewerSnapshot() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        readModel.put(view("order-1", "customer-1", NOW));
+        readModel.getCustomerOrders("customer-1", id -> {
+            loads.incrementAndGet();
+            return List.of(view("order-1", id, NOW));
+        });
+        
+        // When
+        readModel.invalidateIfStale("order-1", "customer-1", NOW.plusSeconds(1));
+        readModel.getCustomerOrders("customer-1", id -> {
+            loads.incrementAndGet();
+            return List.of(view("order-1", id, NOW.plusSeconds(1)));
+        });
+        
+        // Then
+        assertEquals(NOW.plusSeconds(1), readModel.get("order-1").getUpdatedAt());
+        assertEquals(2, loads.get());
+    }
+    
+    @Test
+    void shouldDropCustomerListMissingOrderCreatedElsewhere() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        readModel.getCustomerOrders("customer-1", id -> {
+            loads.incrementAndGet();
+            return List.of(view("order-1", id, NOW));
+        });
+        
+        // When
+        readModel.invalidateIfStale("order-2", "customer-1", NOW);
+        readModel.getCustomerOrders("customer-1", id -> {
+            loads.incrementAndGet();
+            return List.of(view("order-1", id, NOW), view("order-2", id, NOW));
+        });
+        
+        // Then
+        assertEquals(2, loads.get());
+    }
+    
+    @Test
+    void shouldKeepViewsThatAreNotOlderThanSnapshot() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        readModel.put(view("order-1", "customer-1", NOW));
+        readModel.getCustomerOrders("customer-1", id -> {
+            loads.incrementAndGet();
+            return List.of(view("order-1", id, NOW));
+        });
+        
+        // When
+        readModel.invalidateIfStale("order-1", "customer-1", NOW);
+        readModel.getCustomerOrders("customer-1", id -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        
+        // Then
+        assertNotNull(readModel.get("order-1"));
+        assertEquals(1, loads.get());
+    }
+    
+    private static OrderView view(String orderId, String customerId, LocalDateTime updatedAt) {
+        CachedJson json = CachedJson.of(("\"" + orderId + "\"").getBytes(StandardCharsets.UTF_8));
+        return new OrderView(orderId, customerId, updatedAt, json, json);
+    }
+    
+    private static String body(CachedJson json) {
+        return new String(json.getBody(), StandardCharsets.UTF_8);
+    }
+}
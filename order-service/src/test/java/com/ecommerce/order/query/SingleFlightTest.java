@@ -0,0 +1,85 @@
+package com.ecommerce.order.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    
+    @Test
+    void shouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        // Given
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.load("order-1", key -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return key + "-loaded";
+                })));
+            }
+            while (singleFlight.getShared() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            
+            // Then
+            for (Future<String> result : results) {
+                assertEquals("order-1-loaded", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    void shouldLoadAgainOnceFlightCompletes() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        
+        // When
+        singleFlight.load("order-1", key -> key + loads.incrementAndGet());
+        String second = singleFlight.load("order-1", key -> key + loads.incrementAndGet());
+        
+        // Then
+        assertEquals("order-12", second);
+        assertEquals(0, singleFlight.getShared());
+    }
+    
+    @Test
+    void shouldPropagateLoaderFailureAndRecover() {
+        // When
+        assertThrows(IllegalStateException.class, () -> singleFlight.load("order-1", key -> {
+            throw new IllegalStateException("database down");
+        }));
+        
+        // Then
+        assertEquals("ok", singleFlight.load("order-1", key -> "ok"));
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.order.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketStoreTest {
+    
+    private final TokenBucketStore store = new TokenBucketStore(4, 16);
+    private final RateLimitTier tier = new RateLimitTier(10, 3);
+    
+    @Test
+    void shouldAllowTheBurstThenReportTheWaitForTheNextToken() {
+        // Given
+        long now = 1_000;
+        
+        // When
+        long first = store.tryAcquire("customer-1", tier, now);
+        long second = store.tryAcquire("customer-1", tier, now);
+        long third = store.tryAcquire("customer-1", tier, now);
+        long fourth = store.tryAcquire("customer-1", tier, now);
+        
+        // Then
+        assertEquals(0, first + second + third);
+        assertEquals(100, fourth);
+    }
+    
+    @Test
+    void shouldRefillFromElapsedTimeOnAccess() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            store.tryAcquire("customer-1", tier, 1_000);
+        }
+        
+        // When
+        long early = store.tryAcquire("customer-1", tier, 1_060);
+        long due = store.tryAcquire("customer-1", tier, 1_100);
+        long again = store.tryAcquire("customer-1", tier, 1_100);
+        
+        // Then
+        assertEquals(40, early);
+        assertEquals(0, due);
+        assertEquals(100, again);
+    }
+    
+    @Test
+    void shouldKeepFractionalRefillAcrossFrequentCalls() {
+        // Given
+        RateLimitTier slow = new RateLimitTier(0.5, 1);
+        store.tryAcquire("customer-1", slow, 0);
+        
+        // When
+        int granted = 0;
+        for (long now = 0; now <= 4_000; now++) {
+            if (store.tryAcquire("customer-1", slow, now) == 0) {
+                granted++;
+            }
+        }
+        
+        // Then
+        assertEquals(2, granted);
+    }
+    
+    @Test
+    void shouldRefillAtTheTierRateWhenEachCallEarnsAFractionOfAThousandth() {
+        // Given
+        RateLimitTier uneven = new RateLimitTier(2.5, 1);
+        store.tryAcquire("customer-1", uneven, 0);
+        
+        // When
+        int granted = 0;
+        for (long now = 1; now <= 10_000; now++) {
+            if (store.tryAcquire("customer-1", uneven, now) == 0) {
+                granted++;
+            }
+        }
+        
+        // Then
+        assertEquals(25, granted);
+    }
+    
+    @Test
+    void shouldKeepCustomersIndependent() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            store.tryAcquire("customer-1", tier, 1_000);
+        }
+        
+        // When
+        long other = store.tryAcquire("customer-2", tier, 1_000);
+        
+        // Then
+        assertEquals(0, other);
+    }
+    
+    @Test
+    void shouldEvictOnlyBucketsThatHaveRefilled() {
+        // Given
+        store.tryAcquire("idle", tier, 1_000);
+        store.tryAcquire("active", tier, 1_200);
+        
+        // When
+        int evicted = store.evictIdle(1_300);
+        
+        // Then
+        assertEquals(1, evicted);
+        assertEquals(1, store.size());
+    }
+    
+    @Test
+    void shouldNeverGrantMoreThanTheBurstUnderContention() throws Exception {
+        // Given
+        RateLimitTier burst = new RateLimitTier(1, 1000);
+        AtomicInteger granted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        
+        // When
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (store.tryAcquire("customer-1", burst, 5_000) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        // Then
+        assertEquals(1000, granted.get());
+    }
+    
+    @Test
+    void shouldRejectTiersOutsideThePackedRange() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitTier(10, TokenBucketStore.MAX_BURST + 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitTier(0, 10));
+    }
+}
\ No newline at end of file
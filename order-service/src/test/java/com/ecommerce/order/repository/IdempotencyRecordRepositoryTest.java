@@ -0,0 +1,65 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.IdempotencyRecord;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:idempotency-pg;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class IdempotencyRecordRepositoryTest {
+    
+    private static final String DIGEST = "a".repeat(64);
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Test
+    void shouldRejectSecondClaimOfSameKey() {
+        // Given
+        idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord("customer-1", "key-1", "order-1", DIGEST));
+        
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> idempotencyRecordRepository.saveAndFlush(
+            new IdempotencyRecord("customer-1", "key-1", "order-2", DIGEST)));
+    }
+    
+    @Test
+    void shouldScopeKeysToCustomer() {
+        // Given
+        idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord("customer-1", "key-1", "order-1", DIGEST));
+        
+        // When
+        idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord("customer-2", "key-1", "order-2", DIGEST));
+        entityManager.clear();
+        
+        // Then
+        assertEquals("order-2", idempotencyRecordRepository
+            .findById(new IdempotencyRecord.Key("customer-2", "key-1")).orElseThrow().getOrderId());
+    }
+    
+    @Test
+    void shouldDeleteRecordsOlderThanCutoff() {
+        // Given
+        idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord("customer-1", "key-1", "order-1", DIGEST));
+        
+        // When
+        int kept = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(1));
+        int purged = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().plusSeconds(1));
+        
+        // Then
+        assertEquals(0, kept);
+        assertEquals(1, purged);
+    }
+}
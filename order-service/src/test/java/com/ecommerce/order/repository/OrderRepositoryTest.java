@@ -0,0 +1,127 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItemEntity;
+import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.model.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against the Flyway schema on H2 in PostgreSQL mode, as the prod profile does
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:orderdb-pg;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderRepositoryTest {
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @Test
+    void shouldInsertNewOrderWithoutSelectAndBatchItems() {
+        // Given
+        Order order = newOrder("order-1", "customer-1");
+        
+        // When
+        orderRepository.save(order);
+        entityManager.flush();
+        
+        // Then
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void shouldRoundTripOrderThroughMigratedSchema() {
+        // Given
+        orderRepository.save(newOrder("order-2", "customer-2"));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        Order loaded = orderRepository.findById("order-2").orElseThrow();
+        List<Order> byCustomer = orderRepository.findByCustomerId("customer-2");
+        
+        // Then
+        assertFalse(loaded.isNew());
+        assertEquals(Money.of(new BigDecimal("47.99")), loaded.getTotalAmount());
+        assertEquals(3, loaded.getItems().size());
+        assertEquals(Money.of(new BigDecimal("10.50")), loaded.getItems().get(0).getUnitPrice());
+        assertEquals(1, byCustomer.size());
+    }
+    
+    @Test
+    void shouldUpdateStatusOfLoadedOrder() {
+        // Given
+        orderRepository.save(newOrder("order-3", "customer-3"));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        Order loaded = orderRepository.findById("order-3").orElseThrow();
+        loaded.setStatus(OrderStatus.COMPLETED);
+        orderRepository.save(loaded);
+        entityManager.flush();
+        entityManager.clear();
+        
+        // Then
+        assertEquals(OrderStatus.COMPLETED, orderRepository.findById("order-3").orElseThrow().getStatus());
+        assertEquals(1, orderRepository.countByStatus(OrderStatus.COMPLETED));
+    }
+    
+    @Test
+    void shouldRejectOrderWithoutPositiveTotal() {
+        // Given
+        Order order = newOrder("order-4", "customer-4");
+        order.setTotalAmount(Money.ZERO);
+        
+        // When & Then
+        assertThrows(ConstraintViolationException.class, () -> {
+            orderRepository.save(order);
+            entityManager.flush();
+        });
+    }
+    
+    private Order newOrder(String orderId, String customerId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId(customerId);
+        order.setStatus(OrderStatus.CREATED);
+        order.setItems(new ArrayList<>(List.of(
+            new OrderItemEntity("prod-1", "Product 1", 2, Money.of(new BigDecimal("10.50"))),
+            new OrderItemEntity("prod-2", "Product 2", 1, Money.of(new BigDecimal("25.99"))),
+            new OrderItemEntity("prod-3", "Product 3", 1, Money.of(new BigDecimal("1.00")))
+        )));
+        order.setTotalAmount(Money.of(new BigDecimal("47.99")));
+        return order;
+    }
+}
\ No newline at end of file
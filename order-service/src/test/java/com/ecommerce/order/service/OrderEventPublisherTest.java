@@ -0,0 +1,166 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.exception.PublisherSaturatedException;
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.enums.OrderPriority;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.OrderCancelledEvent;
+import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.events.PaymentFailedEvent;
+import com.ecommerce.shared.logging.EventLogger;
+import com.ecommerce.shared.logging.LogSampler;
+import com.ecommerce.shared.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrderEventPublisherTest {
+    
+    private static final int MAX_IN_FLIGHT = 2;
+    
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, BaseEvent> kafkaTemplate = mock(KafkaTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private OrderEventPublisher publisher;
+    
+    @BeforeEach
+    void setUp() {
+        publisher = new OrderEventPublisher(kafkaTemplate, new EventLogger(LogSampler.always()),
+            new PipelineMetrics(meterRegistry, "test"), MAX_IN_FLIGHT, Duration.ZERO);
+    }
+    
+    @Test
+    void shouldCompleteFutureWhenBrokerAcknowledges() {
+        // Given
+        CompletableFuture<SendResult<String, BaseEvent>> ack = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq(KafkaTopics.ORDER_CREATED), eq("order-1"), any())).thenReturn(ack);
+        OrderCreatedEvent event = orderCreated("order-1");
+        
+        // When
+        CompletableFuture<SendResult<String, BaseEvent>> published = publisher.publishOrderCreated(event);
+        
+        // Then
+        assertFalse(published.isDone());
+        assertEquals(1, publisher.getInFlight());
+        
+        ack.complete(sendResult(KafkaTopics.ORDER_CREATED, event));
+        assertTrue(published.isDone());
+        assertEquals(0, publisher.getInFlight());
+        assertEquals(1, meterRegistry.get(PipelineMetrics.PRODUCER_SEND_LATENCY)
+            .tags("topic", KafkaTopics.ORDER_CREATED, "outcome", "success").timer().count());
+    }
+    
+    @Test
+    void shouldRouteExpressOrdersToTheExpressLane() {
+        // Given
+        OrderCreatedEvent express = new OrderCreatedEvent("corr-1", "order-1", "customer-1", List.of(),
+            BigDecimal.TEN, OrderPriority.EXPRESS);
+        when(kafkaTemplate.send(KafkaTopics.ORDER_CREATED_EXPRESS, "order-1", express))
+            .thenReturn(CompletableFuture.completedFuture(sendResult(KafkaTopics.ORDER_CREATED_EXPRESS, express)));
+        
+        // When
+        publisher.publishOrderCreated(express).join();
+        
+        // Then
+        verify(kafkaTemplate).send(KafkaTopics.ORDER_CREATED_EXPRESS, "order-1", express);
+        verify(kafkaTemplate, never()).send(eq(KafkaTopics.ORDER_CREATED), anyString(), any());
+    }
+    
+    @Test
+    void shouldShedWhenInFlightLimitIsReached() {
+        // Given
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+        publisher.publishOrderCreated(orderCreated("order-1"));
+        publisher.publishOrderCreated(orderCreated("order-2"));
+        
+        // When & Then
+        assertTrue(publisher.isSaturated());
+        assertThrows(PublisherSaturatedException.class, () -> publisher.publishOrderCreated(orderCreated("order-3")));
+        verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any());
+        assertEquals(1.0, meterRegistry.get("order.events.publish.rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("order.events.publish.in-flight").gauge().value());
+    }
+    
+    @Test
+    void shouldReleaseCapacityWhenSendFails() {
+        // Given
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+            .thenThrow(new IllegalStateException("producer closed"));
+        
+        // When
+        CompletableFuture<SendResult<String, BaseEvent>> asyncFailure = publisher.publishOrderCreated(orderCreated("order-1"));
+        CompletableFuture<SendResult<String, BaseEvent>> syncFailure = publisher.publishOrderCreated(orderCreated("order-2"));
+        
+        // Then
+        assertTrue(asyncFailure.isCompletedExceptionally());
+        assertTrue(syncFailure.isCompletedExceptionally());
+        assertEquals(0, publisher.getInFlight());
+        assertEquals(2, meterRegistry.get(PipelineMetrics.PRODUCER_SEND_LATENCY)
+            .tags("topic", KafkaTopics.ORDER_CREATED, "outcome", "failure").timer().count());
+    }
+    
+    @Test
+    void shouldPublishAllEventsAsOneUnit() {
+        // Given
+        OrderCreatedEvent created = orderCreated("order-1");
+        OrderCancelledEvent cancelled = new OrderCancelledEvent("corr-1", "order-1", "customer request");
+        when(kafkaTemplate.send(KafkaTopics.ORDER_CREATED, "order-1", created))
+            .thenReturn(CompletableFuture.completedFuture(sendResult(KafkaTopics.ORDER_CREATED, created)));
+        when(kafkaTemplate.send(KafkaTopics.ORDER_CANCELLED, "order-1", cancelled))
+            .thenReturn(CompletableFuture.completedFuture(sendResult(KafkaTopics.ORDER_CANCELLED, cancelled)));
+        
+        // When
+        List<SendResult<String, BaseEvent>> results = publisher.publishAll(List.of(created, cancelled)).join();
+        
+        // Then
+        assertEquals(2, results.size());
+        assertEquals(KafkaTopics.ORDER_CANCELLED, results.get(1).getProducerRecord().topic());
+        assertEquals(0, publisher.getInFlight());
+    }
+    
+    @Test
+    void shouldRejectBatchLargerThanRemainingCapacity() {
+        // Given
+        List<BaseEvent> events = List.of(orderCreated("order-1"), orderCreated("order-2"), orderCreated("order-3"));
+        
+        // When & Then
+        assertThrows(PublisherSaturatedException.class, () -> publisher.publishAll(events));
+        verifyNoInteractions(kafkaTemplate);
+        assertEquals(0, publisher.getInFlight());
+    }
+    
+    @Test
+    void shouldRejectEventsNotOwnedByOrderService() {
+        PaymentFailedEvent event = new PaymentFailedEvent("corr-1", "order-1", "payment-1", BigDecimal.TEN, "declined");
+        
+        assertThrows(IllegalArgumentException.class, () -> publisher.publishAll(List.of(event)));
+        assertEquals(0, publisher.getInFlight());
+    }
+    
+    private static OrderCreatedEvent orderCreated(String orderId) {
+        return new OrderCreatedEvent("corr-" + orderId, orderId, "customer-1", List.of(), BigDecimal.TEN);
+    }
+    
+    private static SendResult<String, BaseEvent> sendResult(String topic, BaseEvent event) {
+        return new SendResult<>(new ProducerRecord<>(topic, event.getOrderId(), event),
+            new RecordMetadata(new TopicPartition(topic, 0), 0, 0, 0, 0, 0));
+    }
+}
\ No newline at end of file
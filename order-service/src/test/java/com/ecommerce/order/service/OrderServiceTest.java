@@ -2,21 +2,32 @@ package com.ecommerce.order.service;
 
 import com.ecommerce.order.dto.CreateOrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.exception.DuplicateOrderRequestException;
+import com.ecommerce.order.exception.PublisherSaturatedException;
+import com.ecommerce.order.model.IdempotencyRecord;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderItemEntity;
+import com.ecommerce.order.query.OrderChangedEvent;
+import com.ecommerce.order.repository.IdempotencyRecordRepository;
 import com.ecommerce.order.repository.OrderRepository;
 import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.model.Money;
 import com.ecommerce.shared.model.OrderItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,10 +41,17 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
     
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
     @Mock
     private OrderEventPublisher orderEventPublisher;
     
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
     private OrderService orderService;
     
     private CreateOrderRequest createOrderRequest;
@@ -41,6 +59,8 @@ class OrderServiceTest {
     
     @BeforeEach
     void setUp() {
+        orderService = new OrderService(orderRepository, idempotencyRecordRepository, orderEventPublisher, applicationEventPublisher, meterRegistry);
+        
         OrderItem item1 = new OrderItem("prod-1", "Product 1", 2, new BigDecimal("10.00"));
         OrderItem item2 = new OrderItem("prod-2", "Product 2", 1, new BigDecimal("15.00"));
         
@@ -49,14 +69,14 @@ class OrderServiceTest {
         createOrderRequest.setItems(Arrays.asList(item1, item2));
         
         // Create OrderItemEntity list for the saved order
-        OrderItemEntity entity1 = new OrderItemEntity("prod-1", "Product 1", 2, new BigDecimal("10.00"));
-        OrderItemEntity entity2 = new OrderItemEntity("prod-2", "Product 2", 1, new BigDecimal("15.00"));
+        OrderItemEntity entity1 = new OrderItemEntity("prod-1", "Product 1", 2, Money.of(new BigDecimal("10.00")));
+        OrderItemEntity entity2 = new OrderItemEntity("prod-2", "Product 2", 1, Money.of(new BigDecimal("15.00")));
         
         savedOrder = new Order();
         savedOrder.setOrderId("order-123");
         savedOrder.setCustomerId("customer-123");
         savedOrder.setStatus(OrderStatus.CREATED);
-        savedOrder.setTotalAmount(new BigDecimal("35.00"));
+        savedOrder.setTotalAmount(Money.of(new BigDecimal("35.00")));
         savedOrder.setItems(Arrays.asList(entity1, entity2));
         savedOrder.setCreatedAt(LocalDateTime.now());
         savedOrder.setUpdatedAt(LocalDateTime.now());
@@ -80,6 +100,65 @@ class OrderServiceTest {
         
         verify(orderRepository).save(any(Order.class));
         verify(orderEventPublisher).publishOrderCreated(any());
+        verify(applicationEventPublisher).publishEvent(any(OrderChangedEvent.class));
+        
+        assertEquals(1, meterRegistry.get("order.create").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("order.create.phase").tag("phase", "persist").timer().count());
+        assertEquals(1, meterRegistry.get("order.create.phase").tag("phase", "publish").timer().count());
+    }
+    
+    @Test
+    void createOrder_ShouldRecordFailureWhenPublisherIsSaturated() {
+        // Given
+        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+        when(orderEventPublisher.publishOrderCreated(any())).thenThrow(new PublisherSaturatedException("saturated"));
+        
+        // When & Then
+        assertThrows(PublisherSaturatedException.class, () -> orderService.createOrder(createOrderRequest));
+        assertEquals(1, meterRegistry.get("order.create").tag("outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get("order.create.phase").tag("phase", "persist").timer().count());
+        assertEquals(0, meterRegistry.get("order.create.phase").tag("phase", "publish").timer().count());
+    }
+    
+    @Test
+    void createOrder_ShouldClaimIdempotencyKeyForNewOrder() {
+        // Given
+        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+        
+        // When
+        orderService.createOrder(createOrderRequest, null, "key-1");
+        
+        // Then
+        verify(idempotencyRecordRepository).saveAndFlush(argThat(record ->
+            record.getCustomerId().equals("customer-123")
+                && record.getIdempotencyKey().equals("key-1")
+                && record.getRequestDigest().equals(createOrderRequest.fingerprint())));
+        verify(orderEventPublisher).publishOrderCreated(any());
+    }
+    
+    @Test
+    void createOrder_ShouldNotPersistOrPublishWhenIdempotencyKeyIsTaken() {
+        // Given
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        
+        // When & Then
+        assertThrows(DuplicateOrderRequestException.class,
+            () -> orderService.createOrder(createOrderRequest, null, "key-1"));
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderEventPublisher, never()).publishOrderCreated(any());
+    }
+    
+    @Test
+    void createOrder_EveryPublicOverloadShouldBeTransactional() {
+        // Given
+        List<Method> overloads = Arrays.stream(OrderService.class.getMethods())
+            .filter(method -> method.getName().equals("createOrder"))
+            .toList();
+        
+        // When & Then
+        assertEquals(3, overloads.size());
+        overloads.forEach(method -> assertNotNull(method.getAnnotation(Transactional.class), method.toString()));
     }
     
     @Test
@@ -124,5 +203,6 @@ class OrderServiceTest {
         // Then
         verify(orderRepository).findById("order-123");
         verify(orderRepository).save(any(Order.class));
+        verify(applicationEventPublisher).publishEvent(any(OrderChangedEvent.class));
     }
 }
\ No newline at end of file
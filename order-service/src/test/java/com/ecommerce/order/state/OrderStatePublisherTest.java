@@ -0,0 +1,120 @@
+package com.ecommerce.order.state;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.query.OrderChangedEvent;
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.model.Money;
+import com.ecommerce.shared.state.OrderStateSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrderStatePublisherTest {
+    
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 12, 0);
+    
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, OrderStateSnapshot> kafkaTemplate = mock(KafkaTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private OrderStatePublisher publisher;
+    
+    @BeforeEach
+    void setUp() {
+        publisher = new OrderStatePublisher(kafkaTemplate, Duration.ofHours(1), meterRegistry);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        publisher.close();
+    }
+    
+    @Test
+    void shouldResendFailedSnapshotUntilAcked() {
+        // Given
+        when(kafkaTemplate.send(eq(KafkaTopics.ORDER_STATE), eq("order-1"), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        publisher.onOrderChanged(new OrderChangedEvent(order(OrderStatus.CREATED, CREATED)));
+        
+        // When
+        assertEquals(1, publisher.getPending());
+        publisher.retryPending();
+        
+        // Then
+        assertEquals(0, publisher.getPending());
+        verify(kafkaTemplate, times(2)).send(eq(KafkaTopics.ORDER_STATE), eq("order-1"), any());
+        assertEquals(1.0, meterRegistry.get(OrderStatePublisher.PUBLISHED).tag("outcome", "success").counter().count());
+    }
+    
+    @Test
+    void shouldResendOnlyNewestSnapshotOfQueuedOrder() {
+        // Given
+        when(kafkaTemplate.send(eq(KafkaTopics.ORDER_STATE), eq("order-1"), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        publisher.onOrderChanged(new OrderChangedEvent(order(OrderStatus.CREATED, CREATED)));
+        
+        // When
+        publisher.onOrderChanged(new OrderChangedEvent(order(OrderStatus.PAYMENT_PROCESSED, CREATED.plusSeconds(1))));
+        publisher.retryPending();
+        
+        // Then
+        verify(kafkaTemplate, times(2)).send(eq(KafkaTopics.ORDER_STATE), eq("order-1"), any());
+        verify(kafkaTemplate).send(eq(KafkaTopics.ORDER_STATE), eq("order-1"),
+            argThat(snapshot -> snapshot.status() == OrderStatus.PAYMENT_PROCESSED));
+        assertEquals(0, publisher.getPending());
+    }
+    
+    @Test
+    void shouldNotResendOlderSnapshotThatFailedAfterNewerChange() {
+        // Given
+        CompletableFuture<SendResult<String, OrderStateSnapshot>> firstSend = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq(KafkaTopics.ORDER_STATE), eq("order-1"), any()))
+            .thenReturn(firstSend)
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        publisher.onOrderChanged(new OrderChangedEvent(order(OrderStatus.CREATED, CREATED)));
+        publisher.onOrderChanged(new OrderChangedEvent(order(OrderStatus.PAYMENT_PROCESSED, CREATED.plusSeconds(1))));
+        
+        // When
+        firstSend.completeExceptionally(new RuntimeException("broker down"));
+        publisher.retryPending();
+        publisher.retryPending();
+        
+        // Then
+        verify(kafkaTemplate).send(eq(KafkaTopics.ORDER_STATE), eq("order-1"),
+            argThat(snapshot -> snapshot.status() == OrderStatus.CREATED));
+        verify(kafkaTemplate).send(eq(KafkaTopics.ORDER_STATE), eq("order-1"),
+            argThat(snapshot -> snapshot.status() == OrderStatus.PAYMENT_PROCESSED));
+        verifyNoMoreInteractions(kafkaTemplate);
+        assertEquals(0, publisher.getPending());
+    }
+    
+    private static Order order(OrderStatus status, LocalDateTime updatedAt) {
+        Order order = new Order();
+        order.setOrderId("order-1");
+        order.setCustomerId("customer-1");
+        order.setStatus(status);
+        order.setItems(List.of());
+        order.setTotalAmount(Money.of(new BigDecimal("20.00")));
+        order.setCreatedAt(CREATED);
+        order.setUpdatedAt(updatedAt);
+        return order;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.saga;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.kafka.annotation.EnableKafka;
+
+@SpringBootApplication(scanBasePackages = {"com.ecommerce.saga", "com.ecommerce.shared"})
+@EnableKafka
+public class SagaTrackerApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(SagaTrackerApplication.class, args);
+    }
+}
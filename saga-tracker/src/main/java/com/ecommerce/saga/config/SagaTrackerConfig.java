@@ -0,0 +1,52 @@
+package com.ecommerce.saga.config;
+
+import com.ecommerce.saga.coordinator.SagaCatchUp;
+import com.ecommerce.saga.tracker.SagaTracker;
+import com.ecommerce.shared.events.BaseEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ContainerPostProcessor;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+
+import java.time.Duration;
+
+@Configuration
+public class SagaTrackerConfig {
+    
+    @Value("${saga.timeouts.inventory:PT30S}")
+    private Duration inventoryTimeout;
+    
+    @Value("${saga.timeouts.payment:PT2M}")
+    private Duration paymentTimeout;
+    
+    @Value("${saga.timeouts.cancellation-retry:PT10S}")
+    private Duration cancellationRetry;
+    
+    @Value("${saga.retention:PT10M}")
+    private Duration retention;
+    
+    @Value("${saga.expected-in-flight:1000000}")
+    private int expectedInFlight;
+    
+    @Value("${saga.timeouts.catch-up-idle:PT5S}")
+    private Duration catchUpIdle;
+    
+    @Bean
+    public SagaTracker sagaTracker(MeterRegistry meterRegistry) {
+        // Wall-clock deadlines, so persisted ones still mean the same after a restart
+        return new SagaTracker(inventoryTimeout, paymentTimeout, cancellationRetry, retention, expectedInFlight,
+            System::currentTimeMillis, meterRegistry);
+    }
+    
+    // Reports the end offsets of assigned partitions, and idle events once the listener finds nothing to read
+    @Bean(SagaCatchUp.CONTAINER_POST_PROCESSOR)
+    public ContainerPostProcessor<String, BaseEvent, AbstractMessageListenerContainer<String, BaseEvent>>
+            sagaContainerPostProcessor(SagaCatchUp sagaCatchUp) {
+        return container -> {
+            container.getContainerProperties().setConsumerRebalanceListener(sagaCatchUp);
+            container.getContainerProperties().setIdleEventInterval(catchUpIdle.toMillis());
+        };
+    }
+}
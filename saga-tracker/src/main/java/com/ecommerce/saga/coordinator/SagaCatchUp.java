@@ -0,0 +1,102 @@
+package com.ecommerce.saga.coordinator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Holds the timeout scan back until the saga listener has read each assigned partition up to the end offset
+// it had when assigned. Before that the tracker can miss responses that arrived while the service was down
+// and would cancel sagas that went through. An idle container has nothing left to read, which also covers
+// records the type filter or the duplicate check drop before the listener sees them.
+// The saga state lives in this instance's own H2 file, and a saga's events span topics, so one instance must
+// hold every partition: while another group member holds some, timeouts stay paused and the split is logged.
+@Component
+@Slf4j
+public class SagaCatchUp implements ConsumerAwareRebalanceListener {
+    
+    public static final String CONTAINER_POST_PROCESSOR = "sagaContainerPostProcessor";
+    
+    private final Map<TopicPartition, Long> remaining = new ConcurrentHashMap<>();
+    private final Set<TopicPartition> heldElsewhere = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        consumer.endOffsets(partitions).forEach((partition, end) -> {
+            if (end > 0) {
+                remaining.put(partition, end);
+            }
+        });
+        checkSingleInstance(consumer);
+        update();
+    }
+    
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        remaining.keySet().removeAll(partitions);
+        update();
+    }
+    
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        onPartitionsRevokedAfterCommit(consumer, partitions);
+    }
+    
+    // Consumer thread, after each record
+    public void consumed(Consumer<?, ?> consumer) {
+        if (remaining.isEmpty()) {
+            return;
+        }
+        Set<TopicPartition> assignment = consumer.assignment();
+        remaining.entrySet().removeIf(end ->
+            assignment.contains(end.getKey()) && consumer.position(end.getKey()) >= end.getValue());
+        update();
+    }
+    
+    public void idle(Collection<TopicPartition> partitions) {
+        remaining.keySet().removeAll(partitions);
+        update();
+    }
+    
+    // False until the first assignment, so nothing times out before any partition was read
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // The listener runs a single consumer, so its assignment is everything this instance holds
+    private void checkSingleInstance(Consumer<?, ?> consumer) {
+        Set<TopicPartition> assignment = consumer.assignment();
+        heldElsewhere.clear();
+        for (String topic : consumer.subscription()) {
+            for (PartitionInfo info : consumer.partitionsFor(topic)) {
+                TopicPartition partition = new TopicPartition(topic, info.partition());
+                if (!assignment.contains(partition)) {
+                    heldElsewhere.add(partition);
+                }
+            }
+        }
+        if (!heldElsewhere.isEmpty()) {
+            log.error("Another saga-tracker instance holds {} partitions, e.g. {}; run exactly one instance. "
+                + "Timeouts are paused until this instance holds them all", heldElsewhere.size(),
+                heldElsewhere.iterator().next());
+        }
+    }
+    
+    private synchronized void update() {
+        boolean wasReady = ready;
+        ready = remaining.isEmpty() && heldElsewhere.isEmpty();
+        if (ready && !wasReady) {
+            log.info("Saga listener caught up with every partition, checking timeouts");
+        } else if (!ready && wasReady) {
+            log.info("Saga listener catching up with {} assigned partitions, timeouts paused", remaining.size());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.ecommerce.saga.coordinator;
+
+import com.ecommerce.saga.tracker.SagaTracker;
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.enums.PaymentStatus;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.InventoryInsufficientEvent;
+import com.ecommerce.shared.events.InventoryReservedEvent;
+import com.ecommerce.shared.events.OrderCancelledEvent;
+import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.events.PaymentFailedEvent;
+import com.ecommerce.shared.events.PaymentProcessedEvent;
+import com.ecommerce.shared.routing.EventTypeRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Feeds every saga event into the tracker and turns failed steps and missed deadlines into
+// OrderCancelledEvents, the trigger for inventory and payment to release what they hold for the order.
+// A cancellation only finishes its saga once the broker acks it; until then the scan sends it again.
+// Assigned partitions resume from the offsets the write-behind persisted with the saga state, and timeouts
+// are only checked once SagaCatchUp reports those partitions read up to where they ended at assignment.
+@Component
+@Slf4j
+public class SagaCoordinator implements ConsumerSeekAware, AutoCloseable {
+    
+    private final SagaTracker sagaTracker;
+    private final SagaCatchUp sagaCatchUp;
+    private final KafkaTemplate<String, BaseEvent> kafkaTemplate;
+    private final EventTypeRouter router;
+    private final int maxCancellationsPerScan;
+    private final ScheduledExecutorService scanner;
+    
+    public SagaCoordinator(SagaTracker sagaTracker,
+                           SagaCatchUp sagaCatchUp,
+                           KafkaTemplate<String, BaseEvent> kafkaTemplate,
+                           EventJsonCodec eventJsonCodec,
+                           @Value("${saga.timeouts.scan-interval:PT1S}") Duration scanInterval,
+                           @Value("${saga.timeouts.max-cancellations-per-scan:1000}") int maxCancellationsPerScan) {
+        this.sagaTracker = sagaTracker;
+        this.sagaCatchUp = sagaCatchUp;
+        this.kafkaTemplate = kafkaTemplate;
+        this.maxCancellationsPerScan = maxCancellationsPerScan;
+        this.router = EventTypeRouter.builder(eventJsonCodec)
+            .on(OrderCreatedEvent.class, event -> sagaTracker.orderCreated(event.getOrderId(), event.getCorrelationId()))
+            .on(InventoryReservedEvent.class, event ->
+                sagaTracker.inventoryReserved(event.getOrderId(), event.getCorrelationId()))
+            .on(InventoryInsufficientEvent.class, event ->
+                compensate(event, "Insufficient inventory: " + event.getReason()))
+            .on(PaymentProcessedEvent.class, this::onPaymentProcessed)
+            .on(PaymentFailedEvent.class, event -> compensate(event, "Payment failed: " + event.getFailureReason()))
+            .on(OrderCancelledEvent.class, event ->
+                sagaTracker.orderCancelled(event.getOrderId(), event.getCorrelationId()))
+            .otherwise(event -> log.debug("Ignoring event type outside the saga: {}", event.getEventType()))
+            .build();
+        
+        this.scanner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "saga-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scanner.scheduleWithFixedDelay(this::cancelExpired, scanInterval.toMillis(), scanInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+    
+    @KafkaListener(topics = {
+        KafkaTopics.ORDER_CREATED,
+        KafkaTopics.ORDER_CREATED_EXPRESS,
+        KafkaTopics.ORDER_CANCELLED,
+        KafkaTopics.INVENTORY_RESERVED,
+        KafkaTopics.INVENTORY_RESERVED_EXPRESS,
+        KafkaTopics.INVENTORY_INSUFFICIENT,
+        KafkaTopics.PAYMENT_PROCESSED,
+        KafkaTopics.PAYMENT_FAILED
+    }, containerPostProcessor = SagaCatchUp.CONTAINER_POST_PROCESSOR)
+    public void handleEvent(ConsumerRecord<String, BaseEvent> consumerRecord, Consumer<?, ?> consumer) {
+        router.dispatch(consumerRecord);
+        sagaTracker.consumed(consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset());
+        sagaCatchUp.consumed(consumer);
+    }
+    
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        // H2 is the only source of offsets: the group's committed offsets can run ahead of the write-behind,
+        // so a partition without a stored offset is read from the beginning
+        Map<TopicPartition, Long> nextOffsets = sagaTracker.nextOffsets();
+        assignments.keySet().forEach(partition -> {
+            Long next = nextOffsets.get(partition);
+            if (next != null) {
+                callback.seek(partition.topic(), partition.partition(), next);
+            } else {
+                callback.seekToBeginning(partition.topic(), partition.partition());
+            }
+        });
+    }
+    
+    @Override
+    public void onIdleContainer(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        sagaCatchUp.idle(assignments.keySet());
+    }
+    
+    @Override
+    public void close() {
+        scanner.shutdownNow();
+    }
+    
+    void cancelExpired() {
+        if (!sagaCatchUp.isReady()) {
+            return;
+        }
+        try {
+            List<OrderCancelledEvent> cancellations;
+            do {
+                cancellations = sagaTracker.expire(System.currentTimeMillis(), maxCancellationsPerScan);
+                cancellations.forEach(this::publish);
+            } while (cancellations.size() == maxCancellationsPerScan);
+        } catch (RuntimeException e) {
+            log.warn("Saga timeout scan failed", e);
+        }
+    }
+    
+    private void onPaymentProcessed(PaymentProcessedEvent event) {
+        if (event.getStatus() == PaymentStatus.FAILED) {
+            compensate(event, "Payment failed");
+        } else {
+            sagaTracker.paymentProcessed(event.getOrderId(), event.getCorrelationId());
+        }
+    }
+    
+    private void compensate(BaseEvent event, String reason) {
+        sagaTracker.compensate(event.getOrderId(), event.getCorrelationId(), reason).ifPresent(this::publish);
+    }
+    
+    private void publish(OrderCancelledEvent event) {
+        log.info("Cancelling order {}: {}", event.getOrderId(), event.getReason());
+        kafkaTemplate.send(KafkaTopics.ORDER_CANCELLED, event.getOrderId(), event)
+            .whenComplete((result, failure) -> {
+                if (failure == null) {
+                    sagaTracker.cancellationSent(event.getOrderId());
+                } else {
+                    log.error("Failed to publish cancellation of order {}, resending later", event.getOrderId(),
+                        failure);
+                }
+            });
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.saga.persistence;
+
+import com.ecommerce.saga.store.SagaStep;
+import com.ecommerce.saga.tracker.SagaRow;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Plain JDBC rather than JPA: rows are written in batches and read back in one streaming pass, and
+// nothing here needs an entity lifecycle
+@Repository
+public class SagaStateRepository {
+    
+    private static final String UPSERT_SAGA =
+        "MERGE INTO saga_state (order_id, step, deadline, correlation_id, cancel_reason, updated_at) KEY (order_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SAGA = "DELETE FROM saga_state WHERE order_id = ?";
+    private static final String UPSERT_OFFSET =
+        "MERGE INTO saga_offsets (topic, partition_id, next_offset) KEY (topic, partition_id) VALUES (?, ?, ?)";
+    private static final int FETCH_SIZE = 10_000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    // The JdbcTemplate rather than the DataSource, so Flyway has migrated before the startup restore reads
+    public SagaStateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    public void upsert(List<SagaRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SAGA, rows, rows.size(), (statement, row) -> {
+            statement.setString(1, row.orderId());
+            statement.setString(2, row.step().name());
+            statement.setLong(3, row.deadline());
+            statement.setString(4, row.correlationId());
+            statement.setString(5, row.cancelReason());
+            statement.setTimestamp(6, now);
+        });
+    }
+    
+    public void delete(List<String> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SAGA, orderIds, orderIds.size(),
+            (statement, orderId) -> statement.setString(1, orderId));
+    }
+    
+    public void saveOffsets(Map<TopicPartition, Long> nextOffsets) {
+        List<Map.Entry<TopicPartition, Long>> entries = List.copyOf(nextOffsets.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_OFFSET, entries, entries.size(), (statement, entry) -> {
+            statement.setString(1, entry.getKey().topic());
+            statement.setInt(2, entry.getKey().partition());
+            statement.setLong(3, entry.getValue());
+        });
+    }
+    
+    // Streams rows in deadline order, which is the order the tracker's deadline queues expect
+    public void forEachByDeadline(Consumer<SagaRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "SELECT order_id, step, deadline, correlation_id, cancel_reason FROM saga_state ORDER BY deadline");
+            // Restore streams millions of rows; the driver default would fetch them in small round trips
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(new SagaRow(resultSet.getString(1),
+            SagaStep.valueOf(resultSet.getString(2)), resultSet.getLong(3), resultSet.getString(4),
+            resultSet.getString(5))));
+    }
+    
+    public Map<TopicPartition, Long> loadOffsets() {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        jdbcTemplate.query("SELECT topic, partition_id, next_offset FROM saga_offsets", (RowCallbackHandler) resultSet ->
+            offsets.put(new TopicPartition(resultSet.getString(1), resultSet.getInt(2)), resultSet.getLong(3)));
+        return offsets;
+    }
+}
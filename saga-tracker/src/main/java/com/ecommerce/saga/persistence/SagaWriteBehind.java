@@ -0,0 +1,150 @@
+package com.ecommerce.saga.persistence;
+
+import com.ecommerce.saga.store.KeyQueue;
+import com.ecommerce.saga.tracker.SagaTracker;
+import com.ecommerce.saga.tracker.SagaWrites;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Persists saga changes in the background so consuming an event never waits on the database. Each flush
+// writes the sagas changed since the last one in JDBC batches, in one transaction, and once the dirty
+// queue is empty also the consumed offsets; on restart the table is restored and the listener seeks to
+// those offsets. Events after them are replayed onto rows that may already include them, which is safe
+// because steps only advance and finished sagas are kept for the retention period.
+@Component
+@Slf4j
+public class SagaWriteBehind implements AutoCloseable {
+    
+    public static final String FLUSH = "saga.write-behind.flush";
+    public static final String ROWS = "saga.write-behind.rows";
+    
+    private final SagaTracker sagaTracker;
+    private final SagaStateRepository sagaStateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxRowsPerFlush;
+    // Keys taken by the running flush, handed back to the tracker if it fails
+    private final KeyQueue drained;
+    private final Timer flushSuccess;
+    private final Timer flushFailure;
+    private final Counter rows;
+    private final ScheduledExecutorService flusher;
+    private Map<TopicPartition, Long> savedOffsets = Map.of();
+    
+    public SagaWriteBehind(SagaTracker sagaTracker,
+                           SagaStateRepository sagaStateRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${saga.write-behind.flush-interval:PT1S}") Duration flushInterval,
+                           @Value("${saga.write-behind.batch-size:1000}") int batchSize,
+                           @Value("${saga.write-behind.max-rows-per-flush:200000}") int maxRowsPerFlush,
+                           MeterRegistry meterRegistry) {
+        this.sagaTracker = sagaTracker;
+        this.sagaStateRepository = sagaStateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxRowsPerFlush = maxRowsPerFlush;
+        this.drained = new KeyQueue(maxRowsPerFlush);
+        this.flushSuccess = flushTimer("success", meterRegistry);
+        this.flushFailure = flushTimer("failure", meterRegistry);
+        this.rows = Counter.builder(ROWS)
+            .description("Saga rows upserted or deleted by the write-behind")
+            .register(meterRegistry);
+        
+        // Before any listener container starts, so the first seek already sees the restored offsets
+        restore();
+        
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "saga-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+    
+    private static Timer flushTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder(FLUSH)
+            .tag("outcome", outcome)
+            .description("Time to write one batch of saga changes and offsets")
+            .register(meterRegistry);
+    }
+    
+    // Returns the number of rows written
+    public synchronized int flush() {
+        long started = System.nanoTime();
+        try {
+            Integer written = transactionTemplate.execute(status -> {
+                int total = 0;
+                while (total < maxRowsPerFlush) {
+                    SagaWrites writes = sagaTracker.drainDirty(Math.min(batchSize, maxRowsPerFlush - total), drained);
+                    sagaStateRepository.upsert(writes.upserts());
+                    sagaStateRepository.delete(writes.deletes());
+                    total += writes.rows();
+                    if (writes.nextOffsets() != null) {
+                        if (!writes.nextOffsets().equals(savedOffsets)) {
+                            sagaStateRepository.saveOffsets(writes.nextOffsets());
+                            savedOffsets = writes.nextOffsets();
+                        }
+                        break;
+                    }
+                }
+                return total;
+            });
+            drained.clear();
+            rows.increment(written);
+            flushSuccess.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return written;
+        } catch (RuntimeException e) {
+            // The rolled back offsets may still be in savedOffsets; writing them again next time is harmless
+            savedOffsets = Map.of();
+            sagaTracker.requeue(drained);
+            flushFailure.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+    
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Final saga flush failed; the sagas will be rebuilt from the last persisted offsets", e);
+        }
+    }
+    
+    private void flushQuietly() {
+        try {
+            int written = flush();
+            log.debug("Flushed {} saga rows", written);
+        } catch (RuntimeException e) {
+            log.warn("Saga write-behind flush failed, retrying next interval", e);
+        }
+    }
+    
+    private void restore() {
+        long started = System.nanoTime();
+        sagaStateRepository.forEachByDeadline(sagaTracker::restore);
+        Map<TopicPartition, Long> offsets = sagaStateRepository.loadOffsets();
+        sagaTracker.restoreOffsets(offsets);
+        savedOffsets = offsets;
+        log.info("Restored {} sagas and offsets of {} partitions in {} ms", sagaTracker.size(), offsets.size(),
+            (System.nanoTime() - started) / 1_000_000);
+    }
+}
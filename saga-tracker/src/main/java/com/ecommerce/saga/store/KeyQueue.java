@@ -0,0 +1,94 @@
+package com.ecommerce.saga.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Off-heap FIFO of (time, orderId) entries in a growable ring buffer, so millions of pending deadlines
+// or dirty keys cost 24 bytes each and nothing on the heap. Not thread-safe.
+public final class KeyQueue {
+    
+    private static final int ENTRY_BYTES = 24;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / ENTRY_BYTES;
+    
+    private ByteBuffer buffer;
+    private int capacity;
+    private int head;
+    private int size;
+    
+    public KeyQueue(int initialCapacity) {
+        this.capacity = Math.max(16, initialCapacity);
+        this.buffer = ByteBuffer.allocateDirect(capacity * ENTRY_BYTES).order(ByteOrder.nativeOrder());
+    }
+    
+    public void add(long time, long high, long low) {
+        if (size == capacity) {
+            grow();
+        }
+        int position = ((head + size) % capacity) * ENTRY_BYTES;
+        buffer.putLong(position, time);
+        buffer.putLong(position + 8, high);
+        buffer.putLong(position + 16, low);
+        size++;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public long headTime() {
+        checkNotEmpty();
+        return buffer.getLong(head * ENTRY_BYTES);
+    }
+    
+    public long headHigh() {
+        checkNotEmpty();
+        return buffer.getLong(head * ENTRY_BYTES + 8);
+    }
+    
+    public long headLow() {
+        checkNotEmpty();
+        return buffer.getLong(head * ENTRY_BYTES + 16);
+    }
+    
+    public void removeHead() {
+        checkNotEmpty();
+        head = (head + 1) % capacity;
+        size--;
+    }
+    
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+    
+    public long memoryBytes() {
+        return (long) capacity * ENTRY_BYTES;
+    }
+    
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+    }
+    
+    private void grow() {
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("Queue is full at " + capacity + " entries");
+        }
+        int grown = (int) Math.min((long) capacity * 2, MAX_CAPACITY);
+        ByteBuffer target = ByteBuffer.allocateDirect(grown * ENTRY_BYTES).order(ByteOrder.nativeOrder());
+        for (int i = 0; i < size; i++) {
+            int from = ((head + i) % capacity) * ENTRY_BYTES;
+            target.putLong(i * ENTRY_BYTES, buffer.getLong(from));
+            target.putLong(i * ENTRY_BYTES + 8, buffer.getLong(from + 8));
+            target.putLong(i * ENTRY_BYTES + 16, buffer.getLong(from + 16));
+        }
+        buffer = target;
+        capacity = grown;
+        head = 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.saga.store;
+
+// Steps only advance: an event naming an earlier step than the saga is at is a duplicate or arrived late
+public enum SagaStep {
+    
+    AWAITING_INVENTORY,
+    AWAITING_PAYMENT,
+    // Cancelled, but the OrderCancelledEvent is not acked yet; it is resent until it is
+    CANCELLING,
+    // Kept for a retention period so events still in flight for the saga cannot restart it
+    FINISHED;
+    
+    private static final SagaStep[] VALUES = values();
+    
+    public int code() {
+        return ordinal() + 1;
+    }
+    
+    public static SagaStep of(int code) {
+        return VALUES[code - 1];
+    }
+}
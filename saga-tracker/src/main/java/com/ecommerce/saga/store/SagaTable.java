@@ -0,0 +1,208 @@
+package com.ecommerce.saga.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Open-addressing hash table of live sagas in direct memory, keyed by the 128-bit orderId; the all-zero
+// key marks an empty slot. A slot holds the key, the correlation id when it is a UUID, the deadline of the
+// current step, the step and flags, so the heap does not grow with the number of sagas in flight.
+// Slot numbers are only valid until the next put or remove. Not thread-safe; SagaTracker guards it.
+public final class SagaTable {
+    
+    // Set while the slot has changes the write-behind has not persisted yet
+    public static final int DIRTY = 1;
+    // The correlation id is not a UUID and is kept on the heap by the caller
+    public static final int CORRELATION_OVERFLOW = 1 << 1;
+    // The event carried no correlation id
+    public static final int NO_CORRELATION = 1 << 2;
+    
+    private static final int SLOT_BYTES = 48;
+    private static final int CORRELATION_HIGH = 16;
+    private static final int CORRELATION_LOW = 24;
+    private static final int DEADLINE = 32;
+    private static final int STEP = 40;
+    private static final int FLAGS = 44;
+    private static final double MAX_LOAD = 0.7;
+    // Largest power of two whose slots still fit one buffer
+    private static final int MAX_CAPACITY = 1 << 25;
+    
+    private ByteBuffer buffer;
+    private int capacity;
+    private int maxSize;
+    private int size;
+    
+    public SagaTable(int expectedSagas) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) Math.min(MAX_CAPACITY, expectedSagas / MAX_LOAD)) - 1) << 1;
+        allocate(Math.min(capacity, MAX_CAPACITY));
+    }
+    
+    // Returns the slot holding the key, or -1
+    public int find(long high, long low) {
+        int slot = probe(high, low);
+        return isEmpty(slot) ? -1 : slot;
+    }
+    
+    // Inserts or overwrites the saga and returns its slot
+    public int put(long high, long low, int step, long deadline, long correlationHigh, long correlationLow, int flags) {
+        int slot = probe(high, low);
+        if (isEmpty(slot)) {
+            if (size >= maxSize) {
+                resize();
+                slot = probe(high, low);
+            }
+            size++;
+        }
+        int position = slot * SLOT_BYTES;
+        buffer.putLong(position, high);
+        buffer.putLong(position + 8, low);
+        buffer.putLong(position + CORRELATION_HIGH, correlationHigh);
+        buffer.putLong(position + CORRELATION_LOW, correlationLow);
+        buffer.putLong(position + DEADLINE, deadline);
+        buffer.putInt(position + STEP, step);
+        buffer.putInt(position + FLAGS, flags);
+        return slot;
+    }
+    
+    public void update(int slot, int step, long deadline, int flags) {
+        int position = slot * SLOT_BYTES;
+        buffer.putLong(position + DEADLINE, deadline);
+        buffer.putInt(position + STEP, step);
+        buffer.putInt(position + FLAGS, flags);
+    }
+    
+    public void setFlags(int slot, int flags) {
+        buffer.putInt(slot * SLOT_BYTES + FLAGS, flags);
+    }
+    
+    // Backward-shift deletion keeps probe sequences intact without tombstones
+    public boolean remove(long high, long low) {
+        int slot = probe(high, low);
+        if (isEmpty(slot)) {
+            return false;
+        }
+        int mask = capacity - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (!isEmpty(next)) {
+            int home = home(buffer.getLong(next * SLOT_BYTES), buffer.getLong(next * SLOT_BYTES + 8));
+            // Move the entry back unless its home lies cyclically within (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                copySlot(next, hole);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        clearSlot(hole);
+        size--;
+        return true;
+    }
+    
+    public long high(int slot) {
+        return buffer.getLong(slot * SLOT_BYTES);
+    }
+    
+    public long low(int slot) {
+        return buffer.getLong(slot * SLOT_BYTES + 8);
+    }
+    
+    public long correlationHigh(int slot) {
+        return buffer.getLong(slot * SLOT_BYTES + CORRELATION_HIGH);
+    }
+    
+    public long correlationLow(int slot) {
+        return buffer.getLong(slot * SLOT_BYTES + CORRELATION_LOW);
+    }
+    
+    public long deadline(int slot) {
+        return buffer.getLong(slot * SLOT_BYTES + DEADLINE);
+    }
+    
+    public int step(int slot) {
+        return buffer.getInt(slot * SLOT_BYTES + STEP);
+    }
+    
+    public int flags(int slot) {
+        return buffer.getInt(slot * SLOT_BYTES + FLAGS);
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public long memoryBytes() {
+        return (long) capacity * SLOT_BYTES;
+    }
+    
+    private int probe(long high, long low) {
+        int mask = capacity - 1;
+        int slot = home(high, low);
+        while (true) {
+            int position = slot * SLOT_BYTES;
+            long storedHigh = buffer.getLong(position);
+            long storedLow = buffer.getLong(position + 8);
+            if ((storedHigh == high && storedLow == low) || (storedHigh == 0 && storedLow == 0)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+    
+    private int home(long high, long low) {
+        return (int) (mix(high ^ Long.rotateLeft(low, 32)) >>> 32) & (capacity - 1);
+    }
+    
+    private boolean isEmpty(int slot) {
+        int position = slot * SLOT_BYTES;
+        return buffer.getLong(position) == 0 && buffer.getLong(position + 8) == 0;
+    }
+    
+    private void copySlot(int from, int to) {
+        int source = from * SLOT_BYTES;
+        int target = to * SLOT_BYTES;
+        for (int offset = 0; offset < SLOT_BYTES; offset += 8) {
+            buffer.putLong(target + offset, buffer.getLong(source + offset));
+        }
+    }
+    
+    private void clearSlot(int slot) {
+        int position = slot * SLOT_BYTES;
+        for (int offset = 0; offset < SLOT_BYTES; offset += 8) {
+            buffer.putLong(position + offset, 0);
+        }
+    }
+    
+    private void allocate(int newCapacity) {
+        buffer = ByteBuffer.allocateDirect(newCapacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        capacity = newCapacity;
+        maxSize = (int) (newCapacity * MAX_LOAD);
+    }
+    
+    private void resize() {
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("Saga table is full at " + size + " sagas");
+        }
+        ByteBuffer old = buffer;
+        int oldCapacity = capacity;
+        allocate(capacity * 2);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int source = slot * SLOT_BYTES;
+            long high = old.getLong(source);
+            long low = old.getLong(source + 8);
+            if (high != 0 || low != 0) {
+                int target = probe(high, low) * SLOT_BYTES;
+                for (int offset = 0; offset < SLOT_BYTES; offset += 8) {
+                    buffer.putLong(target + offset, old.getLong(source + offset));
+                }
+            }
+        }
+    }
+    
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.saga.tracker;
+
+import com.ecommerce.saga.store.SagaStep;
+
+// Persisted form of a saga; the deadline is epoch millis so it survives restarts. The cancel reason is only
+// set while the saga is CANCELLING, so a restarted tracker can resend the same cancellation.
+public record SagaRow(String orderId, SagaStep step, long deadline, String correlationId, String cancelReason) {
+}
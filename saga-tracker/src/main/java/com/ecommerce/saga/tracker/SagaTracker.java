@@ -0,0 +1,460 @@
+package com.ecommerce.saga.tracker;
+
+import com.ecommerce.saga.store.KeyQueue;
+import com.ecommerce.saga.store.SagaStep;
+import com.ecommerce.saga.store.SagaTable;
+import com.ecommerce.shared.events.OrderCancelledEvent;
+import com.ecommerce.shared.util.Ids;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+// Live state of every order saga: which step it waits on and until when. Sagas, their deadlines and the
+// keys awaiting the write-behind all live off-heap; only correlation ids that are not UUIDs take heap.
+// Each step has a fixed timeout, so deadlines enter its queue in order and the timeout scan only looks
+// at queue heads. Entries made stale by a later transition are skipped when they reach the head.
+// A cancelled saga stays CANCELLING until its OrderCancelledEvent is acked; the step's deadline is when
+// the event is sent again, so a lost cancellation is retried by the same scan that times sagas out.
+@Slf4j
+public class SagaTracker {
+    
+    public static final String IN_FLIGHT = "saga.in-flight";
+    public static final String FINISHED = "saga.finished";
+    public static final String IGNORED = "saga.events.ignored";
+    public static final String STORE_ENTRIES = "saga.store.entries";
+    public static final String STORE_BYTES = "saga.store.bytes";
+    public static final String PENDING_WRITES = "saga.write-behind.pending";
+    public static final String PENDING_CANCELLATIONS = "saga.cancellations.pending";
+    
+    static final String INVENTORY_TIMEOUT_REASON = "Timed out awaiting inventory reservation";
+    static final String PAYMENT_TIMEOUT_REASON = "Timed out awaiting payment";
+    
+    private final SagaTable table;
+    private final KeyQueue inventoryDeadlines;
+    private final KeyQueue paymentDeadlines;
+    private final KeyQueue resends;
+    private final KeyQueue retentions;
+    private final KeyQueue dirty;
+    private final Map<String, String> overflowCorrelations = new HashMap<>();
+    // Only CANCELLING sagas, so this grows with unacked cancellations rather than with sagas in flight
+    private final Map<String, String> cancelReasons = new HashMap<>();
+    private final Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+    private final long inventoryTimeoutMillis;
+    private final long paymentTimeoutMillis;
+    private final long cancellationRetryMillis;
+    private final long retentionMillis;
+    private final LongSupplier clock;
+    private final Counter completed;
+    private final Counter cancelled;
+    private final Counter compensated;
+    private final Counter timedOut;
+    private final Counter ignored;
+    private int inFlight;
+    
+    public SagaTracker(Duration inventoryTimeout, Duration paymentTimeout, Duration cancellationRetry,
+                       Duration retention, int expectedSagas, LongSupplier clock, MeterRegistry meterRegistry) {
+        this.table = new SagaTable(expectedSagas);
+        int queueCapacity = Math.max(1024, expectedSagas / 4);
+        this.inventoryDeadlines = new KeyQueue(queueCapacity);
+        this.paymentDeadlines = new KeyQueue(queueCapacity);
+        this.resends = new KeyQueue(queueCapacity);
+        this.retentions = new KeyQueue(queueCapacity);
+        this.dirty = new KeyQueue(queueCapacity);
+        this.inventoryTimeoutMillis = inventoryTimeout.toMillis();
+        this.paymentTimeoutMillis = paymentTimeout.toMillis();
+        this.cancellationRetryMillis = cancellationRetry.toMillis();
+        this.retentionMillis = retention.toMillis();
+        this.clock = clock;
+        this.completed = finishedCounter("completed", meterRegistry);
+        this.cancelled = finishedCounter("cancelled", meterRegistry);
+        this.compensated = finishedCounter("compensated", meterRegistry);
+        this.timedOut = finishedCounter("timed_out", meterRegistry);
+        this.ignored = Counter.builder(IGNORED)
+            .description("Saga events that were duplicates, arrived after a later step or had no usable order id")
+            .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT, this, SagaTracker::inFlight)
+            .description("Sagas waiting on inventory or payment")
+            .register(meterRegistry);
+        Gauge.builder(STORE_ENTRIES, this, SagaTracker::size)
+            .description("Sagas in the table, including finished ones kept for the retention period")
+            .register(meterRegistry);
+        Gauge.builder(STORE_BYTES, this, SagaTracker::memoryBytes)
+            .description("Off-heap memory held by the saga table and its queues")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder(PENDING_WRITES, this, SagaTracker::pendingWrites)
+            .description("Sagas changed since the last write-behind flush")
+            .register(meterRegistry);
+        Gauge.builder(PENDING_CANCELLATIONS, this, SagaTracker::pendingCancellations)
+            .description("Cancelled sagas whose OrderCancelledEvent has not been acked yet")
+            .register(meterRegistry);
+    }
+    
+    private static Counter finishedCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder(FINISHED)
+            .tag("outcome", outcome)
+            .description("Sagas that reached their final step")
+            .register(meterRegistry);
+    }
+    
+    public synchronized boolean orderCreated(String orderId, String correlationId) {
+        return advance(orderId, correlationId, SagaStep.AWAITING_INVENTORY);
+    }
+    
+    // Also starts the saga when the order-created event has not been consumed yet
+    public synchronized boolean inventoryReserved(String orderId, String correlationId) {
+        return advance(orderId, correlationId, SagaStep.AWAITING_PAYMENT);
+    }
+    
+    public synchronized boolean paymentProcessed(String orderId, String correlationId) {
+        return finish(orderId, correlationId, completed);
+    }
+    
+    public synchronized boolean orderCancelled(String orderId, String correlationId) {
+        return finish(orderId, correlationId, cancelled);
+    }
+    
+    // A failed step cancels the order; the cancellation is what releases whatever earlier steps reserved
+    public synchronized Optional<OrderCancelledEvent> compensate(String orderId, String correlationId, String reason) {
+        if (!advance(orderId, correlationId, SagaStep.CANCELLING)) {
+            return Optional.empty();
+        }
+        cancelReasons.put(orderId, reason);
+        compensated.increment();
+        return Optional.of(new OrderCancelledEvent(correlationId, orderId, reason));
+    }
+    
+    // The broker acked the cancellation, so it is not sent again and the saga is retained like any other
+    public synchronized boolean cancellationSent(String orderId) {
+        if (!isCanonicalId(orderId)) {
+            return false;
+        }
+        long high = keyHigh(orderId);
+        long low = keyLow(orderId);
+        int slot = table.find(high, low);
+        if (slot < 0 || table.step(slot) != SagaStep.CANCELLING.code()) {
+            return false;
+        }
+        long retainUntil = clock.getAsLong() + retentionMillis;
+        table.update(slot, SagaStep.FINISHED.code(), retainUntil, table.flags(slot));
+        markDirty(slot, high, low);
+        retentions.add(retainUntil, high, low);
+        cancelReasons.remove(orderId);
+        return true;
+    }
+    
+    // Cancels sagas whose step deadline passed, returns unacked cancellations due to be sent again and
+    // forgets finished sagas past retention. At most limit cancellations per call, so the caller can
+    // publish them without holding the lock for long.
+    public synchronized List<OrderCancelledEvent> expire(long now, int limit) {
+        List<OrderCancelledEvent> cancellations = new ArrayList<>();
+        resendDue(now, limit, cancellations);
+        expireStep(inventoryDeadlines, SagaStep.AWAITING_INVENTORY, INVENTORY_TIMEOUT_REASON, now, limit, cancellations);
+        expireStep(paymentDeadlines, SagaStep.AWAITING_PAYMENT, PAYMENT_TIMEOUT_REASON, now, limit, cancellations);
+        for (int purged = 0; purged < limit && !retentions.isEmpty() && retentions.headTime() <= now; purged++) {
+            long deadline = retentions.headTime();
+            long high = retentions.headHigh();
+            long low = retentions.headLow();
+            retentions.removeHead();
+            int slot = table.find(high, low);
+            if (slot >= 0 && table.step(slot) == SagaStep.FINISHED.code() && table.deadline(slot) == deadline) {
+                remove(slot, high, low);
+            }
+        }
+        return cancellations;
+    }
+    
+    public synchronized void consumed(String topic, int partition, long offset) {
+        nextOffsets.merge(new TopicPartition(topic, partition), offset + 1, Math::max);
+    }
+    
+    public synchronized Map<TopicPartition, Long> nextOffsets() {
+        return Map.copyOf(nextOffsets);
+    }
+    
+    // Takes up to maxRows changed sagas for the write-behind and clears their dirty flag. The keys are
+    // also added to drained, so a failed write can hand them back through requeue.
+    public synchronized SagaWrites drainDirty(int maxRows, KeyQueue drained) {
+        List<SagaRow> upserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        while (upserts.size() + deletes.size() < maxRows && !dirty.isEmpty()) {
+            long high = dirty.headHigh();
+            long low = dirty.headLow();
+            dirty.removeHead();
+            drained.add(0, high, low);
+            String orderId = Ids.format(high, low);
+            int slot = table.find(high, low);
+            if (slot < 0) {
+                deletes.add(orderId);
+            } else {
+                table.setFlags(slot, table.flags(slot) & ~SagaTable.DIRTY);
+                upserts.add(new SagaRow(orderId, SagaStep.of(table.step(slot)), table.deadline(slot),
+                    correlationId(slot, orderId), cancelReasons.get(orderId)));
+            }
+        }
+        Map<TopicPartition, Long> offsets = dirty.isEmpty() ? Map.copyOf(nextOffsets) : null;
+        return new SagaWrites(upserts, deletes, offsets);
+    }
+    
+    public synchronized void requeue(KeyQueue drained) {
+        while (!drained.isEmpty()) {
+            long high = drained.headHigh();
+            long low = drained.headLow();
+            drained.removeHead();
+            markDirty(table.find(high, low), high, low);
+        }
+    }
+    
+    // Startup only, in deadline order, before any event is applied
+    public synchronized void restore(SagaRow row) {
+        long high = keyHigh(row.orderId());
+        long low = keyLow(row.orderId());
+        insert(high, low, row.orderId(), row.correlationId(), row.step(), row.deadline(), 0);
+        if (row.step() == SagaStep.CANCELLING) {
+            cancelReasons.put(row.orderId(), row.cancelReason());
+        }
+    }
+    
+    public synchronized void restoreOffsets(Map<TopicPartition, Long> offsets) {
+        nextOffsets.putAll(offsets);
+    }
+    
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+    
+    public synchronized int size() {
+        return table.size();
+    }
+    
+    public synchronized int pendingWrites() {
+        return dirty.size();
+    }
+    
+    public synchronized int pendingCancellations() {
+        return cancelReasons.size();
+    }
+    
+    public synchronized long memoryBytes() {
+        return table.memoryBytes() + inventoryDeadlines.memoryBytes() + paymentDeadlines.memoryBytes()
+            + resends.memoryBytes() + retentions.memoryBytes() + dirty.memoryBytes();
+    }
+    
+    public synchronized Optional<SagaStep> step(String orderId) {
+        if (!isCanonicalId(orderId)) {
+            return Optional.empty();
+        }
+        int slot = table.find(keyHigh(orderId), keyLow(orderId));
+        return slot < 0 ? Optional.empty() : Optional.of(SagaStep.of(table.step(slot)));
+    }
+    
+    private boolean finish(String orderId, String correlationId, Counter outcome) {
+        if (!advance(orderId, correlationId, SagaStep.FINISHED)) {
+            return false;
+        }
+        outcome.increment();
+        return true;
+    }
+    
+    private boolean advance(String orderId, String correlationId, SagaStep step) {
+        if (!isCanonicalId(orderId)) {
+            log.warn("Ignoring saga event for order id {} that is not a canonical UUID", orderId);
+            ignored.increment();
+            return false;
+        }
+        long high = keyHigh(orderId);
+        long low = keyLow(orderId);
+        long deadline = clock.getAsLong() + timeoutMillis(step);
+        int slot = table.find(high, low);
+        if (slot < 0) {
+            insert(high, low, orderId, correlationId, step, deadline, SagaTable.DIRTY);
+            dirty.add(0, high, low);
+            return true;
+        }
+        // A CANCELLING saga is decided; only the ack of its cancellation moves it on
+        if (table.step(slot) >= step.code() || table.step(slot) == SagaStep.CANCELLING.code()) {
+            ignored.increment();
+            return false;
+        }
+        int flags = table.flags(slot);
+        table.update(slot, step.code(), deadline, flags | SagaTable.DIRTY);
+        if ((flags & SagaTable.DIRTY) == 0) {
+            dirty.add(0, high, low);
+        }
+        if (!isWaiting(step)) {
+            inFlight--;
+        }
+        queueOf(step).add(deadline, high, low);
+        return true;
+    }
+    
+    private void expireStep(KeyQueue deadlines, SagaStep step, String reason, long now, int limit,
+                            List<OrderCancelledEvent> cancellations) {
+        while (cancellations.size() < limit && !deadlines.isEmpty() && deadlines.headTime() <= now) {
+            long deadline = deadlines.headTime();
+            long high = deadlines.headHigh();
+            long low = deadlines.headLow();
+            deadlines.removeHead();
+            int slot = table.find(high, low);
+            if (slot < 0 || table.step(slot) != step.code() || table.deadline(slot) != deadline) {
+                continue;
+            }
+            String orderId = Ids.format(high, low);
+            long resendAt = now + cancellationRetryMillis;
+            table.update(slot, SagaStep.CANCELLING.code(), resendAt, table.flags(slot));
+            markDirty(slot, high, low);
+            resends.add(resendAt, high, low);
+            cancelReasons.put(orderId, reason);
+            inFlight--;
+            timedOut.increment();
+            cancellations.add(new OrderCancelledEvent(correlationId(slot, orderId), orderId, reason));
+        }
+    }
+    
+    // The new send time is not persisted: after a restart the saga is just resent a little earlier
+    private void resendDue(long now, int limit, List<OrderCancelledEvent> cancellations) {
+        while (cancellations.size() < limit && !resends.isEmpty() && resends.headTime() <= now) {
+            long deadline = resends.headTime();
+            long high = resends.headHigh();
+            long low = resends.headLow();
+            resends.removeHead();
+            int slot = table.find(high, low);
+            if (slot < 0 || table.step(slot) != SagaStep.CANCELLING.code() || table.deadline(slot) != deadline) {
+                continue;
+            }
+            String orderId = Ids.format(high, low);
+            long resendAt = now + cancellationRetryMillis;
+            table.update(slot, SagaStep.CANCELLING.code(), resendAt, table.flags(slot));
+            resends.add(resendAt, high, low);
+            String reason = cancelReasons.get(orderId);
+            cancellations.add(new OrderCancelledEvent(correlationId(slot, orderId), orderId, reason));
+        }
+    }
+    
+    private void insert(long high, long low, String orderId, String correlationId, SagaStep step, long deadline,
+                        int flags) {
+        long correlationHigh = 0;
+        long correlationLow = 0;
+        if (correlationId == null) {
+            flags |= SagaTable.NO_CORRELATION;
+        } else if (isCanonicalId(correlationId)) {
+            correlationHigh = keyHigh(correlationId);
+            correlationLow = keyLow(correlationId);
+        } else {
+            flags |= SagaTable.CORRELATION_OVERFLOW;
+            overflowCorrelations.put(orderId, correlationId);
+        }
+        table.put(high, low, step.code(), deadline, correlationHigh, correlationLow, flags);
+        if (isWaiting(step)) {
+            inFlight++;
+        }
+        queueOf(step).add(deadline, high, low);
+    }
+    
+    private void remove(int slot, long high, long low) {
+        int flags = table.flags(slot);
+        if ((flags & SagaTable.CORRELATION_OVERFLOW) != 0) {
+            overflowCorrelations.remove(Ids.format(high, low));
+        }
+        table.remove(high, low);
+        // The write-behind deletes the row once it finds the key gone
+        if ((flags & SagaTable.DIRTY) == 0) {
+            dirty.add(0, high, low);
+        }
+    }
+    
+    private void markDirty(int slot, long high, long low) {
+        if (slot < 0) {
+            dirty.add(0, high, low);
+            return;
+        }
+        int flags = table.flags(slot);
+        if ((flags & SagaTable.DIRTY) == 0) {
+            table.setFlags(slot, flags | SagaTable.DIRTY);
+            dirty.add(0, high, low);
+        }
+    }
+    
+    private String correlationId(int slot, String orderId) {
+        int flags = table.flags(slot);
+        if ((flags & SagaTable.NO_CORRELATION) != 0) {
+            return null;
+        }
+        if ((flags & SagaTable.CORRELATION_OVERFLOW) != 0) {
+            return overflowCorrelations.get(orderId);
+        }
+        return Ids.format(table.correlationHigh(slot), table.correlationLow(slot));
+    }
+    
+    private long timeoutMillis(SagaStep step) {
+        return switch (step) {
+            case AWAITING_INVENTORY -> inventoryTimeoutMillis;
+            case AWAITING_PAYMENT -> paymentTimeoutMillis;
+            case CANCELLING -> cancellationRetryMillis;
+            case FINISHED -> retentionMillis;
+        };
+    }
+    
+    private KeyQueue queueOf(SagaStep step) {
+        return switch (step) {
+            case AWAITING_INVENTORY -> inventoryDeadlines;
+            case AWAITING_PAYMENT -> paymentDeadlines;
+            case CANCELLING -> resends;
+            case FINISHED -> retentions;
+        };
+    }
+    
+    private static boolean isWaiting(SagaStep step) {
+        return step == SagaStep.AWAITING_INVENTORY || step == SagaStep.AWAITING_PAYMENT;
+    }
+    
+    // Only lowercase canonical UUIDs round-trip through the 128-bit key, which is what Ids generates. The
+    // nil UUID would be the empty-slot key.
+    private static boolean isCanonicalId(String value) {
+        if (value == null || value.length() != 36) {
+            return false;
+        }
+        boolean nil = true;
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            } else {
+                nil &= c == '0';
+            }
+        }
+        return !nil;
+    }
+    
+    // Callers have checked isCanonicalId
+    private static long keyHigh(String id) {
+        return parseHex(id, 0, 8) << 32 | parseHex(id, 9, 13) << 16 | parseHex(id, 14, 18);
+    }
+    
+    private static long keyLow(String id) {
+        return parseHex(id, 19, 23) << 48 | parseHex(id, 24, 36);
+    }
+    
+    private static long parseHex(String value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            result = result << 4 | (c <= '9' ? c - '0' : c - 'a' + 10);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.saga.tracker;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.List;
+import java.util.Map;
+
+// One chunk drained for the write-behind. Offsets are only set on the chunk that emptied the dirty
+// queue: persisted with it they mark a point where the table holds every event before them.
+public record SagaWrites(List<SagaRow> upserts, List<String> deletes, Map<TopicPartition, Long> nextOffsets) {
+    
+    public boolean isEmpty() {
+        return upserts.isEmpty() && deletes.isEmpty() && nextOffsets == null;
+    }
+    
+    public int rows() {
+        return upserts.size() + deletes.size();
+    }
+}
@@ -0,0 +1,20 @@
+CREATE TABLE saga_state (
+    order_id       VARCHAR(36)  NOT NULL,
+    step           VARCHAR(32)  NOT NULL,
+    deadline       BIGINT       NOT NULL,
+    correlation_id VARCHAR(64),
+    -- Reason of a cancellation not acked yet, so it can be resent after a restart
+    cancel_reason  VARCHAR,
+    updated_at     TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_saga_state PRIMARY KEY (order_id)
+);
+
+CREATE INDEX idx_saga_state_deadline ON saga_state (deadline);
+
+-- Next offset to consume per partition, written in the same transaction as the saga rows it covers
+CREATE TABLE saga_offsets (
+    topic        VARCHAR(255) NOT NULL,
+    partition_id INTEGER      NOT NULL,
+    next_offset  BIGINT       NOT NULL,
+    CONSTRAINT pk_saga_offsets PRIMARY KEY (topic, partition_id)
+);
@@ -0,0 +1,104 @@
+package com.ecommerce.saga.coordinator;
+
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SagaCatchUpTest {
+    
+    private final TopicPartition created = new TopicPartition("order-created", 0);
+    private final TopicPartition failed = new TopicPartition("payment-failed", 0);
+    private MockConsumer<String, String> consumer;
+    private SagaCatchUp catchUp;
+    
+    @BeforeEach
+    void setUp() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(created.topic(), List.of(partition(created.topic(), 0)));
+        consumer.updatePartitions(failed.topic(), List.of(partition(failed.topic(), 0)));
+        consumer.subscribe(List.of(created.topic(), failed.topic()));
+        consumer.rebalance(List.of(created, failed));
+        consumer.updateEndOffsets(Map.of(created, 10L, failed, 0L));
+        catchUp = new SagaCatchUp();
+    }
+    
+    @Test
+    void shouldWaitForAssignedPartitionsToReachTheirEndOffsets() {
+        // Given
+        boolean beforeAssignment = catchUp.isReady();
+        catchUp.onPartitionsAssigned(consumer, List.of(created, failed));
+        consumer.seek(created, 4);
+        
+        // When
+        catchUp.consumed(consumer);
+        boolean behind = catchUp.isReady();
+        consumer.seek(created, 10);
+        consumer.updateEndOffsets(Map.of(created, 15L));
+        catchUp.consumed(consumer);
+        
+        // Then
+        assertFalse(beforeAssignment);
+        assertFalse(behind);
+        assertTrue(catchUp.isReady());
+    }
+    
+    @Test
+    void shouldCountIdlePartitionsAsCaughtUp() {
+        // Given
+        catchUp.onPartitionsAssigned(consumer, List.of(created, failed));
+        
+        // When
+        catchUp.idle(List.of(created));
+        
+        // Then
+        assertTrue(catchUp.isReady());
+    }
+    
+    @Test
+    void shouldPauseTimeoutsWhileNewPartitionsCatchUp() {
+        // Given
+        catchUp.onPartitionsAssigned(consumer, List.of(failed));
+        
+        // When
+        catchUp.onPartitionsAssigned(consumer, List.of(created));
+        boolean afterNewAssignment = catchUp.isReady();
+        catchUp.onPartitionsRevokedAfterCommit(consumer, List.of(created));
+        
+        // Then
+        assertFalse(afterNewAssignment);
+        assertTrue(catchUp.isReady());
+    }
+    
+    @Test
+    void shouldPauseTimeoutsWhileAnotherInstanceHoldsPartitions() {
+        // Given
+        TopicPartition createdElsewhere = new TopicPartition(created.topic(), 1);
+        consumer.updatePartitions(created.topic(),
+            List.of(partition(created.topic(), 0), partition(created.topic(), 1)));
+        
+        // When
+        catchUp.onPartitionsAssigned(consumer, List.of(created, failed));
+        catchUp.idle(List.of(created, failed));
+        boolean shared = catchUp.isReady();
+        consumer.rebalance(List.of(created, createdElsewhere, failed));
+        consumer.updateEndOffsets(Map.of(createdElsewhere, 0L));
+        catchUp.onPartitionsAssigned(consumer, List.of(createdElsewhere));
+        
+        // Then
+        assertFalse(shared);
+        assertTrue(catchUp.isReady());
+    }
+    
+    private static PartitionInfo partition(String topic, int partition) {
+        return new PartitionInfo(topic, partition, null, new Node[0], new Node[0]);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.saga.persistence;
+
+import com.ecommerce.saga.store.SagaStep;
+import com.ecommerce.saga.tracker.SagaRow;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest(properties = "spring.datasource.url=jdbc:h2:mem:saga-state-repository")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SagaStateRepository.class)
+class SagaStateRepositoryTest {
+    
+    @Autowired
+    private SagaStateRepository sagaStateRepository;
+    
+    @Test
+    void shouldStreamUpsertedRowsInDeadlineOrder() {
+        // Given
+        SagaRow paying = new SagaRow("order-b", SagaStep.AWAITING_PAYMENT, 300, "corr-b", null);
+        SagaRow cancelling = new SagaRow("order-a", SagaStep.CANCELLING, 100, null, "Payment failed: declined");
+        SagaRow forgotten = new SagaRow("order-c", SagaStep.FINISHED, 50, "corr-c", null);
+        sagaStateRepository.upsert(List.of(paying, cancelling, forgotten));
+        
+        // When
+        SagaRow finished = new SagaRow("order-a", SagaStep.FINISHED, 400, null, null);
+        sagaStateRepository.upsert(List.of(finished));
+        sagaStateRepository.delete(List.of("order-c"));
+        List<SagaRow> rows = new ArrayList<>();
+        sagaStateRepository.forEachByDeadline(rows::add);
+        
+        // Then
+        assertEquals(List.of(paying, finished), rows);
+    }
+    
+    @Test
+    void shouldKeepCancelReasonOfUnackedCancellation() {
+        // Given
+        SagaRow cancelling = new SagaRow("order-a", SagaStep.CANCELLING, 100, "corr-a", "Timed out awaiting payment");
+        
+        // When
+        sagaStateRepository.upsert(List.of(cancelling));
+        List<SagaRow> rows = new ArrayList<>();
+        sagaStateRepository.forEachByDeadline(rows::add);
+        
+        // Then
+        assertEquals(List.of(cancelling), rows);
+    }
+    
+    @Test
+    void shouldOverwriteSavedOffsets() {
+        // Given
+        TopicPartition created = new TopicPartition("order-created", 0);
+        TopicPartition failed = new TopicPartition("payment-failed", 2);
+        sagaStateRepository.saveOffsets(Map.of(created, 10L, failed, 3L));
+        
+        // When
+        sagaStateRepository.saveOffsets(Map.of(created, 25L));
+        
+        // Then
+        assertEquals(Map.of(created, 25L, failed, 3L), sagaStateRepository.loadOffsets());
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecommerce.saga.persistence;
+
+import com.ecommerce.saga.coordinator.SagaCatchUp;
+import com.ecommerce.saga.coordinator.SagaCoordinator;
+import com.ecommerce.saga.store.SagaStep;
+import com.ecommerce.saga.tracker.SagaTracker;
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.OrderCancelledEvent;
+import com.ecommerce.shared.util.Ids;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Flushes commit for real, as they do in production, so a second tracker can restore what the first wrote
+@JdbcTest(properties = "spring.datasource.url=jdbc:h2:mem:saga-write-behind")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SagaStateRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SagaWriteBehindTest {
+    
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    
+    @Autowired
+    private SagaStateRepository sagaStateRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM saga_state");
+        jdbcTemplate.update("DELETE FROM saga_offsets");
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRestoreFlushedSagasAndSeekToFlushedOffsets() {
+        // Given
+        String paying = Ids.nextId();
+        String failed = Ids.nextId();
+        SagaTracker tracker = newTracker();
+        try (SagaWriteBehind writeBehind = newWriteBehind(tracker, 1000)) {
+            tracker.orderCreated(paying, "corr-1");
+            tracker.inventoryReserved(paying, "corr-1");
+            tracker.orderCreated(failed, "corr-2");
+            tracker.compensate(failed, "corr-2", "Payment failed: declined");
+            tracker.consumed("order-created", 0, 41);
+            tracker.consumed("payment-failed", 1, 7);
+            writeBehind.flush();
+        }
+        
+        // When
+        SagaTracker restarted = newTracker();
+        SagaWriteBehind restored = newWriteBehind(restarted, 1000);
+        SagaCoordinator coordinator = new SagaCoordinator(restarted, new SagaCatchUp(), mock(KafkaTemplate.class),
+            new EventJsonCodec(), Duration.ofHours(1), 100);
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+        coordinator.onPartitionsAssigned(Map.of(
+            new TopicPartition("order-created", 0), 0L,
+            new TopicPartition("payment-failed", 1), 0L,
+            new TopicPartition("payment-processed", 0), 0L), callback);
+        clock.addAndGet(Duration.ofSeconds(10).toMillis());
+        List<OrderCancelledEvent> resent = restarted.expire(clock.get(), 100);
+        coordinator.close();
+        restored.close();
+        
+        // Then
+        assertEquals(Optional.of(SagaStep.AWAITING_PAYMENT), restarted.step(paying));
+        assertEquals(1, restarted.inFlight());
+        assertEquals(1, resent.size());
+        assertEquals(failed, resent.get(0).getOrderId());
+        assertEquals("Payment failed: declined", resent.get(0).getReason());
+        verify(callback).seek("order-created", 0, 42L);
+        verify(callback).seek("payment-failed", 1, 8L);
+        verify(callback).seekToBeginning("payment-processed", 0);
+        verifyNoMoreInteractions(callback);
+    }
+    
+    @Test
+    void shouldSaveOffsetsOnlyOnceEveryChangeBeforeThemIsWritten() {
+        // Given
+        SagaTracker tracker = newTracker();
+        SagaWriteBehind writeBehind = newWriteBehind(tracker, 1);
+        tracker.orderCreated(Ids.nextId(), "corr-1");
+        tracker.orderCreated(Ids.nextId(), "corr-2");
+        tracker.consumed("order-created", 0, 1);
+        
+        // When
+        int first = writeBehind.flush();
+        Map<TopicPartition, Long> afterFirst = sagaStateRepository.loadOffsets();
+        int second = writeBehind.flush();
+        writeBehind.close();
+        
+        // Then
+        assertEquals(1, first);
+        assertEquals(Map.of(), afterFirst);
+        assertEquals(1, second);
+        assertEquals(Map.of(new TopicPartition("order-created", 0), 2L), sagaStateRepository.loadOffsets());
+    }
+    
+    @Test
+    void shouldDeleteSagasForgottenAfterRetention() {
+        // Given
+        String orderId = Ids.nextId();
+        SagaTracker tracker = newTracker();
+        SagaWriteBehind writeBehind = newWriteBehind(tracker, 1000);
+        tracker.orderCreated(orderId, "corr-1");
+        tracker.orderCancelled(orderId, "corr-1");
+        writeBehind.flush();
+        
+        // When
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        tracker.expire(clock.get(), 100);
+        writeBehind.flush();
+        writeBehind.close();
+        
+        // Then
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM saga_state", Integer.class));
+    }
+    
+    private SagaTracker newTracker() {
+        return new SagaTracker(Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofSeconds(10),
+            Duration.ofMinutes(10), 16, clock::get, new SimpleMeterRegistry());
+    }
+    
+    // The flush interval is long enough that only the test flushes
+    private SagaWriteBehind newWriteBehind(SagaTracker tracker, int maxRowsPerFlush) {
+        return new SagaWriteBehind(tracker, sagaStateRepository, transactionManager, Duration.ofHours(1),
+            maxRowsPerFlush, maxRowsPerFlush, new SimpleMeterRegistry());
+    }
+}
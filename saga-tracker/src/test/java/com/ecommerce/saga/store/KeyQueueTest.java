@@ -0,0 +1,36 @@
+package com.ecommerce.saga.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyQueueTest {
+    
+    @Test
+    void shouldDrainKeysInInsertionOrderAcrossGrowth() {
+        // Given
+        KeyQueue queue = new KeyQueue(16);
+        for (long i = 0; i < 10; i++) {
+            queue.add(i, i, -i);
+        }
+        for (int i = 0; i < 5; i++) {
+            queue.removeHead();
+        }
+        
+        // When
+        for (long i = 10; i < 100; i++) {
+            queue.add(i, i, -i);
+        }
+        
+        // Then
+        assertEquals(95, queue.size());
+        for (long i = 5; i < 100; i++) {
+            assertEquals(i, queue.headTime());
+            assertEquals(i, queue.headHigh());
+            assertEquals(-i, queue.headLow());
+            queue.removeHead();
+        }
+        assertTrue(queue.isEmpty());
+        assertThrows(IllegalStateException.class, queue::headTime);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.saga.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SagaTableTest {
+    
+    @Test
+    void shouldFindUpdateAndRemoveSagas() {
+        // Given
+        SagaTable table = new SagaTable(16);
+        int slot = table.put(1, 2, SagaStep.AWAITING_INVENTORY.code(), 1000, 3, 4, SagaTable.DIRTY);
+        
+        // When
+        table.update(slot, SagaStep.AWAITING_PAYMENT.code(), 2000, 0);
+        int found = table.find(1, 2);
+        
+        // Then
+        assertEquals(slot, found);
+        assertEquals(SagaStep.AWAITING_PAYMENT.code(), table.step(found));
+        assertEquals(2000, table.deadline(found));
+        assertEquals(3, table.correlationHigh(found));
+        assertEquals(4, table.correlationLow(found));
+        assertEquals(0, table.flags(found));
+        assertTrue(table.remove(1, 2));
+        assertFalse(table.remove(1, 2));
+        assertEquals(-1, table.find(1, 2));
+        assertEquals(0, table.size());
+    }
+    
+    @Test
+    void shouldKeepEveryKeyReachableThroughResizesAndRemovals() {
+        // Given
+        SagaTable table = new SagaTable(16);
+        Map<Long, Long> deadlines = new HashMap<>();
+        Random random = new Random(42);
+        for (long key = 1; key <= 50_000; key++) {
+            long deadline = random.nextLong();
+            table.put(key, -key, SagaStep.AWAITING_INVENTORY.code(), deadline, 0, 0, 0);
+            deadlines.put(key, deadline);
+        }
+        
+        // When
+        for (long key = 1; key <= 50_000; key += 3) {
+            assertTrue(table.remove(key, -key));
+            deadlines.remove(key);
+        }
+        
+        // Then
+        assertEquals(deadlines.size(), table.size());
+        for (long key = 1; key <= 50_000; key++) {
+            int slot = table.find(key, -key);
+            if (deadlines.containsKey(key)) {
+                assertEquals(deadlines.get(key), table.deadline(slot));
+            } else {
+                assertEquals(-1, slot);
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.ecommerce.saga.tracker;
+
+import com.ecommerce.saga.store.KeyQueue;
+import com.ecommerce.saga.store.SagaStep;
+import com.ecommerce.shared.events.OrderCancelledEvent;
+import com.ecommerce.shared.util.Ids;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SagaTrackerTest {
+    
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private SimpleMeterRegistry meterRegistry;
+    private SagaTracker tracker;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new SagaTracker(Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofSeconds(10),
+            Duration.ofMinutes(10), 16, clock::get, meterRegistry);
+    }
+    
+    @Test
+    void shouldCompleteSagaThroughInventoryAndPayment() {
+        // Given
+        String orderId = Ids.nextId();
+        String correlationId = Ids.nextId();
+        tracker.orderCreated(orderId, correlationId);
+        
+        // When
+        tracker.inventoryReserved(orderId, correlationId);
+        boolean completed = tracker.paymentProcessed(orderId, correlationId);
+        
+        // Then
+        assertTrue(completed);
+        assertEquals(Optional.of(SagaStep.FINISHED), tracker.step(orderId));
+        assertEquals(0, tracker.inFlight());
+        assertEquals(1.0, meterRegistry.get(SagaTracker.FINISHED).tag("outcome", "completed").counter().count());
+    }
+    
+    @Test
+    void shouldIgnoreDuplicateAndLateEvents() {
+        // Given
+        String orderId = Ids.nextId();
+        tracker.inventoryReserved(orderId, "corr-1");
+        
+        // When
+        boolean created = tracker.orderCreated(orderId, "corr-1");
+        boolean reserved = tracker.inventoryReserved(orderId, "corr-1");
+        
+        // Then
+        assertFalse(created);
+        assertFalse(reserved);
+        assertEquals(Optional.of(SagaStep.AWAITING_PAYMENT), tracker.step(orderId));
+        assertEquals(2.0, meterRegistry.get(SagaTracker.IGNORED).counter().count());
+    }
+    
+    @Test
+    void shouldCancelSagasPastTheirStepDeadline() {
+        // Given
+        String awaitingInventory = Ids.nextId();
+        String awaitingPayment = Ids.nextId();
+        String correlationId = Ids.nextId();
+        tracker.orderCreated(awaitingInventory, correlationId);
+        tracker.orderCreated(awaitingPayment, "client-supplied-correlation");
+        clock.addAndGet(10_000);
+        tracker.inventoryReserved(awaitingPayment, "client-supplied-correlation");
+        
+        // When
+        clock.addAndGet(30_000);
+        List<OrderCancelledEvent> afterInventoryTimeout = tracker.expire(clock.get(), 100);
+        tracker.cancellationSent(awaitingInventory);
+        clock.addAndGet(120_000);
+        List<OrderCancelledEvent> afterPaymentTimeout = tracker.expire(clock.get(), 100);
+        
+        // Then
+        assertEquals(1, afterInventoryTimeout.size());
+        assertEquals(awaitingInventory, afterInventoryTimeout.get(0).getOrderId());
+        assertEquals(correlationId, afterInventoryTimeout.get(0).getCorrelationId());
+        assertEquals(SagaTracker.INVENTORY_TIMEOUT_REASON, afterInventoryTimeout.get(0).getReason());
+        assertEquals(1, afterPaymentTimeout.size());
+        assertEquals(awaitingPayment, afterPaymentTimeout.get(0).getOrderId());
+        assertEquals("client-supplied-correlation", afterPaymentTimeout.get(0).getCorrelationId());
+        assertEquals(Optional.of(SagaStep.FINISHED), tracker.step(awaitingInventory));
+        assertEquals(Optional.of(SagaStep.CANCELLING), tracker.step(awaitingPayment));
+        assertEquals(0, tracker.inFlight());
+    }
+    
+    @Test
+    void shouldCompensateFailedStepOnce() {
+        // Given
+        String orderId = Ids.nextId();
+        tracker.orderCreated(orderId, "corr-1");
+        tracker.inventoryReserved(orderId, "corr-1");
+        
+        // When
+        Optional<OrderCancelledEvent> first = tracker.compensate(orderId, "corr-1", "Payment failed: declined");
+        tracker.cancellationSent(orderId);
+        Optional<OrderCancelledEvent> redelivered = tracker.compensate(orderId, "corr-1", "Payment failed: declined");
+        clock.addAndGet(Duration.ofMinutes(5).toMillis());
+        
+        // Then
+        assertTrue(first.isPresent());
+        assertEquals("Payment failed: declined", first.get().getReason());
+        assertTrue(redelivered.isEmpty());
+        assertTrue(tracker.expire(clock.get(), 100).isEmpty());
+    }
+    
+    @Test
+    void shouldResendCancellationUntilAcked() {
+        // Given
+        String orderId = Ids.nextId();
+        tracker.orderCreated(orderId, "corr-1");
+        tracker.compensate(orderId, "corr-1", "Insufficient inventory: out of stock");
+        
+        // When
+        clock.addAndGet(10_000);
+        List<OrderCancelledEvent> resent = tracker.expire(clock.get(), 100);
+        boolean ignored = !tracker.orderCancelled(orderId, "corr-1");
+        boolean acked = tracker.cancellationSent(orderId);
+        clock.addAndGet(10_000);
+        
+        // Then
+        assertEquals(1, resent.size());
+        assertEquals("Insufficient inventory: out of stock", resent.get(0).getReason());
+        assertEquals("corr-1", resent.get(0).getCorrelationId());
+        assertTrue(ignored);
+        assertTrue(acked);
+        assertEquals(Optional.of(SagaStep.FINISHED), tracker.step(orderId));
+        assertTrue(tracker.expire(clock.get(), 100).isEmpty());
+        assertEquals(0, tracker.pendingCancellations());
+    }
+    
+    @Test
+    void shouldForgetFinishedSagasAfterRetention() {
+        // Given
+        String orderId = Ids.nextId();
+        tracker.orderCreated(orderId, "corr-1");
+        tracker.orderCancelled(orderId, "corr-1");
+        
+        // When
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        tracker.expire(clock.get(), 100);
+        
+        // Then
+        assertEquals(Optional.empty(), tracker.step(orderId));
+        assertEquals(0, tracker.size());
+    }
+    
+    @Test
+    void shouldDrainChangesAndOffsetsForWriteBehind() {
+        // Given
+        String started = Ids.nextId();
+        String forgotten = Ids.nextId();
+        tracker.orderCreated(started, null);
+        tracker.consumed("order-created", 0, 41);
+        KeyQueue drained = new KeyQueue(16);
+        tracker.drainDirty(100, drained);
+        tracker.orderCreated(forgotten, "corr-2");
+        tracker.paymentProcessed(forgotten, "corr-2");
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        tracker.expire(clock.get(), 100);
+        tracker.consumed("payment-processed", 3, 7);
+        
+        // When
+        SagaWrites partial = tracker.drainDirty(1, drained);
+        SagaWrites rest = tracker.drainDirty(100, drained);
+        
+        // Then
+        assertEquals(List.of(forgotten), partial.deletes());
+        assertNull(partial.nextOffsets());
+        // The jump past retention also timed out the saga still awaiting inventory
+        assertEquals(List.of(started), rest.upserts().stream().map(SagaRow::orderId).toList());
+        assertEquals(SagaStep.CANCELLING, rest.upserts().get(0).step());
+        assertEquals(SagaTracker.INVENTORY_TIMEOUT_REASON, rest.upserts().get(0).cancelReason());
+        assertNull(rest.upserts().get(0).correlationId());
+        assertEquals(Map.of(new TopicPartition("order-created", 0), 42L,
+            new TopicPartition("payment-processed", 3), 8L), rest.nextOffsets());
+        assertEquals(0, tracker.pendingWrites());
+    }
+    
+    @Test
+    void shouldRequeueKeysOfFailedFlush() {
+        // Given
+        String orderId = Ids.nextId();
+        tracker.orderCreated(orderId, "corr-1");
+        KeyQueue drained = new KeyQueue(16);
+        SagaWrites failed = tracker.drainDirty(100, drained);
+        
+        // When
+        tracker.requeue(drained);
+        SagaWrites retried = tracker.drainDirty(100, new KeyQueue(16));
+        
+        // Then
+        assertEquals(failed.upserts(), retried.upserts());
+        assertEquals(new SagaRow(orderId, SagaStep.AWAITING_INVENTORY, clock.get() + 30_000, "corr-1", null),
+            retried.upserts().get(0));
+    }
+    
+    @Test
+    void shouldRestorePersistedSagasWithTheirDeadlines() {
+        // Given
+        String orderId = Ids.nextId();
+        String correlationId = Ids.nextId();
+        String unacked = Ids.nextId();
+        tracker.restore(new SagaRow(unacked, SagaStep.CANCELLING, clock.get() + 1_000, null, "Payment failed"));
+        tracker.restore(new SagaRow(orderId, SagaStep.AWAITING_PAYMENT, clock.get() + 5_000, correlationId, null));
+        tracker.restoreOffsets(Map.of(new TopicPartition("payment-processed", 0), 100L));
+        
+        // When
+        clock.addAndGet(5_000);
+        List<OrderCancelledEvent> cancellations = tracker.expire(clock.get(), 100);
+        
+        // Then
+        assertEquals(2, cancellations.size());
+        assertEquals(unacked, cancellations.get(0).getOrderId());
+        assertEquals("Payment failed", cancellations.get(0).getReason());
+        assertEquals(correlationId, cancellations.get(1).getCorrelationId());
+        assertEquals(SagaTracker.PAYMENT_TIMEOUT_REASON, cancellations.get(1).getReason());
+        assertEquals(0, tracker.inFlight());
+        assertEquals(100L, tracker.nextOffsets().get(new TopicPartition("payment-processed", 0)));
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecommerce.shared.codec;
+
+import com.ecommerce.shared.events.BaseEvent;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// JSON codec for events on the Kafka hot path. The wire format is the same as the polymorphic
+// BaseEvent mapping, but readers are pre-built per concrete event class and selected by the
+// eventType header, so deserialization skips type-id resolution and token buffering. Accessors are
+// generated by Blackbird instead of going through reflection.
+public class EventJsonCodec {
+    
+    private static final int INITIAL_BUFFER_BYTES = 1024;
+    private static final int MAX_RETAINED_BUFFER_BYTES = 1 << 20;
+    
+    private final ObjectReader polymorphicReader;
+    private final Map<String, Class<? extends BaseEvent>> eventClasses;
+    private final byte[][] eventTypeKeys;
+    private final ObjectReader[] typedReaders;
+    private final ClassValue<ObjectWriter> writers;
+    private final ClassValue<byte[]> headerValues;
+    private final ThreadLocal<PooledOutput> buffers = ThreadLocal.withInitial(PooledOutput::new);
+    
+    public EventJsonCodec() {
+        ObjectMapper polymorphicMapper = mapperBuilder().build();
+        ObjectMapper typedMapper = mapperBuilder()
+            .addMixIn(BaseEvent.class, WithoutTypeInfo.class)
+            .build();
+        
+        this.polymorphicReader = polymorphicMapper.readerFor(BaseEvent.class);
+        this.eventClasses = registeredEventClasses();
+        this.eventTypeKeys = new byte[eventClasses.size()][];
+        this.typedReaders = new ObjectReader[eventClasses.size()];
+        int index = 0;
+        for (Map.Entry<String, Class<? extends BaseEvent>> entry : eventClasses.entrySet()) {
+            eventTypeKeys[index] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            typedReaders[index] = typedMapper.readerFor(entry.getValue());
+            index++;
+        }
+        this.writers = new ClassValue<>() {
+            @Override
+            protected ObjectWriter computeValue(Class<?> type) {
+                return polymorphicMapper.writerFor(type);
+            }
+        };
+        this.headerValues = new ClassValue<>() {
+            @Override
+            protected byte[] computeValue(Class<?> type) {
+                for (int i = 0; i < typedReaders.length; i++) {
+                    if (typedReaders[i].getValueType().getRawClass() == type) {
+                        return eventTypeKeys[i];
+                    }
+                }
+                return null;
+            }
+        };
+    }
+    
+    public Set<String> getEventTypes() {
+        return Collections.unmodifiableSet(eventClasses.keySet());
+    }
+    
+    public Class<? extends BaseEvent> getEventClass(String eventType) {
+        return eventClasses.get(eventType);
+    }
+    
+    public byte[] eventTypeHeader(BaseEvent event) {
+        byte[] key = headerValues.get(event.getClass());
+        return key != null ? key : event.getEventType().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    public byte[] eventTypeHeader(Class<? extends BaseEvent> eventClass) {
+        byte[] key = headerValues.get(eventClass);
+        if (key == null) {
+            throw new IllegalArgumentException("Unregistered event class: " + eventClass.getName());
+        }
+        return key;
+    }
+    
+    // Serializes into a per-thread buffer that is reused across calls; only the exact-size result is allocated.
+    public byte[] serialize(BaseEvent event) throws IOException {
+        if (event == null) {
+            return null;
+        }
+        PooledOutput output = buffers.get();
+        try {
+            writers.get(event.getClass()).writeValue(output, event);
+            return output.toByteArray();
+        } finally {
+            output.recycle();
+        }
+    }
+    
+    public BaseEvent deserialize(String eventType, byte[] data) throws IOException {
+        return deserialize(eventType != null ? eventType.getBytes(StandardCharsets.UTF_8) : null, data);
+    }
+    
+    // Header values are matched as raw bytes so the hot path does not decode a String per record.
+    public BaseEvent deserialize(byte[] eventType, byte[] data) throws IOException {
+        if (data == null) {
+            return null;
+        }
+        return readerFor(eventType).readValue(data);
+    }
+    
+    private ObjectReader readerFor(byte[] eventType) {
+        if (eventType != null) {
+            for (int i = 0; i < eventTypeKeys.length; i++) {
+                if (Arrays.equals(eventTypeKeys[i], eventType)) {
+                    return typedReaders[i];
+                }
+            }
+        }
+        return polymorphicReader;
+    }
+    
+    private static JsonMapper.Builder mapperBuilder() {
+        return JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new BlackbirdModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Class<? extends BaseEvent>> registeredEventClasses() {
+        Map<String, Class<? extends BaseEvent>> classes = new LinkedHashMap<>();
+        for (JsonSubTypes.Type type : BaseEvent.class.getAnnotation(JsonSubTypes.class).value()) {
+            classes.put(type.name(), (Class<? extends BaseEvent>) type.value());
+        }
+        return Collections.unmodifiableMap(classes);
+    }
+    
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
+    private abstract static class WithoutTypeInfo {
+    }
+    
+    private static final class PooledOutput extends ByteArrayOutputStream {
+        
+        PooledOutput() {
+            super(INITIAL_BUFFER_BYTES);
+        }
+        
+        void recycle() {
+            reset();
+            if (buf.length > MAX_RETAINED_BUFFER_BYTES) {
+                buf = new byte[INITIAL_BUFFER_BYTES];
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.ecommerce.shared.codec;
+
+import com.ecommerce.shared.config.EventHeaders;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.routing.EventTypeFilter;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+// Records without an eventType header (e.g. produced before it was introduced) fall back to
+// polymorphic deserialization through the type id in the payload. Records whose header type is
+// rejected by the filter are returned as null without parsing the value.
+public class EventJsonDeserializer implements Deserializer<BaseEvent> {
+    
+    private final EventJsonCodec codec;
+    private final EventTypeFilter filter;
+    
+    public EventJsonDeserializer(EventJsonCodec codec) {
+        this(codec, EventTypeFilter.all());
+    }
+    
+    public EventJsonDeserializer(EventJsonCodec codec, EventTypeFilter filter) {
+        this.codec = codec;
+        this.filter = filter;
+    }
+    
+    @Override
+    public BaseEvent deserialize(String topic, byte[] data) {
+        return deserialize(topic, (byte[]) null, data);
+    }
+    
+    @Override
+    public BaseEvent deserialize(String topic, Headers headers, byte[] data) {
+        Header header = headers != null ? headers.lastHeader(EventHeaders.EVENT_TYPE) : null;
+        byte[] eventType = header != null ? header.value() : null;
+        if (!filter.accepts(eventType)) {
+            return null;
+        }
+        return deserialize(topic, eventType, data);
+    }
+    
+    private BaseEvent deserialize(String topic, byte[] eventType, byte[] data) {
+        try {
+            return codec.deserialize(eventType, data);
+        } catch (IOException e) {
+            throw new SerializationException("Can't deserialize event from topic " + topic, e);
+        }
+    }
+}
\ No newline at end of file
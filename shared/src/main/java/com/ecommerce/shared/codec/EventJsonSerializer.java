@@ -0,0 +1,50 @@
+package com.ecommerce.shared.codec;
+
+import com.ecommerce.shared.config.EventHeaders;
+import com.ecommerce.shared.events.BaseEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Stamps eventType, schemaVersion and correlationId headers on every record so consumers can
+// filter and route without parsing the payload.
+public class EventJsonSerializer implements Serializer<BaseEvent> {
+    
+    private static final byte[] SCHEMA_VERSION = Integer.toString(EventHeaders.CURRENT_SCHEMA_VERSION)
+        .getBytes(StandardCharsets.UTF_8);
+    
+    private final EventJsonCodec codec;
+    
+    public EventJsonSerializer(EventJsonCodec codec) {
+        this.codec = codec;
+    }
+    
+    @Override
+    public byte[] serialize(String topic, BaseEvent data) {
+        try {
+            return codec.serialize(data);
+        } catch (IOException e) {
+            throw new SerializationException("Can't serialize " + data.getEventType() + " event for topic " + topic, e);
+        }
+    }
+    
+    @Override
+    public byte[] serialize(String topic, Headers headers, BaseEvent data) {
+        if (data != null) {
+            setHeader(headers, EventHeaders.EVENT_TYPE, codec.eventTypeHeader(data));
+            setHeader(headers, EventHeaders.SCHEMA_VERSION, SCHEMA_VERSION);
+            if (data.getCorrelationId() != null) {
+                setHeader(headers, EventHeaders.CORRELATION_ID, data.getCorrelationId().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return serialize(topic, data);
+    }
+    
+    private static void setHeader(Headers headers, String key, byte[] value) {
+        headers.remove(key);
+        headers.add(key, value);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.ecommerce.shared.config;
+
+import com.ecommerce.shared.scaling.ListenerConcurrencyScaler;
+import com.ecommerce.shared.scaling.ScalingPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "ecommerce.kafka.adaptive-concurrency", name = "enabled", havingValue = "true")
+public class AdaptiveConcurrencyConfig {
+    
+    @Value("${ecommerce.kafka.adaptive-concurrency.min-concurrency:1}")
+    private int minConcurrency;
+    
+    @Value("${ecommerce.kafka.adaptive-concurrency.max-concurrency:8}")
+    private int maxConcurrency;
+    
+    @Value("${ecommerce.kafka.adaptive-concurrency.scale-up-lag:1000}")
+    private long scaleUpLag;
+    
+    @Value("${ecommerce.kafka.adaptive-concurrency.scale-down-lag:100}")
+    private long scaleDownLag;
+    
+    // Above this mean time per record the backlog is blamed on a slow dependency, not on too few consumers
+    @Value("${ecommerce.kafka.adaptive-concurrency.max-record-latency:PT1S}")
+    private Duration maxRecordLatency;
+    
+    @Value("${ecommerce.kafka.adaptive-concurrency.scale-up-samples:3}")
+    private int scaleUpSamples;
+    
+    @Value("${ecommerce.kafka.adaptive-concurrency.scale-down-samples:6}")
+    private int scaleDownSamples;
+    
+    @Value("${ecommerce.kafka.adaptive-concurrency.cooldown:PT1M}")
+    private Duration cooldown;
+    
+    @Value("${ecommerce.kafka.adaptive-concurrency.interval:PT10S}")
+    private Duration interval;
+    
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ListenerConcurrencyScaler listenerConcurrencyScaler(KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry,
+                                                               MeterRegistry meterRegistry) {
+        ScalingPolicy policy = new ScalingPolicy(minConcurrency, maxConcurrency, scaleUpLag, scaleDownLag,
+            maxRecordLatency, scaleUpSamples, scaleDownSamples, cooldown);
+        return new ListenerConcurrencyScaler(kafkaListenerEndpointRegistry::getListenerContainers, policy,
+            meterRegistry, interval);
+    }
+}
@@ -1,22 +1,40 @@
 package com.ecommerce.shared.config;
 
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.codec.EventJsonDeserializer;
+import com.ecommerce.shared.codec.EventJsonSerializer;
 import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.idempotency.IdempotentConsumerInterceptor;
+import com.ecommerce.shared.logging.CorrelationMdcRecordInterceptor;
+import com.ecommerce.shared.metrics.ConsumerMetricsInterceptor;
+import com.ecommerce.shared.metrics.MetricsProducerListener;
+import com.ecommerce.shared.partitioning.PartitionAffinity;
+import com.ecommerce.shared.partitioning.SagaAffinityPartitioner;
+import com.ecommerce.shared.priority.PriorityLaneInterceptor;
+import com.ecommerce.shared.routing.EventTypeFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.CompositeRecordInterceptor;
 import org.springframework.kafka.listener.ContainerProperties;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.kafka.support.CompositeProducerListener;
+import org.springframework.kafka.support.LoggingProducerListener;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -28,6 +46,19 @@ public class BaseKafkaConfig {
     @Value("${spring.kafka.consumer.group-id:ecommerce-group}")
     private String groupId;
     
+    // Event types this service consumes; records of other types are discarded by header without
+    // being deserialized. Empty means all types.
+    @Value("${ecommerce.kafka.consumer.event-types:}")
+    private List<String> consumedEventTypes;
+    
+    // key: Kafka's default partitioner on the record key; order/customer: SagaAffinityPartitioner
+    @Value("${ecommerce.kafka.partitioning.affinity:key}")
+    private String partitionAffinity;
+    
+    // at-least-once or exactly-once (see ExactlyOnceKafkaConfig)
+    @Value("${ecommerce.kafka.delivery:at-least-once}")
+    private String delivery;
+    
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -36,43 +67,110 @@ public class BaseKafkaConfig {
     }
     
     @Bean
-    public ProducerFactory<String, BaseEvent> producerFactory() {
+    public EventJsonCodec eventJsonCodec() {
+        return new EventJsonCodec();
+    }
+    
+    @Bean
+    public EventTypeFilter eventTypeFilter() {
+        return EventTypeFilter.of(consumedEventTypes);
+    }
+    
+    @Bean
+    public ProducerFactory<String, BaseEvent> producerFactory(TopicSettings topicSettings, MeterRegistry meterRegistry) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        // Matches the topic codec so brokers store batches without recompressing them
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, topicSettings.compressionType());
+        
+        PartitionAffinity affinity = PartitionAffinity.from(partitionAffinity);
+        if (affinity != PartitionAffinity.KEY) {
+            configProps.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, SagaAffinityPartitioner.class);
+            configProps.put(SagaAffinityPartitioner.AFFINITY_CONFIG, affinity.name());
+        }
         
-        return new DefaultKafkaProducerFactory<>(configProps);
+        DefaultKafkaProducerFactory<String, BaseEvent> factory = new DefaultKafkaProducerFactory<>(configProps,
+            new StringSerializer(), new EventJsonSerializer(eventJsonCodec()));
+        // Exposes the client's own metrics (buffer usage, batch size, request latency) per producer
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
     
     @Bean
-    public KafkaTemplate<String, BaseEvent> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    @Primary
+    public KafkaTemplate<String, BaseEvent> kafkaTemplate(ProducerFactory<String, BaseEvent> producerFactory,
+                                                          MetricsProducerListener metricsProducerListener) {
+        KafkaTemplate<String, BaseEvent> template = new KafkaTemplate<>(producerFactory);
+        template.setProducerListener(producerListener(metricsProducerListener));
+        return template;
+    }
+    
+    // Keeps the template's default error logging next to the metrics listener
+    static CompositeProducerListener<String, BaseEvent> producerListener(MetricsProducerListener metricsProducerListener) {
+        return new CompositeProducerListener<>(new LoggingProducerListener<>(), metricsProducerListener);
     }
     
     @Bean
-    public ConsumerFactory<String, BaseEvent> consumerFactory() {
+    public ConsumerFactory<String, BaseEvent> consumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.ecommerce.shared.events");
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, BaseEvent.class);
+        if (ExactlyOnceKafkaConfig.EXACTLY_ONCE.equals(delivery)) {
+            // Never hand records of aborted transactions to listeners
+            props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        }
         
-        return new DefaultKafkaConsumerFactory<>(props);
+        DefaultKafkaConsumerFactory<String, BaseEvent> factory = new DefaultKafkaConsumerFactory<>(props,
+            new StringDeserializer(), new EventJsonDeserializer(eventJsonCodec(), eventTypeFilter()));
+        // Exposes the client's own metrics, including records-lag per partition
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
     
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, BaseEvent> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, BaseEvent> factory = 
+    public ConcurrentKafkaListenerContainerFactory<String, BaseEvent> kafkaListenerContainerFactory(
+            ConsumerFactory<String, BaseEvent> consumerFactory,
+            ConsumerMetricsInterceptor consumerMetricsInterceptor,
+            CorrelationMdcRecordInterceptor correlationMdcRecordInterceptor,
+            ObjectProvider<IdempotentConsumerInterceptor> idempotentConsumerInterceptor,
+            ObjectProvider<PriorityLaneInterceptor> priorityLaneInterceptor) {
+        ConcurrentKafkaListenerContainerFactory<String, BaseEvent> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        if (!eventTypeFilter().acceptsAll()) {
+            factory.setRecordFilterStrategy(eventTypeFilter());
+            factory.setAckDiscarded(true);
+        }
+        factory.setRecordInterceptor(recordInterceptor(consumerMetricsInterceptor, correlationMdcRecordInterceptor,
+            idempotentConsumerInterceptor.getIfAvailable(), priorityLaneInterceptor.getIfAvailable()));
         return factory;
     }
+    
+    // Shared with services that build their own container factory; the optional interceptors may be null
+    @SuppressWarnings("unchecked")
+    public static CompositeRecordInterceptor<String, BaseEvent> recordInterceptor(
+            ConsumerMetricsInterceptor consumerMetricsInterceptor,
+            CorrelationMdcRecordInterceptor correlationMdcRecordInterceptor,
+            IdempotentConsumerInterceptor idempotentConsumerInterceptor,
+            PriorityLaneInterceptor priorityLaneInterceptor) {
+        // Metrics first, so records skipped as duplicates still count towards lag and size; the lane
+        // slot last, so duplicates never take one. Past the duplicate check a record takes a slot exactly
+        // when its value is non-null. Tombstones, undeserializable records and event types the deserializer
+        // skips arrive with a null value and pass without one.
+        List<RecordInterceptor<String, BaseEvent>> interceptors = new ArrayList<>();
+        interceptors.add(consumerMetricsInterceptor);
+        interceptors.add(correlationMdcRecordInterceptor);
+        if (idempotentConsumerInterceptor != null) {
+            interceptors.add(idempotentConsumerInterceptor);
+        }
+        if (priorityLaneInterceptor != null) {
+            interceptors.add(priorityLaneInterceptor);
+        }
+        return new CompositeRecordInterceptor<>(interceptors.toArray(RecordInterceptor[]::new));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.ecommerce.shared.config;
+
+public final class EventHeaders {
+    
+    // Concrete event type, lets consumers pick a deserializer without reading the payload
+    public static final String EVENT_TYPE = "eventType";
+    
+    // Version of the event payload schema, bumped on incompatible payload changes
+    public static final String SCHEMA_VERSION = "schemaVersion";
+    
+    public static final String CORRELATION_ID = "correlationId";
+    
+    public static final int CURRENT_SCHEMA_VERSION = 1;
+    
+    private EventHeaders() {
+        // Utility class
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.ecommerce.shared.config;
+
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.metrics.ConsumerMetricsInterceptor;
+import com.ecommerce.shared.metrics.MetricsProducerListener;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+
+import java.util.Map;
+import java.util.Properties;
+
+// Exactly-once read-process-write for saga services that turn one event into another. Listeners on
+// the transactional container receive a whole poll as a batch; everything they send through the
+// transactional template and the consumed offsets commit in one Kafka transaction, so the commit
+// cost is paid once per poll instead of once per record. The default template stays
+// non-transactional for producers that do not consume, like the order REST API.
+@Configuration
+@ConditionalOnProperty(prefix = "ecommerce.kafka", name = "delivery", havingValue = ExactlyOnceKafkaConfig.EXACTLY_ONCE)
+public class ExactlyOnceKafkaConfig {
+    
+    public static final String EXACTLY_ONCE = "exactly-once";
+    public static final String TRANSACTIONAL_CONTAINER_FACTORY = "transactionalBatchListenerContainerFactory";
+    
+    // Must differ between instances of a service, otherwise they fence each other's producers, and stay the
+    // same across restarts of an instance, so the restarted producer fences and aborts its predecessor's
+    // open transaction. A prefix generated per start would leave that transaction to time out instead.
+    @Value("${ecommerce.kafka.exactly-once.transaction-id-prefix:}")
+    private String transactionIdPrefix;
+    
+    @Value("${ecommerce.kafka.exactly-once.max-poll-records:500}")
+    private int maxPollRecords;
+    
+    @Bean
+    public ProducerFactory<String, BaseEvent> transactionalProducerFactory(ProducerFactory<String, BaseEvent> producerFactory) {
+        if (transactionIdPrefix.isBlank()) {
+            throw new IllegalStateException("ecommerce.kafka.exactly-once.transaction-id-prefix must be set to a "
+                + "stable per-instance value, e.g. the pod name of a StatefulSet");
+        }
+        // transactional.id on a producer factory is used as the prefix of per-producer transactional ids
+        return producerFactory.copyWithConfigurationOverride(
+            Map.of(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionIdPrefix));
+    }
+    
+    @Bean
+    public KafkaTemplate<String, BaseEvent> transactionalKafkaTemplate(
+            @Qualifier("transactionalProducerFactory") ProducerFactory<String, BaseEvent> transactionalProducerFactory,
+            MetricsProducerListener metricsProducerListener) {
+        KafkaTemplate<String, BaseEvent> template = new KafkaTemplate<>(transactionalProducerFactory);
+        template.setProducerListener(BaseKafkaConfig.producerListener(metricsProducerListener));
+        return template;
+    }
+    
+    @Bean
+    public KafkaTransactionManager<String, BaseEvent> kafkaTransactionManager(
+            @Qualifier("transactionalProducerFactory") ProducerFactory<String, BaseEvent> transactionalProducerFactory) {
+        return new KafkaTransactionManager<>(transactionalProducerFactory);
+    }
+    
+    @Bean(TRANSACTIONAL_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, BaseEvent> transactionalBatchListenerContainerFactory(
+            ConsumerFactory<String, BaseEvent> consumerFactory,
+            KafkaTransactionManager<String, BaseEvent> kafkaTransactionManager,
+            ConsumerMetricsInterceptor consumerMetricsInterceptor) {
+        ConcurrentKafkaListenerContainerFactory<String, BaseEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setBatchInterceptor(consumerMetricsInterceptor);
+        
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setKafkaAwareTransactionManager(kafkaTransactionManager);
+        containerProperties.setAckMode(ContainerProperties.AckMode.BATCH);
+        // One transaction for the whole poll rather than one per partition
+        containerProperties.setSubBatchPerPartition(false);
+        
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        consumerProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        containerProperties.setKafkaConsumerProperties(consumerProperties);
+        return factory;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.ecommerce.shared.config;
+
+import com.ecommerce.shared.idempotency.IdempotencyGuard;
+import com.ecommerce.shared.idempotency.IdempotentConsumerInterceptor;
+import com.ecommerce.shared.idempotency.ProcessedEventStore;
+import com.ecommerce.shared.idempotency.RotatingBloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "ecommerce.kafka.idempotency", name = "enabled", havingValue = "true")
+public class IdempotencyConfig {
+    
+    @Value("${ecommerce.kafka.idempotency.directory:./data/idempotency/${spring.application.name:service}}")
+    private String directory;
+    
+    @Value("${ecommerce.kafka.idempotency.retention:PT24H}")
+    private Duration retention;
+    
+    @Value("${ecommerce.kafka.idempotency.bucket:PT1H}")
+    private Duration bucket;
+    
+    @Value("${ecommerce.kafka.idempotency.expected-events-per-bucket:100000}")
+    private int expectedEventsPerBucket;
+    
+    @Value("${ecommerce.kafka.idempotency.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    @Bean(destroyMethod = "flush")
+    public ProcessedEventStore processedEventStore() throws IOException {
+        return new ProcessedEventStore(Path.of(directory), bucket.toMillis(), retention.toMillis(), expectedEventsPerBucket);
+    }
+    
+    @Bean
+    public IdempotencyGuard idempotencyGuard(ProcessedEventStore processedEventStore) {
+        long rotationMillis = IdempotencyGuard.rotationMillis(retention.toMillis(), RotatingBloomFilter.DEFAULT_GENERATIONS);
+        long bucketsPerGeneration = Math.max(1, rotationMillis / bucket.toMillis());
+        RotatingBloomFilter bloomFilter = new RotatingBloomFilter(
+            bucketsPerGeneration * expectedEventsPerBucket, falsePositiveRate);
+        return new IdempotencyGuard(bloomFilter, processedEventStore, retention.toMillis());
+    }
+    
+    @Bean
+    public IdempotentConsumerInterceptor idempotentConsumerInterceptor(IdempotencyGuard idempotencyGuard) {
+        return new IdempotentConsumerInterceptor(idempotencyGuard);
+    }
+}
\ No newline at end of file
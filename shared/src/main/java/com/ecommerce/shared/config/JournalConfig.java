@@ -0,0 +1,38 @@
+package com.ecommerce.shared.config;
+
+import com.ecommerce.shared.journal.EventJournal;
+import com.ecommerce.shared.journal.JournalSnapshotStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(prefix = "ecommerce.journal", name = "enabled", havingValue = "true")
+public class JournalConfig {
+    
+    @Value("${ecommerce.journal.directory:./data/journal/${spring.application.name:service}}")
+    private String directory;
+    
+    @Value("${ecommerce.journal.segment-bytes:67108864}")
+    private int segmentBytes;
+    
+    @Value("${ecommerce.journal.index-interval-bytes:4096}")
+    private int indexIntervalBytes;
+    
+    @Value("${ecommerce.journal.retained-snapshots:2}")
+    private int retainedSnapshots;
+    
+    @Bean(destroyMethod = "close")
+    public EventJournal eventJournal() throws IOException {
+        return new EventJournal(Path.of(directory, "segments"), segmentBytes, indexIntervalBytes);
+    }
+    
+    @Bean
+    public JournalSnapshotStore journalSnapshotStore() throws IOException {
+        return new JournalSnapshotStore(Path.of(directory, "snapshots"), retainedSnapshots);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.ecommerce.shared.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.time.Duration;
+
+// Declares the saga, dead letter and order-state topics so KafkaAdmin creates them with explicit partitioning and
+// durability instead of relying on broker auto-creation. Defaults follow the active profile ("prod"
+// or development) and each setting can be overridden under ecommerce.kafka.topics.
+@Configuration
+public class KafkaTopicConfig {
+    
+    private static final String PREFIX = "ecommerce.kafka.topics.";
+    
+    @Bean
+    public TopicSettings topicSettings(Environment environment) {
+        TopicSettings defaults = environment.acceptsProfiles(Profiles.of("prod"))
+            ? TopicSettings.PRODUCTION
+            : TopicSettings.DEVELOPMENT;
+        return new TopicSettings(
+            environment.getProperty(PREFIX + "partitions", Integer.class, defaults.partitions()),
+            environment.getProperty(PREFIX + "replication-factor", Short.class, defaults.replicationFactor()),
+            environment.getProperty(PREFIX + "min-insync-replicas", Integer.class, defaults.minInSyncReplicas()),
+            environment.getProperty(PREFIX + "retention", Duration.class, defaults.retention()),
+            environment.getProperty(PREFIX + "dead-letter-retention", Duration.class, defaults.deadLetterRetention()),
+            environment.getProperty(PREFIX + "compression-type", defaults.compressionType()));
+    }
+    
+    @Bean
+    public KafkaAdmin.NewTopics sagaTopics(TopicSettings topicSettings) {
+        return new KafkaAdmin.NewTopics(KafkaTopics.SAGA_TOPICS.stream()
+            .map(topic -> topic(topic, topicSettings, topicSettings.retention()))
+            .toArray(NewTopic[]::new));
+    }
+    
+    // Dead letter records are published to the same partition number as the failed record, so
+    // dead letter topics need at least as many partitions as the saga topics
+    @Bean
+    public KafkaAdmin.NewTopics deadLetterTopics(TopicSettings topicSettings) {
+        return new KafkaAdmin.NewTopics(KafkaTopics.DEAD_LETTER_TOPICS.stream()
+            .map(topic -> topic(topic, topicSettings, topicSettings.deadLetterRetention()))
+            .toArray(NewTopic[]::new));
+    }
+    
+    // Compacted instead of time-limited, so it holds the latest snapshot of every order however old. Short
+    // segments let the cleaner compact recent updates soon; a snapshot is only removed when superseded.
+    @Bean
+    public NewTopic orderStateTopic(TopicSettings topicSettings) {
+        return TopicBuilder.name(KafkaTopics.ORDER_STATE)
+            .partitions(topicSettings.partitions())
+            .replicas(topicSettings.replicationFactor())
+            .compact()
+            .config(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, String.valueOf(topicSettings.minInSyncReplicas()))
+            .config(TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(Duration.ofHours(1).toMillis()))
+            .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+            .config(TopicConfig.COMPRESSION_TYPE_CONFIG, topicSettings.compressionType())
+            .build();
+    }
+    
+    private static NewTopic topic(String name, TopicSettings settings, Duration retention) {
+        return TopicBuilder.name(name)
+            .partitions(settings.partitions())
+            .replicas(settings.replicationFactor())
+            .config(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, String.valueOf(settings.minInSyncReplicas()))
+            .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(retention.toMillis()))
+            .config(TopicConfig.COMPRESSION_TYPE_CONFIG, settings.compressionType())
+            .build();
+    }
+}
\ No newline at end of file
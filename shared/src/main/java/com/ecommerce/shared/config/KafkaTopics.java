@@ -1,5 +1,9 @@
 package com.ecommerce.shared.config;
 
+import com.ecommerce.shared.enums.OrderPriority;
+
+import java.util.List;
+
 public final class KafkaTopics {
     
     // Order related topics
@@ -17,12 +21,37 @@ public final class KafkaTopics {
     // Notification related topics
     public static final String NOTIFICATION_SENT = "notification-sent";
     
+    // Compacted: the latest OrderStateSnapshot per orderId, maintained by order-service
+    public static final String ORDER_STATE = "order-state";
+    
     // Dead letter topics
     public static final String ORDER_DLT = "order-created-dlt";
     public static final String INVENTORY_DLT = "inventory-reserved-dlt";
     public static final String PAYMENT_DLT = "payment-processed-dlt";
     public static final String NOTIFICATION_DLT = "notification-sent-dlt";
     
+    // Express lanes of the topics that start work in inventory and payment; the base topic is the
+    // standard lane
+    public static final String EXPRESS_SUFFIX = "-express";
+    public static final String ORDER_CREATED_EXPRESS = ORDER_CREATED + EXPRESS_SUFFIX;
+    public static final String INVENTORY_RESERVED_EXPRESS = INVENTORY_RESERVED + EXPRESS_SUFFIX;
+    
+    // Topics carrying the events of one saga; they are co-partitioned by order
+    public static final List<String> SAGA_TOPICS = List.of(
+        ORDER_CREATED, ORDER_CREATED_EXPRESS, ORDER_CANCELLED, INVENTORY_RESERVED, INVENTORY_RESERVED_EXPRESS,
+        INVENTORY_INSUFFICIENT, PAYMENT_PROCESSED, PAYMENT_FAILED, NOTIFICATION_SENT);
+    
+    public static final List<String> DEAD_LETTER_TOPICS = List.of(
+        ORDER_DLT, INVENTORY_DLT, PAYMENT_DLT, NOTIFICATION_DLT);
+    
+    public static String lane(String topic, OrderPriority priority) {
+        return priority == OrderPriority.EXPRESS ? topic + EXPRESS_SUFFIX : topic;
+    }
+    
+    public static OrderPriority laneOf(String topic) {
+        return topic.endsWith(EXPRESS_SUFFIX) ? OrderPriority.EXPRESS : OrderPriority.STANDARD;
+    }
+    
     private KafkaTopics() {
         // Utility class
     }
@@ -0,0 +1,37 @@
+package com.ecommerce.shared.config;
+
+import com.ecommerce.shared.logging.CorrelationMdcRecordInterceptor;
+import com.ecommerce.shared.logging.EventLogger;
+import com.ecommerce.shared.logging.LogSampler;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+
+@Configuration
+public class LoggingConfig {
+    
+    // ecommerce.logging.sampling.default-rate applies to event types without an entry under
+    // ecommerce.logging.sampling.rates
+    @Bean
+    public LogSampler logSampler(Environment environment) {
+        Binder binder = Binder.get(environment);
+        double defaultRate = binder.bind("ecommerce.logging.sampling.default-rate", Double.class).orElse(0.01);
+        Map<String, Double> rates = binder.bind("ecommerce.logging.sampling.rates",
+            Bindable.mapOf(String.class, Double.class)).orElse(Map.of());
+        return new LogSampler(defaultRate, rates);
+    }
+    
+    @Bean
+    public EventLogger eventLogger(LogSampler logSampler) {
+        return new EventLogger(logSampler);
+    }
+    
+    @Bean
+    public CorrelationMdcRecordInterceptor correlationMdcRecordInterceptor(EventLogger eventLogger) {
+        return new CorrelationMdcRecordInterceptor(eventLogger);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.ecommerce.shared.config;
+
+import com.ecommerce.shared.metrics.ConsumerMetricsInterceptor;
+import com.ecommerce.shared.metrics.MetricsProducerListener;
+import com.ecommerce.shared.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+    
+    @Value("${spring.kafka.consumer.group-id:ecommerce-group}")
+    private String groupId;
+    
+    @Bean
+    public PipelineMetrics pipelineMetrics(MeterRegistry meterRegistry) {
+        return new PipelineMetrics(meterRegistry, groupId);
+    }
+    
+    @Bean
+    public ConsumerMetricsInterceptor consumerMetricsInterceptor(PipelineMetrics pipelineMetrics) {
+        return new ConsumerMetricsInterceptor(pipelineMetrics);
+    }
+    
+    @Bean
+    public MetricsProducerListener metricsProducerListener(PipelineMetrics pipelineMetrics) {
+        return new MetricsProducerListener(pipelineMetrics);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.ecommerce.shared.config;
+
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.idempotency.IdempotencyGuard;
+import com.ecommerce.shared.metrics.PipelineMetrics;
+import com.ecommerce.shared.parallel.ParallelRecordProcessor;
+import com.ecommerce.shared.routing.EventTypeFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+@Configuration
+@ConditionalOnProperty(prefix = "ecommerce.kafka.parallel", name = "enabled", havingValue = "true")
+public class ParallelConsumerConfig {
+    
+    public static final String PARALLEL_CONTAINER_FACTORY = "parallelListenerContainerFactory";
+    
+    // Handlers mostly wait on remote calls, so the pool is sized for concurrency rather than cores
+    @Value("${ecommerce.kafka.parallel.worker-threads:64}")
+    private int workerThreads;
+    
+    @Value("${ecommerce.kafka.parallel.max-in-flight:1000}")
+    private int maxInFlight;
+    
+    @Bean(destroyMethod = "close")
+    public ParallelRecordProcessor parallelRecordProcessor(PipelineMetrics pipelineMetrics,
+                                                           ObjectProvider<IdempotencyGuard> idempotencyGuard) {
+        return new ParallelRecordProcessor(workerThreads, maxInFlight, pipelineMetrics,
+            idempotencyGuard.getIfAvailable());
+    }
+    
+    // Offsets are committed only through the processor's acknowledgments. Discarded records are not
+    // acknowledged, as that would commit past records still in flight; they are gaps to the processor.
+    // The record interceptors are left out because the listener returns before the record is processed:
+    // the processor records processing time, sets the log context and marks events processed itself.
+    @Bean(PARALLEL_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, BaseEvent> parallelListenerContainerFactory(
+            ConsumerFactory<String, BaseEvent> consumerFactory, EventTypeFilter eventTypeFilter) {
+        ConcurrentKafkaListenerContainerFactory<String, BaseEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        if (!eventTypeFilter.acceptsAll()) {
+            factory.setRecordFilterStrategy(eventTypeFilter);
+        }
+        return factory;
+    }
+}
\ No newline at end of file
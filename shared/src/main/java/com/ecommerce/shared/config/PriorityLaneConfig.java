@@ -0,0 +1,48 @@
+package com.ecommerce.shared.config;
+
+import com.ecommerce.shared.enums.OrderPriority;
+import com.ecommerce.shared.priority.PriorityLaneInterceptor;
+import com.ecommerce.shared.priority.WeightedLaneScheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(prefix = "ecommerce.kafka.priority-lanes", name = "enabled", havingValue = "true")
+public class PriorityLaneConfig {
+    
+    // Records processed at once across both lanes; keep it below the listener threads of the lanes
+    // combined, otherwise no lane ever waits and the weights have nothing to arbitrate
+    @Value("${ecommerce.kafka.priority-lanes.slots:4}")
+    private int slots;
+    
+    @Value("${ecommerce.kafka.priority-lanes.express-weight:4}")
+    private int expressWeight;
+    
+    @Value("${ecommerce.kafka.priority-lanes.standard-weight:1}")
+    private int standardWeight;
+    
+    @Bean
+    public WeightedLaneScheduler weightedLaneScheduler(MeterRegistry meterRegistry) {
+        WeightedLaneScheduler scheduler = new WeightedLaneScheduler(slots,
+            Map.of(OrderPriority.EXPRESS, expressWeight, OrderPriority.STANDARD, standardWeight));
+        for (OrderPriority priority : OrderPriority.values()) {
+            Gauge.builder("kafka.consumer.lane.waiting", scheduler, lanes -> lanes.waiting(priority))
+                .tag("lane", priority.name().toLowerCase(Locale.ROOT))
+                .description("Records waiting for a processing slot")
+                .register(meterRegistry);
+        }
+        return scheduler;
+    }
+    
+    @Bean
+    public PriorityLaneInterceptor priorityLaneInterceptor(WeightedLaneScheduler weightedLaneScheduler) {
+        return new PriorityLaneInterceptor(weightedLaneScheduler);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.ecommerce.shared.config;
+
+import java.time.Duration;
+
+// Partitioning and durability settings shared by all saga topics. Every saga topic gets the same
+// partition count so that affinity partitioning lines up across topics.
+public record TopicSettings(
+    int partitions,
+    short replicationFactor,
+    int minInSyncReplicas,
+    Duration retention,
+    Duration deadLetterRetention,
+    String compressionType
+) {
+    
+    // Single local broker
+    public static final TopicSettings DEVELOPMENT = new TopicSettings(
+        3, (short) 1, 1, Duration.ofDays(1), Duration.ofDays(7), "lz4");
+    
+    // Three brokers; acks=all writes survive the loss of one replica
+    public static final TopicSettings PRODUCTION = new TopicSettings(
+        12, (short) 3, 2, Duration.ofDays(7), Duration.ofDays(30), "lz4");
+}
\ No newline at end of file
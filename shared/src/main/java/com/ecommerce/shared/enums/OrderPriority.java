@@ -0,0 +1,12 @@
+package com.ecommerce.shared.enums;
+
+// Express orders (customer checkouts) travel on their own topic lanes ahead of standard traffic such
+// as bulk imports and backfills. Orders without a priority are standard.
+public enum OrderPriority {
+    EXPRESS,
+    STANDARD;
+    
+    public static OrderPriority orStandard(OrderPriority priority) {
+        return priority != null ? priority : STANDARD;
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.ecommerce.shared.events;
 
+import com.ecommerce.shared.util.Ids;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
@@ -8,7 +9,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Data
 @NoArgsConstructor
@@ -34,9 +34,12 @@ public abstract class BaseEvent {
     private String eventType;
     
     public BaseEvent(String correlationId, String eventType) {
-        this.eventId = UUID.randomUUID().toString();
+        this.eventId = Ids.nextId();
         this.correlationId = correlationId;
         this.timestamp = LocalDateTime.now();
         this.eventType = eventType;
     }
+    
+    // Every saga event belongs to an order; used as the partition affinity key
+    public abstract String getOrderId();
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.ecommerce.shared.events;
+
+// Events that carry the id of the customer they belong to
+public interface CustomerScoped {
+    
+    String getCustomerId();
+}
\ No newline at end of file
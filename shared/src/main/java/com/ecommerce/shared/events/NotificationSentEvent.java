@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
-public class NotificationSentEvent extends BaseEvent {
+public class NotificationSentEvent extends BaseEvent implements CustomerScoped {
     
     private String orderId;
     private String customerId;
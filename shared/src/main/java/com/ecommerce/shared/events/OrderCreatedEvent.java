@@ -1,5 +1,6 @@
 package com.ecommerce.shared.events;
 
+import com.ecommerce.shared.enums.OrderPriority;
 import com.ecommerce.shared.model.OrderItem;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -11,19 +12,26 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
-public class OrderCreatedEvent extends BaseEvent {
+public class OrderCreatedEvent extends BaseEvent implements CustomerScoped {
     
     private String orderId;
     private String customerId;
     private List<OrderItem> items;
     private BigDecimal totalAmount;
+    private OrderPriority priority;
     
     public OrderCreatedEvent(String correlationId, String orderId, String customerId, 
                            List<OrderItem> items, BigDecimal totalAmount) {
+        this(correlationId, orderId, customerId, items, totalAmount, OrderPriority.STANDARD);
+    }
+    
+    public OrderCreatedEvent(String correlationId, String orderId, String customerId,
+                           List<OrderItem> items, BigDecimal totalAmount, OrderPriority priority) {
         super(correlationId, "ORDER_CREATED");
         this.orderId = orderId;
         this.customerId = customerId;
         this.items = items;
         this.totalAmount = totalAmount;
+        this.priority = priority;
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.ecommerce.shared.idempotency;
+
+// Maps an eventId to a 128-bit key without allocating: canonical UUIDs are parsed directly,
+// anything else is hashed with two independent seeds.
+public final class EventIdKey {
+    
+    private static final int UUID_LENGTH = 36;
+    
+    private EventIdKey() {
+        // Utility class
+    }
+    
+    public static long high(String eventId) {
+        if (isCanonicalUuid(eventId)) {
+            return parseHex(eventId, 0, 8) << 32 | parseHex(eventId, 9, 13) << 16 | parseHex(eventId, 14, 18);
+        }
+        return hash(eventId, 0x9E3779B97F4A7C15L);
+    }
+    
+    public static long low(String eventId) {
+        long low;
+        if (isCanonicalUuid(eventId)) {
+            low = parseHex(eventId, 19, 23) << 48 | parseHex(eventId, 24, 36);
+        } else {
+            low = hash(eventId, 0xC2B2AE3D27D4EB4FL);
+        }
+        // The all-zero key marks an empty slot in MappedIdSet
+        return low == 0 && high(eventId) == 0 ? 1 : low;
+    }
+    
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+    
+    private static boolean isCanonicalUuid(String value) {
+        if (value.length() != UUID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static long parseHex(String value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result = result << 4 | Character.digit(value.charAt(i), 16);
+        }
+        return result;
+    }
+    
+    private static long hash(String value, long seed) {
+        long hash = seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash ^ value.length());
+    }
+}
\ No newline at end of file
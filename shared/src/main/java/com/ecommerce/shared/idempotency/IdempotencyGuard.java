@@ -0,0 +1,119 @@
+package com.ecommerce.shared.idempotency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// The Bloom filter answers the common case (a new event id) without touching the persistent store;
+// only ids the filter may have seen are looked up in the mapped tables.
+public class IdempotencyGuard implements MeterBinder {
+    
+    private final RotatingBloomFilter bloomFilter;
+    private final ProcessedEventStore store;
+    private final long rotationMillis;
+    private final LongSupplier clock;
+    
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder bloomNegatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    
+    private volatile long nextRotation;
+    
+    public IdempotencyGuard(RotatingBloomFilter bloomFilter, ProcessedEventStore store, long retentionMillis) {
+        this(bloomFilter, store, retentionMillis, System::currentTimeMillis);
+    }
+    
+    IdempotencyGuard(RotatingBloomFilter bloomFilter, ProcessedEventStore store, long retentionMillis, LongSupplier clock) {
+        this.bloomFilter = bloomFilter;
+        this.store = store;
+        // An id added just before a rotation must stay in the filter for the whole retention window,
+        // which takes generations - 1 rotation periods
+        this.rotationMillis = rotationMillis(retentionMillis, bloomFilter.getGenerations());
+        this.clock = clock;
+        this.nextRotation = clock.getAsLong() + rotationMillis;
+        store.forEach(bloomFilter::put);
+    }
+    
+    public static long rotationMillis(long retentionMillis, int generations) {
+        return Math.max(1, retentionMillis / (generations - 1));
+    }
+    
+    public boolean isDuplicate(String eventId) {
+        maintain();
+        checks.increment();
+        long high = EventIdKey.high(eventId);
+        long low = EventIdKey.low(eventId);
+        if (!bloomFilter.mightContain(high, low)) {
+            bloomNegatives.increment();
+            return false;
+        }
+        if (store.contains(high, low)) {
+            duplicates.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+    
+    public void markProcessed(String eventId) {
+        long high = EventIdKey.high(eventId);
+        long low = EventIdKey.low(eventId);
+        bloomFilter.put(high, low);
+        store.add(high, low, clock.getAsLong());
+    }
+    
+    private void maintain() {
+        long now = clock.getAsLong();
+        if (now < nextRotation) {
+            return;
+        }
+        synchronized (this) {
+            if (now >= nextRotation) {
+                bloomFilter.rotate();
+                store.expire(now);
+                nextRotation = now + rotationMillis;
+            }
+        }
+    }
+    
+    public long getChecks() {
+        return checks.sum();
+    }
+    
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+    
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+    
+    public double getDuplicateRate() {
+        long total = checks.sum();
+        return total == 0 ? 0.0 : (double) duplicates.sum() / total;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("kafka.consumer.dedup.lookups", bloomNegatives, LongAdder::sum)
+            .tag("outcome", "new")
+            .description("Event ids rejected by the Bloom filter without a store lookup")
+            .register(registry);
+        FunctionCounter.builder("kafka.consumer.dedup.lookups", falsePositives, LongAdder::sum)
+            .tag("outcome", "false_positive")
+            .description("Event ids that needed a store lookup but were not duplicates")
+            .register(registry);
+        FunctionCounter.builder("kafka.consumer.dedup.lookups", duplicates, LongAdder::sum)
+            .tag("outcome", "duplicate")
+            .description("Redelivered events that were skipped")
+            .register(registry);
+        Gauge.builder("kafka.consumer.dedup.hit.ratio", this, IdempotencyGuard::getDuplicateRate)
+            .description("Share of consumed events that were duplicates")
+            .register(registry);
+    }
+}
\ No newline at end of file
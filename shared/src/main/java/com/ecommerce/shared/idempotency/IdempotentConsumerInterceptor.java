@@ -0,0 +1,46 @@
+package com.ecommerce.shared.idempotency;
+
+import com.ecommerce.shared.events.BaseEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+// Skips redelivered events before they reach a @KafkaListener and records an event as processed
+// only after the listener returned successfully. Listeners whose writes become durable later, such as
+// rows buffered until a segment seals, turn that off and record the event through the guard themselves.
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotentConsumerInterceptor implements RecordInterceptor<String, BaseEvent> {
+    
+    private final IdempotencyGuard idempotencyGuard;
+    private final boolean markOnSuccess;
+    
+    public IdempotentConsumerInterceptor(IdempotencyGuard idempotencyGuard) {
+        this(idempotencyGuard, true);
+    }
+    
+    @Override
+    public ConsumerRecord<String, BaseEvent> intercept(ConsumerRecord<String, BaseEvent> record,
+                                                       Consumer<String, BaseEvent> consumer) {
+        BaseEvent event = record.value();
+        if (event == null || event.getEventId() == null) {
+            return record;
+        }
+        if (idempotencyGuard.isDuplicate(event.getEventId())) {
+            log.debug("Skipping duplicate event {} from {}-{}@{}",
+                event.getEventId(), record.topic(), record.partition(), record.offset());
+            return null;
+        }
+        return record;
+    }
+    
+    @Override
+    public void success(ConsumerRecord<String, BaseEvent> record, Consumer<String, BaseEvent> consumer) {
+        BaseEvent event = record.value();
+        if (markOnSuccess && event != null && event.getEventId() != null) {
+            idempotencyGuard.markProcessed(event.getEventId());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.ecommerce.shared.idempotency;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Open-addressing hash set of 128-bit keys in a memory-mapped file; the all-zero key marks an empty slot.
+final class MappedIdSet {
+    
+    private static final int MAGIC = 0x49445345; // "IDSE"
+    private static final int HEADER_BYTES = 16;
+    private static final int SLOT_BYTES = 16;
+    private static final double MAX_LOAD = 0.7;
+    
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int maxSize;
+    private int size;
+    
+    private MappedIdSet(Path file, MappedByteBuffer buffer, int capacity, int size) {
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.maxSize = (int) (capacity * MAX_LOAD);
+        this.size = size;
+    }
+    
+    static MappedIdSet create(Path file, int expectedKeys) throws IOException {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedKeys / MAX_LOAD)) - 1) << 1;
+        MappedByteBuffer buffer = map(file, HEADER_BYTES + (long) capacity * SLOT_BYTES, true);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, capacity);
+        buffer.putInt(8, 0);
+        return new MappedIdSet(file, buffer, capacity, 0);
+    }
+    
+    static MappedIdSet open(Path file) throws IOException {
+        MappedByteBuffer buffer = map(file, Files.size(file), false);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an id set: " + file);
+        }
+        return new MappedIdSet(file, buffer, buffer.getInt(4), buffer.getInt(8));
+    }
+    
+    private static MappedByteBuffer map(Path file, long size, boolean create) throws IOException {
+        StandardOpenOption[] options = create
+            ? new StandardOpenOption[] {StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE}
+            : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+    
+    synchronized boolean contains(long high, long low) {
+        return !isEmpty(findSlot(high, low));
+    }
+    
+    // Returns false when the set is full and the key should go to a new table
+    synchronized boolean add(long high, long low) {
+        if (size >= maxSize) {
+            return false;
+        }
+        int slot = findSlot(high, low);
+        if (isEmpty(slot)) {
+            int position = HEADER_BYTES + slot * SLOT_BYTES;
+            buffer.putLong(position, high);
+            buffer.putLong(position + 8, low);
+            buffer.putInt(8, ++size);
+        }
+        return true;
+    }
+    
+    synchronized void forEach(KeyConsumer consumer) {
+        for (int slot = 0; slot < capacity; slot++) {
+            if (!isEmpty(slot)) {
+                int position = HEADER_BYTES + slot * SLOT_BYTES;
+                consumer.accept(buffer.getLong(position), buffer.getLong(position + 8));
+            }
+        }
+    }
+    
+    // Linear probing; returns the slot holding the key or the empty slot where it belongs
+    private int findSlot(long high, long low) {
+        int mask = capacity - 1;
+        int slot = (int) EventIdKey.mix(high ^ Long.rotateLeft(low, 32)) & mask;
+        while (true) {
+            int position = HEADER_BYTES + slot * SLOT_BYTES;
+            long storedHigh = buffer.getLong(position);
+            long storedLow = buffer.getLong(position + 8);
+            if ((storedHigh == high && storedLow == low) || (storedHigh == 0 && storedLow == 0)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+    
+    private boolean isEmpty(int slot) {
+        int position = HEADER_BYTES + slot * SLOT_BYTES;
+        return buffer.getLong(position) == 0 && buffer.getLong(position + 8) == 0;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    void flush() {
+        buffer.force();
+    }
+    
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    @FunctionalInterface
+    interface KeyConsumer {
+        
+        void accept(long high, long low);
+    }
+}
\ No newline at end of file
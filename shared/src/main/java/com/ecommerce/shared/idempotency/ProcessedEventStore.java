@@ -0,0 +1,127 @@
+package com.ecommerce.shared.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Persistent set of processed event ids, partitioned into time buckets so that whole buckets can be
+// dropped once they fall out of the retention window. Each bucket holds one or more memory-mapped
+// tables; a new table is added when the current one fills up.
+@Slf4j
+public class ProcessedEventStore {
+    
+    private static final String PREFIX = "bucket-";
+    private static final String SUFFIX = ".ids";
+    
+    private final Path directory;
+    private final long bucketMillis;
+    private final long retentionMillis;
+    private final int expectedKeysPerTable;
+    private final ConcurrentSkipListMap<Long, List<MappedIdSet>> buckets = new ConcurrentSkipListMap<>();
+    
+    public ProcessedEventStore(Path directory, long bucketMillis, long retentionMillis, int expectedKeysPerTable) throws IOException {
+        if (bucketMillis <= 0 || retentionMillis < bucketMillis) {
+            throw new IllegalArgumentException("Retention must cover at least one bucket");
+        }
+        this.directory = directory;
+        this.bucketMillis = bucketMillis;
+        this.retentionMillis = retentionMillis;
+        this.expectedKeysPerTable = expectedKeysPerTable;
+        Files.createDirectories(directory);
+        load();
+    }
+    
+    private void load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            entries.forEach(files::add);
+        }
+        files.sort(null);
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long bucketStart = Long.parseLong(name.substring(PREFIX.length(), name.indexOf('-', PREFIX.length())));
+            buckets.computeIfAbsent(bucketStart, start -> new ArrayList<>()).add(MappedIdSet.open(file));
+        }
+        log.info("Loaded {} processed-event buckets from {}", buckets.size(), directory);
+    }
+    
+    public boolean contains(long high, long low) {
+        for (List<MappedIdSet> tables : buckets.values()) {
+            synchronized (tables) {
+                for (MappedIdSet table : tables) {
+                    if (table.contains(high, low)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    public void add(long high, long low, long nowMillis) {
+        long bucketStart = nowMillis - Math.floorMod(nowMillis, bucketMillis);
+        List<MappedIdSet> tables = buckets.computeIfAbsent(bucketStart, start -> new ArrayList<>());
+        synchronized (tables) {
+            if (tables.isEmpty() || !tables.get(tables.size() - 1).add(high, low)) {
+                MappedIdSet table = createTable(bucketStart, tables.size());
+                table.add(high, low);
+                tables.add(table);
+            }
+        }
+    }
+    
+    private MappedIdSet createTable(long bucketStart, int index) {
+        Path file = directory.resolve(String.format("%s%d-%04d%s", PREFIX, bucketStart, index, SUFFIX));
+        try {
+            return MappedIdSet.create(file, expectedKeysPerTable);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create processed-event table " + file, e);
+        }
+    }
+    
+    public void expire(long nowMillis) {
+        long oldestRetained = nowMillis - retentionMillis;
+        Iterator<Map.Entry<Long, List<MappedIdSet>>> iterator = buckets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, List<MappedIdSet>> bucket = iterator.next();
+            if (bucket.getKey() + bucketMillis > oldestRetained) {
+                break;
+            }
+            iterator.remove();
+            synchronized (bucket.getValue()) {
+                for (MappedIdSet table : bucket.getValue()) {
+                    try {
+                        table.delete();
+                    } catch (IOException e) {
+                        log.warn("Failed to delete expired processed-event table: {}", e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+    
+    void forEach(MappedIdSet.KeyConsumer consumer) {
+        for (List<MappedIdSet> tables : buckets.values()) {
+            synchronized (tables) {
+                tables.forEach(table -> table.forEach(consumer));
+            }
+        }
+    }
+    
+    public void flush() {
+        for (List<MappedIdSet> tables : buckets.values()) {
+            synchronized (tables) {
+                tables.forEach(MappedIdSet::flush);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.ecommerce.shared.idempotency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Generations of a lock-free Bloom filter: keys are added to the newest generation and looked up in
+// all of them, and rotating drops the oldest so the filter only covers recent event ids. A key added
+// just before a rotation stays for generations - 1 full rotation periods.
+public class RotatingBloomFilter {
+    
+    public static final int DEFAULT_GENERATIONS = 3;
+    
+    private final int bits;
+    private final int hashes;
+    
+    // Newest first; replaced as a whole on rotation
+    private volatile AtomicLongArray[] generations;
+    
+    public RotatingBloomFilter(long expectedInsertionsPerGeneration, double falsePositiveRate) {
+        this(expectedInsertionsPerGeneration, falsePositiveRate, DEFAULT_GENERATIONS);
+    }
+    
+    public RotatingBloomFilter(long expectedInsertionsPerGeneration, double falsePositiveRate, int generations) {
+        if (expectedInsertionsPerGeneration <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing");
+        }
+        if (generations < 2) {
+            throw new IllegalArgumentException("At least two generations are needed");
+        }
+        double optimalBits = -expectedInsertionsPerGeneration * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, (long) Math.ceil(optimalBits)));
+        this.hashes = Math.max(1, (int) Math.round(optimalBits / expectedInsertionsPerGeneration * Math.log(2)));
+        this.generations = new AtomicLongArray[generations];
+        for (int i = 0; i < generations; i++) {
+            this.generations[i] = new AtomicLongArray((bits + 63) >>> 6);
+        }
+    }
+    
+    public int getGenerations() {
+        return generations.length;
+    }
+    
+    public void put(long high, long low) {
+        AtomicLongArray words = generations[0];
+        long h1 = EventIdKey.mix(high);
+        long h2 = EventIdKey.mix(low) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, bits);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long value = words.get(word);
+            while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                value = words.get(word);
+            }
+        }
+    }
+    
+    public boolean mightContain(long high, long low) {
+        for (AtomicLongArray words : generations) {
+            if (contains(words, high, low)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public synchronized void rotate() {
+        AtomicLongArray[] rotated = new AtomicLongArray[generations.length];
+        System.arraycopy(generations, 0, rotated, 1, generations.length - 1);
+        rotated[0] = new AtomicLongArray(generations[0].length());
+        generations = rotated;
+    }
+    
+    private boolean contains(AtomicLongArray words, long high, long low) {
+        long h1 = EventIdKey.mix(high);
+        long h2 = EventIdKey.mix(low) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.shared.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+@Slf4j
+public class EventJournal implements Closeable {
+    
+    private final Path directory;
+    private final int segmentBytes;
+    private final int indexIntervalBytes;
+    private final List<JournalSegment> segments = new ArrayList<>();
+    
+    private JournalSegment activeSegment;
+    
+    public EventJournal(Path directory, int segmentBytes, int indexIntervalBytes) throws IOException {
+        if (indexIntervalBytes <= 0 || segmentBytes <= indexIntervalBytes) {
+            throw new IllegalArgumentException("Segment size must be larger than the index interval");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.indexIntervalBytes = indexIntervalBytes;
+        Files.createDirectories(directory);
+        
+        List<Long> baseSequences = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + JournalSegment.LOG_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                baseSequences.add(Long.parseLong(name.substring(0, name.length() - JournalSegment.LOG_SUFFIX.length())));
+            }
+        }
+        baseSequences.sort(null);
+        for (long baseSequence : baseSequences) {
+            segments.add(JournalSegment.open(directory, baseSequence, segmentBytes, indexIntervalBytes));
+        }
+        if (segments.isEmpty()) {
+            segments.add(JournalSegment.open(directory, 0, segmentBytes, indexIntervalBytes));
+        }
+        activeSegment = segments.get(segments.size() - 1);
+        log.info("Opened event journal at {} with {} segments, next sequence {}",
+            directory, segments.size(), activeSegment.nextSequence());
+    }
+    
+    public synchronized long append(String topic, int partition, long offset, long timestamp, byte[] payload) {
+        long sequence = activeSegment.nextSequence();
+        if (!activeSegment.append(topic, partition, offset, timestamp, payload)) {
+            roll(sequence);
+            if (!activeSegment.append(topic, partition, offset, timestamp, payload)) {
+                throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit in a journal segment");
+            }
+        }
+        return sequence;
+    }
+    
+    private void roll(long baseSequence) {
+        activeSegment.flush();
+        try {
+            activeSegment = JournalSegment.open(directory, baseSequence, segmentBytes, indexIntervalBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll journal segment at sequence " + baseSequence, e);
+        }
+        segments.add(activeSegment);
+    }
+    
+    // Replays every record with sequence >= fromSequence in order and returns the number replayed.
+    // Fails when the segments holding fromSequence were already deleted instead of silently skipping them.
+    public long replay(long fromSequence, JournalRecordHandler handler) {
+        List<JournalSegment> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+        }
+        long firstSequence = snapshot.get(0).baseSequence();
+        if (fromSequence < firstSequence) {
+            throw new IllegalStateException("Journal replay from sequence " + fromSequence
+                + " needs deleted segments, the oldest remaining starts at " + firstSequence);
+        }
+        long replayed = 0;
+        for (JournalSegment segment : snapshot) {
+            if (segment.nextSequence() > fromSequence) {
+                replayed += segment.read(fromSequence, handler);
+            }
+        }
+        return replayed;
+    }
+    
+    public synchronized long nextSequence() {
+        return activeSegment.nextSequence();
+    }
+    
+    public synchronized void flush() {
+        activeSegment.flush();
+    }
+    
+    // Drops whole segments that only hold records before the given sequence, e.g. after a snapshot
+    public synchronized void deleteSegmentsBefore(long sequence) {
+        Iterator<JournalSegment> iterator = segments.iterator();
+        while (iterator.hasNext()) {
+            JournalSegment segment = iterator.next();
+            if (segment == activeSegment || segment.nextSequence() > sequence) {
+                break;
+            }
+            try {
+                segment.delete();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete journal segment " + segment.baseSequence(), e);
+            }
+            iterator.remove();
+        }
+    }
+    
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+    
+    @Override
+    public synchronized void close() {
+        for (JournalSegment segment : segments) {
+            segment.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.ecommerce.shared.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Restores consumer state from the latest snapshot plus the local journal tail, then seeks the
+// assigned partitions past everything already journaled so only the delta is read from Kafka.
+// Listener beans either extend this class or delegate onPartitionsAssigned to it.
+@Slf4j
+public class JournalBootstrap implements ConsumerSeekAware {
+    
+    private final EventJournal journal;
+    private final JournalSnapshotStore snapshotStore;
+    private final JournalStateHandler stateHandler;
+    private final Map<TopicPartition, Long> processedOffsets = new ConcurrentHashMap<>();
+    
+    public JournalBootstrap(EventJournal journal, JournalSnapshotStore snapshotStore, JournalStateHandler stateHandler) {
+        this.journal = journal;
+        this.snapshotStore = snapshotStore;
+        this.stateHandler = stateHandler;
+    }
+    
+    public synchronized long restore() throws IOException {
+        long started = System.nanoTime();
+        long fromSequence = 0;
+        Optional<JournalSnapshot> snapshot = snapshotStore.loadLatest();
+        if (snapshot.isPresent()) {
+            stateHandler.restoreState(snapshot.get().getState());
+            processedOffsets.putAll(snapshot.get().getProcessedOffsets());
+            fromSequence = snapshot.get().getJournalSequence();
+        }
+        
+        long replayed = journal.replay(fromSequence, record -> {
+            stateHandler.apply(record);
+            markProcessed(record.getTopic(), record.getPartition(), record.getOffset());
+        });
+        log.info("Restored state from {} plus {} journaled records in {} ms",
+            snapshot.isPresent() ? "snapshot at sequence " + fromSequence : "empty state",
+            replayed, (System.nanoTime() - started) / 1_000_000);
+        return replayed;
+    }
+    
+    public void append(ConsumerRecord<?, ?> record, byte[] payload) {
+        journal.append(record.topic(), record.partition(), record.offset(), record.timestamp(), payload);
+        markProcessed(record.topic(), record.partition(), record.offset());
+    }
+    
+    // Must not run concurrently with append, e.g. call it from the consuming thread
+    public synchronized void snapshot() throws IOException {
+        journal.flush();
+        long sequence = journal.nextSequence();
+        snapshotStore.save(new JournalSnapshot(sequence, new HashMap<>(processedOffsets), stateHandler.snapshotState()));
+        // Keep the segments an older snapshot needs, restore falls back to it when the newest is unreadable
+        journal.deleteSegmentsBefore(snapshotStore.oldestRetainedSequence().orElse(sequence));
+    }
+    
+    public Map<TopicPartition, Long> getProcessedOffsets() {
+        return Map.copyOf(processedOffsets);
+    }
+    
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.keySet().forEach(partition -> {
+            Long processed = processedOffsets.get(partition);
+            if (processed != null) {
+                callback.seek(partition.topic(), partition.partition(), processed + 1);
+            }
+        });
+    }
+    
+    private void markProcessed(String topic, int partition, long offset) {
+        processedOffsets.merge(new TopicPartition(topic, partition), offset, Math::max);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.ecommerce.shared.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalRecord {
+    
+    private long sequence;
+    private String topic;
+    private int partition;
+    private long offset;
+    private long timestamp;
+    private byte[] payload;
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.ecommerce.shared.journal;
+
+@FunctionalInterface
+public interface JournalRecordHandler {
+    
+    void handle(JournalRecord record);
+}
\ No newline at end of file
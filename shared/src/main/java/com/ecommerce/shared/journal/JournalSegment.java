@@ -0,0 +1,258 @@
+package com.ecommerce.shared.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// Record layout: [int bodyLength][int crc32c(body)][body]; body = sequence, offset, partition, timestamp,
+// topic (short length + UTF-8), payload (int length + bytes). A zero length marks the end of the log.
+// Index entry: [int relativeSequence][int position + 1], so an unused all-zero slot never reads as position 0.
+final class JournalSegment implements Closeable {
+    
+    static final String LOG_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".idx";
+    
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_BODY_BYTES = 8 + 8 + 4 + 8 + 2 + 4;
+    private static final int INDEX_ENTRY_BYTES = 8;
+    
+    private final long baseSequence;
+    private final Path logFile;
+    private final Path indexFile;
+    private final MappedByteBuffer log;
+    private final MappedByteBuffer index;
+    private final int indexIntervalBytes;
+    private final int indexCapacity;
+    
+    private volatile int writePosition;
+    private volatile long nextSequence;
+    private int indexEntries;
+    private int bytesSinceIndex;
+    
+    private JournalSegment(Path directory, long baseSequence, int segmentBytes, int indexIntervalBytes) throws IOException {
+        this.baseSequence = baseSequence;
+        this.logFile = directory.resolve(fileName(baseSequence, LOG_SUFFIX));
+        this.indexFile = directory.resolve(fileName(baseSequence, INDEX_SUFFIX));
+        this.indexIntervalBytes = indexIntervalBytes;
+        this.indexCapacity = segmentBytes / indexIntervalBytes + 1;
+        this.log = map(logFile, segmentBytes);
+        this.index = map(indexFile, indexCapacity * INDEX_ENTRY_BYTES);
+        this.nextSequence = baseSequence;
+        recover();
+    }
+    
+    static JournalSegment open(Path directory, long baseSequence, int segmentBytes, int indexIntervalBytes) throws IOException {
+        return new JournalSegment(directory, baseSequence, segmentBytes, indexIntervalBytes);
+    }
+    
+    static String fileName(long baseSequence, String suffix) {
+        return String.format("%020d%s", baseSequence, suffix);
+    }
+    
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // An existing segment keeps its size so a changed configuration does not truncate it
+            long mappedSize = Math.max(channel.size(), size);
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+        }
+    }
+    
+    // Rebuilds the write position from the last index entry, truncating a torn trailing record
+    private void recover() {
+        int entries = 0;
+        while (entries < indexCapacity && index.getInt(entries * INDEX_ENTRY_BYTES + 4) != 0) {
+            entries++;
+        }
+        int position = 0;
+        long sequence = baseSequence;
+        if (entries > 0) {
+            sequence = baseSequence + indexSequence(entries - 1);
+            position = indexPosition(entries - 1);
+        }
+        
+        while (true) {
+            int length = validRecordLength(position, sequence);
+            if (length < 0) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+            sequence++;
+        }
+        
+        // Clear whatever a partially written record left behind
+        if (position + HEADER_BYTES <= log.capacity()) {
+            int claimed = log.getInt(position);
+            int end = claimed > 0 && claimed <= log.capacity() - position - HEADER_BYTES
+                ? position + HEADER_BYTES + claimed : position + HEADER_BYTES;
+            for (int i = position; i < end; i++) {
+                log.put(i, (byte) 0);
+            }
+        }
+        
+        while (entries > 0 && indexPosition(entries - 1) >= position) {
+            entries--;
+            index.putLong(entries * INDEX_ENTRY_BYTES, 0L);
+        }
+        this.indexEntries = entries;
+        this.writePosition = position;
+        this.nextSequence = sequence;
+        this.bytesSinceIndex = entries > 0 ? position - indexPosition(entries - 1) : position;
+    }
+    
+    private int validRecordLength(int position, long expectedSequence) {
+        if (position + HEADER_BYTES > log.capacity()) {
+            return -1;
+        }
+        int length = log.getInt(position);
+        if (length < FIXED_BODY_BYTES || length > log.capacity() - position - HEADER_BYTES) {
+            return -1;
+        }
+        if (log.getLong(position + HEADER_BYTES) != expectedSequence) {
+            return -1;
+        }
+        return crc(position + HEADER_BYTES, length) == log.getInt(position + 4) ? length : -1;
+    }
+    
+    private int crc(int bodyPosition, int length) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer body = log.duplicate();
+        body.position(bodyPosition).limit(bodyPosition + length);
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+    
+    // Returns false when the record does not fit and the journal should roll to a new segment
+    boolean append(String topic, int partition, long offset, long timestamp, byte[] payload) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        int length = FIXED_BODY_BYTES + topicBytes.length + payload.length;
+        int position = writePosition;
+        if (position + HEADER_BYTES + length + HEADER_BYTES > log.capacity()) {
+            return false;
+        }
+        
+        ByteBuffer body = log.duplicate();
+        body.position(position + HEADER_BYTES);
+        body.putLong(nextSequence)
+            .putLong(offset)
+            .putInt(partition)
+            .putLong(timestamp)
+            .putShort((short) topicBytes.length)
+            .put(topicBytes)
+            .putInt(payload.length)
+            .put(payload);
+        log.putInt(position + 4, crc(position + HEADER_BYTES, length));
+        // The length is written last so a torn write reads as the end of the log
+        log.putInt(position, length);
+        
+        bytesSinceIndex += HEADER_BYTES + length;
+        if (bytesSinceIndex >= indexIntervalBytes && indexEntries < indexCapacity) {
+            int entry = indexEntries * INDEX_ENTRY_BYTES;
+            index.putInt(entry, (int) (nextSequence - baseSequence));
+            index.putInt(entry + 4, position + 1);
+            indexEntries++;
+            bytesSinceIndex = 0;
+        }
+        
+        writePosition = position + HEADER_BYTES + length;
+        nextSequence++;
+        return true;
+    }
+    
+    long read(long fromSequence, JournalRecordHandler handler) {
+        long limitSequence = nextSequence;
+        int limitPosition = writePosition;
+        if (fromSequence >= limitSequence) {
+            return 0;
+        }
+        
+        int position = 0;
+        long sequence = baseSequence;
+        int floor = floorIndexEntry(fromSequence);
+        if (floor >= 0) {
+            sequence = baseSequence + indexSequence(floor);
+            position = indexPosition(floor);
+        }
+        
+        ByteBuffer buffer = log.duplicate();
+        long delivered = 0;
+        while (position < limitPosition && sequence < limitSequence) {
+            int length = buffer.getInt(position);
+            if (sequence >= fromSequence) {
+                handler.handle(decode(buffer, position + HEADER_BYTES));
+                delivered++;
+            }
+            position += HEADER_BYTES + length;
+            sequence++;
+        }
+        return delivered;
+    }
+    
+    private int floorIndexEntry(long sequence) {
+        long relative = sequence - baseSequence;
+        int low = 0;
+        int high = indexEntries - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexSequence(mid) <= relative) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+    
+    private int indexSequence(int entry) {
+        return index.getInt(entry * INDEX_ENTRY_BYTES);
+    }
+    
+    private int indexPosition(int entry) {
+        return index.getInt(entry * INDEX_ENTRY_BYTES + 4) - 1;
+    }
+    
+    private static JournalRecord decode(ByteBuffer buffer, int position) {
+        buffer.position(position);
+        long sequence = buffer.getLong();
+        long offset = buffer.getLong();
+        int partition = buffer.getInt();
+        long timestamp = buffer.getLong();
+        byte[] topic = new byte[buffer.getShort()];
+        buffer.get(topic);
+        byte[] payload = new byte[buffer.getInt()];
+        buffer.get(payload);
+        return new JournalRecord(sequence, new String(topic, StandardCharsets.UTF_8), partition, offset, timestamp, payload);
+    }
+    
+    long baseSequence() {
+        return baseSequence;
+    }
+    
+    long nextSequence() {
+        return nextSequence;
+    }
+    
+    void flush() {
+        log.force();
+        index.force();
+    }
+    
+    void delete() throws IOException {
+        Files.deleteIfExists(logFile);
+        Files.deleteIfExists(indexFile);
+    }
+    
+    @Override
+    public void close() {
+        flush();
+    }
+}
\ No newline at end of file
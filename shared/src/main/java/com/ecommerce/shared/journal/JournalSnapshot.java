@@ -0,0 +1,18 @@
+package com.ecommerce.shared.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalSnapshot {
+    
+    private long journalSequence; // first journal sequence not covered by the state
+    private Map<TopicPartition, Long> processedOffsets;
+    private byte[] state;
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.ecommerce.shared.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.zip.CRC32C;
+
+@Slf4j
+public class JournalSnapshotStore {
+    
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final int MAGIC = 0x4A534E50; // "JSNP"
+    
+    private final Path directory;
+    private final int retainedSnapshots;
+    
+    public JournalSnapshotStore(Path directory, int retainedSnapshots) throws IOException {
+        if (retainedSnapshots < 1) {
+            throw new IllegalArgumentException("At least one snapshot must be retained");
+        }
+        this.directory = directory;
+        this.retainedSnapshots = retainedSnapshots;
+        Files.createDirectories(directory);
+    }
+    
+    public synchronized void save(JournalSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeLong(snapshot.getJournalSequence());
+        out.writeInt(snapshot.getProcessedOffsets().size());
+        for (Map.Entry<TopicPartition, Long> entry : snapshot.getProcessedOffsets().entrySet()) {
+            out.writeUTF(entry.getKey().topic());
+            out.writeInt(entry.getKey().partition());
+            out.writeLong(entry.getValue());
+        }
+        out.writeInt(snapshot.getState().length);
+        out.write(snapshot.getState());
+        out.flush();
+        
+        byte[] body = bytes.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, snapshot.getJournalSequence(), SUFFIX));
+        Path staging = directory.resolve(target.getFileName() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(staging.toFile())) {
+            fileOut.write(body);
+            fileOut.write(ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue()).array());
+            fileOut.getFD().sync();
+        }
+        Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        
+        List<Path> snapshots = listSnapshots();
+        for (int i = retainedSnapshots; i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+    
+    // Falls back to older snapshots when the newest one is unreadable
+    public synchronized Optional<JournalSnapshot> loadLatest() throws IOException {
+        for (Path file : listSnapshots()) {
+            try {
+                return Optional.of(read(file));
+            } catch (IOException e) {
+                log.warn("Skipping unreadable journal snapshot {}: {}", file, e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+    
+    // Journal sequence of the oldest snapshot on disk, the furthest back loadLatest can fall back to
+    public synchronized OptionalLong oldestRetainedSequence() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        if (snapshots.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        String name = snapshots.get(snapshots.size() - 1).getFileName().toString();
+        return OptionalLong.of(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+    }
+    
+    private static JournalSnapshot read(Path file) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        if (content.length < Integer.BYTES) {
+            throw new IOException("Snapshot is truncated");
+        }
+        int bodyLength = content.length - Integer.BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(content, 0, bodyLength);
+        if ((int) crc.getValue() != ByteBuffer.wrap(content, bodyLength, Integer.BYTES).getInt()) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+        
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(content, 0, bodyLength));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a journal snapshot");
+        }
+        long journalSequence = in.readLong();
+        int partitions = in.readInt();
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (int i = 0; i < partitions; i++) {
+            offsets.put(new TopicPartition(in.readUTF(), in.readInt()), in.readLong());
+        }
+        byte[] state = new byte[in.readInt()];
+        in.readFully(state);
+        return new JournalSnapshot(journalSequence, offsets, state);
+    }
+    
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            files.forEach(snapshots::add);
+        }
+        // Zero-padded sequence numbers sort lexicographically, newest first
+        snapshots.sort(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed());
+        return snapshots;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.ecommerce.shared.journal;
+
+public interface JournalStateHandler {
+    
+    byte[] snapshotState();
+    
+    void restoreState(byte[] state);
+    
+    void apply(JournalRecord record);
+}
\ No newline at end of file
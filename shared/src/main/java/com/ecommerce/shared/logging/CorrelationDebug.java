@@ -0,0 +1,85 @@
+package com.ecommerce.shared.logging;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Correlation and order ids for which every log statement is emitted regardless of level, with an
+// expiry so a forgotten switch does not keep tracing forever. At most MAX_ENABLED ids at a time;
+// expired ids are purged whenever one is enabled or the list is read. Static because Logback instantiates
+// the turbo filter that consults it outside the Spring context.
+public final class CorrelationDebug {
+    
+    public static final String MDC_CORRELATION_ID = "correlationId";
+    public static final String MDC_ORDER_ID = "orderId";
+    public static final int MAX_ENABLED = 1000;
+    
+    private static final Map<String, Long> EXPIRIES = new ConcurrentHashMap<>();
+    
+    // Read on every log call; lets the common case skip the map lookups entirely
+    private static volatile boolean active;
+    
+    private CorrelationDebug() {
+        // Utility class
+    }
+    
+    // False when MAX_ENABLED other ids are still being traced
+    public static synchronized boolean enable(String id, Duration ttl) {
+        purgeExpired();
+        if (EXPIRIES.size() >= MAX_ENABLED && !EXPIRIES.containsKey(id)) {
+            return false;
+        }
+        EXPIRIES.put(id, System.currentTimeMillis() + ttl.toMillis());
+        active = true;
+        return true;
+    }
+    
+    public static synchronized void disable(String id) {
+        EXPIRIES.remove(id);
+        active = !EXPIRIES.isEmpty();
+    }
+    
+    public static synchronized Map<String, Long> getEnabled() {
+        purgeExpired();
+        return Map.copyOf(EXPIRIES);
+    }
+    
+    public static boolean isActive() {
+        return active;
+    }
+    
+    public static boolean isEnabled(String correlationId, String orderId) {
+        if (!active) {
+            return false;
+        }
+        return isEnabled(correlationId) || isEnabled(orderId);
+    }
+    
+    private static boolean isEnabled(String id) {
+        if (id == null) {
+            return false;
+        }
+        Long expiresAt = EXPIRIES.get(id);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt < System.currentTimeMillis()) {
+            expire(id, expiresAt);
+            return false;
+        }
+        return true;
+    }
+    
+    // Only removes the expiry that was read, so an id re-enabled meanwhile keeps its new one
+    private static synchronized void expire(String id, Long expiresAt) {
+        if (EXPIRIES.remove(id, expiresAt)) {
+            active = !EXPIRIES.isEmpty();
+        }
+    }
+    
+    private static void purgeExpired() {
+        long now = System.currentTimeMillis();
+        EXPIRIES.values().removeIf(expiresAt -> expiresAt < now);
+        active = !EXPIRIES.isEmpty();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.ecommerce.shared.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+// Accepts every statement, DEBUG included, logged while the MDC carries a correlation or order id
+// that has tracing switched on. Otherwise the configured levels apply unchanged.
+public class CorrelationDebugTurboFilter extends TurboFilter {
+    
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!CorrelationDebug.isActive() || !logger.getName().startsWith("com.ecommerce")) {
+            return FilterReply.NEUTRAL;
+        }
+        return CorrelationDebug.isEnabled(MDC.get(CorrelationDebug.MDC_CORRELATION_ID), MDC.get(CorrelationDebug.MDC_ORDER_ID))
+            ? FilterReply.ACCEPT
+            : FilterReply.NEUTRAL;
+    }
+}
\ No newline at end of file
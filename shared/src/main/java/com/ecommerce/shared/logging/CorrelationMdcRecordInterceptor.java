@@ -0,0 +1,48 @@
+package com.ecommerce.shared.logging;
+
+import com.ecommerce.shared.config.EventHeaders;
+import com.ecommerce.shared.events.BaseEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.MDC;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.nio.charset.StandardCharsets;
+
+// Puts the record's correlation and order ids into the MDC while the listener runs, so per-correlation
+// tracing applies to consumer code, and logs a sampled "consumed" entry per record.
+@RequiredArgsConstructor
+public class CorrelationMdcRecordInterceptor implements RecordInterceptor<String, BaseEvent> {
+    
+    private final EventLogger eventLogger;
+    
+    @Override
+    public ConsumerRecord<String, BaseEvent> intercept(ConsumerRecord<String, BaseEvent> record,
+                                                       Consumer<String, BaseEvent> consumer) {
+        BaseEvent event = record.value();
+        if (event == null) {
+            return record;
+        }
+        String correlationId = event.getCorrelationId();
+        if (correlationId == null) {
+            Header header = record.headers().lastHeader(EventHeaders.CORRELATION_ID);
+            correlationId = header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+        }
+        if (correlationId != null) {
+            MDC.put(CorrelationDebug.MDC_CORRELATION_ID, correlationId);
+        }
+        if (event.getOrderId() != null) {
+            MDC.put(CorrelationDebug.MDC_ORDER_ID, event.getOrderId());
+        }
+        eventLogger.log("consumed", event.getEventType(), correlationId, event.getOrderId());
+        return record;
+    }
+    
+    @Override
+    public void afterRecord(ConsumerRecord<String, BaseEvent> record, Consumer<String, BaseEvent> consumer) {
+        MDC.remove(CorrelationDebug.MDC_CORRELATION_ID);
+        MDC.remove(CorrelationDebug.MDC_ORDER_ID);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.ecommerce.shared.logging;
+
+import com.ecommerce.shared.events.BaseEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Structured log of event lifecycle steps (published, consumed, ...) on the "com.ecommerce.events"
+// logger, emitted as key-value pairs. Each entry is sampled per event type unless tracing is switched
+// on for its correlation or order id, so hot paths log a bounded fraction of traffic.
+public class EventLogger {
+    
+    public static final String LOGGER_NAME = "com.ecommerce.events";
+    
+    private final Logger logger;
+    private final LogSampler sampler;
+    
+    public EventLogger(LogSampler sampler) {
+        this(LoggerFactory.getLogger(LOGGER_NAME), sampler);
+    }
+    
+    public EventLogger(Logger logger, LogSampler sampler) {
+        this.logger = logger;
+        this.sampler = sampler;
+    }
+    
+    public void log(String action, BaseEvent event) {
+        log(action, event.getEventType(), event.getCorrelationId(), event.getOrderId());
+    }
+    
+    public void log(String action, String eventType, String correlationId, String orderId) {
+        if (!shouldLog(eventType, correlationId, orderId)) {
+            return;
+        }
+        logger.atInfo()
+            .addKeyValue("eventType", eventType)
+            .addKeyValue("correlationId", correlationId)
+            .addKeyValue("orderId", orderId)
+            .log(action);
+    }
+    
+    public boolean shouldLog(String eventType, String correlationId, String orderId) {
+        if (CorrelationDebug.isEnabled(correlationId, orderId)) {
+            return true;
+        }
+        return logger.isInfoEnabled() && sampler.sample(eventType, correlationId);
+    }
+}
\ No newline at end of file
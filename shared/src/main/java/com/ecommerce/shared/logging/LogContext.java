@@ -0,0 +1,46 @@
+package com.ecommerce.shared.logging;
+
+import org.slf4j.MDC;
+
+// Scopes correlation and order ids in the MDC for a block of request handling:
+// try (LogContext ignored = LogContext.open(correlationId, orderId)) { ... }
+public final class LogContext implements AutoCloseable {
+    
+    private final String previousCorrelationId;
+    private final String previousOrderId;
+    
+    private LogContext(String correlationId, String orderId) {
+        this.previousCorrelationId = MDC.get(CorrelationDebug.MDC_CORRELATION_ID);
+        this.previousOrderId = MDC.get(CorrelationDebug.MDC_ORDER_ID);
+        put(CorrelationDebug.MDC_CORRELATION_ID, correlationId);
+        put(CorrelationDebug.MDC_ORDER_ID, orderId);
+    }
+    
+    public static LogContext open(String correlationId, String orderId) {
+        return new LogContext(correlationId, orderId);
+    }
+    
+    public static LogContext forOrder(String orderId) {
+        return new LogContext(null, orderId);
+    }
+    
+    @Override
+    public void close() {
+        restore(CorrelationDebug.MDC_CORRELATION_ID, previousCorrelationId);
+        restore(CorrelationDebug.MDC_ORDER_ID, previousOrderId);
+    }
+    
+    private static void put(String key, String value) {
+        if (value != null) {
+            MDC.put(key, value);
+        }
+    }
+    
+    private static void restore(String key, String previous) {
+        if (previous != null) {
+            MDC.put(key, previous);
+        } else {
+            MDC.remove(key);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.ecommerce.shared.logging;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Per-event-type sampling. The decision hashes the correlation id, so a saga that is sampled in one
+// service is sampled in every service and its trace stays complete.
+public class LogSampler {
+    
+    private static final int SCALE = 1 << 24;
+    
+    private final int defaultThreshold;
+    private final Map<String, Integer> thresholds;
+    
+    public LogSampler(double defaultRate, Map<String, Double> rates) {
+        this.defaultThreshold = threshold(defaultRate);
+        Map<String, Integer> byType = new HashMap<>();
+        rates.forEach((eventType, rate) -> byType.put(eventType, threshold(rate)));
+        this.thresholds = Map.copyOf(byType);
+    }
+    
+    public static LogSampler always() {
+        return new LogSampler(1.0, Map.of());
+    }
+    
+    public boolean sample(String eventType, String correlationId) {
+        int threshold = eventType != null ? thresholds.getOrDefault(eventType, defaultThreshold) : defaultThreshold;
+        if (threshold >= SCALE) {
+            return true;
+        }
+        if (threshold <= 0) {
+            return false;
+        }
+        int bucket = correlationId != null
+            ? (correlationId.hashCode() * 0x9E3779B9) >>> 8
+            : ThreadLocalRandom.current().nextInt(SCALE);
+        return bucket < threshold;
+    }
+    
+    private static int threshold(double rate) {
+        if (rate < 0.0 || rate > 1.0) {
+            throw new IllegalArgumentException("Sampling rate must be between 0 and 1: " + rate);
+        }
+        return (int) Math.round(rate * SCALE);
+    }
+}
\ No newline at end of file
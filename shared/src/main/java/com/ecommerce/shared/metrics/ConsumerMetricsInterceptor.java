@@ -0,0 +1,79 @@
+package com.ecommerce.shared.metrics;
+
+import com.ecommerce.shared.events.BaseEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+// Records lag, payload size and listener time for consumed events. Interceptor callbacks for a record
+// run on the consumer thread that polled it, so the start time is kept per thread.
+@RequiredArgsConstructor
+public class ConsumerMetricsInterceptor
+        implements RecordInterceptor<String, BaseEvent>, BatchInterceptor<String, BaseEvent> {
+    
+    private static final ThreadLocal<long[]> START = ThreadLocal.withInitial(() -> new long[1]);
+    
+    private final PipelineMetrics metrics;
+    
+    @Override
+    public ConsumerRecord<String, BaseEvent> intercept(ConsumerRecord<String, BaseEvent> record,
+                                                       Consumer<String, BaseEvent> consumer) {
+        received(record, System.currentTimeMillis());
+        START.get()[0] = System.nanoTime();
+        return record;
+    }
+    
+    @Override
+    public void success(ConsumerRecord<String, BaseEvent> record, Consumer<String, BaseEvent> consumer) {
+        metrics.recordProcessing(record.topic(), System.nanoTime() - START.get()[0], true);
+    }
+    
+    @Override
+    public void failure(ConsumerRecord<String, BaseEvent> record, Exception exception,
+                        Consumer<String, BaseEvent> consumer) {
+        metrics.recordProcessing(record.topic(), System.nanoTime() - START.get()[0], false);
+    }
+    
+    @Override
+    public ConsumerRecords<String, BaseEvent> intercept(ConsumerRecords<String, BaseEvent> records,
+                                                        Consumer<String, BaseEvent> consumer) {
+        long now = System.currentTimeMillis();
+        for (ConsumerRecord<String, BaseEvent> record : records) {
+            received(record, now);
+        }
+        START.get()[0] = System.nanoTime();
+        return records;
+    }
+    
+    // A batch may span topics, so batch listener time is recorded against each of them
+    @Override
+    public void success(ConsumerRecords<String, BaseEvent> records, Consumer<String, BaseEvent> consumer) {
+        recordBatch(records, true);
+    }
+    
+    @Override
+    public void failure(ConsumerRecords<String, BaseEvent> records, Exception exception,
+                        Consumer<String, BaseEvent> consumer) {
+        recordBatch(records, false);
+    }
+    
+    private void received(ConsumerRecord<String, BaseEvent> record, long now) {
+        if (record.timestamp() >= 0) {
+            metrics.recordLag(record.topic(), Math.max(0, now - record.timestamp()));
+        }
+        BaseEvent event = record.value();
+        metrics.recordConsumedSize(event != null ? event.getEventType() : null, record.serializedValueSize());
+    }
+    
+    private void recordBatch(ConsumerRecords<String, BaseEvent> records, boolean success) {
+        long elapsed = System.nanoTime() - START.get()[0];
+        records.partitions().stream()
+            .map(TopicPartition::topic)
+            .distinct()
+            .forEach(topic -> metrics.recordProcessing(topic, elapsed, success));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.ecommerce.shared.metrics;
+
+import com.ecommerce.shared.events.BaseEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.kafka.support.ProducerListener;
+
+// Records payload sizes of acknowledged sends and counts failed sends per topic for every KafkaTemplate
+@RequiredArgsConstructor
+public class MetricsProducerListener implements ProducerListener<String, BaseEvent> {
+    
+    private final PipelineMetrics metrics;
+    
+    @Override
+    public void onSuccess(ProducerRecord<String, BaseEvent> record, RecordMetadata metadata) {
+        BaseEvent event = record.value();
+        metrics.recordProducedSize(event != null ? event.getEventType() : null, metadata.serializedValueSize());
+    }
+    
+    @Override
+    public void onError(ProducerRecord<String, BaseEvent> record, RecordMetadata metadata, Exception exception) {
+        metrics.recordSendError(record.topic(), exception);
+    }
+}
\ No newline at end of file
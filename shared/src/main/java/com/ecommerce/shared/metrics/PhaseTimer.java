@@ -0,0 +1,68 @@
+package com.ecommerce.shared.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Times an operation that runs as a sequence of phases. Each phase is recorded under <name>.phase with
+// a phase tag and the whole operation under <name> with an outcome tag. All timers are registered up
+// front so a sample costs one allocation and a clock read per phase.
+public class PhaseTimer {
+    
+    private final Map<String, Timer> phases = new HashMap<>();
+    private final Timer succeeded;
+    private final Timer failed;
+    
+    public PhaseTimer(MeterRegistry registry, String name, String... phaseNames) {
+        for (String phase : phaseNames) {
+            // Phases only need their share of the total, so they skip the percentile histogram
+            phases.put(phase, Timer.builder(name + ".phase")
+                .tag("phase", phase)
+                .register(registry));
+        }
+        this.succeeded = Timer.builder(name)
+            .tag("outcome", "success")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.failed = Timer.builder(name)
+            .tag("outcome", "failure")
+            .register(registry);
+    }
+    
+    public Sample start() {
+        return new Sample(System.nanoTime());
+    }
+    
+    public final class Sample {
+        
+        private final long start;
+        private long phaseStart;
+        
+        private Sample(long start) {
+            this.start = start;
+            this.phaseStart = start;
+        }
+        
+        // Records the time since the previous phase ended (or the sample started) as the named phase
+        public void endPhase(String phase) {
+            Timer timer = phases.get(phase);
+            if (timer == null) {
+                throw new IllegalArgumentException("Unknown phase: " + phase);
+            }
+            long now = System.nanoTime();
+            timer.record(now - phaseStart, TimeUnit.NANOSECONDS);
+            phaseStart = now;
+        }
+        
+        public void success() {
+            succeeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        
+        public void failure() {
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.ecommerce.shared.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Meters for the Kafka pipeline, shared by every service. Meters are registered on first use and
+// cached per topic or event type, so recording on the hot path is one map lookup plus the meter
+// update. Tags only take bounded values: topics, event types, outcomes and exception classes.
+public class PipelineMetrics {
+    
+    public static final String PRODUCER_SEND_LATENCY = "kafka.producer.send.latency";
+    public static final String PRODUCER_SEND_ERRORS = "kafka.producer.send.errors";
+    public static final String CONSUMER_PROCESSING = "kafka.consumer.processing";
+    public static final String CONSUMER_RECORD_LAG = "kafka.consumer.record.lag";
+    public static final String EVENT_SIZE = "kafka.event.size";
+    
+    static final String UNKNOWN = "unknown";
+    
+    // Payload sizes in bytes; a handful of buckets is enough to spot oversized events
+    private static final double[] SIZE_BUCKETS = {256, 1024, 4096, 16384, 65536, 262144, 1048576};
+    
+    private final MeterRegistry registry;
+    private final String group;
+    private final Map<String, Timer> sendSucceeded = new ConcurrentHashMap<>();
+    private final Map<String, Timer> sendFailed = new ConcurrentHashMap<>();
+    private final Map<String, Counter> sendErrors = new ConcurrentHashMap<>();
+    private final Map<String, Timer> processingSucceeded = new ConcurrentHashMap<>();
+    private final Map<String, Timer> processingFailed = new ConcurrentHashMap<>();
+    private final Map<String, Timer> recordLag = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> producedSize = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> consumedSize = new ConcurrentHashMap<>();
+    
+    public PipelineMetrics(MeterRegistry registry, String group) {
+        this.registry = registry;
+        this.group = group;
+    }
+    
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+    
+    // Time from send() to the broker acknowledgement
+    public void recordSend(String topic, long nanos, boolean success) {
+        Map<String, Timer> cache = success ? sendSucceeded : sendFailed;
+        Timer timer = cache.get(topic);
+        if (timer == null) {
+            timer = cache.computeIfAbsent(topic, key -> Timer.builder(PRODUCER_SEND_LATENCY)
+                .tag("topic", key)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentileHistogram(success)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry));
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordSendError(String topic, Throwable error) {
+        String exception = error != null ? error.getClass().getSimpleName() : UNKNOWN;
+        sendErrors.computeIfAbsent(tagValue(topic) + '|' + exception, key -> Counter.builder(PRODUCER_SEND_ERRORS)
+            .tag("topic", tagValue(topic))
+            .tag("exception", exception)
+            .description("Sends the broker did not acknowledge")
+            .register(registry)).increment();
+    }
+    
+    // Listener time for one record, tagged with this service's consumer group and the source topic
+    public void recordProcessing(String topic, long nanos, boolean success) {
+        Map<String, Timer> cache = success ? processingSucceeded : processingFailed;
+        Timer timer = cache.get(topic);
+        if (timer == null) {
+            timer = cache.computeIfAbsent(topic, key -> Timer.builder(CONSUMER_PROCESSING)
+                .tag("group", group)
+                .tag("topic", key)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentileHistogram(success)
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry));
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    // Age of a record when the listener picks it up; offset lag comes from the Kafka client metrics
+    public void recordLag(String topic, long millis) {
+        Timer timer = recordLag.get(topic);
+        if (timer == null) {
+            timer = recordLag.computeIfAbsent(topic, key -> Timer.builder(CONSUMER_RECORD_LAG)
+                .tag("group", group)
+                .tag("topic", key)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry));
+        }
+        timer.record(millis, TimeUnit.MILLISECONDS);
+    }
+    
+    public void recordProducedSize(String eventType, int bytes) {
+        recordSize(producedSize, "produced", eventType, bytes);
+    }
+    
+    public void recordConsumedSize(String eventType, int bytes) {
+        recordSize(consumedSize, "consumed", eventType, bytes);
+    }
+    
+    private void recordSize(Map<String, DistributionSummary> cache, String direction, String eventType, int bytes) {
+        if (bytes < 0) {
+            return;
+        }
+        String type = tagValue(eventType);
+        DistributionSummary summary = cache.get(type);
+        if (summary == null) {
+            summary = cache.computeIfAbsent(type, key -> DistributionSummary.builder(EVENT_SIZE)
+                .tag("eventType", key)
+                .tag("direction", direction)
+                .baseUnit("bytes")
+                .serviceLevelObjectives(SIZE_BUCKETS)
+                .register(registry));
+        }
+        summary.record(bytes);
+    }
+    
+    private static String tagValue(String value) {
+        return value != null ? value : UNKNOWN;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,206 @@
+package com.ecommerce.shared.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+// Immutable amount held as a long count of minor units (cents for USD). Amounts that do not fit,
+// either because they overflow a long or carry more decimals than the currency, keep an exact
+// BigDecimal instead, so arithmetic never silently loses precision.
+public final class Money implements Comparable<Money> {
+    
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY, null);
+    
+    private final long minorUnits;
+    private final Currency currency;
+    private final BigDecimal exact;
+    
+    private Money(long minorUnits, Currency currency, BigDecimal exact) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+        this.exact = exact;
+    }
+    
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits, DEFAULT_CURRENCY, null);
+    }
+    
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, Objects.requireNonNull(currency, "currency"), null);
+    }
+    
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+    
+    public static Money of(BigDecimal amount, Currency currency) {
+        Objects.requireNonNull(amount, "amount");
+        Objects.requireNonNull(currency, "currency");
+        int scale = scaleOf(currency);
+        if (amount.scale() <= scale) {
+            try {
+                return new Money(amount.setScale(scale).unscaledValue().longValueExact(), currency, null);
+            } catch (ArithmeticException overflow) {
+                // Falls through to the exact representation
+            }
+        } else {
+            BigDecimal stripped = amount.stripTrailingZeros();
+            if (stripped.scale() <= scale) {
+                return of(stripped, currency);
+            }
+        }
+        return new Money(0, currency, amount);
+    }
+    
+    public static Accumulator accumulator() {
+        return new Accumulator(DEFAULT_CURRENCY);
+    }
+    
+    public static Accumulator accumulator(Currency currency) {
+        return new Accumulator(currency);
+    }
+    
+    public Currency getCurrency() {
+        return currency;
+    }
+    
+    public boolean isCompact() {
+        return exact == null;
+    }
+    
+    public long getMinorUnits() {
+        if (exact != null) {
+            throw new ArithmeticException("Amount " + exact + " does not fit in " + currency + " minor units");
+        }
+        return minorUnits;
+    }
+    
+    public long toMinorUnits(RoundingMode roundingMode) {
+        if (exact == null) {
+            return minorUnits;
+        }
+        return exact.setScale(scaleOf(currency), roundingMode).unscaledValue().longValueExact();
+    }
+    
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return exact != null ? exact : BigDecimal.valueOf(minorUnits, scaleOf(currency));
+    }
+    
+    public int signum() {
+        return exact != null ? exact.signum() : Long.signum(minorUnits);
+    }
+    
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        if (exact == null && other.exact == null) {
+            try {
+                return new Money(Math.addExact(minorUnits, other.minorUnits), currency, null);
+            } catch (ArithmeticException overflow) {
+                // Falls through to BigDecimal arithmetic
+            }
+        }
+        return of(toBigDecimal().add(other.toBigDecimal()), currency);
+    }
+    
+    public Money times(long quantity) {
+        if (exact == null) {
+            try {
+                return new Money(Math.multiplyExact(minorUnits, quantity), currency, null);
+            } catch (ArithmeticException overflow) {
+                // Falls through to BigDecimal arithmetic
+            }
+        }
+        return of(toBigDecimal().multiply(BigDecimal.valueOf(quantity)), currency);
+    }
+    
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        if (exact == null && other.exact == null) {
+            return Long.compare(minorUnits, other.minorUnits);
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money other) || !currency.equals(other.currency)) {
+            return false;
+        }
+        if (exact == null || other.exact == null) {
+            return exact == other.exact && minorUnits == other.minorUnits;
+        }
+        return exact.compareTo(other.exact) == 0;
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = exact != null ? exact.stripTrailingZeros().hashCode() : Long.hashCode(minorUnits);
+        return 31 * hash + currency.hashCode();
+    }
+    
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+    
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+    
+    private static int scaleOf(Currency currency) {
+        return Math.max(currency.getDefaultFractionDigits(), 0);
+    }
+    
+    // Mutable running total for aggregation loops; only switches to BigDecimal once the long overflows.
+    public static final class Accumulator {
+        
+        private final Currency currency;
+        private long minorUnits;
+        private BigDecimal overflow;
+        
+        private Accumulator(Currency currency) {
+            this.currency = Objects.requireNonNull(currency, "currency");
+        }
+        
+        public Accumulator add(long minor) {
+            if (overflow == null) {
+                try {
+                    minorUnits = Math.addExact(minorUnits, minor);
+                    return this;
+                } catch (ArithmeticException e) {
+                    overflow = BigDecimal.valueOf(minorUnits, scaleOf(currency));
+                }
+            }
+            overflow = overflow.add(BigDecimal.valueOf(minor, scaleOf(currency)));
+            return this;
+        }
+        
+        public Accumulator add(Money money) {
+            if (!currency.equals(money.currency)) {
+                throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + money.currency);
+            }
+            if (money.exact == null) {
+                return add(money.minorUnits);
+            }
+            overflow = (overflow != null ? overflow : BigDecimal.valueOf(minorUnits, scaleOf(currency))).add(money.exact);
+            return this;
+        }
+        
+        public Money total() {
+            return overflow != null ? of(overflow, currency) : new Money(minorUnits, currency, null);
+        }
+    }
+}
\ No newline at end of file
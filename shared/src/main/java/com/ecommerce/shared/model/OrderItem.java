@@ -1,8 +1,11 @@
 package com.ecommerce.shared.model;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -11,7 +14,6 @@ import java.math.BigDecimal;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class OrderItem {
     
     @NotBlank(message = "Product ID is required")
@@ -28,8 +30,41 @@ public class OrderItem {
     @Positive(message = "Unit price must be positive")
     private BigDecimal unitPrice;
     
+    // Line total, computed once per item rather than on every aggregation pass
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient Money total;
+    
+    public OrderItem(String productId, String productName, Integer quantity, BigDecimal unitPrice) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+        this.total = null;
+    }
+    
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+        this.total = null;
+    }
+    
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    public Money getTotal() {
+        Money cached = total;
+        if (cached == null) {
+            cached = Money.of(unitPrice).times(quantity);
+            total = cached;
+        }
+        return cached;
+    }
+    
     @com.fasterxml.jackson.annotation.JsonIgnore
     public BigDecimal getTotalPrice() {
-        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        return getTotal().toBigDecimal();
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.ecommerce.shared.model;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// @Positive for Money, which Bean Validation's built-in constraints do not know; null is valid
+@Documented
+@Constraint(validatedBy = PositiveMoney.Validator.class)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PositiveMoney {
+    
+    String message() default "must be greater than 0";
+    
+    Class<?>[] groups() default {};
+    
+    Class<? extends Payload>[] payload() default {};
+    
+    class Validator implements ConstraintValidator<PositiveMoney, Money> {
+        
+        @Override
+        public boolean isValid(Money value, ConstraintValidatorContext context) {
+            return value == null || value.signum() > 0;
+        }
+    }
+}
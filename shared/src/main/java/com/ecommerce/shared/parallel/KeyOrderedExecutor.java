@@ -0,0 +1,31 @@
+package com.ecommerce.shared.parallel;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+// Runs tasks on a shared pool so that tasks with the same key run one after another in submission
+// order while tasks with different keys run in parallel. Only keys with queued work hold an entry.
+public class KeyOrderedExecutor {
+    
+    private final Executor executor;
+    private final Map<Object, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    
+    public KeyOrderedExecutor(Executor executor) {
+        this.executor = executor;
+    }
+    
+    public CompletableFuture<Void> submit(Object key, Runnable task) {
+        CompletableFuture<Void> next = tails.compute(key, (ignored, tail) -> tail == null
+            ? CompletableFuture.runAsync(task, executor)
+            // A failed predecessor must not stop the key's later tasks
+            : tail.handle((result, exception) -> null).thenRunAsync(task, executor));
+        next.whenComplete((result, exception) -> tails.remove(key, next));
+        return next;
+    }
+    
+    public int activeKeys() {
+        return tails.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.ecommerce.shared.parallel;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// In-flight offsets of one partition as a sparse bitmap: 64-offset words keyed by offset / 64, holding
+// only words with at least one record still being processed. The committable offset is the lowest
+// in-flight offset, or one past the highest registered offset when nothing is in flight, so commits
+// only advance over the contiguous completed prefix. Offsets that were never registered (filtered
+// records, transaction markers, compacted gaps) cost nothing and never hold the prefix back.
+// Not thread-safe; callers synchronize.
+public class OffsetTracker {
+    
+    private final TreeMap<Long, long[]> inFlight = new TreeMap<>();
+    private long nextOffset = -1;
+    private int pending;
+    
+    public void register(long offset) {
+        if (offset < nextOffset) {
+            throw new IllegalArgumentException("Offset " + offset + " registered after " + (nextOffset - 1));
+        }
+        inFlight.computeIfAbsent(offset >>> 6, word -> new long[1])[0] |= 1L << offset;
+        nextOffset = offset + 1;
+        pending++;
+    }
+    
+    // Returns whether the committable offset moved
+    public boolean complete(long offset) {
+        Long key = offset >>> 6;
+        long[] word = inFlight.get(key);
+        long bit = 1L << offset;
+        if (word == null || (word[0] & bit) == 0) {
+            return false;
+        }
+        boolean lowest = offset == committable();
+        word[0] &= ~bit;
+        if (word[0] == 0) {
+            inFlight.remove(key);
+        }
+        pending--;
+        return lowest;
+    }
+    
+    public long committable() {
+        Map.Entry<Long, long[]> first = inFlight.firstEntry();
+        if (first == null) {
+            return nextOffset;
+        }
+        return (first.getKey() << 6) + Long.numberOfTrailingZeros(first.getValue()[0]);
+    }
+    
+    public void reset() {
+        inFlight.clear();
+        nextOffset = -1;
+        pending = 0;
+    }
+    
+    // One past the highest registered offset, -1 before the first registration
+    public long nextOffset() {
+        return nextOffset;
+    }
+    
+    public int pending() {
+        return pending;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.ecommerce.shared.parallel;
+
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.idempotency.IdempotencyGuard;
+import com.ecommerce.shared.logging.LogContext;
+import com.ecommerce.shared.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.Gauge;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Processes records of one partition concurrently while keeping them in order per order id. The
+// listener hands each record over and returns, so the consumer keeps polling; a record is acknowledged
+// only once it and every record before it on its partition completed, which keeps commits on the
+// contiguous completed prefix. Listeners run on a container with manual acks:
+//
+// @KafkaListener(topics = ..., containerFactory = ParallelConsumerConfig.PARALLEL_CONTAINER_FACTORY)
+// public void onEvent(ConsumerRecord<String, BaseEvent> record, Acknowledgment acknowledgment) {
+//     parallelRecordProcessor.submit(record, acknowledgment, this::handle);
+// }
+//
+// After a rebalance the new owner resumes from the last commit, so records in flight during a revocation
+// are delivered again; the idempotency guard, when present, skips the ones that had completed.
+@Slf4j
+public class ParallelRecordProcessor implements AutoCloseable {
+    
+    public static final String IN_FLIGHT = "kafka.consumer.parallel.in-flight";
+    
+    @FunctionalInterface
+    public interface RecordHandler {
+        void handle(ConsumerRecord<String, BaseEvent> record) throws Exception;
+    }
+    
+    private final ExecutorService workers;
+    private final KeyOrderedExecutor lanes;
+    private final Semaphore capacity;
+    private final int maxInFlight;
+    private final PipelineMetrics metrics;
+    private final IdempotencyGuard idempotencyGuard;
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+    
+    public ParallelRecordProcessor(int workerThreads, int maxInFlight, PipelineMetrics metrics,
+                                   IdempotencyGuard idempotencyGuard) {
+        if (workerThreads < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("workerThreads and maxInFlight must be positive");
+        }
+        AtomicInteger threadIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "parallel-consumer-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lanes = new KeyOrderedExecutor(workers);
+        this.capacity = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.metrics = metrics;
+        this.idempotencyGuard = idempotencyGuard;
+        Gauge.builder(IN_FLIGHT, this, ParallelRecordProcessor::inFlight)
+            .description("Records handed to the parallel consumer and not yet completed")
+            .register(metrics.getRegistry());
+    }
+    
+    // Called on the consumer thread in offset order. Blocks while maxInFlight records are outstanding,
+    // which holds back the next poll instead of buffering an unbounded backlog.
+    public void submit(ConsumerRecord<String, BaseEvent> record, Acknowledgment acknowledgment,
+                       RecordHandler handler) throws InterruptedException {
+        capacity.acquire();
+        PartitionState state = partitions.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+            partition -> new PartitionState());
+        long generation = state.register(record.offset());
+        
+        BaseEvent event = record.value();
+        if (event != null && event.getEventId() != null && idempotencyGuard != null
+                && idempotencyGuard.isDuplicate(event.getEventId())) {
+            log.debug("Skipping duplicate event {} from {}-{}@{}",
+                event.getEventId(), record.topic(), record.partition(), record.offset());
+            complete(state, generation, record.offset(), acknowledgment);
+            return;
+        }
+        lanes.submit(orderingKey(record), () -> {
+            try {
+                process(record, handler);
+            } finally {
+                complete(state, generation, record.offset(), acknowledgment);
+            }
+        });
+    }
+    
+    private void process(ConsumerRecord<String, BaseEvent> record, RecordHandler handler) {
+        BaseEvent event = record.value();
+        long start = System.nanoTime();
+        try (LogContext ignored = event != null ? LogContext.open(event.getCorrelationId(), event.getOrderId()) : null) {
+            handler.handle(record);
+            metrics.recordProcessing(record.topic(), System.nanoTime() - start, true);
+            if (event != null && event.getEventId() != null && idempotencyGuard != null) {
+                idempotencyGuard.markProcessed(event.getEventId());
+            }
+        } catch (Exception e) {
+            // The record is still completed: a handler that wants retries performs them itself, and one
+            // failing record must not stall its partition
+            metrics.recordProcessing(record.topic(), System.nanoTime() - start, false);
+            log.error("Failed to process {}-{}@{}", record.topic(), record.partition(), record.offset(), e);
+        }
+    }
+    
+    private void complete(PartitionState state, long generation, long offset, Acknowledgment acknowledgment) {
+        try {
+            state.complete(generation, offset, acknowledgment);
+        } finally {
+            capacity.release();
+        }
+    }
+    
+    // Records of one order stay in sequence; the record key is the fallback for events without one
+    private static Object orderingKey(ConsumerRecord<String, BaseEvent> record) {
+        BaseEvent event = record.value();
+        String orderId = event != null ? event.getOrderId() : null;
+        if (orderId != null) {
+            return orderId;
+        }
+        return record.key() != null ? record.key() : new TopicPartition(record.topic(), record.partition());
+    }
+    
+    public int inFlight() {
+        return maxInFlight - capacity.availablePermits();
+    }
+    
+    public long committable(TopicPartition partition) {
+        PartitionState state = partitions.get(partition);
+        return state != null ? state.committable() : -1;
+    }
+    
+    @Override
+    public void close() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+    
+    private static final class PartitionState {
+        
+        private final OffsetTracker offsets = new OffsetTracker();
+        // Completed records above the committable offset, kept to acknowledge once the prefix reaches them
+        private final TreeMap<Long, Acknowledgment> completed = new TreeMap<>();
+        private long generation;
+        
+        synchronized long register(long offset) {
+            if (offset < offsets.nextOffset()) {
+                // The partition was re-assigned or seeked back: start over, and ignore completions of the
+                // previous pass, whose offsets the new one delivers again
+                offsets.reset();
+                completed.clear();
+                generation++;
+            }
+            offsets.register(offset);
+            return generation;
+        }
+        
+        synchronized void complete(long generation, long offset, Acknowledgment acknowledgment) {
+            if (generation != this.generation) {
+                return;
+            }
+            completed.put(offset, acknowledgment);
+            if (!offsets.complete(offset)) {
+                return;
+            }
+            long committable = offsets.committable();
+            // Acknowledging a record commits its offset + 1, so the last completed record below the new
+            // committable offset carries the commit; acknowledgments only ever move forward per partition
+            Map<Long, Acknowledgment> prefix = completed.headMap(committable);
+            Map.Entry<Long, Acknowledgment> last = completed.lowerEntry(committable);
+            prefix.clear();
+            last.getValue().acknowledge();
+        }
+        
+        synchronized long committable() {
+            return offsets.committable();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.ecommerce.shared.partitioning;
+
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.CustomerScoped;
+
+import java.util.Locale;
+
+// Which id decides the partition of a saga event. KEY leaves partitioning to Kafka's default
+// partitioner on the record key; ORDER and CUSTOMER derive the partition from the event itself.
+public enum PartitionAffinity {
+    
+    KEY {
+        @Override
+        public String keyOf(BaseEvent event) {
+            return null;
+        }
+    },
+    ORDER {
+        @Override
+        public String keyOf(BaseEvent event) {
+            return event.getOrderId();
+        }
+    },
+    // Events without a customer id (inventory and payment outcomes) fall back to the record key,
+    // so their producers key records by customer id when this affinity is in use
+    CUSTOMER {
+        @Override
+        public String keyOf(BaseEvent event) {
+            return event instanceof CustomerScoped scoped ? scoped.getCustomerId() : null;
+        }
+    };
+    
+    // Affinity key of the event, or null to fall back to the record key
+    public abstract String keyOf(BaseEvent event);
+    
+    public static PartitionAffinity from(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.ecommerce.shared.partitioning;
+
+import com.ecommerce.shared.events.BaseEvent;
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Picks the partition from the event's affinity key instead of the record key, hashed the same way
+// as Kafka's default partitioner. Saga topics share one partition count (see KafkaTopicConfig), so
+// all events of an order or customer land on the same partition number of every saga topic and a
+// consumer assigned that partition can keep the order's state locally.
+public class SagaAffinityPartitioner implements Partitioner {
+    
+    public static final String AFFINITY_CONFIG = "ecommerce.partitioner.affinity";
+    
+    private PartitionAffinity affinity = PartitionAffinity.ORDER;
+    
+    @Override
+    public void configure(Map<String, ?> configs) {
+        Object value = configs.get(AFFINITY_CONFIG);
+        if (value != null) {
+            affinity = value instanceof PartitionAffinity configured
+                ? configured
+                : PartitionAffinity.from(value.toString());
+        }
+    }
+    
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        int numPartitions = cluster.partitionsForTopic(topic).size();
+        String affinityKey = value instanceof BaseEvent event ? affinity.keyOf(event) : null;
+        if (affinityKey != null) {
+            return partitionFor(affinityKey, numPartitions);
+        }
+        if (keyBytes != null) {
+            return partitionFor(keyBytes, numPartitions);
+        }
+        return ThreadLocalRandom.current().nextInt(numPartitions);
+    }
+    
+    // Consumers use this to locate the partition that owns an order or customer
+    public static int partitionFor(String affinityKey, int numPartitions) {
+        return partitionFor(affinityKey.getBytes(StandardCharsets.UTF_8), numPartitions);
+    }
+    
+    private static int partitionFor(byte[] keyBytes, int numPartitions) {
+        return Utils.toPositive(Utils.murmur2(keyBytes)) % numPartitions;
+    }
+    
+    @Override
+    public void close() {
+    }
+}
\ No newline at end of file
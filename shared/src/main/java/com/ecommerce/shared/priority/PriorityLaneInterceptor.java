@@ -0,0 +1,54 @@
+package com.ecommerce.shared.priority;
+
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.events.BaseEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+// Holds each record until the WeightedLaneScheduler grants its lane a slot, and frees the slot once the
+// listener is done. A consumer thread waiting here does not poll either, so a lane's fetching follows
+// its share of the slots. Lanes need their own listener containers: a consumer subscribed to both would
+// hold express records behind the standard record it is waiting with.
+@RequiredArgsConstructor
+@Slf4j
+public class PriorityLaneInterceptor implements RecordInterceptor<String, BaseEvent> {
+    
+    private static final ThreadLocal<WeightedLaneScheduler.Permit> PERMIT = new ThreadLocal<>();
+    
+    private final WeightedLaneScheduler scheduler;
+    
+    @Override
+    public ConsumerRecord<String, BaseEvent> intercept(ConsumerRecord<String, BaseEvent> record,
+                                                       Consumer<String, BaseEvent> consumer) {
+        releaseHeld();
+        // Tombstones and undeserializable records are not processed, so they pass without holding a slot
+        if (record.value() == null) {
+            return record;
+        }
+        try {
+            PERMIT.set(scheduler.acquire(KafkaTopics.laneOf(record.topic())));
+        } catch (InterruptedException e) {
+            // Processing without a slot beats dropping the record while the container shuts down
+            Thread.currentThread().interrupt();
+            log.debug("Interrupted waiting for a lane slot for {}-{}@{}", record.topic(), record.partition(),
+                record.offset());
+        }
+        return record;
+    }
+    
+    @Override
+    public void afterRecord(ConsumerRecord<String, BaseEvent> record, Consumer<String, BaseEvent> consumer) {
+        releaseHeld();
+    }
+    
+    private static void releaseHeld() {
+        WeightedLaneScheduler.Permit permit = PERMIT.get();
+        if (permit != null) {
+            PERMIT.remove();
+            permit.close();
+        }
+    }
+}
\ No newline at end of file
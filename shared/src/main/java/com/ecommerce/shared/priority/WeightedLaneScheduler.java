@@ -0,0 +1,163 @@
+package com.ecommerce.shared.priority;
+
+import com.ecommerce.shared.enums.OrderPriority;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Shares a fixed number of processing slots between the priority lanes by deficit round robin: while
+// both lanes have records waiting, each turn grants a lane as many slots as its weight, so express
+// waits for at most the standard weight's worth of grants and standard traffic keeps draining. An idle
+// lane forfeits its turn, so either lane can use every slot on its own.
+public class WeightedLaneScheduler {
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition granted = lock.newCondition();
+    private final Lane[] lanes;
+    private final Map<OrderPriority, Lane> byPriority = new EnumMap<>(OrderPriority.class);
+    private final int slots;
+    private int available;
+    private int current;
+    
+    public WeightedLaneScheduler(int slots, Map<OrderPriority, Integer> weights) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("slots must be positive");
+        }
+        this.slots = slots;
+        this.available = slots;
+        this.lanes = new Lane[OrderPriority.values().length];
+        for (OrderPriority priority : OrderPriority.values()) {
+            int weight = weights.getOrDefault(priority, 1);
+            if (weight < 1) {
+                throw new IllegalArgumentException("Weight of " + priority + " must be positive");
+            }
+            Lane lane = new Lane(weight);
+            lanes[priority.ordinal()] = lane;
+            byPriority.put(priority, lane);
+        }
+        lanes[0].credit = lanes[0].weight;
+    }
+    
+    public Permit acquire(OrderPriority priority) throws InterruptedException {
+        Waiter waiter = new Waiter();
+        lock.lock();
+        try {
+            byPriority.get(priority).waiters.add(waiter);
+            dispatch();
+            while (!waiter.granted) {
+                try {
+                    granted.await();
+                } catch (InterruptedException e) {
+                    if (waiter.granted) {
+                        // Granted while being interrupted: hand the slot back before giving up
+                        release();
+                    } else {
+                        byPriority.get(priority).waiters.remove(waiter);
+                    }
+                    throw e;
+                }
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return () -> {
+                if (released.compareAndSet(false, true)) {
+                    release();
+                }
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int available() {
+        lock.lock();
+        try {
+            return available;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int waiting(OrderPriority priority) {
+        lock.lock();
+        try {
+            return byPriority.get(priority).waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int slots() {
+        return slots;
+    }
+    
+    private void release() {
+        lock.lock();
+        try {
+            available++;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void dispatch() {
+        boolean any = false;
+        while (available > 0) {
+            Waiter next = next();
+            if (next == null) {
+                break;
+            }
+            next.granted = true;
+            available--;
+            any = true;
+        }
+        if (any) {
+            granted.signalAll();
+        }
+    }
+    
+    private Waiter next() {
+        boolean waiting = false;
+        for (Lane lane : lanes) {
+            waiting |= !lane.waiters.isEmpty();
+        }
+        if (!waiting) {
+            return null;
+        }
+        for (;;) {
+            Lane lane = lanes[current];
+            if (lane.credit > 0 && !lane.waiters.isEmpty()) {
+                lane.credit--;
+                return lane.waiters.poll();
+            }
+            current = (current + 1) % lanes.length;
+            Lane next = lanes[current];
+            next.credit = next.waiters.isEmpty() ? 0 : next.weight;
+        }
+    }
+    
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+    
+    private static final class Lane {
+        
+        private final int weight;
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        private int credit;
+        
+        private Lane(int weight) {
+            this.weight = weight;
+        }
+    }
+    
+    private static final class Waiter {
+        private boolean granted;
+    }
+}
\ No newline at end of file
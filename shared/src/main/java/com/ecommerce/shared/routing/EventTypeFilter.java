@@ -0,0 +1,72 @@
+package com.ecommerce.shared.routing;
+
+import com.ecommerce.shared.config.EventHeaders;
+import com.ecommerce.shared.events.BaseEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+// Decides from the eventType header alone whether a record is wanted. The deserializer consults it
+// to skip parsing unwanted values, and as a RecordFilterStrategy it then discards those records
+// before they reach the listener. Records without the header are always accepted.
+public final class EventTypeFilter implements RecordFilterStrategy<String, BaseEvent> {
+    
+    private static final EventTypeFilter ALL = new EventTypeFilter(null);
+    
+    private final byte[][] acceptedTypes;
+    
+    private EventTypeFilter(byte[][] acceptedTypes) {
+        this.acceptedTypes = acceptedTypes;
+    }
+    
+    public static EventTypeFilter all() {
+        return ALL;
+    }
+    
+    public static EventTypeFilter of(Collection<String> eventTypes) {
+        if (eventTypes == null) {
+            return ALL;
+        }
+        byte[][] acceptedTypes = eventTypes.stream()
+            .map(String::trim)
+            .filter(type -> !type.isEmpty())
+            .distinct()
+            .map(type -> type.getBytes(StandardCharsets.UTF_8))
+            .toArray(byte[][]::new);
+        return acceptedTypes.length > 0 ? new EventTypeFilter(acceptedTypes) : ALL;
+    }
+    
+    public boolean acceptsAll() {
+        return acceptedTypes == null;
+    }
+    
+    public boolean accepts(byte[] eventType) {
+        if (acceptedTypes == null || eventType == null) {
+            return true;
+        }
+        for (byte[] acceptedType : acceptedTypes) {
+            if (Arrays.equals(acceptedType, eventType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public boolean accepts(Headers headers) {
+        if (acceptedTypes == null || headers == null) {
+            return true;
+        }
+        Header header = headers.lastHeader(EventHeaders.EVENT_TYPE);
+        return accepts(header != null ? header.value() : null);
+    }
+    
+    @Override
+    public boolean filter(ConsumerRecord<String, BaseEvent> consumerRecord) {
+        return consumerRecord.value() == null && !accepts(consumerRecord.headers());
+    }
+}
\ No newline at end of file
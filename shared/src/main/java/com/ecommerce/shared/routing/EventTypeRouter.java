@@ -0,0 +1,100 @@
+package com.ecommerce.shared.routing;
+
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.config.EventHeaders;
+import com.ecommerce.shared.events.BaseEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Dispatches consumed events to the handler registered for their eventType header, replacing
+// instanceof chains over the payload. Records produced without headers fall back to the eventType
+// property of the deserialized event.
+public final class EventTypeRouter {
+    
+    private final byte[][] eventTypes;
+    private final Consumer<BaseEvent>[] handlers;
+    private final Consumer<BaseEvent> unhandled;
+    
+    private EventTypeRouter(byte[][] eventTypes, Consumer<BaseEvent>[] handlers, Consumer<BaseEvent> unhandled) {
+        this.eventTypes = eventTypes;
+        this.handlers = handlers;
+        this.unhandled = unhandled;
+    }
+    
+    public static Builder builder(EventJsonCodec codec) {
+        return new Builder(codec);
+    }
+    
+    // Filter accepting exactly the routed event types, for consumers that should not deserialize the rest
+    public EventTypeFilter toFilter() {
+        return EventTypeFilter.of(Arrays.stream(eventTypes)
+            .map(eventType -> new String(eventType, StandardCharsets.UTF_8))
+            .toList());
+    }
+    
+    public boolean dispatch(ConsumerRecord<?, ? extends BaseEvent> consumerRecord) {
+        return dispatch(consumerRecord.headers(), consumerRecord.value());
+    }
+    
+    public boolean dispatch(Headers headers, BaseEvent event) {
+        if (event == null) {
+            return false;
+        }
+        Header header = headers != null ? headers.lastHeader(EventHeaders.EVENT_TYPE) : null;
+        byte[] eventType = header != null
+            ? header.value()
+            : event.getEventType() != null ? event.getEventType().getBytes(StandardCharsets.UTF_8) : null;
+        if (eventType != null) {
+            for (int i = 0; i < eventTypes.length; i++) {
+                if (Arrays.equals(eventTypes[i], eventType)) {
+                    handlers[i].accept(event);
+                    return true;
+                }
+            }
+        }
+        unhandled.accept(event);
+        return false;
+    }
+    
+    public static final class Builder {
+        
+        private final EventJsonCodec codec;
+        private final List<byte[]> eventTypes = new ArrayList<>();
+        private final List<Consumer<BaseEvent>> handlers = new ArrayList<>();
+        private Consumer<BaseEvent> unhandled = event -> { };
+        
+        private Builder(EventJsonCodec codec) {
+            this.codec = codec;
+        }
+        
+        public <T extends BaseEvent> Builder on(Class<T> eventClass, Consumer<? super T> handler) {
+            byte[] eventType = codec.eventTypeHeader(eventClass);
+            for (byte[] registered : eventTypes) {
+                if (Arrays.equals(registered, eventType)) {
+                    throw new IllegalStateException("Handler already registered for " + eventClass.getSimpleName());
+                }
+            }
+            eventTypes.add(eventType);
+            handlers.add(event -> handler.accept(eventClass.cast(event)));
+            return this;
+        }
+        
+        public Builder otherwise(Consumer<BaseEvent> handler) {
+            this.unhandled = handler;
+            return this;
+        }
+        
+        @SuppressWarnings("unchecked")
+        public EventTypeRouter build() {
+            return new EventTypeRouter(eventTypes.toArray(byte[][]::new),
+                handlers.toArray(Consumer[]::new), unhandled);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.ecommerce.shared.scaling;
+
+// Hysteresis state for one listener. Scaling up doubles the consumers, since a backlog during a sale
+// grows faster than one consumer at a time can follow; scaling down removes one at a time. More
+// consumers than assigned partitions would sit idle, so the partition count caps concurrency.
+public class ConcurrencyController {
+    
+    public enum Decision {
+        SCALE_UP, SCALE_DOWN, HOLD, HOLD_LATENCY
+    }
+    
+    private final ScalingPolicy policy;
+    private int overloadedSamples;
+    private int underloadedSamples;
+    private long lastChangeNanos;
+    private boolean changed;
+    private Decision lastDecision = Decision.HOLD;
+    
+    public ConcurrencyController(ScalingPolicy policy) {
+        this.policy = policy;
+    }
+    
+    // Returns the concurrency the listener should run with
+    public int evaluate(ListenerLoad load, int concurrency, long nowNanos) {
+        if (load.lag() > policy.scaleUpLag()) {
+            overloadedSamples++;
+            underloadedSamples = 0;
+        } else if (load.lag() < policy.scaleDownLag()) {
+            underloadedSamples++;
+            overloadedSamples = 0;
+        } else {
+            overloadedSamples = 0;
+            underloadedSamples = 0;
+        }
+        
+        int ceiling = load.partitions() > 0
+            ? Math.max(policy.minConcurrency(), Math.min(policy.maxConcurrency(), load.partitions()))
+            : policy.maxConcurrency();
+        int next = concurrency;
+        lastDecision = Decision.HOLD;
+        if (changed && nowNanos - lastChangeNanos < policy.cooldown().toNanos()) {
+            return concurrency;
+        }
+        if (concurrency > ceiling) {
+            next = ceiling;
+        } else if (overloadedSamples >= policy.scaleUpSamples() && concurrency < ceiling) {
+            // Slow records with a growing backlog point at a saturated dependency; more consumers
+            // would only add to its load
+            if (load.recordLatencyMillis() > policy.maxRecordLatency().toMillis()) {
+                lastDecision = Decision.HOLD_LATENCY;
+                return concurrency;
+            }
+            next = Math.min(ceiling, concurrency * 2);
+        } else if (underloadedSamples >= policy.scaleDownSamples() && concurrency > policy.minConcurrency()) {
+            next = concurrency - 1;
+        }
+        
+        if (next != concurrency) {
+            lastDecision = next > concurrency ? Decision.SCALE_UP : Decision.SCALE_DOWN;
+            lastChangeNanos = nowNanos;
+            changed = true;
+            overloadedSamples = 0;
+            underloadedSamples = 0;
+        }
+        return next;
+    }
+    
+    public Decision getLastDecision() {
+        return lastDecision;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.ecommerce.shared.scaling;
+
+import com.ecommerce.shared.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Periodically samples consumer lag (from the consumers' own records-lag metrics) and per-record
+// listener time (from the PipelineMetrics processing timers) of every running listener container and
+// applies the ConcurrencyController's decision. A container only picks up a new concurrency on start,
+// so a change restarts it, which rebalances its group; the controller's cooldown bounds how often that
+// happens. Worker pools registered for a listener are resized along with it.
+@Slf4j
+public class ListenerConcurrencyScaler {
+    
+    public static final String CONCURRENCY = "kafka.consumer.concurrency";
+    public static final String LAG = "kafka.consumer.lag";
+    public static final String DECISIONS = "kafka.consumer.scaling.decisions";
+    
+    private static final String FETCH_MANAGER_GROUP = "consumer-fetch-manager-metrics";
+    private static final String RECORDS_LAG = "records-lag";
+    
+    private final Supplier<Collection<MessageListenerContainer>> containers;
+    private final ScalingPolicy policy;
+    private final MeterRegistry meterRegistry;
+    private final Duration interval;
+    private final Map<String, ListenerState> listeners = new ConcurrentHashMap<>();
+    private final Map<String, List<WorkerPool>> workerPools = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    
+    public ListenerConcurrencyScaler(Supplier<Collection<MessageListenerContainer>> containers, ScalingPolicy policy,
+                                     MeterRegistry meterRegistry, Duration interval) {
+        this.containers = containers;
+        this.policy = policy;
+        this.meterRegistry = meterRegistry;
+        this.interval = interval;
+    }
+    
+    // Sizes the pool to threadsPerConsumer threads per consumer of the listener, capped at maxThreads
+    public void registerWorkerPool(String listenerId, ThreadPoolExecutor pool, int threadsPerConsumer, int maxThreads) {
+        workerPools.computeIfAbsent(listenerId, id -> new ArrayList<>())
+            .add(new WorkerPool(pool, threadsPerConsumer, maxThreads));
+    }
+    
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "listener-concurrency-scaler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sampleSafely, interval.toMillis(), interval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+    
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+    
+    public void sample() {
+        long now = System.nanoTime();
+        for (MessageListenerContainer container : containers.get()) {
+            if (container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent
+                    && concurrent.isRunning() && concurrent.getListenerId() != null) {
+                sample(concurrent, now);
+            }
+        }
+    }
+    
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            log.warn("Listener concurrency sampling failed", e);
+        }
+    }
+    
+    private void sample(ConcurrentMessageListenerContainer<?, ?> container, long now) {
+        ListenerState state = listeners.computeIfAbsent(container.getListenerId(),
+            id -> new ListenerState(id, container.getConcurrency()));
+        ListenerLoad load = new ListenerLoad(lagOf(container), container.getAssignedPartitions().size(),
+            state.recordLatencyMillis(topicsOf(container)));
+        state.lag = load.lag();
+        
+        int current = container.getConcurrency();
+        int next = state.controller.evaluate(load, current, now);
+        ConcurrencyController.Decision decision = state.controller.getLastDecision();
+        if (decision != ConcurrencyController.Decision.HOLD) {
+            state.decisions.get(decision).increment();
+        }
+        if (next != current) {
+            log.info("Scaling listener {} from {} to {} consumers (lag {}, {} partitions, {} ms per record)",
+                state.listenerId, current, next, load.lag(), load.partitions(), load.recordLatencyMillis());
+            container.stop();
+            container.setConcurrency(next);
+            container.start();
+            resizeWorkerPools(state.listenerId, next);
+        }
+        state.concurrency = next;
+    }
+    
+    private void resizeWorkerPools(String listenerId, int concurrency) {
+        for (WorkerPool workerPool : workerPools.getOrDefault(listenerId, List.of())) {
+            workerPool.resize(concurrency);
+        }
+    }
+    
+    // NaN until the consumers have fetched; partitions without a value count as caught up
+    private static long lagOf(ConcurrentMessageListenerContainer<?, ?> container) {
+        long lag = 0;
+        for (Map<MetricName, ? extends Metric> metrics : container.metrics().values()) {
+            for (Map.Entry<MetricName, ? extends Metric> entry : metrics.entrySet()) {
+                MetricName name = entry.getKey();
+                if (RECORDS_LAG.equals(name.name()) && FETCH_MANAGER_GROUP.equals(name.group())
+                        && name.tags().containsKey("partition")
+                        && entry.getValue().metricValue() instanceof Double value && !value.isNaN()) {
+                    lag += value.longValue();
+                }
+            }
+        }
+        return lag;
+    }
+    
+    private static List<String> topicsOf(ConcurrentMessageListenerContainer<?, ?> container) {
+        String[] topics = container.getContainerProperties().getTopics();
+        return topics != null ? List.of(topics) : List.of();
+    }
+    
+    private final class ListenerState {
+        
+        private final String listenerId;
+        private final ConcurrencyController controller = new ConcurrencyController(policy);
+        private final Map<ConcurrencyController.Decision, Counter> decisions =
+            new EnumMap<>(ConcurrencyController.Decision.class);
+        private final Map<String, long[]> processed = new ConcurrentHashMap<>();
+        private volatile int concurrency;
+        private volatile long lag;
+        
+        private ListenerState(String listenerId, int concurrency) {
+            this.listenerId = listenerId;
+            this.concurrency = concurrency;
+            Gauge.builder(CONCURRENCY, this, state -> state.concurrency)
+                .tag("listener", listenerId)
+                .description("Consumers the listener container runs")
+                .register(meterRegistry);
+            Gauge.builder(LAG, this, state -> state.lag)
+                .tag("listener", listenerId)
+                .description("Records behind the log end across the listener's partitions")
+                .register(meterRegistry);
+            for (ConcurrencyController.Decision decision : ConcurrencyController.Decision.values()) {
+                if (decision != ConcurrencyController.Decision.HOLD) {
+                    decisions.put(decision, Counter.builder(DECISIONS)
+                        .tag("listener", listenerId)
+                        .tag("decision", decision.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry));
+                }
+            }
+        }
+        
+        // Mean listener time per record across the topics since the previous sample
+        private double recordLatencyMillis(List<String> topics) {
+            long count = 0;
+            double totalMillis = 0;
+            for (String topic : topics) {
+                Timer timer = meterRegistry.find(PipelineMetrics.CONSUMER_PROCESSING)
+                    .tags("topic", topic, "outcome", "success")
+                    .timer();
+                if (timer == null) {
+                    continue;
+                }
+                long[] previous = processed.computeIfAbsent(topic, key -> new long[2]);
+                long timerCount = timer.count();
+                long timerNanos = (long) timer.totalTime(TimeUnit.NANOSECONDS);
+                count += timerCount - previous[0];
+                totalMillis += (timerNanos - previous[1]) / 1_000_000.0;
+                previous[0] = timerCount;
+                previous[1] = timerNanos;
+            }
+            return count > 0 ? totalMillis / count : Double.NaN;
+        }
+    }
+    
+    private record WorkerPool(ThreadPoolExecutor pool, int threadsPerConsumer, int maxThreads) {
+        
+        private void resize(int concurrency) {
+            int size = Math.max(1, Math.min(maxThreads, concurrency * threadsPerConsumer));
+            // The core size may never exceed the maximum, so the order depends on the direction
+            if (size > pool.getMaximumPoolSize()) {
+                pool.setMaximumPoolSize(size);
+                pool.setCorePoolSize(size);
+            } else {
+                pool.setCorePoolSize(size);
+                pool.setMaximumPoolSize(size);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.ecommerce.shared.scaling;
+
+// One sample of a listener container: total records behind the log end over its assigned partitions,
+// the number of assigned partitions, and mean listener time per record since the previous sample
+// (NaN when no record was processed).
+public record ListenerLoad(long lag, int partitions, double recordLatencyMillis) {
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.ecommerce.shared.scaling;
+
+import java.time.Duration;
+
+// Bounds and thresholds for adaptive listener concurrency. Lag above scaleUpLag for scaleUpSamples
+// consecutive samples adds consumers, lag below scaleDownLag for scaleDownSamples samples removes
+// one; the band between the two thresholds and the cooldown after each change keep the controller
+// from flapping.
+public record ScalingPolicy(
+    int minConcurrency,
+    int maxConcurrency,
+    long scaleUpLag,
+    long scaleDownLag,
+    Duration maxRecordLatency,
+    int scaleUpSamples,
+    int scaleDownSamples,
+    Duration cooldown
+) {
+    
+    public ScalingPolicy {
+        if (minConcurrency < 1 || maxConcurrency < minConcurrency) {
+            throw new IllegalArgumentException("Concurrency bounds must satisfy 1 <= min <= max");
+        }
+        if (scaleDownLag >= scaleUpLag) {
+            throw new IllegalArgumentException("scaleDownLag must be below scaleUpLag");
+        }
+        if (scaleUpSamples < 1 || scaleDownSamples < 1) {
+            throw new IllegalArgumentException("Sample counts must be positive");
+        }
+    }
+}
\ No newline at end of file
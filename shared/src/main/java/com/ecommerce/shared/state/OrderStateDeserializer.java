@@ -0,0 +1,20 @@
+package com.ecommerce.shared.state;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+// Tombstones (null values) pass through as null
+public class OrderStateDeserializer implements Deserializer<OrderStateSnapshot> {
+    
+    @Override
+    public OrderStateSnapshot deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return OrderStateCodec.decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Can't deserialize order state from topic " + topic, e);
+        }
+    }
+}
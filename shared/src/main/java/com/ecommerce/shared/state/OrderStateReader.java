@@ -0,0 +1,62 @@
+package com.ecommerce.shared.state;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Bootstraps a consumer's view of every order from the compacted order-state topic: reads all partitions
+// from the beginning up to the end offsets seen at the start and hands each snapshot to the sink. No
+// consumer group is used and nothing is committed. After compaction that is about one record per order,
+// where replaying the saga topics takes one per event and needs their full retention. Snapshots of an
+// order can arrive out of order (see OrderStateSnapshot.isNewerThan); the caller then continues from its
+// usual consumer group on the saga topics.
+@Slf4j
+public class OrderStateReader {
+    
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    
+    private final Map<String, Object> consumerConfig;
+    private final String topic;
+    
+    public OrderStateReader(Map<String, Object> consumerConfig, String topic) {
+        this.consumerConfig = new HashMap<>(consumerConfig);
+        this.consumerConfig.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        this.consumerConfig.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.topic = topic;
+    }
+    
+    public long load(Consumer<OrderStateSnapshot> sink) {
+        long started = System.nanoTime();
+        long loaded = 0;
+        try (KafkaConsumer<String, OrderStateSnapshot> consumer = new KafkaConsumer<>(consumerConfig,
+                new StringDeserializer(), new OrderStateDeserializer())) {
+            List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                .map(info -> new TopicPartition(topic, info.partition()))
+                .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> remaining = new HashMap<>(consumer.endOffsets(partitions));
+            remaining.entrySet().removeIf(end -> consumer.position(end.getKey()) >= end.getValue());
+            while (!remaining.isEmpty()) {
+                for (ConsumerRecord<String, OrderStateSnapshot> record : consumer.poll(POLL_TIMEOUT)) {
+                    if (record.value() != null) {
+                        sink.accept(record.value());
+                        loaded++;
+                    }
+                }
+                remaining.entrySet().removeIf(end -> consumer.position(end.getKey()) >= end.getValue());
+            }
+        }
+        log.info("Loaded {} order snapshots from {} in {} ms", loaded, topic, (System.nanoTime() - started) / 1_000_000);
+        return loaded;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.shared.state;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+public class OrderStateSerializer implements Serializer<OrderStateSnapshot> {
+    
+    @Override
+    public byte[] serialize(String topic, OrderStateSnapshot data) {
+        return data == null ? null : OrderStateCodec.encode(data);
+    }
+}
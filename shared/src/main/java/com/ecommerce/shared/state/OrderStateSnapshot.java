@@ -0,0 +1,25 @@
+package com.ecommerce.shared.state;
+
+import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.model.Money;
+
+import java.time.LocalDateTime;
+
+// Latest state of one order as kept on the compacted order-state topic, keyed by orderId. Enough to
+// answer "where is this order and what is it worth" without replaying the saga topics; line items
+// stay on order-created. Timestamps have millisecond precision.
+public record OrderStateSnapshot(
+    String orderId,
+    String customerId,
+    OrderStatus status,
+    Money totalAmount,
+    int itemCount,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+    
+    // Snapshots of one order can be published out of order by concurrent updates; readers keep the newest
+    public boolean isNewerThan(OrderStateSnapshot other) {
+        return other == null || !updatedAt.isBefore(other.updatedAt);
+    }
+}
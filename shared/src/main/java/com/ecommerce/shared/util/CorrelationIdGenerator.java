@@ -1,18 +1,23 @@
 package com.ecommerce.shared.util;
 
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 public final class CorrelationIdGenerator {
     
+    private static final String ORDER_PREFIX = "order-";
+    
     private CorrelationIdGenerator() {
         // Utility class
     }
     
     public static String generate() {
-        return UUID.randomUUID().toString();
+        return Ids.nextId();
     }
     
     public static String generateFromOrderId(String orderId) {
-        return "order-" + orderId + "-" + UUID.randomUUID().toString().substring(0, 8);
+        StringBuilder correlationId = new StringBuilder(ORDER_PREFIX.length() + orderId.length() + 9);
+        correlationId.append(ORDER_PREFIX).append(orderId).append('-');
+        Ids.appendHex(correlationId, ThreadLocalRandom.current().nextInt(), 8);
+        return correlationId.toString();
     }
 }
\ No newline at end of file
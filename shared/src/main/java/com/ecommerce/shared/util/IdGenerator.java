@@ -0,0 +1,11 @@
+package com.ecommerce.shared.util;
+
+import java.nio.ByteBuffer;
+
+public interface IdGenerator {
+    
+    String nextId();
+    
+    // Writes the 16-byte binary form (most significant byte first) at the buffer's position.
+    void nextId(ByteBuffer target);
+}
\ No newline at end of file
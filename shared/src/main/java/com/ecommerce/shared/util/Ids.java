@@ -0,0 +1,65 @@
+package com.ecommerce.shared.util;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+public final class Ids {
+    
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private static volatile IdGenerator generator = new TimeOrderedIdGenerator();
+    
+    private Ids() {
+        // Utility class
+    }
+    
+    public static String nextId() {
+        return generator.nextId();
+    }
+    
+    public static void nextId(ByteBuffer target) {
+        generator.nextId(target);
+    }
+    
+    public static IdGenerator getGenerator() {
+        return generator;
+    }
+    
+    public static void setGenerator(IdGenerator idGenerator) {
+        generator = Objects.requireNonNull(idGenerator, "idGenerator");
+    }
+    
+    // Canonical 8-4-4-4-12 form, written into one char array instead of concatenated from parts
+    public static String format(long high, long low) {
+        char[] chars = new char[36];
+        writeHex(chars, 0, high >>> 32, 8);
+        chars[8] = '-';
+        writeHex(chars, 9, high >>> 16, 4);
+        chars[13] = '-';
+        writeHex(chars, 14, high, 4);
+        chars[18] = '-';
+        writeHex(chars, 19, low >>> 48, 4);
+        chars[23] = '-';
+        writeHex(chars, 24, low, 12);
+        return new String(chars);
+    }
+    
+    public static String format(ByteBuffer source) {
+        long high = source.getLong();
+        long low = source.getLong();
+        return format(high, low);
+    }
+    
+    static void appendHex(StringBuilder target, long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            target.append(HEX[(int) (value >>> shift) & 0xF]);
+        }
+    }
+    
+    private static void writeHex(char[] target, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            target[i] = HEX[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+}
\ No newline at end of file
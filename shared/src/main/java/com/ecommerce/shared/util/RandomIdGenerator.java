@@ -0,0 +1,20 @@
+package com.ecommerce.shared.util;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+// The previous behaviour (random UUIDv4 from SecureRandom), kept for callers that must not leak creation time.
+public class RandomIdGenerator implements IdGenerator {
+    
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+    
+    @Override
+    public void nextId(ByteBuffer target) {
+        UUID uuid = UUID.randomUUID();
+        target.putLong(uuid.getMostSignificantBits());
+        target.putLong(uuid.getLeastSignificantBits());
+    }
+}
\ No newline at end of file
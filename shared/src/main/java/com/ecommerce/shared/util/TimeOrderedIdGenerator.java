@@ -0,0 +1,58 @@
+package com.ecommerce.shared.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// UUIDv7 (RFC 9562): 48-bit unix millis, version, 12-bit sequence in rand_a, variant, 62 random bits.
+// The millis and sequence share one atomic word so ids from a node are strictly increasing; a burst
+// of more than 4096 ids in one millisecond borrows from the next millisecond instead of blocking.
+public class TimeOrderedIdGenerator implements IdGenerator {
+    
+    private static final int SEQUENCE_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+    
+    private final AtomicLong state = new AtomicLong();
+    private final LongSupplier clock;
+    
+    public TimeOrderedIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+    
+    TimeOrderedIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+    
+    @Override
+    public String nextId() {
+        return Ids.format(nextHigh(), nextLow());
+    }
+    
+    @Override
+    public void nextId(ByteBuffer target) {
+        target.putLong(nextHigh());
+        target.putLong(nextLow());
+    }
+    
+    public long nextHigh() {
+        long floor = clock.getAsLong() << SEQUENCE_BITS;
+        long current;
+        long next;
+        do {
+            current = state.get();
+            next = Math.max(current + 1, floor);
+        } while (!state.compareAndSet(current, next));
+        return (next >>> SEQUENCE_BITS) << 16 | VERSION | (next & 0xFFF);
+    }
+    
+    public long nextLow() {
+        return ThreadLocalRandom.current().nextLong() & RANDOM_MASK | VARIANT;
+    }
+    
+    public static long timestampOf(long high) {
+        return high >>> 16;
+    }
+}
\ No newline at end of file
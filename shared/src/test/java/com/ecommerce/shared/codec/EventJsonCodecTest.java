@@ -0,0 +1,127 @@
+package com.ecommerce.shared.codec;
+
+import com.ecommerce.shared.config.EventHeaders;
+import com.ecommerce.shared.enums.NotificationType;
+import com.ecommerce.shared.enums.PaymentStatus;
+import com.ecommerce.shared.events.*;
+import com.ecommerce.shared.model.OrderItem;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJsonCodecTest {
+    
+    private final EventJsonCodec codec = new EventJsonCodec();
+    private final EventJsonSerializer serializer = new EventJsonSerializer(codec);
+    private final EventJsonDeserializer deserializer = new EventJsonDeserializer(codec);
+    
+    private final List<BaseEvent> events = List.of(
+        new OrderCreatedEvent("corr-1", "order-1", "customer-1",
+            List.of(new OrderItem("product-1", "Product", 2, new BigDecimal("10.50"))), new BigDecimal("21.00")),
+        new OrderCancelledEvent("corr-2", "order-2", "customer request"),
+        new InventoryReservedEvent("corr-3", "order-3", Map.of("product-1", 2)),
+        new InventoryInsufficientEvent("corr-4", "order-4", Map.of("product-2", 5), "out of stock"),
+        new PaymentProcessedEvent("corr-5", "order-5", "payment-5", new BigDecimal("123.456789"), PaymentStatus.COMPLETED),
+        new PaymentFailedEvent("corr-6", "order-6", "payment-6", new BigDecimal("10.00"), "declined"),
+        new NotificationSentEvent("corr-7", "order-7", "customer-7", NotificationType.ORDER_CONFIRMATION, "sent", true)
+    );
+    
+    @BeforeEach
+    void truncateTimestamps() {
+        // The wire format carries millisecond precision
+        events.forEach(event -> event.setTimestamp(event.getTimestamp().truncatedTo(ChronoUnit.MILLIS)));
+    }
+    
+    @Test
+    void shouldRegisterEveryEventSubtype() {
+        assertEquals(events.size(), codec.getEventTypes().size());
+        for (BaseEvent event : events) {
+            assertEquals(event.getClass(), codec.getEventClass(event.getEventType()));
+        }
+    }
+    
+    @Test
+    void shouldRoundTripEveryEventTypeThroughTypedReaders() {
+        for (BaseEvent event : events) {
+            // Given
+            RecordHeaders headers = new RecordHeaders();
+            
+            // When
+            byte[] data = serializer.serialize("topic", headers, event);
+            BaseEvent deserialized = deserializer.deserialize("topic", headers, data);
+            
+            // Then
+            assertEquals(event.getEventType(),
+                new String(headers.lastHeader(EventHeaders.EVENT_TYPE).value(), StandardCharsets.UTF_8));
+            assertEquals(event, deserialized);
+        }
+    }
+    
+    @Test
+    void shouldFallBackToPolymorphicReaderWithoutHeader() {
+        for (BaseEvent event : events) {
+            byte[] data = serializer.serialize("topic", event);
+            
+            assertEquals(event, deserializer.deserialize("topic", new RecordHeaders(), data));
+        }
+    }
+    
+    @Test
+    void shouldStayWireCompatibleWithSpringJsonSerde() {
+        JsonSerializer<BaseEvent> springSerializer = new JsonSerializer<>();
+        JsonDeserializer<BaseEvent> springDeserializer = new JsonDeserializer<>(BaseEvent.class);
+        springDeserializer.addTrustedPackages("com.ecommerce.shared.events");
+        
+        for (BaseEvent event : events) {
+            // Given
+            RecordHeaders headers = new RecordHeaders();
+            headers.add(EventHeaders.EVENT_TYPE, event.getEventType().getBytes(StandardCharsets.UTF_8));
+            
+            // When
+            BaseEvent fromSpring = deserializer.deserialize("topic", headers, springSerializer.serialize("topic", event));
+            BaseEvent toSpring = springDeserializer.deserialize("topic", serializer.serialize("topic", event));
+            
+            // Then
+            assertEquals(event, fromSpring);
+            assertEquals(event, toSpring);
+        }
+    }
+    
+    @Test
+    void shouldReuseBufferAcrossSerializations() {
+        byte[] first = serializer.serialize("topic", events.get(0));
+        byte[] second = serializer.serialize("topic", events.get(1));
+        byte[] firstAgain = serializer.serialize("topic", events.get(0));
+        
+        assertArrayEquals(first, firstAgain);
+        assertEquals(events.get(1), deserializer.deserialize("topic", second));
+    }
+    
+    @Test
+    void shouldIgnoreUnknownPropertiesAndNullPayloads() {
+        // Given
+        byte[] data = "{\"eventType\":\"ORDER_CANCELLED\",\"orderId\":\"order-1\",\"addedLater\":true}"
+            .getBytes(StandardCharsets.UTF_8);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(EventHeaders.EVENT_TYPE, "ORDER_CANCELLED".getBytes(StandardCharsets.UTF_8));
+        
+        // When
+        BaseEvent event = deserializer.deserialize("topic", headers, data);
+        
+        // Then
+        assertInstanceOf(OrderCancelledEvent.class, event);
+        assertEquals("order-1", ((OrderCancelledEvent) event).getOrderId());
+        assertNull(deserializer.deserialize("topic", headers, (byte[]) null));
+        assertNull(serializer.serialize("topic", new RecordHeaders(), null));
+    }
+}
\ No newline at end of file
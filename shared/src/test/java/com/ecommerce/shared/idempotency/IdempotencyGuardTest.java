@@ -0,0 +1,121 @@
+package com.ecommerce.shared.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyGuardTest {
+    
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    
+    @TempDir
+    Path directory;
+    
+    private final AtomicLong clock = new AtomicLong(Duration.ofDays(100).toMillis());
+    
+    @Test
+    void shouldDetectRedeliveredEvents() throws Exception {
+        // Given
+        IdempotencyGuard guard = newGuard();
+        String eventId = UUID.randomUUID().toString();
+        
+        // When
+        boolean firstDelivery = guard.isDuplicate(eventId);
+        guard.markProcessed(eventId);
+        boolean redelivery = guard.isDuplicate(eventId);
+        
+        // Then
+        assertFalse(firstDelivery);
+        assertTrue(redelivery);
+        assertEquals(1, guard.getDuplicates());
+        assertEquals(0.5, guard.getDuplicateRate());
+    }
+    
+    @Test
+    void shouldRememberProcessedEventsAcrossRestarts() throws Exception {
+        // Given
+        IdempotencyGuard guard = newGuard();
+        for (int i = 0; i < 1000; i++) {
+            guard.markProcessed("event-" + i);
+        }
+        
+        // When
+        IdempotencyGuard restarted = newGuard();
+        
+        // Then
+        assertTrue(restarted.isDuplicate("event-42"));
+        assertTrue(restarted.isDuplicate("event-999"));
+        assertFalse(restarted.isDuplicate("event-1000"));
+    }
+    
+    @Test
+    void shouldForgetEventsOutsideRetentionWindow() throws Exception {
+        // Given
+        IdempotencyGuard guard = newGuard();
+        String eventId = UUID.randomUUID().toString();
+        guard.markProcessed(eventId);
+        
+        // When
+        clock.addAndGet(3 * HOUR);
+        guard.isDuplicate("unrelated");
+        clock.addAndGet(3 * HOUR);
+        
+        // Then
+        assertFalse(guard.isDuplicate(eventId));
+    }
+    
+    @Test
+    void shouldDetectDuplicatesForTheWholeRetentionWindow() throws Exception {
+        // Given an id processed just before the first rotation
+        IdempotencyGuard guard = newGuard();
+        String eventId = UUID.randomUUID().toString();
+        clock.addAndGet(2 * HOUR - 60_000);
+        guard.markProcessed(eventId);
+        
+        // When it is redelivered 0.75 x retention later, after two rotations
+        clock.addAndGet(60_000);
+        guard.isDuplicate("unrelated");
+        clock.addAndGet(2 * HOUR);
+        guard.isDuplicate("unrelated");
+        clock.addAndGet(HOUR - 60_000);
+        
+        // Then
+        assertTrue(guard.isDuplicate(eventId));
+    }
+    
+    @Test
+    void shouldKeepFalsePositivesRare() throws Exception {
+        // Given
+        IdempotencyGuard guard = newGuard();
+        for (int i = 0; i < 5000; i++) {
+            guard.markProcessed(UUID.randomUUID().toString());
+        }
+        
+        // When
+        for (int i = 0; i < 10000; i++) {
+            assertFalse(guard.isDuplicate(UUID.randomUUID().toString()));
+        }
+        
+        // Then
+        assertTrue(guard.getFalsePositives() < 500);
+    }
+    
+    @Test
+    void shouldMapUuidsToTheirBinaryValue() {
+        UUID uuid = UUID.randomUUID();
+        
+        assertEquals(uuid.getMostSignificantBits(), EventIdKey.high(uuid.toString()));
+        assertEquals(uuid.getLeastSignificantBits(), EventIdKey.low(uuid.toString()));
+    }
+    
+    private IdempotencyGuard newGuard() throws Exception {
+        ProcessedEventStore store = new ProcessedEventStore(directory, HOUR, 4 * HOUR, 256);
+        return new IdempotencyGuard(new RotatingBloomFilter(10_000, 0.01), store, 4 * HOUR, clock::get);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.ecommerce.shared.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJournalTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void shouldReplayRecordsFromAnySequenceAcrossSegments() throws Exception {
+        // Given
+        EventJournal journal = new EventJournal(directory, 4096, 256);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, journal.append("order-created", i % 3, 1000 + i, i, payload(i)));
+        }
+        
+        // When
+        List<JournalRecord> records = new ArrayList<>();
+        long replayed = journal.replay(150, records::add);
+        
+        // Then
+        assertTrue(journal.segmentCount() > 1);
+        assertEquals(50, replayed);
+        assertEquals(150, records.get(0).getSequence());
+        assertEquals(1150, records.get(0).getOffset());
+        assertEquals("order-created", records.get(0).getTopic());
+        assertEquals("event-199", new String(records.get(49).getPayload(), StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void shouldContinueSequenceAfterReopen() throws Exception {
+        // Given
+        EventJournal journal = new EventJournal(directory, 4096, 256);
+        for (int i = 0; i < 120; i++) {
+            journal.append("order-created", 0, i, i, payload(i));
+        }
+        journal.close();
+        
+        // When
+        EventJournal reopened = new EventJournal(directory, 4096, 256);
+        long sequence = reopened.append("order-created", 0, 120, 120, payload(120));
+        
+        // Then
+        assertEquals(120, sequence);
+        assertEquals(121, reopened.replay(0, record -> { }));
+    }
+    
+    @Test
+    void shouldTruncateCorruptedTailOnReopen() throws Exception {
+        // Given
+        EventJournal journal = new EventJournal(directory, 1 << 20, 256);
+        for (int i = 0; i < 10; i++) {
+            journal.append("payment-processed", 0, i, i, payload(i));
+        }
+        journal.close();
+        
+        // Corrupt the payload of the last record
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("00000000000000000000.log").toFile(), "rw")) {
+            long position = 0;
+            for (int i = 0; i < 9; i++) {
+                file.seek(position);
+                position += 8 + file.readInt();
+            }
+            file.seek(position + 20);
+            file.write(0x7F);
+        }
+        
+        // When
+        EventJournal reopened = new EventJournal(directory, 1 << 20, 256);
+        
+        // Then
+        assertEquals(9, reopened.nextSequence());
+        assertEquals(9, reopened.replay(0, record -> { }));
+    }
+    
+    @Test
+    void shouldDeleteSegmentsCoveredBySnapshot() throws Exception {
+        // Given
+        EventJournal journal = new EventJournal(directory, 4096, 256);
+        for (int i = 0; i < 200; i++) {
+            journal.append("order-created", 0, i, i, payload(i));
+        }
+        int segments = journal.segmentCount();
+        
+        // When
+        journal.deleteSegmentsBefore(150);
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(150, records::add);
+        
+        // Then
+        assertTrue(journal.segmentCount() < segments);
+        assertEquals(50, records.size());
+    }
+    
+    @Test
+    void shouldFailReplayFromDeletedSegments() throws Exception {
+        // Given
+        EventJournal journal = new EventJournal(directory, 4096, 256);
+        for (int i = 0; i < 200; i++) {
+            journal.append("order-created", 0, i, i, payload(i));
+        }
+        journal.deleteSegmentsBefore(150);
+        
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> journal.replay(0, record -> { }));
+    }
+    
+    @Test
+    void shouldKeepIndexEntryAtStartOfSegmentAcrossReopens() throws Exception {
+        // Given
+        EventJournal journal = new EventJournal(directory, 4096, 16);
+        for (int i = 0; i < 10; i++) {
+            journal.append("order-created", 0, i, i, payload(i));
+        }
+        journal.close();
+        EventJournal reopened = new EventJournal(directory, 4096, 16);
+        for (int i = 10; i < 12; i++) {
+            reopened.append("order-created", 0, i, i, payload(i));
+        }
+        reopened.close();
+        
+        // When
+        EventJournal journalAgain = new EventJournal(directory, 4096, 16);
+        List<JournalRecord> records = new ArrayList<>();
+        long replayed = journalAgain.replay(5, records::add);
+        
+        // Then
+        assertEquals(12, journalAgain.nextSequence());
+        assertEquals(7, replayed);
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(5 + i, records.get(i).getSequence());
+        }
+    }
+    
+    private static byte[] payload(int i) {
+        return ("event-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.ecommerce.shared.journal;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JournalBootstrapTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void shouldRestoreFromSnapshotAndSeekPastJournaledOffsets() throws Exception {
+        // Given
+        CountingState state = new CountingState();
+        JournalBootstrap bootstrap = newBootstrap(state);
+        bootstrap.restore();
+        for (long offset = 0; offset < 100; offset++) {
+            bootstrap.append(new ConsumerRecord<>("order-created", 0, offset, "key", "value"), new byte[] {1});
+            state.count++;
+            if (offset == 59) {
+                bootstrap.snapshot();
+            }
+        }
+        
+        // When
+        CountingState restoredState = new CountingState();
+        JournalBootstrap restarted = newBootstrap(restoredState);
+        long replayed = restarted.restore();
+        
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+        restarted.onPartitionsAssigned(Map.of(
+            new TopicPartition("order-created", 0), 0L,
+            new TopicPartition("order-created", 1), 0L), callback);
+        
+        // Then
+        assertEquals(40, replayed);
+        assertEquals(100, restoredState.count);
+        verify(callback).seek("order-created", 0, 100L);
+        verifyNoMoreInteractions(callback);
+    }
+    
+    @Test
+    void shouldRestoreFromOlderSnapshotWhenNewestIsCorrupt() throws Exception {
+        // Given
+        CountingState state = new CountingState();
+        JournalBootstrap bootstrap = newBootstrap(state);
+        bootstrap.restore();
+        for (long offset = 0; offset < 300; offset++) {
+            bootstrap.append(new ConsumerRecord<>("order-created", 0, offset, "key", "value"), new byte[] {1});
+            state.count++;
+            if (offset == 149 || offset == 249) {
+                bootstrap.snapshot();
+            }
+        }
+        Path newest = directory.resolve("snapshots").resolve(String.format("snapshot-%020d.snap", 250));
+        Files.write(newest, new byte[] {0, 1, 2, 3, 4, 5, 6, 7});
+        
+        // When
+        CountingState restoredState = new CountingState();
+        long replayed = newBootstrap(restoredState).restore();
+        
+        // Then
+        assertEquals(150, replayed);
+        assertEquals(300, restoredState.count);
+    }
+    
+    private JournalBootstrap newBootstrap(CountingState state) throws Exception {
+        return new JournalBootstrap(
+            new EventJournal(directory.resolve("segments"), 4096, 256),
+            new JournalSnapshotStore(directory.resolve("snapshots"), 2),
+            state);
+    }
+    
+    private static class CountingState implements JournalStateHandler {
+        
+        private long count;
+        
+        @Override
+        public byte[] snapshotState() {
+            return ByteBuffer.allocate(Long.BYTES).putLong(count).array();
+        }
+        
+        @Override
+        public void restoreState(byte[] state) {
+            count = ByteBuffer.wrap(state).getLong();
+        }
+        
+        @Override
+        public void apply(JournalRecord record) {
+            count++;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.ecommerce.shared.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLoggingTest {
+    
+    @AfterEach
+    void tearDown() {
+        CorrelationDebug.getEnabled().keySet().forEach(CorrelationDebug::disable);
+        MDC.clear();
+    }
+    
+    @Test
+    void shouldSampleConfiguredFractionPerEventType() {
+        // Given
+        LogSampler sampler = new LogSampler(0.01, Map.of("ORDER_CANCELLED", 0.5));
+        int createdSampled = 0;
+        int cancelledSampled = 0;
+        
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            String correlationId = "corr-" + i;
+            createdSampled += sampler.sample("ORDER_CREATED", correlationId) ? 1 : 0;
+            cancelledSampled += sampler.sample("ORDER_CANCELLED", correlationId) ? 1 : 0;
+        }
+        
+        // Then
+        assertEquals(1_000, createdSampled, 300);
+        assertEquals(50_000, cancelledSampled, 1_500);
+    }
+    
+    @Test
+    void shouldMakeTheSameDecisionForACorrelationIdEverywhere() {
+        LogSampler first = new LogSampler(0.2, Map.of());
+        LogSampler second = new LogSampler(0.2, Map.of());
+        
+        for (int i = 0; i < 1_000; i++) {
+            String correlationId = "corr-" + i;
+            assertEquals(first.sample("PAYMENT_PROCESSED", correlationId), second.sample("INVENTORY_RESERVED", correlationId));
+        }
+    }
+    
+    @Test
+    void shouldHonourZeroAndFullRates() {
+        LogSampler sampler = new LogSampler(0.0, Map.of("ORDER_CREATED", 1.0));
+        
+        assertFalse(sampler.sample("PAYMENT_FAILED", "corr-1"));
+        assertTrue(sampler.sample("ORDER_CREATED", "corr-1"));
+        assertThrows(IllegalArgumentException.class, () -> new LogSampler(1.5, Map.of()));
+    }
+    
+    @Test
+    void shouldTraceEnabledIdsUntilTheyExpire() throws InterruptedException {
+        // Given
+        CorrelationDebug.enable("order-1", Duration.ofMinutes(5));
+        CorrelationDebug.enable("corr-2", Duration.ofMillis(1));
+        Thread.sleep(5);
+        
+        // Then
+        assertTrue(CorrelationDebug.isEnabled(null, "order-1"));
+        assertFalse(CorrelationDebug.isEnabled("corr-2", null));
+        assertEquals(Map.of("order-1", CorrelationDebug.getEnabled().get("order-1")), CorrelationDebug.getEnabled());
+        
+        CorrelationDebug.disable("order-1");
+        assertFalse(CorrelationDebug.isActive());
+    }
+    
+    @Test
+    void shouldCapTracedIdsAndPurgeExpiredOnes() {
+        // Given
+        CorrelationDebug.enable("expired", Duration.ofMillis(-1));
+        for (int i = 1; i < CorrelationDebug.MAX_ENABLED; i++) {
+            CorrelationDebug.enable("order-" + i, Duration.ofMinutes(5));
+        }
+        
+        // When
+        boolean enabledOneMore = CorrelationDebug.enable("last", Duration.ofMinutes(5));
+        boolean enabledBeyondCap = CorrelationDebug.enable("one-too-many", Duration.ofMinutes(5));
+        
+        // Then
+        assertTrue(enabledOneMore);
+        assertFalse(enabledBeyondCap);
+        assertFalse(CorrelationDebug.getEnabled().containsKey("expired"));
+        assertEquals(CorrelationDebug.MAX_ENABLED, CorrelationDebug.getEnabled().size());
+    }
+    
+    @Test
+    void shouldLogEverythingForTracedOrderOnly() {
+        // Given
+        LoggerContext context = new LoggerContext();
+        Logger logger = context.getLogger("com.ecommerce.order.service.OrderService");
+        logger.setLevel(Level.INFO);
+        CorrelationDebugTurboFilter filter = new CorrelationDebugTurboFilter();
+        CorrelationDebug.enable("order-1", Duration.ofMinutes(5));
+        
+        // When & Then
+        try (LogContext ignored = LogContext.forOrder("order-1")) {
+            assertEquals(FilterReply.ACCEPT, filter.decide(null, logger, Level.DEBUG, "debug", null, null));
+        }
+        try (LogContext ignored = LogContext.forOrder("order-2")) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.DEBUG, "debug", null, null));
+        }
+        assertNull(MDC.get(CorrelationDebug.MDC_ORDER_ID));
+    }
+    
+    @Test
+    void shouldRestoreOuterLogContext() {
+        try (LogContext outer = LogContext.open("corr-1", "order-1")) {
+            try (LogContext inner = LogContext.forOrder("order-2")) {
+                assertEquals("corr-1", MDC.get(CorrelationDebug.MDC_CORRELATION_ID));
+                assertEquals("order-2", MDC.get(CorrelationDebug.MDC_ORDER_ID));
+            }
+            assertEquals("order-1", MDC.get(CorrelationDebug.MDC_ORDER_ID));
+        }
+        assertNull(MDC.get(CorrelationDebug.MDC_CORRELATION_ID));
+    }
+}
\ No newline at end of file
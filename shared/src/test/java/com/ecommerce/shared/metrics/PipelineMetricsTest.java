@@ -0,0 +1,117 @@
+package com.ecommerce.shared.metrics;
+
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.OrderCancelledEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineMetricsTest {
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PipelineMetrics metrics = new PipelineMetrics(registry, "test-group");
+    
+    @Test
+    void shouldRecordLagSizeAndProcessingForConsumedRecord() {
+        // Given
+        ConsumerMetricsInterceptor interceptor = new ConsumerMetricsInterceptor(metrics);
+        ConsumerRecord<String, BaseEvent> record = record(System.currentTimeMillis() - 2_000, 512);
+        
+        // When
+        interceptor.intercept(record, null);
+        interceptor.success(record, null);
+        interceptor.intercept(record, null);
+        interceptor.failure(record, new IllegalStateException("listener failed"), null);
+        
+        // Then
+        assertEquals(2, registry.get(PipelineMetrics.CONSUMER_RECORD_LAG)
+            .tags("group", "test-group", "topic", KafkaTopics.ORDER_CANCELLED).timer().count());
+        assertTrue(registry.get(PipelineMetrics.CONSUMER_RECORD_LAG).timer().max(TimeUnit.MILLISECONDS) >= 2_000);
+        assertEquals(1, registry.get(PipelineMetrics.CONSUMER_PROCESSING).tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get(PipelineMetrics.CONSUMER_PROCESSING).tag("outcome", "failure").timer().count());
+        assertEquals(1024.0, registry.get(PipelineMetrics.EVENT_SIZE)
+            .tags("eventType", "ORDER_CANCELLED", "direction", "consumed").summary().totalAmount());
+    }
+    
+    @Test
+    void shouldRecordBatchProcessingPerTopic() {
+        // Given
+        ConsumerMetricsInterceptor interceptor = new ConsumerMetricsInterceptor(metrics);
+        ConsumerRecord<String, BaseEvent> record = record(System.currentTimeMillis(), 128);
+        ConsumerRecords<String, BaseEvent> records = new ConsumerRecords<>(
+            Map.of(new TopicPartition(record.topic(), record.partition()), List.of(record, record)));
+        
+        // When
+        interceptor.intercept(records, null);
+        interceptor.success(records, null);
+        
+        // Then
+        assertEquals(2, registry.get(PipelineMetrics.CONSUMER_RECORD_LAG).timer().count());
+        assertEquals(1, registry.get(PipelineMetrics.CONSUMER_PROCESSING)
+            .tags("topic", KafkaTopics.ORDER_CANCELLED, "outcome", "success").timer().count());
+    }
+    
+    @Test
+    void shouldRecordProducedSizeAndErrorsPerTopic() {
+        // Given
+        MetricsProducerListener listener = new MetricsProducerListener(metrics);
+        ProducerRecord<String, BaseEvent> record = new ProducerRecord<>(KafkaTopics.ORDER_CANCELLED, "order-1",
+            new OrderCancelledEvent("corr-1", "order-1", "customer request"));
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition(KafkaTopics.ORDER_CANCELLED, 0), 0, 0,
+            System.currentTimeMillis(), 7, 300);
+        
+        // When
+        listener.onSuccess(record, metadata);
+        listener.onError(record, null, new TimeoutException("expired"));
+        listener.onError(record, null, new TimeoutException("expired"));
+        
+        // Then
+        assertEquals(300.0, registry.get(PipelineMetrics.EVENT_SIZE)
+            .tags("eventType", "ORDER_CANCELLED", "direction", "produced").summary().totalAmount());
+        assertEquals(2.0, registry.get(PipelineMetrics.PRODUCER_SEND_ERRORS)
+            .tags("topic", KafkaTopics.ORDER_CANCELLED, "exception", "TimeoutException").counter().count());
+    }
+    
+    @Test
+    void shouldRecordEachPhaseAndTheWholeOperation() {
+        // Given
+        PhaseTimer timer = new PhaseTimer(registry, "test.operation", "first", "second");
+        
+        // When
+        PhaseTimer.Sample succeeded = timer.start();
+        succeeded.endPhase("first");
+        succeeded.endPhase("second");
+        succeeded.success();
+        PhaseTimer.Sample failed = timer.start();
+        failed.endPhase("first");
+        failed.failure();
+        
+        // Then
+        assertEquals(2, registry.get("test.operation.phase").tag("phase", "first").timer().count());
+        assertEquals(1, registry.get("test.operation.phase").tag("phase", "second").timer().count());
+        assertEquals(1, registry.get("test.operation").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("test.operation").tag("outcome", "failure").timer().count());
+        assertThrows(IllegalArgumentException.class, () -> timer.start().endPhase("third"));
+    }
+    
+    private static ConsumerRecord<String, BaseEvent> record(long timestamp, int size) {
+        OrderCancelledEvent event = new OrderCancelledEvent("corr-1", "order-1", "customer request");
+        return new ConsumerRecord<>(KafkaTopics.ORDER_CANCELLED, 0, 42L, timestamp, TimestampType.CREATE_TIME,
+            7, size, "order-1", event, new RecordHeaders(), Optional.empty());
+    }
+}
\ No newline at end of file
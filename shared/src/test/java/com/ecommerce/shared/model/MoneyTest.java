@@ -0,0 +1,90 @@
+package com.ecommerce.shared.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+    
+    @Test
+    void shouldKeepCurrencyAmountsInMinorUnits() {
+        // Given
+        Money price = Money.of(new BigDecimal("10.5"));
+        
+        // When
+        Money total = price.times(3).plus(Money.ofMinor(25));
+        
+        // Then
+        assertTrue(total.isCompact());
+        assertEquals(3175, total.getMinorUnits());
+        assertEquals(new BigDecimal("31.75"), total.toBigDecimal());
+    }
+    
+    @Test
+    void shouldFallBackToBigDecimalOnOverflow() {
+        // Given
+        Money large = Money.ofMinor(Long.MAX_VALUE);
+        
+        // When
+        Money doubled = large.plus(large);
+        Money tripled = large.times(3);
+        
+        // Then
+        assertFalse(doubled.isCompact());
+        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(BigDecimal.valueOf(2)), doubled.toBigDecimal());
+        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(BigDecimal.valueOf(3)), tripled.toBigDecimal());
+        assertThrows(ArithmeticException.class, doubled::getMinorUnits);
+    }
+    
+    @Test
+    void shouldPreserveExcessPrecision() {
+        // Given
+        Money precise = Money.of(new BigDecimal("123.456789"));
+        
+        // When / Then
+        assertFalse(precise.isCompact());
+        assertEquals(new BigDecimal("123.456789"), precise.toBigDecimal());
+        assertEquals(12346, precise.toMinorUnits(RoundingMode.HALF_UP));
+        assertEquals(Money.ofMinor(12300), Money.of(new BigDecimal("123.0000")));
+    }
+    
+    @Test
+    void shouldAccumulateAcrossOverflow() {
+        // Given
+        Money.Accumulator accumulator = Money.accumulator();
+        
+        // When
+        accumulator.add(Long.MAX_VALUE).add(Long.MAX_VALUE).add(Money.of(new BigDecimal("0.001")));
+        
+        // Then
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(BigDecimal.valueOf(2)).add(new BigDecimal("0.001"));
+        assertEquals(0, expected.compareTo(accumulator.total().toBigDecimal()));
+    }
+    
+    @Test
+    void shouldRejectMixedCurrencies() {
+        Money euros = Money.ofMinor(100, Currency.getInstance("EUR"));
+        
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(100).plus(euros));
+    }
+    
+    @Test
+    void shouldCacheOrderItemTotalUntilChanged() {
+        // Given
+        OrderItem item = new OrderItem("product-1", "Test Product", 2, new BigDecimal("10.00"));
+        Money total = item.getTotal();
+        
+        // When
+        Money cached = item.getTotal();
+        item.setQuantity(3);
+        
+        // Then
+        assertSame(total, cached);
+        assertEquals(Money.ofMinor(3000), item.getTotal());
+        assertEquals(item, new OrderItem("product-1", "Test Product", 3, new BigDecimal("10.00")));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.ecommerce.shared.parallel;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffsetTrackerTest {
+    
+    private final OffsetTracker tracker = new OffsetTracker();
+    
+    @Test
+    void shouldAdvanceOnlyOverContiguousCompletedPrefix() {
+        // Given
+        for (long offset = 10; offset < 15; offset++) {
+            tracker.register(offset);
+        }
+        
+        // When
+        boolean movedByLater = tracker.complete(12);
+        long afterLater = tracker.committable();
+        boolean movedByFirst = tracker.complete(10);
+        long afterFirst = tracker.committable();
+        tracker.complete(11);
+        long afterGapFilled = tracker.committable();
+        
+        // Then
+        assertFalse(movedByLater);
+        assertEquals(10, afterLater);
+        assertTrue(movedByFirst);
+        assertEquals(11, afterFirst);
+        assertEquals(13, afterGapFilled);
+        assertEquals(2, tracker.pending());
+    }
+    
+    @Test
+    void shouldSkipOffsetsThatWereNeverRegistered() {
+        // Given
+        tracker.register(100);
+        tracker.register(5_000);
+        
+        // When
+        tracker.complete(100);
+        long pendingHigh = tracker.committable();
+        tracker.complete(5_000);
+        long allDone = tracker.committable();
+        
+        // Then
+        assertEquals(5_000, pendingHigh);
+        assertEquals(5_001, allDone);
+        assertEquals(0, tracker.pending());
+    }
+    
+    @Test
+    void shouldTrackOffsetsAcrossWordBoundaries() {
+        // Given
+        for (long offset = 60; offset < 200; offset++) {
+            tracker.register(offset);
+        }
+        
+        // When
+        for (long offset = 199; offset > 60; offset--) {
+            tracker.complete(offset);
+        }
+        long blocked = tracker.committable();
+        tracker.complete(60);
+        
+        // Then
+        assertEquals(60, blocked);
+        assertEquals(200, tracker.committable());
+    }
+    
+    @Test
+    void shouldRejectOffsetsBelowTheRegisteredRange() {
+        // Given
+        tracker.register(42);
+        
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> tracker.register(41));
+        assertFalse(tracker.complete(7));
+    }
+}
\ No newline at end of file
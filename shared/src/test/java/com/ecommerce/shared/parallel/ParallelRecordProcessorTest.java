@@ -0,0 +1,123 @@
+package com.ecommerce.shared.parallel;
+
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelRecordProcessorTest {
+    
+    private static final String TOPIC = "payments";
+    
+    private final ParallelRecordProcessor processor = new ParallelRecordProcessor(8, 100,
+        new PipelineMetrics(new SimpleMeterRegistry(), "test-group"), null);
+    private final List<Long> acknowledged = new CopyOnWriteArrayList<>();
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        processor.close();
+    }
+    
+    @Test
+    void shouldKeepOrderPerKeyWhileRunningKeysInParallel() throws Exception {
+        // Given
+        Map<String, List<Long>> seen = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(40);
+        
+        // When
+        for (long offset = 0; offset < 40; offset++) {
+            processor.submit(record(offset, "order-" + offset % 4), ack(offset), record -> {
+                Thread.sleep(5);
+                seen.computeIfAbsent(record.value().getOrderId(), key -> new CopyOnWriteArrayList<>())
+                    .add(record.offset());
+                done.countDown();
+            });
+        }
+        
+        // Then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(4, seen.size());
+        seen.values().forEach(offsets -> assertEquals(offsets.stream().sorted().toList(), offsets));
+        awaitCommittable(40);
+    }
+    
+    @Test
+    void shouldNotAcknowledgePastARecordStillInFlight() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        processor.submit(record(0, "slow"), ack(0), record -> release.await());
+        for (long offset = 1; offset < 5; offset++) {
+            processor.submit(record(offset, "fast-" + offset), ack(offset), record -> { });
+        }
+        
+        // When
+        Thread.sleep(200);
+        long whileBlocked = processor.committable(new TopicPartition(TOPIC, 0));
+        List<Long> acknowledgedWhileBlocked = List.copyOf(acknowledged);
+        release.countDown();
+        
+        // Then
+        assertEquals(0, whileBlocked);
+        assertTrue(acknowledgedWhileBlocked.isEmpty());
+        awaitCommittable(5);
+        assertEquals(List.of(4L), acknowledged);
+    }
+    
+    @Test
+    void shouldCompleteRecordsWhoseHandlerFailed() throws Exception {
+        // Given
+        processor.submit(record(0, "order-1"), ack(0), record -> {
+            throw new IllegalStateException("gateway unavailable");
+        });
+        
+        // When
+        processor.submit(record(1, "order-1"), ack(1), record -> { });
+        
+        // Then
+        awaitCommittable(2);
+        awaitInFlight(0);
+        assertEquals(0, processor.inFlight());
+    }
+    
+    // The worker releases its slot just after completing the record
+    private void awaitInFlight(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (processor.inFlight() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+    
+    private void awaitCommittable(long expected) throws InterruptedException {
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (processor.committable(partition) != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, processor.committable(partition));
+    }
+    
+    private Acknowledgment ack(long offset) {
+        return () -> acknowledged.add(offset);
+    }
+    
+    private static ConsumerRecord<String, BaseEvent> record(long offset, String orderId) {
+        OrderCreatedEvent event = new OrderCreatedEvent("corr-" + offset, orderId, "customer-1", List.of(),
+            BigDecimal.TEN);
+        return new ConsumerRecord<>(TOPIC, 0, offset, orderId, event);
+    }
+}
\ No newline at end of file
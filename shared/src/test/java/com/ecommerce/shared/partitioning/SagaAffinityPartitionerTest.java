@@ -0,0 +1,127 @@
+package com.ecommerce.shared.partitioning;
+
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.codec.EventJsonSerializer;
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.enums.NotificationType;
+import com.ecommerce.shared.enums.PaymentStatus;
+import com.ecommerce.shared.events.*;
+import com.ecommerce.shared.model.OrderItem;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedKafka(partitions = SagaAffinityPartitionerTest.PARTITIONS, topics = {
+    KafkaTopics.ORDER_CREATED,
+    KafkaTopics.ORDER_CANCELLED,
+    KafkaTopics.INVENTORY_RESERVED,
+    KafkaTopics.INVENTORY_INSUFFICIENT,
+    KafkaTopics.PAYMENT_PROCESSED,
+    KafkaTopics.PAYMENT_FAILED,
+    KafkaTopics.NOTIFICATION_SENT
+})
+class SagaAffinityPartitionerTest {
+    
+    static final int PARTITIONS = 6;
+    private static final int ORDERS = 50;
+    
+    @Test
+    void shouldCoPartitionAllEventsOfAnOrderAcrossSagaTopics(EmbeddedKafkaBroker broker) throws Exception {
+        // Given - record keys are random so only the partitioner can line the events up
+        Map<String, Set<Integer>> partitionsByOrder = new HashMap<>();
+        
+        // When
+        try (KafkaProducer<String, BaseEvent> producer = producer(broker, PartitionAffinity.ORDER)) {
+            for (int i = 0; i < ORDERS; i++) {
+                String orderId = "order-" + i;
+                for (BaseEvent event : sagaEvents(orderId, "customer-" + (i % 7))) {
+                    int partition = producer.send(new ProducerRecord<>(topicOf(event), UUID.randomUUID().toString(), event))
+                        .get().partition();
+                    partitionsByOrder.computeIfAbsent(orderId, id -> new HashSet<>()).add(partition);
+                }
+            }
+        }
+        
+        // Then
+        assertEquals(ORDERS, partitionsByOrder.size());
+        partitionsByOrder.forEach((orderId, partitions) -> {
+            assertEquals(Set.of(SagaAffinityPartitioner.partitionFor(orderId, PARTITIONS)), partitions,
+                "events of " + orderId + " spread over partitions " + partitions);
+        });
+    }
+    
+    @Test
+    void shouldCoPartitionEventsOfACustomerWhenKeyedByCustomer(EmbeddedKafkaBroker broker) throws Exception {
+        // Given
+        Map<String, Set<Integer>> partitionsByCustomer = new HashMap<>();
+        
+        // When - events without a customer id are keyed by customer, the others are keyed by order
+        try (KafkaProducer<String, BaseEvent> producer = producer(broker, PartitionAffinity.CUSTOMER)) {
+            for (int i = 0; i < ORDERS; i++) {
+                String orderId = "order-" + i;
+                String customerId = "customer-" + (i % 7);
+                for (BaseEvent event : sagaEvents(orderId, customerId)) {
+                    String key = event instanceof CustomerScoped ? orderId : customerId;
+                    int partition = producer.send(new ProducerRecord<>(topicOf(event), key, event)).get().partition();
+                    partitionsByCustomer.computeIfAbsent(customerId, id -> new HashSet<>()).add(partition);
+                }
+            }
+        }
+        
+        // Then
+        partitionsByCustomer.forEach((customerId, partitions) -> {
+            assertEquals(Set.of(SagaAffinityPartitioner.partitionFor(customerId, PARTITIONS)), partitions,
+                "events of " + customerId + " spread over partitions " + partitions);
+        });
+    }
+    
+    private static KafkaProducer<String, BaseEvent> producer(EmbeddedKafkaBroker broker, PartitionAffinity affinity) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, SagaAffinityPartitioner.class);
+        props.put(SagaAffinityPartitioner.AFFINITY_CONFIG, affinity.name());
+        return new KafkaProducer<>(props, new StringSerializer(), new EventJsonSerializer(new EventJsonCodec()));
+    }
+    
+    private static List<BaseEvent> sagaEvents(String orderId, String customerId) {
+        return List.of(
+            new OrderCreatedEvent("corr-" + orderId, orderId, customerId,
+                List.of(new OrderItem("product-1", "Product", 1, new BigDecimal("10.00"))), new BigDecimal("10.00")),
+            new InventoryReservedEvent("corr-" + orderId, orderId, Map.of("product-1", 1)),
+            new InventoryInsufficientEvent("corr-" + orderId, orderId, Map.of("product-1", 1), "out of stock"),
+            new PaymentProcessedEvent("corr-" + orderId, orderId, "payment-" + orderId,
+                new BigDecimal("10.00"), PaymentStatus.COMPLETED),
+            new PaymentFailedEvent("corr-" + orderId, orderId, "payment-" + orderId, new BigDecimal("10.00"), "declined"),
+            new OrderCancelledEvent("corr-" + orderId, orderId, "payment declined"),
+            new NotificationSentEvent("corr-" + orderId, orderId, customerId,
+                NotificationType.ORDER_CONFIRMATION, "sent", true)
+        );
+    }
+    
+    private static String topicOf(BaseEvent event) {
+        return switch (event.getEventType()) {
+            case "ORDER_CREATED" -> KafkaTopics.ORDER_CREATED;
+            case "ORDER_CANCELLED" -> KafkaTopics.ORDER_CANCELLED;
+            case "INVENTORY_RESERVED" -> KafkaTopics.INVENTORY_RESERVED;
+            case "INVENTORY_INSUFFICIENT" -> KafkaTopics.INVENTORY_INSUFFICIENT;
+            case "PAYMENT_PROCESSED" -> KafkaTopics.PAYMENT_PROCESSED;
+            case "PAYMENT_FAILED" -> KafkaTopics.PAYMENT_FAILED;
+            case "NOTIFICATION_SENT" -> KafkaTopics.NOTIFICATION_SENT;
+            default -> throw new IllegalArgumentException(event.getEventType());
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.ecommerce.shared.priority;
+
+import com.ecommerce.shared.config.KafkaTopics;
+import com.ecommerce.shared.enums.OrderPriority;
+import com.ecommerce.shared.events.BaseEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedLaneSchedulerTest {
+    
+    private final WeightedLaneScheduler scheduler = new WeightedLaneScheduler(1,
+        Map.of(OrderPriority.EXPRESS, 3, OrderPriority.STANDARD, 1));
+    
+    @Test
+    void shouldGrantSlotsInProportionToLaneWeights() throws Exception {
+        // Given
+        List<OrderPriority> grants = new CopyOnWriteArrayList<>();
+        WeightedLaneScheduler.Permit held = scheduler.acquire(OrderPriority.STANDARD);
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            waiters.add(waiter(OrderPriority.STANDARD, grants));
+            waiters.add(waiter(OrderPriority.EXPRESS, grants));
+        }
+        awaitWaiting(4, 4);
+        
+        // When
+        held.close();
+        for (Thread waiter : waiters) {
+            waiter.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        
+        // Then
+        assertEquals(List.of(
+            OrderPriority.EXPRESS, OrderPriority.EXPRESS, OrderPriority.EXPRESS, OrderPriority.STANDARD,
+            OrderPriority.EXPRESS, OrderPriority.STANDARD, OrderPriority.STANDARD, OrderPriority.STANDARD), grants);
+        assertEquals(1, scheduler.available());
+    }
+    
+    @Test
+    void shouldPassNullValueRecordsWithoutTakingASlot() {
+        // Given
+        PriorityLaneInterceptor interceptor = new PriorityLaneInterceptor(scheduler);
+        ConsumerRecord<String, BaseEvent> tombstone =
+            new ConsumerRecord<>(KafkaTopics.ORDER_CREATED, 0, 0, "order-1", null);
+        
+        // When
+        ConsumerRecord<String, BaseEvent> passed = interceptor.intercept(tombstone, null);
+        
+        // Then
+        assertSame(tombstone, passed);
+        assertEquals(1, scheduler.available());
+    }
+    
+    @Test
+    void shouldLetAnIdleLaneForfeitItsShare() throws Exception {
+        // Given
+        WeightedLaneScheduler wide = new WeightedLaneScheduler(3,
+            Map.of(OrderPriority.EXPRESS, 3, OrderPriority.STANDARD, 1));
+        
+        // When
+        WeightedLaneScheduler.Permit first = wide.acquire(OrderPriority.STANDARD);
+        WeightedLaneScheduler.Permit second = wide.acquire(OrderPriority.STANDARD);
+        WeightedLaneScheduler.Permit third = wide.acquire(OrderPriority.STANDARD);
+        
+        // Then
+        assertEquals(0, wide.available());
+        first.close();
+        second.close();
+        third.close();
+        third.close();
+        assertEquals(3, wide.available());
+    }
+    
+    @Test
+    void shouldGiveUpWaitingWhenInterrupted() throws Exception {
+        // Given
+        WeightedLaneScheduler.Permit held = scheduler.acquire(OrderPriority.STANDARD);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                scheduler.acquire(OrderPriority.EXPRESS);
+            } catch (InterruptedException e) {
+                failures.add(e);
+            }
+        });
+        waiter.start();
+        awaitWaiting(1, 0);
+        
+        // When
+        waiter.interrupt();
+        waiter.join(TimeUnit.SECONDS.toMillis(5));
+        held.close();
+        
+        // Then
+        assertEquals(1, failures.size());
+        assertEquals(0, scheduler.waiting(OrderPriority.EXPRESS));
+        assertEquals(1, scheduler.available());
+    }
+    
+    private Thread waiter(OrderPriority priority, List<OrderPriority> grants) {
+        Thread thread = new Thread(() -> {
+            try (WeightedLaneScheduler.Permit ignored = scheduler.acquire(priority)) {
+                grants.add(priority);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+    
+    private void awaitWaiting(int express, int standard) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((scheduler.waiting(OrderPriority.EXPRESS) != express
+                || scheduler.waiting(OrderPriority.STANDARD) != standard) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(express, scheduler.waiting(OrderPriority.EXPRESS));
+        assertEquals(standard, scheduler.waiting(OrderPriority.STANDARD));
+    }
+}
\ No newline at end of file
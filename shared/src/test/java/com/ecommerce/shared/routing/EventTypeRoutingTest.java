@@ -0,0 +1,128 @@
+package com.ecommerce.shared.routing;
+
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.codec.EventJsonDeserializer;
+import com.ecommerce.shared.codec.EventJsonSerializer;
+import com.ecommerce.shared.config.EventHeaders;
+import com.ecommerce.shared.enums.PaymentStatus;
+import com.ecommerce.shared.events.BaseEvent;
+import com.ecommerce.shared.events.OrderCancelledEvent;
+import com.ecommerce.shared.events.PaymentProcessedEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventTypeRoutingTest {
+    
+    private final EventJsonCodec codec = new EventJsonCodec();
+    private final EventJsonSerializer serializer = new EventJsonSerializer(codec);
+    
+    @Test
+    void shouldStampRoutingHeadersOnSerialize() {
+        // Given
+        OrderCancelledEvent event = new OrderCancelledEvent("corr-1", "order-1", "customer request");
+        RecordHeaders headers = new RecordHeaders();
+        
+        // When
+        serializer.serialize("topic", headers, event);
+        
+        // Then
+        assertEquals("ORDER_CANCELLED", header(headers, EventHeaders.EVENT_TYPE));
+        assertEquals(String.valueOf(EventHeaders.CURRENT_SCHEMA_VERSION), header(headers, EventHeaders.SCHEMA_VERSION));
+        assertEquals("corr-1", header(headers, EventHeaders.CORRELATION_ID));
+    }
+    
+    @Test
+    void shouldSkipDeserializationOfFilteredEventTypes() {
+        // Given
+        EventTypeFilter filter = EventTypeFilter.of(List.of("PAYMENT_PROCESSED"));
+        EventJsonDeserializer deserializer = new EventJsonDeserializer(codec, filter);
+        RecordHeaders headers = new RecordHeaders();
+        serializer.serialize("topic", headers, new OrderCancelledEvent("corr-1", "order-1", "customer request"));
+        byte[] malformed = "not json".getBytes(StandardCharsets.UTF_8);
+        
+        // When
+        BaseEvent skipped = deserializer.deserialize("topic", headers, malformed);
+        
+        // Then
+        assertNull(skipped);
+        assertTrue(filter.filter(record(headers, skipped)));
+    }
+    
+    @Test
+    void shouldAcceptRecordsWithoutEventTypeHeader() {
+        // Given
+        EventTypeFilter filter = EventTypeFilter.of(List.of("PAYMENT_PROCESSED"));
+        EventJsonDeserializer deserializer = new EventJsonDeserializer(codec, filter);
+        OrderCancelledEvent event = new OrderCancelledEvent("corr-1", "order-1", "customer request");
+        
+        // When
+        BaseEvent deserialized = deserializer.deserialize("topic", new RecordHeaders(), serializer.serialize("topic", event));
+        
+        // Then
+        assertInstanceOf(OrderCancelledEvent.class, deserialized);
+        assertFalse(filter.filter(record(new RecordHeaders(), deserialized)));
+    }
+    
+    @Test
+    void shouldTreatEmptyEventTypeListAsAcceptAll() {
+        assertTrue(EventTypeFilter.of(List.of()).acceptsAll());
+        assertTrue(EventTypeFilter.of(List.of("")).acceptsAll());
+        assertFalse(EventTypeFilter.of(List.of("ORDER_CREATED")).acceptsAll());
+    }
+    
+    @Test
+    void shouldDispatchByHeaderAndFallBackToPayloadType() {
+        // Given
+        List<String> handled = new ArrayList<>();
+        List<BaseEvent> unhandled = new ArrayList<>();
+        EventTypeRouter router = EventTypeRouter.builder(codec)
+            .on(PaymentProcessedEvent.class, event -> handled.add("payment:" + event.getPaymentId()))
+            .on(OrderCancelledEvent.class, event -> handled.add("cancelled:" + event.getOrderId()))
+            .otherwise(unhandled::add)
+            .build();
+        PaymentProcessedEvent payment = new PaymentProcessedEvent("corr-1", "order-1", "payment-1",
+            new BigDecimal("10.00"), PaymentStatus.COMPLETED);
+        OrderCancelledEvent cancelled = new OrderCancelledEvent("corr-2", "order-2", "customer request");
+        RecordHeaders paymentHeaders = new RecordHeaders();
+        serializer.serialize("topic", paymentHeaders, payment);
+        
+        // When
+        boolean paymentRouted = router.dispatch(record(paymentHeaders, payment));
+        boolean cancelledRouted = router.dispatch(record(new RecordHeaders(), cancelled));
+        
+        // Then
+        assertTrue(paymentRouted);
+        assertTrue(cancelledRouted);
+        assertEquals(List.of("payment:payment-1", "cancelled:order-2"), handled);
+        assertTrue(unhandled.isEmpty());
+        assertTrue(router.toFilter().accepts("ORDER_CANCELLED".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(router.toFilter().accepts("ORDER_CREATED".getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    @Test
+    void shouldRejectDuplicateHandlerRegistration() {
+        EventTypeRouter.Builder builder = EventTypeRouter.builder(codec)
+            .on(OrderCancelledEvent.class, event -> { });
+        
+        assertThrows(IllegalStateException.class, () -> builder.on(OrderCancelledEvent.class, event -> { }));
+    }
+    
+    private static String header(RecordHeaders headers, String key) {
+        return new String(headers.lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+    
+    private static ConsumerRecord<String, BaseEvent> record(RecordHeaders headers, BaseEvent event) {
+        return new ConsumerRecord<>("topic", 0, 0L, ConsumerRecord.NO_TIMESTAMP, TimestampType.NO_TIMESTAMP_TYPE,
+            ConsumerRecord.NULL_SIZE, ConsumerRecord.NULL_SIZE, "key", event, headers, Optional.empty());
+    }
+}
\ No newline at end of file
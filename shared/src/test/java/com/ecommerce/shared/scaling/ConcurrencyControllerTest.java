@@ -0,0 +1,118 @@
+package com.ecommerce.shared.scaling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyControllerTest {
+    
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+    
+    private final ScalingPolicy policy = new ScalingPolicy(1, 8, 1000, 100, Duration.ofMillis(500), 2, 3,
+        Duration.ofSeconds(30));
+    private final ConcurrencyController controller = new ConcurrencyController(policy);
+    
+    @Test
+    void shouldDoubleConcurrencyAfterSustainedLag() {
+        // Given
+        ListenerLoad behind = new ListenerLoad(5000, 12, 20.0);
+        
+        // When
+        int afterOneSample = controller.evaluate(behind, 1, 0);
+        int afterTwoSamples = controller.evaluate(behind, 1, SECOND);
+        
+        // Then
+        assertEquals(1, afterOneSample);
+        assertEquals(2, afterTwoSamples);
+        assertEquals(ConcurrencyController.Decision.SCALE_UP, controller.getLastDecision());
+    }
+    
+    @Test
+    void shouldHoldDuringCooldown() {
+        // Given
+        ListenerLoad behind = new ListenerLoad(5000, 12, 20.0);
+        controller.evaluate(behind, 1, 0);
+        controller.evaluate(behind, 1, SECOND);
+        
+        // When
+        controller.evaluate(behind, 2, 2 * SECOND);
+        int duringCooldown = controller.evaluate(behind, 2, 3 * SECOND);
+        int afterCooldown = controller.evaluate(behind, 2, 40 * SECOND);
+        
+        // Then
+        assertEquals(2, duringCooldown);
+        assertEquals(4, afterCooldown);
+    }
+    
+    @Test
+    void shouldNotExceedAssignedPartitions() {
+        // Given
+        ListenerLoad behind = new ListenerLoad(5000, 3, 20.0);
+        
+        // When
+        controller.evaluate(behind, 2, 0);
+        int next = controller.evaluate(behind, 2, SECOND);
+        
+        // Then
+        assertEquals(3, next);
+    }
+    
+    @Test
+    void shouldHoldWhenRecordsAreSlow() {
+        // Given - the backlog comes from a slow dependency, not from too few consumers
+        ListenerLoad slow = new ListenerLoad(5000, 12, 2000.0);
+        
+        // When
+        controller.evaluate(slow, 2, 0);
+        int next = controller.evaluate(slow, 2, SECOND);
+        
+        // Then
+        assertEquals(2, next);
+        assertEquals(ConcurrencyController.Decision.HOLD_LATENCY, controller.getLastDecision());
+    }
+    
+    @Test
+    void shouldScaleDownOneAtATimeOnceCaughtUp() {
+        // Given
+        ListenerLoad caughtUp = new ListenerLoad(10, 12, 5.0);
+        
+        // When
+        controller.evaluate(caughtUp, 4, 0);
+        controller.evaluate(caughtUp, 4, SECOND);
+        int next = controller.evaluate(caughtUp, 4, 2 * SECOND);
+        
+        // Then
+        assertEquals(3, next);
+        assertEquals(ConcurrencyController.Decision.SCALE_DOWN, controller.getLastDecision());
+    }
+    
+    @Test
+    void shouldResetStreakWhenLagFallsBetweenThresholds() {
+        // Given
+        controller.evaluate(new ListenerLoad(5000, 12, 20.0), 1, 0);
+        
+        // When - lag inside the hysteresis band breaks the streak
+        controller.evaluate(new ListenerLoad(500, 12, 20.0), 1, SECOND);
+        int next = controller.evaluate(new ListenerLoad(5000, 12, 20.0), 1, 2 * SECOND);
+        
+        // Then
+        assertEquals(1, next);
+    }
+    
+    @Test
+    void shouldNeverGoBelowMinimum() {
+        // Given
+        ListenerLoad idle = new ListenerLoad(0, 12, Double.NaN);
+        
+        // When
+        int next = 1;
+        for (int i = 0; i < 10; i++) {
+            next = controller.evaluate(idle, next, i * SECOND);
+        }
+        
+        // Then
+        assertEquals(1, next);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.ecommerce.shared.scaling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedKafka(partitions = ListenerConcurrencyScalerTest.PARTITIONS, topics = ListenerConcurrencyScalerTest.TOPIC)
+class ListenerConcurrencyScalerTest {
+    
+    static final int PARTITIONS = 4;
+    static final String TOPIC = "scaling-test";
+    private static final int RECORDS = 2000;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadPoolExecutor workers = new ThreadPoolExecutor(2, 2, 1, TimeUnit.MINUTES,
+        new LinkedBlockingQueue<>());
+    private ConcurrentMessageListenerContainer<String, String> container;
+    
+    @AfterEach
+    void tearDown() {
+        if (container != null) {
+            container.stop();
+        }
+        workers.shutdownNow();
+    }
+    
+    @Test
+    void shouldAddConsumersUpToPartitionCountWhileSlowListenerFallsBehind(EmbeddedKafkaBroker broker) throws Exception {
+        // Given - a listener that needs 20 ms per record and a backlog it cannot drain alone
+        container = slowContainer(broker);
+        container.start();
+        publishBacklog(broker);
+        ScalingPolicy policy = new ScalingPolicy(1, 8, 50, 5, Duration.ofSeconds(1), 1, 2, Duration.ofMillis(500));
+        ListenerConcurrencyScaler scaler = new ListenerConcurrencyScaler(
+            () -> List.<MessageListenerContainer>of(container), policy, meterRegistry, Duration.ofMillis(100));
+        scaler.registerWorkerPool("slow-listener", workers, 2, 6);
+        
+        // When
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (container.getConcurrency() < PARTITIONS && System.nanoTime() < deadline) {
+            scaler.sample();
+            Thread.sleep(200);
+        }
+        
+        // Then
+        assertEquals(PARTITIONS, container.getConcurrency());
+        assertTrue(container.isRunning());
+        assertEquals(6, workers.getMaximumPoolSize());
+        assertEquals(PARTITIONS, meterRegistry.get(ListenerConcurrencyScaler.CONCURRENCY)
+            .tag("listener", "slow-listener").gauge().value());
+        assertTrue(meterRegistry.get(ListenerConcurrencyScaler.DECISIONS)
+            .tags("listener", "slow-listener", "decision", "scale_up").counter().count() >= 2);
+        
+        // And it never scales past the partition count
+        for (int i = 0; i < 5; i++) {
+            scaler.sample();
+            Thread.sleep(200);
+        }
+        assertTrue(container.getConcurrency() <= PARTITIONS);
+    }
+    
+    private static ConcurrentMessageListenerContainer<String, String> slowContainer(EmbeddedKafkaBroker broker) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("scaling-test-group", "false", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10);
+        DefaultKafkaConsumerFactory<String, String> consumerFactory = new DefaultKafkaConsumerFactory<>(props,
+            new StringDeserializer(), new StringDeserializer());
+        
+        ContainerProperties containerProperties = new ContainerProperties(TOPIC);
+        containerProperties.setMessageListener((MessageListener<String, String>) record -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ConcurrentMessageListenerContainer<String, String> container =
+            new ConcurrentMessageListenerContainer<>(consumerFactory, containerProperties);
+        container.setBeanName("slow-listener");
+        container.setConcurrency(1);
+        return container;
+    }
+    
+    private static void publishBacklog(EmbeddedKafkaBroker broker) throws Exception {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(props, new StringSerializer(),
+                new StringSerializer())) {
+            for (int i = 0; i < RECORDS; i++) {
+                producer.send(new ProducerRecord<>(TOPIC, "key-" + i, "value-" + i));
+            }
+            producer.flush();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.ecommerce.shared.state;
+
+import com.ecommerce.shared.codec.EventJsonCodec;
+import com.ecommerce.shared.enums.OrderStatus;
+import com.ecommerce.shared.events.OrderCreatedEvent;
+import com.ecommerce.shared.model.Money;
+import com.ecommerce.shared.model.OrderItem;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStateCodecTest {
+    
+    private final OrderStateSnapshot snapshot = new OrderStateSnapshot("order-1", "customer-1",
+        OrderStatus.PAYMENT_PROCESSED, Money.ofMinor(4_799, Currency.getInstance("EUR")), 3,
+        LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_000_000), LocalDateTime.of(2024, 1, 1, 12, 0, 5));
+    
+    @Test
+    void shouldRoundTripSnapshot() {
+        // When
+        OrderStateSnapshot decoded = OrderStateCodec.decode(OrderStateCodec.encode(snapshot));
+        
+        // Then
+        assertEquals(snapshot, decoded);
+    }
+    
+    @Test
+    void shouldBeSmallerThanTheOrderCreatedEvent() throws Exception {
+        // Given
+        OrderCreatedEvent event = new OrderCreatedEvent("correlation-1", "order-1", "customer-1", List.of(
+            new OrderItem("prod-1", "Product 1", 2, new BigDecimal("10.50")),
+            new OrderItem("prod-2", "Product 2", 1, new BigDecimal("25.99")),
+            new OrderItem("prod-3", "Product 3", 1, new BigDecimal("1.00"))), new BigDecimal("47.99"));
+        
+        // When
+        int snapshotBytes = OrderStateCodec.encode(snapshot).length;
+        int eventBytes = new EventJsonCodec().serialize(event).length;
+        
+        // Then
+        assertTrue(snapshotBytes * 4 < eventBytes, snapshotBytes + " vs " + eventBytes);
+    }
+    
+    @Test
+    void shouldRejectUnknownFormatAndTruncatedData() {
+        // Given
+        byte[] encoded = OrderStateCodec.encode(snapshot);
+        byte[] future = encoded.clone();
+        future[0] = 2;
+        OrderStateDeserializer deserializer = new OrderStateDeserializer();
+        
+        // When & Then
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("order-state", future));
+        assertThrows(SerializationException.class,
+            () -> deserializer.deserialize("order-state", Arrays.copyOf(encoded, encoded.length - 1)));
+        assertNull(deserializer.deserialize("order-state", null));
+    }
+    
+    @Test
+    void shouldKeepNewestSnapshot() {
+        // Given
+        OrderStateSnapshot older = new OrderStateSnapshot("order-1", "customer-1", OrderStatus.CREATED,
+            snapshot.totalAmount(), 3, snapshot.createdAt(), snapshot.createdAt());
+        
+        // Then
+        assertTrue(snapshot.isNewerThan(older));
+        assertFalse(older.isNewerThan(snapshot));
+        assertTrue(older.isNewerThan(null));
+    }
+}
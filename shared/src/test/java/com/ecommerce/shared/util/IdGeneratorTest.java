@@ -0,0 +1,94 @@
+package com.ecommerce.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdGeneratorTest {
+    
+    @Test
+    void shouldGenerateVersion7Uuids() {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> 1_700_000_000_000L);
+        
+        // When
+        UUID uuid = UUID.fromString(generator.nextId());
+        
+        // Then
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(1_700_000_000_000L, TimeOrderedIdGenerator.timestampOf(uuid.getMostSignificantBits()));
+    }
+    
+    @Test
+    void shouldStayMonotonicWithinAMillisecondAndWhenClockGoesBack() {
+        // Given
+        long[] now = {1_700_000_000_000L};
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> now[0]);
+        
+        // When / Then
+        long previous = generator.nextHigh();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                now[0] -= 1_000;
+            }
+            long next = generator.nextHigh();
+            assertTrue(Long.compareUnsigned(next, previous) > 0);
+            previous = next;
+        }
+    }
+    
+    @Test
+    void shouldRoundTripBinaryForm() {
+        // Given
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        
+        // When
+        new TimeOrderedIdGenerator().nextId(buffer);
+        buffer.flip();
+        String formatted = Ids.format(buffer.duplicate());
+        
+        // Then
+        UUID uuid = UUID.fromString(formatted);
+        assertEquals(buffer.getLong(0), uuid.getMostSignificantBits());
+        assertEquals(buffer.getLong(8), uuid.getLeastSignificantBits());
+        assertEquals(uuid.toString(), formatted);
+    }
+    
+    @Test
+    void shouldGenerateUniqueIdsAcrossThreads() throws Exception {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        
+        // When
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        
+        // Then
+        assertEquals(80_000, ids.size());
+    }
+    
+    @Test
+    void shouldBuildCorrelationIdFromOrderId() {
+        String correlationId = CorrelationIdGenerator.generateFromOrderId("ORDER-123");
+        
+        assertTrue(correlationId.matches("order-ORDER-123-[0-9a-f]{8}"));
+    }
+}
\ No newline at end of file